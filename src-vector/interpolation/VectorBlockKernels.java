@@ -0,0 +1,67 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The block kernels on the incubating Vector API, with the widest species the CPU supports.
+ * The linear kernel gathers the knot, value and slope of each query's interval with indexed
+ * loads. Like {@code matrices.VectorKernels}, this class only compiles with
+ * {@code --add-modules jdk.incubator.vector} and is loaded by name.
+ */
+final class VectorBlockKernels implements BlockKernelSet {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public void horner(double[] p, double[] t, int length, double node, double coefficient) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, p, i)
+                    .fma(DoubleVector.fromArray(SPECIES, t, i).sub(node), DoubleVector.broadcast(SPECIES, coefficient))
+                    .intoArray(p, i);
+        }
+        for (; i < length; i++) {
+            p[i] = p[i] * (t[i] - node) + coefficient;
+        }
+    }
+
+    @Override
+    public void barycentric(double[] t, double[] numerator, double[] denominator, int length,
+                            double node, double weight, double value) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+            DoubleVector term = DoubleVector.broadcast(SPECIES, weight).div(DoubleVector.fromArray(SPECIES, t, i).sub(node));
+            term.fma(DoubleVector.broadcast(SPECIES, value), DoubleVector.fromArray(SPECIES, numerator, i))
+                    .intoArray(numerator, i);
+            term.add(DoubleVector.fromArray(SPECIES, denominator, i)).intoArray(denominator, i);
+        }
+        for (; i < length; i++) {
+            double term = weight / (t[i] - node);
+            numerator[i] += term * value;
+            denominator[i] += term;
+        }
+    }
+
+    @Override
+    public void linear(double[] xs, int xOffset, int[] interval, double[] x, double[] y, double[] slopes,
+                       double[] ys, int yOffset, int length) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(length); k < bound; k += LANES) {
+            DoubleVector knot = DoubleVector.fromArray(SPECIES, x, 0, interval, k);
+            DoubleVector value = DoubleVector.fromArray(SPECIES, y, 0, interval, k);
+            DoubleVector slope = DoubleVector.fromArray(SPECIES, slopes, 0, interval, k);
+            DoubleVector.fromArray(SPECIES, xs, xOffset + k).sub(knot).fma(slope, value).intoArray(ys, yOffset + k);
+        }
+        for (; k < length; k++) {
+            int i = interval[k];
+            ys[yOffset + k] = y[i] + slopes[i] * (xs[xOffset + k] - x[i]);
+        }
+    }
+}
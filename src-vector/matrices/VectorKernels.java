@@ -0,0 +1,95 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The kernels on the incubating Vector API, with the widest species the CPU supports
+ * (4 doubles with AVX2, 8 with AVX-512). Reductions keep two vector accumulators to hide the
+ * latency of the fused multiply-add, and every kernel finishes the last partial vector with a
+ * scalar loop. Segments shorter than one vector go straight to that loop.
+ * <p>
+ * This class lives in its own source root because it only compiles with
+ * {@code --add-modules jdk.incubator.vector}; {@link Kernels} loads it by name when the module
+ * is present at run time.
+ */
+final class VectorKernels implements KernelSet {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int i = 0;
+        double sum = 0;
+        if (length >= 2 * LANES) {
+            DoubleVector s0 = DoubleVector.zero(SPECIES);
+            DoubleVector s1 = DoubleVector.zero(SPECIES);
+            for (; i <= length - 2 * LANES; i += 2 * LANES) {
+                s0 = DoubleVector.fromArray(SPECIES, x, xOffset + i)
+                        .fma(DoubleVector.fromArray(SPECIES, y, yOffset + i), s0);
+                s1 = DoubleVector.fromArray(SPECIES, x, xOffset + i + LANES)
+                        .fma(DoubleVector.fromArray(SPECIES, y, yOffset + i + LANES), s1);
+            }
+            sum = s0.add(s1).reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length; i++) {
+            sum += x[xOffset + i] * y[yOffset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int i = 0;
+        if (length >= LANES) {
+            DoubleVector a = DoubleVector.broadcast(SPECIES, alpha);
+            for (int bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+                DoubleVector.fromArray(SPECIES, x, xOffset + i)
+                        .fma(a, DoubleVector.fromArray(SPECIES, y, yOffset + i))
+                        .intoArray(y, yOffset + i);
+            }
+        }
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public double absSum(double[] x, int offset, int length) {
+        int i = 0;
+        double sum = 0;
+        if (length >= 2 * LANES) {
+            DoubleVector s0 = DoubleVector.zero(SPECIES);
+            DoubleVector s1 = DoubleVector.zero(SPECIES);
+            for (; i <= length - 2 * LANES; i += 2 * LANES) {
+                s0 = s0.add(DoubleVector.fromArray(SPECIES, x, offset + i).abs());
+                s1 = s1.add(DoubleVector.fromArray(SPECIES, x, offset + i + LANES).abs());
+            }
+            sum = s0.add(s1).reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length; i++) {
+            sum += Math.abs(x[offset + i]);
+        }
+        return sum;
+    }
+
+    @Override
+    public void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, aOffset + i)
+                    .sub(DoubleVector.fromArray(SPECIES, b, bOffset + i))
+                    .intoArray(out, outOffset + i);
+        }
+        for (; i < length; i++) {
+            out[outOffset + i] = a[aOffset + i] - b[bOffset + i];
+        }
+    }
+}
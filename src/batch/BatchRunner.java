@@ -0,0 +1,319 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package batch;
+
+import interpolation.Interpolation;
+import matrices.DenseMatrix;
+import matrices.LUFactorization;
+import matrices.MatrixFile;
+import matrices.matrixOperations;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Non-interactive driver that runs a stream of matrix jobs, one per line, from a job file or stdin.
+ * <pre>
+ * # comment
+ * matrix A 3 3  1 -1 -2  2 -3 -5  -1 3 5     define A inline (rows, cols, values row by row)
+ * vector b 1 2 3                            define b as a column vector
+ * load M data/m.mtx                         load a binary matrix file or a Matrix Market file
+ * write M out/m.mat                         save M as a binary matrix file
+ * invert B A                                B = A^-1
+ * multiply C A B                            C = A * B
+ * solve x A b                               x = A^-1 b, through the LU factorization
+ * norm A                                    print the infinity norm of A
+ * condition A                               print the infinity-norm condition number of A, ||A|| ||A^-1||
+ * interpolate lagrange P 2.5                evaluate linear, polynomial or lagrange through the rows of P
+ * print A                                   print A
+ * </pre>
+ * Parsing, computing and writing run on separate threads: the calling thread parses lines and
+ * chains each job onto the futures of the matrices it reads, so independent jobs run
+ * concurrently on the pool while dependent ones wait only for their inputs. Jobs that
+ * parallelize internally fork into the same pool, so it bounds all of the work; a writer thread
+ * prints one result per job in input order. A failed job prints an error line, and so does
+ * every job that depends on its result.
+ * <p>
+ * Usage: {@code BatchRunner [--threads n] [jobFile | -]}.
+ */
+public class BatchRunner {
+    /**
+     * Largest number of jobs parsed ahead of the writer; the parser blocks beyond this.
+     */
+    private static final int MAX_PENDING = 1 << 16;
+
+    private static final CompletableFuture<String> END = CompletableFuture.completedFuture(null);
+
+    private final ForkJoinPool pool;
+    private final Map<String, CompletableFuture<DenseMatrix>> names = new HashMap<>();
+    private final BlockingQueue<CompletableFuture<String>> results = new ArrayBlockingQueue<>(MAX_PENDING);
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * @param pool the pool that runs the jobs
+     */
+    public BatchRunner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String jobFile = "-";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                jobFile = args[i];
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long failures;
+        try (BufferedReader in = jobFile.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(jobFile));
+             Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)) {
+            long start = System.nanoTime();
+            BatchRunner runner = new BatchRunner(pool);
+            long jobs = runner.run(in, out);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            failures = runner.failures();
+            System.err.printf("%d jobs, %d failed, %.3f s, %.0f jobs/s%n", jobs, failures, seconds, jobs / seconds);
+        } finally {
+            pool.shutdown();
+        }
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs every job read from in and writes one result per job to out, in input order.
+     *
+     * @param in  the job stream
+     * @param out where the results go
+     * @return the number of jobs run
+     * @throws IOException          if reading the jobs or writing the results fails
+     * @throws InterruptedException if interrupted while waiting for the writer
+     */
+    public long run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        IOException[] writeError = new IOException[1];
+        Thread writer = new Thread(() -> {
+            try {
+                for (CompletableFuture<String> result = results.take(); result != END; result = results.take()) {
+                    // After a write error keep draining, so the parser never blocks on a full queue
+                    if (writeError[0] == null) {
+                        try {
+                            out.write(result.join());
+                            out.write('\n');
+                        } catch (IOException e) {
+                            writeError[0] = e;
+                        }
+                    }
+                }
+                if (writeError[0] == null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                writeError[0] = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "batch-writer");
+        writer.start();
+
+        long jobs = 0;
+        try {
+            String line;
+            for (int lineNumber = 1; (line = in.readLine()) != null; lineNumber++) {
+                CompletableFuture<String> result = submit(lineNumber, line);
+                if (result != null) {
+                    results.put(result);
+                    jobs++;
+                }
+            }
+        } finally {
+            results.put(END);
+            writer.join();
+        }
+        if (writeError[0] != null) {
+            throw writeError[0];
+        }
+        return jobs;
+    }
+
+    /**
+     * @return the number of jobs that have failed so far
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    /**
+     * Parses one line and schedules its job.
+     *
+     * @return the future text of the job's output, or null for blank and comment lines
+     */
+    private CompletableFuture<String> submit(int lineNumber, String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        String[] words = trimmed.split("\\s+");
+        CompletableFuture<String> result;
+        try {
+            result = schedule(words);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.handle((text, error) -> {
+            if (error == null) {
+                return text;
+            }
+            failures.incrementAndGet();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return "line " + lineNumber + ": error: " + cause.getMessage();
+        });
+    }
+
+    private CompletableFuture<String> schedule(String[] words) {
+        switch (words[0]) {
+            case "matrix": {
+                expect(words, 4, Integer.MAX_VALUE);
+                int rows = Integer.parseInt(words[2]);
+                int cols = Integer.parseInt(words[3]);
+                if (words.length != 4 + rows * cols) {
+                    throw new IllegalArgumentException("Expected " + rows * cols + " values for a "
+                            + rows + "x" + cols + " matrix, got " + (words.length - 4) + ".");
+                }
+                DenseMatrix matrix = new DenseMatrix(rows, cols);
+                for (int k = 0; k < rows * cols; k++) {
+                    matrix.data()[k] = Double.parseDouble(words[4 + k]);
+                }
+                return define(words[1], CompletableFuture.completedFuture(matrix));
+            }
+            case "vector": {
+                expect(words, 3, Integer.MAX_VALUE);
+                DenseMatrix vector = new DenseMatrix(words.length - 2, 1);
+                for (int k = 0; k < vector.rows(); k++) {
+                    vector.data()[k] = Double.parseDouble(words[2 + k]);
+                }
+                return define(words[1], CompletableFuture.completedFuture(vector));
+            }
+            case "load": {
+                expect(words, 3, 3);
+                Path path = Path.of(words[2]);
+                return define(words[1], CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return MatrixFile.load(path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e.getMessage(), e);
+                    }
+                }, pool));
+            }
+            case "write": {
+                expect(words, 3, 3);
+                Path path = Path.of(words[2]);
+                return lookup(words[1]).thenApplyAsync(matrix -> {
+                    try {
+                        MatrixFile.write(path, matrix);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e.getMessage(), e);
+                    }
+                    return "write " + words[1] + " " + path;
+                }, pool);
+            }
+            case "invert":
+                expect(words, 3, 3);
+                return define(words[1], lookup(words[2]).thenApplyAsync(A -> matrixOperations.inverseMatrix(A, pool), pool));
+            case "multiply":
+                expect(words, 4, 4);
+                return define(words[1], lookup(words[2]).thenCombineAsync(lookup(words[3]),
+                        (A, B) -> matrixOperations.matricesMultiplication(A, B, pool), pool));
+            case "solve":
+                expect(words, 4, 4);
+                return define(words[1], lookup(words[2]).thenCombineAsync(lookup(words[3]), (A, B) -> {
+                    DenseMatrix X = new DenseMatrix(B.rows(), B.cols());
+                    LUFactorization.factor(A, pool).solve(B, X, pool);
+                    return X;
+                }, pool));
+            case "norm":
+                expect(words, 2, 2);
+                return value(words, lookup(words[1]).thenApplyAsync(matrixOperations::matrixInfinityNorm, pool));
+            case "condition":
+                expect(words, 2, 2);
+                return value(words, lookup(words[1]).thenApplyAsync(A -> matrixOperations.condition(A, pool), pool));
+            case "interpolate": {
+                expect(words, 4, 4);
+                Function<double[], Double> method = interpolation(words[1], Double.parseDouble(words[3]));
+                return value(words, lookup(words[2]).thenApplyAsync(points -> {
+                    if (points.cols() != 2) {
+                        throw new IllegalArgumentException("Points must be an n x 2 matrix of (x, y) rows.");
+                    }
+                    return method.apply(points.copy().data());
+                }, pool));
+            }
+            case "print":
+                expect(words, 2, 2);
+                return lookup(words[1]).thenApply(matrix -> words[1] + " =\n" + matrix.toString().stripTrailing());
+            default:
+                throw new IllegalArgumentException("Unknown command '" + words[0] + "'.");
+        }
+    }
+
+    private static Function<double[], Double> interpolation(String method, double x) {
+        switch (method) {
+            case "linear":
+                return points -> Interpolation.linearInterpolation(points, x);
+            case "polynomial":
+                return points -> Interpolation.polynomialInterpolation(points, x);
+            case "lagrange":
+                return points -> Interpolation.lagrangeInterpolation(points, x);
+            default:
+                throw new IllegalArgumentException("Unknown interpolation '" + method + "'.");
+        }
+    }
+
+    /**
+     * Binds a name to the future result of a job; jobs parsed later see the new binding.
+     */
+    private CompletableFuture<String> define(String name, CompletableFuture<DenseMatrix> matrix) {
+        names.put(name, matrix);
+        return matrix.thenApply(m -> name + ": " + m.rows() + "x" + m.cols());
+    }
+
+    private CompletableFuture<DenseMatrix> lookup(String name) {
+        CompletableFuture<DenseMatrix> matrix = names.get(name);
+        if (matrix == null) {
+            throw new IllegalArgumentException("No matrix named '" + name + "'.");
+        }
+        return matrix;
+    }
+
+    private static CompletableFuture<String> value(String[] words, CompletableFuture<Double> value) {
+        String label = String.join(" ", words);
+        return value.thenApply(v -> label + " = " + v);
+    }
+
+    private static void expect(String[] words, int min, int max) {
+        if (words.length < min || words.length > max) {
+            throw new IllegalArgumentException("Wrong number of arguments for '" + words[0] + "'.");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.DenseMatrix;
+import matrices.MatrixMultiplication;
+
+import java.util.Random;
+
+/**
+ * Compares the blocked, multi-threaded GEMM engine with the naive i-j-k triple loop
+ * for square sizes from 64 to 4096 and reports GFLOP/s (2n^3 flops per product).
+ * Usage: {@code GemmBenchmark [maxN] [maxNaiveN]}.
+ */
+public class GemmBenchmark {
+    private static final double MIN_SECONDS = 0.5;
+
+    public static void main(String[] args) {
+        int maxN = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int maxNaiveN = args.length > 1 ? Integer.parseInt(args[1]) : maxN;
+
+        System.out.printf("%6s %14s %14s%n", "n", "naive GFLOP/s", "GEMM GFLOP/s");
+        for (int n = 64; n <= maxN; n *= 2) {
+            DenseMatrix A = random(n, 1);
+            DenseMatrix B = random(n, 2);
+            DenseMatrix C = new DenseMatrix(n, n);
+            double flops = 2.0 * n * n * n;
+
+            double naive = Double.NaN;
+            if (n <= maxNaiveN) {
+                naive = flops / time(() -> naive(A, B, C)) / 1e9;
+            }
+            double gemm = flops / time(() -> MatrixMultiplication.multiply(1.0, A, B, 0.0, C)) / 1e9;
+            System.out.printf("%6d %14.2f %14.2f%n", n, naive, gemm);
+        }
+    }
+
+    /**
+     * The loop order used by matrixOperations.matricesMultiplication, on flat storage.
+     */
+    private static void naive(DenseMatrix A, DenseMatrix B, DenseMatrix C) {
+        int n = A.rows();
+        double[] a = A.data();
+        double[] b = B.data();
+        double[] c = C.data();
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++) {
+                double sum = 0;
+                for (int k = 0; k < n; k++)
+                    sum += a[i * n + k] * b[k * n + j];
+                c[i * n + j] = sum;
+            }
+    }
+
+    /**
+     * Runs the action once to warm up, then repeatedly until MIN_SECONDS have passed,
+     * and returns the fastest single run in seconds.
+     */
+    private static double time(Runnable action) {
+        action.run();
+        double best = Double.MAX_VALUE;
+        long deadline = System.nanoTime() + (long) (MIN_SECONDS * 1e9);
+        do {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+        } while (System.nanoTime() < deadline);
+        return best;
+    }
+
+    private static DenseMatrix random(int n, long seed) {
+        Random random = new Random(seed);
+        DenseMatrix matrix = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, random.nextDouble() - 0.5);
+            }
+        }
+        return matrix;
+    }
+}
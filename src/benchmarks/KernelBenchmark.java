@@ -0,0 +1,81 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.Kernels;
+
+import java.util.Random;
+
+/**
+ * Measures the {@link Kernels} entry points in GFLOP/s (element operations per nanosecond for
+ * absSum and subtract) on vectors of several lengths, with the inputs at unequal offsets as in
+ * the LU row updates. Run it once as is and once with
+ * {@code --add-modules jdk.incubator.vector} (and src-vector compiled) to compare the scalar
+ * and the Vector API kernels; the first line names the implementation in use.
+ * Usage: {@code KernelBenchmark [length...]}.
+ */
+public class KernelBenchmark {
+    private static final int ROUNDS = 7;
+    /**
+     * Elements processed per timed run, so every length does the same amount of work.
+     */
+    private static final long WORK = 1L << 26;
+
+    public static void main(String[] args) {
+        int[] lengths = args.length > 0 ? new int[args.length] : new int[]{64, 1024, 16384, 1 << 20};
+        for (int i = 0; i < args.length; i++) {
+            lengths[i] = Integer.parseInt(args[i]);
+        }
+        System.out.println("kernels: " + Kernels.implementation());
+        System.out.printf("%9s %10s %10s %10s %10s%n", "length", "dot", "axpy", "absSum", "subtract");
+        for (int n : lengths) {
+            Random random = new Random(n);
+            double[] x = new double[n + 3];
+            double[] y = new double[n + 5];
+            double[] out = new double[n + 1];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = random.nextGaussian();
+            }
+            for (int i = 0; i < y.length; i++) {
+                y[i] = random.nextGaussian();
+            }
+            int repeats = (int) Math.max(1, WORK / n);
+            double[] sink = new double[1];
+
+            double dot = 2.0 * n * repeats / time(() -> {
+                for (int r = 0; r < repeats; r++) {
+                    sink[0] += Kernels.dot(x, 3, y, 5, n);
+                }
+            });
+            double axpy = 2.0 * n * repeats / time(() -> {
+                for (int r = 0; r < repeats; r++) {
+                    Kernels.axpy((r & 1) == 0 ? 1e-3 : -1e-3, x, 3, y, 5, n);
+                }
+            });
+            double absSum = 1.0 * n * repeats / time(() -> {
+                for (int r = 0; r < repeats; r++) {
+                    sink[0] += Kernels.absSum(x, 3, n);
+                }
+            });
+            double subtract = 1.0 * n * repeats / time(() -> {
+                for (int r = 0; r < repeats; r++) {
+                    Kernels.subtract(x, 3, y, 5, out, 1, n);
+                }
+            });
+            System.out.printf("%9d %10.2f %10.2f %10.2f %10.2f%n", n, dot / 1e9, axpy / 1e9, absSum / 1e9, subtract / 1e9);
+            if (Double.isNaN(sink[0])) {
+                System.out.println();
+            }
+        }
+    }
+
+    private static double time(Runnable action) {
+        action.run();
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+        }
+        return best;
+    }
+}
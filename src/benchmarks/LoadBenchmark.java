@@ -0,0 +1,72 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.DenseMatrix;
+import matrices.MatrixFile;
+import matrices.MatrixMarket;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes a random n x n matrix as a binary matrix file and as a Matrix Market coordinate file,
+ * then reports the load throughput of each in MB/s of file read.
+ * Usage: {@code LoadBenchmark [n]}.
+ */
+public class LoadBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+        Random random = new Random(1);
+        DenseMatrix matrix = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, random.nextDouble() - 0.5);
+            }
+        }
+
+        Path binary = Files.createTempFile("load", ".mat");
+        Path text = Files.createTempFile("load", ".mtx");
+        try {
+            MatrixFile.write(binary, matrix);
+            try (BufferedWriter out = Files.newBufferedWriter(text)) {
+                out.write("%%MatrixMarket matrix coordinate real general\n");
+                out.write(n + " " + n + " " + (long) n * n + "\n");
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        out.write((i + 1) + " " + (j + 1) + " " + matrix.get(i, j) + "\n");
+                    }
+                }
+            }
+
+            System.out.printf("%-14s %10s %10s%n", "format", "MB", "MB/s");
+            report("binary", binary, () -> MatrixFile.readDense(binary));
+            report("Matrix Market", text, () -> MatrixMarket.read(text));
+        } finally {
+            Files.deleteIfExists(binary);
+            Files.deleteIfExists(text);
+        }
+    }
+
+    private interface Load {
+        void run() throws IOException;
+    }
+
+    /**
+     * Loads the file ROUNDS times and prints the best throughput.
+     */
+    private static void report(String name, Path file, Load load) throws IOException {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            load.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+        }
+        double megabytes = Files.size(file) / 1e6;
+        System.out.printf("%-14s %10.1f %10.1f%n", name, megabytes, megabytes / best);
+    }
+}
@@ -0,0 +1,90 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.DenseMatrix;
+import matrices.LUFactorization;
+import matrices.LUFactors;
+import matrices.MixedPrecisionLU;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares factor-and-solve time of the double LU against the float LU with iterative
+ * refinement, on a well-conditioned and an ill-conditioned matrix of each size, and reports
+ * the refinement steps taken and the relative residual reached.
+ * Usage: {@code MixedPrecisionBenchmark [n...]}.
+ */
+public class MixedPrecisionBenchmark {
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[]{256, 512, 1024, 2048};
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("%6s %-10s %12s %12s %8s %6s %12s %10s%n",
+                "n", "matrix", "double ms", "mixed ms", "speedup", "steps", "residual", "fallback");
+        for (int n : sizes) {
+            run(n, "diagonal", matrix(n, n), pool);
+            run(n, "gaussian", matrix(n, 0), pool);
+        }
+    }
+
+    /**
+     * A random matrix with the given weight added to the diagonal; weight 0 leaves a plain
+     * Gaussian matrix whose condition number grows with n.
+     */
+    private static DenseMatrix matrix(int n, double weight) {
+        Random random = new Random(n);
+        DenseMatrix A = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                A.set(i, j, random.nextGaussian() + (i == j ? weight : 0));
+            }
+        }
+        return A;
+    }
+
+    private static void run(int n, String name, DenseMatrix A, ForkJoinPool pool) {
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = 1.0 + i % 7;
+        }
+        double[] x = new double[n];
+        int[] steps = new int[1];
+        MixedPrecisionLU[] last = new MixedPrecisionLU[1];
+
+        double doubleTime = time(() -> {
+            LUFactors factors = LUFactorization.factorInPlace(A.copy(), pool);
+            factors.solve(b, x);
+        });
+        double mixedTime = time(() -> {
+            last[0] = MixedPrecisionLU.factor(A, MixedPrecisionLU.DEFAULT_MAX_CONDITION, pool);
+            steps[0] = last[0].solve(b, x);
+        });
+
+        double[] Ax = new double[n];
+        A.multiply(x, Ax);
+        double residual = 0;
+        double scale = 0;
+        for (int i = 0; i < n; i++) {
+            residual = Math.max(residual, Math.abs(b[i] - Ax[i]));
+            scale = Math.max(scale, Math.abs(b[i]));
+        }
+        System.out.printf("%6d %-10s %12.1f %12.1f %8.2f %6d %12.2e %10s%n", n, name, doubleTime * 1e3,
+                mixedTime * 1e3, doubleTime / mixedTime, steps[0], residual / scale, last[0].isDoublePrecision());
+    }
+
+    private static double time(Runnable action) {
+        action.run();
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+        }
+        return best;
+    }
+}
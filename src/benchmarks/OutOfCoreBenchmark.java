@@ -0,0 +1,63 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.MappedMatrix;
+import matrices.OutOfCoreLU;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Factors a random file-backed matrix with the out-of-core LU under a given memory budget and
+ * reports GFLOP/s (2n^3/3 flops) and the relative residual of one solve.
+ * The matrix file is written to the given directory and deleted afterwards.
+ * Usage: {@code OutOfCoreBenchmark [n] [budgetMB] [directory]}.
+ */
+public class OutOfCoreBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        long budget = (args.length > 1 ? Long.parseLong(args[1]) : 64) << 20;
+        Path directory = Path.of(args.length > 2 ? args[2] : System.getProperty("java.io.tmpdir"));
+        Path file = Files.createTempFile(directory, "lu", ".mat");
+
+        try (MappedMatrix A = MappedMatrix.create(file, n, n)) {
+            Random random = new Random(1);
+            double[] x = new double[n];
+            double[] b = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextDouble();
+            }
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                for (int j = 0; j < n; j++) {
+                    double value = random.nextDouble() - 0.5;
+                    A.set(i, j, value);
+                    sum += value * x[j];
+                }
+                b[i] = sum;
+            }
+
+            long start = System.nanoTime();
+            OutOfCoreLU factors = OutOfCoreLU.factor(A, budget, ForkJoinPool.commonPool());
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            double[] solution = new double[n];
+            factors.solve(b, solution);
+            double error = 0;
+            double norm = 0;
+            for (int i = 0; i < n; i++) {
+                error = Math.max(error, Math.abs(solution[i] - x[i]));
+                norm = Math.max(norm, Math.abs(x[i]));
+            }
+            System.out.printf("n=%d, budget=%d MB, %.1f MB on disk%n", n, budget >> 20, 8.0 * n * n / (1 << 20));
+            System.out.printf("factor: %.2f s, %.2f GFLOP/s%n", seconds, 2.0 * n * n * n / 3 / seconds / 1e9);
+            System.out.printf("relative error of the solution: %.3e%n", error / norm);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
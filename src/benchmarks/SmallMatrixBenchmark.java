@@ -0,0 +1,94 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.Matrix3Batch;
+import matrices.Matrix4Batch;
+import matrices.matrixOperations;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reports matrices per second for the batched 3x3 and 4x4 kernels, on one thread and on the
+ * common pool, next to the per-matrix 3x3 routines of matrixOperations on jagged arrays.
+ * Usage: {@code SmallMatrixBenchmark [batchSize]}.
+ */
+public class SmallMatrixBenchmark {
+    private static final double MIN_SECONDS = 0.5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        Random random = new Random(1);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        double[][][] jagged = new double[n][3][3];
+        Matrix3Batch a3 = new Matrix3Batch(n);
+        Matrix3Batch b3 = new Matrix3Batch(n);
+        Matrix4Batch a4 = new Matrix4Batch(n);
+        Matrix4Batch b4 = new Matrix4Batch(n);
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    jagged[k][i][j] = random.nextDouble() + (i == j ? 3 : 0);
+                }
+            }
+            a3.set(k, jagged[k]);
+            b3.set(k, jagged[(k + 1) % n]);
+        }
+        for (int p = 0; p < 16; p++) {
+            double[] x = a4.element(p / 4, p % 4);
+            double[] y = b4.element(p / 4, p % 4);
+            for (int k = 0; k < n; k++) {
+                x[k] = random.nextDouble() + (p % 5 == 0 ? 4 : 0);
+                y[k] = random.nextDouble() + (p % 5 == 0 ? 4 : 0);
+            }
+        }
+        Matrix3Batch c3 = new Matrix3Batch(n);
+        Matrix4Batch c4 = new Matrix4Batch(n);
+        double[] out = new double[n];
+
+        System.out.printf("batch of %d matrices, %d threads in the pool%n", n, pool.getParallelism());
+        System.out.printf("%-22s %16s %16s%n", "operation", "1 thread M/s", "pool M/s");
+        report("3x3 inverse", n, () -> a3.inverse(c3, null), () -> a3.inverse(c3, pool));
+        report("3x3 multiply", n, () -> a3.multiply(b3, c3, null), () -> a3.multiply(b3, c3, pool));
+        report("3x3 determinant", n, () -> a3.determinant(out, null), () -> a3.determinant(out, pool));
+        report("3x3 condition", n, () -> a3.condition(out, null), () -> a3.condition(out, pool));
+        report("4x4 inverse", n, () -> a4.inverse(c4, null), () -> a4.inverse(c4, pool));
+        report("4x4 multiply", n, () -> a4.multiply(b4, c4, null), () -> a4.multiply(b4, c4, pool));
+        report("4x4 determinant", n, () -> a4.determinant(out, null), () -> a4.determinant(out, pool));
+        report("4x4 condition", n, () -> a4.condition(out, null), () -> a4.condition(out, pool));
+
+        report("3x3 inverse (jagged)", n, () -> {
+            for (double[][] matrix : jagged) {
+                matrixOperations.inverseMatrix(matrix);
+            }
+        }, null);
+        report("3x3 condition (jagged)", n, () -> {
+            for (double[][] matrix : jagged) {
+                out[0] = matrixOperations.condition(matrix);
+            }
+        }, null);
+    }
+
+    private static void report(String name, int n, Runnable sequential, Runnable parallel) {
+        double single = n / time(sequential) / 1e6;
+        double pooled = parallel == null ? Double.NaN : n / time(parallel) / 1e6;
+        System.out.printf("%-22s %16.1f %16.1f%n", name, single, pooled);
+    }
+
+    /**
+     * Runs the action once to warm up, then repeatedly until MIN_SECONDS have passed,
+     * and returns the fastest single run in seconds.
+     */
+    private static double time(Runnable action) {
+        action.run();
+        double best = Double.MAX_VALUE;
+        long deadline = System.nanoTime() + (long) (MIN_SECONDS * 1e9);
+        do {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+        } while (System.nanoTime() < deadline);
+        return best;
+    }
+}
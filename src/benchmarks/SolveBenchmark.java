@@ -0,0 +1,79 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.DenseMatrix;
+import matrices.LUFactorization;
+import matrices.LUFactors;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Measures solves/sec and bytes allocated per solve when the same factored system is solved
+ * against many right-hand sides: one vector at a time through the allocating solveLU,
+ * one vector at a time into a reused buffer, and all at once through the batched solve.
+ * Usage: {@code SolveBenchmark [n] [rightHandSides]}.
+ */
+public class SolveBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+
+        Random random = new Random(1);
+        DenseMatrix A = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                A.set(i, j, random.nextDouble() + (i == j ? n : 0));
+            }
+        }
+        DenseMatrix B = new DenseMatrix(n, m);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                B.set(i, j, random.nextDouble());
+            }
+        }
+        double[][] columns = B.transpose().toArray();
+
+        DenseMatrix[] lu = LUFactorization.luDecomposition(A);
+        double[][] L = lu[0].toArray();
+        double[][] U = lu[1].toArray();
+        LUFactors factors = LUFactorization.factor(A);
+        double[] x = new double[n];
+        DenseMatrix X = new DenseMatrix(n, m);
+
+        System.out.printf("n = %d, right-hand sides = %d%n", n, m);
+        System.out.printf("%-26s %14s %16s%n", "method", "solves/sec", "bytes/solve");
+        report("solveLU (allocating)", m, () -> {
+            for (double[] b : columns) {
+                LUFactorization.solveLU(L, U, b);
+            }
+        });
+        report("LUFactors.solve(b, x)", m, () -> {
+            for (double[] b : columns) {
+                factors.solve(b, x);
+            }
+        });
+        report("LUFactors.solve(B, X)", m, () -> factors.solve(B, X));
+    }
+
+    private static void report(String name, int solves, Runnable action) {
+        action.run();
+        double best = Double.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+            allocated = allocatedBytes() - bytesBefore;
+        }
+        System.out.printf("%-26s %14.0f %16.1f%n", name, solves / best, (double) allocated / solves);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,70 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import matrices.CSRMatrix;
+import matrices.JacobiAndGaussSeidel;
+import matrices.SparseMatrixBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times the sequential sparse Jacobi and Gauss-Seidel solvers against the parallel Jacobi and
+ * red-black Gauss-Seidel variants on a shifted 5-point Laplacian, for pools of 1, 2, 4, ...
+ * up to the number of available processors, and reports the speedup over the sequential solver.
+ * Usage: {@code SweepBenchmark [gridSize]}.
+ */
+public class SweepBenchmark {
+
+    public static void main(String[] args) {
+        int m = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        CSRMatrix A = laplacian(m);
+        double[] b = new double[m * m];
+        Arrays.fill(b, 1.0);
+        System.out.printf("%d unknowns, %d nonzeros%n", A.rows(), A.nonZeros());
+
+        double jacobi = time(() -> JacobiAndGaussSeidel.jacobi(A, b));
+        double gaussSeidel = time(() -> JacobiAndGaussSeidel.gaussSeidel(A, b));
+        System.out.printf("%-10s %12s %12s %12s %12s%n", "threads", "Jacobi s", "speedup", "red-black s", "speedup");
+        System.out.printf("%-10s %12.3f %12s %12.3f %12s%n", "sequential", jacobi, "1.00", gaussSeidel, "1.00");
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads = threads < processors ? Math.min(2 * threads, processors) : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double parallelJacobi = time(() -> JacobiAndGaussSeidel.jacobi(A, b, pool));
+            double redBlack = time(() -> JacobiAndGaussSeidel.gaussSeidel(A, b, pool));
+            pool.shutdown();
+            System.out.printf("%-10d %12.3f %12.2f %12.3f %12.2f%n",
+                    threads, parallelJacobi, jacobi / parallelJacobi, redBlack, gaussSeidel / redBlack);
+        }
+    }
+
+    /**
+     * A 5-point Laplacian on an m x m grid with a diagonal shift so that it is strictly dominant.
+     */
+    private static CSRMatrix laplacian(int m) {
+        int n = m * m;
+        SparseMatrixBuilder builder = new SparseMatrixBuilder(n, n, 5 * n);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                int k = i * m + j;
+                builder.add(k, k, 4.2);
+                if (i > 0) builder.add(k, k - m, -1);
+                if (i < m - 1) builder.add(k, k + m, -1);
+                if (j > 0) builder.add(k, k - 1, -1);
+                if (j < m - 1) builder.add(k, k + 1, -1);
+            }
+        }
+        return builder.buildCSR();
+    }
+
+    /**
+     * Runs the action once to warm up and returns the time of a second run in seconds.
+     */
+    private static double time(Runnable action) {
+        action.run();
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -0,0 +1,87 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package benchmarks;
+
+import interpolation.PiecewiseLinearTable;
+import interpolation.PiecewiseLinearTable.Search;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the search strategies of {@link PiecewiseLinearTable} on tables of one million knots
+ * laid out three ways: equally spaced, randomly spaced, and spaced geometrically the way the
+ * maturities of a rate curve are. Each strategy evaluates random and sorted query batches on the
+ * calling thread, and the hint cursor replays the sorted stream one query at a time.
+ * Usage: {@code TableLookupBenchmark [knots [queries]]}.
+ */
+public class TableLookupBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int knots = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 4_000_000;
+        System.out.printf("%-10s %-14s %14s %14s%n", "layout", "search", "random M/s", "sorted M/s");
+        for (String layout : new String[]{"uniform", "random", "geometric"}) {
+            double[] x = knots(layout, knots);
+            double[] y = new double[knots];
+            for (int i = 0; i < knots; i++) {
+                y[i] = Math.sin(i * 1e-3);
+            }
+            Random random = new Random(queries);
+            double[] unsorted = new double[queries];
+            for (int i = 0; i < queries; i++) {
+                // Queries spread like the knots, a fraction slightly outside the table
+                unsorted[i] = x[random.nextInt(knots)] + (random.nextDouble() - 0.5) * 1e-3;
+            }
+            double[] sorted = unsorted.clone();
+            Arrays.sort(sorted);
+            double[] out = new double[queries];
+
+            PiecewiseLinearTable table = new PiecewiseLinearTable(x, y, Search.BINARY);
+            for (Search search : Search.values()) {
+                PiecewiseLinearTable strategy = table.withSearch(search);
+                double randomRate = queries / time(() -> strategy.evaluate(unsorted, out, null)) / 1e6;
+                double sortedRate = queries / time(() -> strategy.evaluate(sorted, out, null)) / 1e6;
+                System.out.printf("%-10s %-14s %14.1f %14.1f%n", layout, search, randomRate, sortedRate);
+            }
+            double cursorRate = queries / time(() -> {
+                PiecewiseLinearTable.Cursor cursor = table.cursor();
+                for (int i = 0; i < queries; i++) {
+                    out[i] = cursor.evaluate(sorted[i]);
+                }
+            }) / 1e6;
+            System.out.printf("%-10s %-14s %14s %14.1f%n", layout, "cursor", "-", cursorRate);
+        }
+    }
+
+    private static double[] knots(String layout, int n) {
+        double[] x = new double[n];
+        Random random = new Random(n);
+        for (int i = 1; i < n; i++) {
+            double step;
+            switch (layout) {
+                case "uniform":
+                    step = 1.0;
+                    break;
+                case "random":
+                    step = 0.01 + random.nextDouble() * 1.98;
+                    break;
+                default:
+                    step = 1e-3 * Math.exp(20.0 * i / n);
+            }
+            x[i] = x[i - 1] + step;
+        }
+        return x;
+    }
+
+    private static double time(Runnable action) {
+        action.run();
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e9);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,242 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import java.util.Arrays;
+
+/**
+ * The Lagrange polynomial through any number of points, in barycentric form:
+ * <pre>
+ *          sum_j w_j y_j / (x - x_j)
+ * p(x) = -----------------------------,   w_j = 1 / prod_{k != j} (x_j - x_k)
+ *            sum_j w_j / (x - x_j)
+ * </pre>
+ * The weights depend only on the nodes, so they are computed once in O(N^2); after that every
+ * evaluation costs O(N), a new node costs O(N), and changing a value costs nothing.
+ * The formula is numerically stable for any node set on which the polynomial itself is
+ * well-conditioned (Chebyshev-like nodes); equispaced nodes are ill-conditioned in any form.
+ * <p>
+ * Every difference in the weight products is multiplied by 4 / (max - min) of the initial
+ * nodes, and the weights are rescaled by a power of two whenever the largest drifts far from 1.
+ * Both scale all weights by the same factor, which cancels in the quotient, but keep them from
+ * overflowing or underflowing for large N.
+ */
+public class BarycentricInterpolator implements Interpolant {
+    /**
+     * Number of queries evaluated together, so their sums stay in cache across the node loop.
+     */
+    private static final int BLOCK = 256;
+
+    private double[] x;
+    private double[] y;
+    private double[] w;
+    private int size;
+    private final double scale;
+    /**
+     * The stored weights are the scaled weights times 2^shift, which keeps them near 1 as nodes are added.
+     */
+    private int shift;
+
+    /**
+     * @param x the nodes, which must be distinct
+     * @param y the values at the nodes
+     */
+    public BarycentricInterpolator(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Expected as many values as nodes, got " + x.length + " and " + y.length + ".");
+        }
+        if (x.length == 0) {
+            throw new IllegalArgumentException("At least one node is required.");
+        }
+        int n = x.length;
+        this.x = Arrays.copyOf(x, Math.max(n, 4));
+        this.y = Arrays.copyOf(y, Math.max(n, 4));
+        this.w = new double[this.x.length];
+        this.size = n;
+
+        double min = x[0];
+        double max = x[0];
+        for (double node : x) {
+            min = Math.min(min, node);
+            max = Math.max(max, node);
+        }
+        this.scale = max > min ? 4.0 / (max - min) : 1.0;
+
+        for (int j = 0; j < n; j++) {
+            w[j] = inverseProduct(x[j], j);
+        }
+        normalize();
+    }
+
+    /**
+     * Creates the interpolator through points given the way {@link Interpolation} takes them.
+     *
+     * @param points the points as x0, y0, x1, y1, ...
+     * @return the interpolator through the points
+     */
+    public static BarycentricInterpolator of(double[] points) {
+        if (points.length % 2 != 0) {
+            throw new IllegalArgumentException("Points must come in (x, y) pairs.");
+        }
+        int n = points.length / 2;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = points[2 * i];
+            y[i] = points[2 * i + 1];
+        }
+        return new BarycentricInterpolator(x, y);
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a copy of the nodes
+     */
+    public double[] nodes() {
+        return Arrays.copyOf(x, size);
+    }
+
+    /**
+     * @return a copy of the barycentric weights, up to a common scale factor
+     */
+    public double[] weights() {
+        return Arrays.copyOf(w, size);
+    }
+
+    /**
+     * Adds a node in O(N): every existing weight is divided by its distance to the new node,
+     * and the new weight is the reciprocal of the product of those distances.
+     * Every intermediate node set has its own weights, so add nodes in an order that keeps them
+     * spread over the interval (random or Leja order); thousands of nodes added in sorted order
+     * pass through sets whose weights span more than the double range.
+     *
+     * @param xNew the new node, distinct from the existing ones
+     * @param yNew the value at the new node
+     */
+    public void add(double xNew, double yNew) {
+        double weight = inverseProduct(xNew, -1);
+        if (size == x.length) {
+            x = Arrays.copyOf(x, 2 * size);
+            y = Arrays.copyOf(y, 2 * size);
+            w = Arrays.copyOf(w, 2 * size);
+        }
+        for (int j = 0; j < size; j++) {
+            w[j] /= scale * (x[j] - xNew);
+        }
+        x[size] = xNew;
+        y[size] = yNew;
+        w[size] = weight;
+        size++;
+        normalize();
+    }
+
+    /**
+     * Replaces the value at node i; the weights do not depend on it, so this is O(1).
+     *
+     * @param i     the node index, in insertion order
+     * @param value the new value
+     */
+    public void setValue(int i, double value) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Node " + i + " is outside [0, " + size + ").");
+        }
+        y[i] = value;
+    }
+
+    /**
+     * @param t the point to evaluate at
+     * @return the value of the interpolating polynomial at t
+     */
+    @Override
+    public double evaluate(double t) {
+        double numerator = 0;
+        double denominator = 0;
+        for (int j = 0; j < size; j++) {
+            double term = w[j] / (t - x[j]);
+            numerator += term * y[j];
+            denominator += term;
+        }
+        double result = numerator / denominator;
+        // Exactly on a node the quotient is infinity / infinity; the loop stays branch-free for the common case
+        return Double.isFinite(result) ? result : atNode(t, result);
+    }
+
+    /**
+     * Evaluates a block of queries at a time with the node loop outside, so the inner loop runs
+     * over independent queries and vectorizes (see {@link BlockKernels}), instead of being a
+     * serial sum over the nodes.
+     */
+    @Override
+    public void evaluate(double[] xs, double[] ys, int from, int to) {
+        double[] t = new double[BLOCK];
+        double[] numerator = new double[BLOCK];
+        double[] denominator = new double[BLOCK];
+        for (int c0 = from; c0 < to; c0 += BLOCK) {
+            int length = Math.min(BLOCK, to - c0);
+            System.arraycopy(xs, c0, t, 0, length);
+            Arrays.fill(numerator, 0.0);
+            Arrays.fill(denominator, 0.0);
+            for (int j = 0; j < size; j++) {
+                BlockKernels.barycentric(t, numerator, denominator, length, x[j], w[j], y[j]);
+            }
+            for (int i = 0; i < length; i++) {
+                double result = numerator[i] / denominator[i];
+                ys[c0 + i] = Double.isFinite(result) ? result : atNode(t[i], result);
+            }
+        }
+    }
+
+    /**
+     * Computes 1 / prod_k scale (node - x_k) over the current nodes other than skip. The partial
+     * product is renormalized to exponent 0 after every factor, since its intermediate values
+     * can leave the double range even when the result does not.
+     */
+    private double inverseProduct(double node, int skip) {
+        double mantissa = 1.0;
+        int exponent = 0;
+        for (int k = 0; k < size; k++) {
+            if (k == skip) {
+                continue;
+            }
+            double difference = scale * (node - x[k]);
+            if (difference == 0) {
+                throw new IllegalArgumentException("Nodes must be distinct, but " + node + " appears twice.");
+            }
+            mantissa *= difference;
+            int e = Math.getExponent(mantissa);
+            mantissa = Math.scalb(mantissa, -e);
+            exponent += e;
+        }
+        return Math.scalb(1.0 / mantissa, shift - exponent);
+    }
+
+    /**
+     * Rescales the weights so that the largest has an exponent near 0.
+     */
+    private void normalize() {
+        int largest = Integer.MIN_VALUE;
+        for (int j = 0; j < size; j++) {
+            largest = Math.max(largest, Math.getExponent(w[j]));
+        }
+        if (Math.abs(largest) > 64) {
+            for (int j = 0; j < size; j++) {
+                w[j] = Math.scalb(w[j], -largest);
+            }
+            shift -= largest;
+        }
+    }
+
+    private double atNode(double t, double result) {
+        for (int j = 0; j < size; j++) {
+            if (t == x[j]) {
+                return y[j];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+/**
+ * One implementation of the {@link BlockKernels} entry points.
+ */
+interface BlockKernelSet {
+    /**
+     * @return a short name for reports, such as "scalar"
+     */
+    String name();
+
+    void horner(double[] p, double[] t, int length, double node, double coefficient);
+
+    void barycentric(double[] t, double[] numerator, double[] denominator, int length,
+                     double node, double weight, double value);
+
+    void linear(double[] xs, int xOffset, int[] interval, double[] x, double[] y, double[] slopes,
+                double[] ys, int yOffset, int length);
+}
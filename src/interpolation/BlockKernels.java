@@ -0,0 +1,55 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import matrices.Kernels;
+
+/**
+ * The inner loops of the batch interpolant kernels, each over one block of queries held in
+ * small arrays indexed from 0. Like {@link Kernels}, which decides for both, they run on the
+ * Vector API when the JVM has it ({@code interpolation.VectorBlockKernels} from
+ * {@code src-vector}) and on {@link ScalarBlockKernels} otherwise.
+ */
+final class BlockKernels {
+    private static final String VECTOR_KERNELS = "interpolation.VectorBlockKernels";
+
+    static final BlockKernelSet IMPLEMENTATION = select();
+
+    private BlockKernels() {
+    }
+
+    private static BlockKernelSet select() {
+        if ("vector".equals(Kernels.implementation())) {
+            try {
+                return (BlockKernelSet) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not compiled into this build; the scalar kernels compute the same results
+            }
+        }
+        return new ScalarBlockKernels();
+    }
+
+    /**
+     * One step of nested multiplication for every query: p[i] = p[i] (t[i] - node) + coefficient.
+     */
+    static void horner(double[] p, double[] t, int length, double node, double coefficient) {
+        IMPLEMENTATION.horner(p, t, length, node, coefficient);
+    }
+
+    /**
+     * Adds one node's term w / (t[i] - node) to the barycentric sums of every query.
+     */
+    static void barycentric(double[] t, double[] numerator, double[] denominator, int length,
+                            double node, double weight, double value) {
+        IMPLEMENTATION.barycentric(t, numerator, denominator, length, node, weight, value);
+    }
+
+    /**
+     * Evaluates linear pieces at located queries:
+     * ys[yOffset + k] = y[i] + slopes[i] (xs[xOffset + k] - x[i]) with i = interval[k].
+     * The output may be the input itself, at the same offset.
+     */
+    static void linear(double[] xs, int xOffset, int[] interval, double[] x, double[] y, double[] slopes,
+                       double[] ys, int yOffset, int length) {
+        IMPLEMENTATION.linear(xs, xOffset, interval, x, y, slopes, ys, yOffset, length);
+    }
+}
@@ -0,0 +1,282 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+/**
+ * A piecewise cubic interpolant with continuous first derivative through sorted knots.
+ * On interval i it is y_i + b_i t + c_i t^2 + d_i t^3 with t = x - x_i, and the four
+ * coefficients of every interval are stored next to each other in one flat array, so an
+ * evaluation touches one cache line of coefficients after locating its interval.
+ * <p>
+ * The spline variants differ only in the slopes chosen at the knots:
+ * <ul>
+ *     <li>natural, clamped and not-a-knot splines are C2; their slopes solve a tridiagonal
+ *     system, which the Thomas algorithm does in O(n);</li>
+ *     <li>PCHIP picks each slope locally from the neighbouring secants (Fritsch-Carlson), which
+ *     keeps the interpolant monotone wherever the data is, at the cost of being only C1.</li>
+ * </ul>
+ * Intervals are located by binary search, or in O(1) by arithmetic when the knots are
+ * equally spaced. Points outside the knots are extrapolated with the end cubics.
+ */
+public class CubicSpline implements Interpolant {
+    private final double[] x;
+    private final double[] coefficients;
+    private final boolean uniform;
+    private final double inverseSpacing;
+
+    /**
+     * Builds the cubic Hermite pieces from the knot values and slopes.
+     */
+    private CubicSpline(double[] x, double[] y, double[] slopes) {
+        int n = x.length;
+        this.x = x.clone();
+        this.coefficients = new double[4 * (n - 1)];
+        for (int i = 0; i < n - 1; i++) {
+            double h = x[i + 1] - x[i];
+            double secant = (y[i + 1] - y[i]) / h;
+            int p = 4 * i;
+            coefficients[p] = y[i];
+            coefficients[p + 1] = slopes[i];
+            coefficients[p + 2] = (3 * secant - 2 * slopes[i] - slopes[i + 1]) / h;
+            coefficients[p + 3] = (slopes[i] + slopes[i + 1] - 2 * secant) / (h * h);
+        }
+
+        this.uniform = Knots.isUniform(x);
+        this.inverseSpacing = Knots.inverseSpacing(x);
+    }
+
+    /**
+     * Fits the natural spline, whose second derivative vanishes at both ends.
+     *
+     * @param x the knots, strictly increasing
+     * @param y the values at the knots
+     * @return the spline
+     */
+    public static CubicSpline natural(double[] x, double[] y) {
+        checkKnots(x, y);
+        int n = x.length;
+        double[][] system = interiorSystem(x, y);
+        double[] sub = system[0], diag = system[1], sup = system[2], rhs = system[3];
+        diag[0] = 2;
+        sup[0] = 1;
+        rhs[0] = 3 * secant(x, y, 0);
+        sub[n - 1] = 1;
+        diag[n - 1] = 2;
+        rhs[n - 1] = 3 * secant(x, y, n - 2);
+        solveTridiagonal(sub, diag, sup, rhs);
+        return new CubicSpline(x, y, rhs);
+    }
+
+    /**
+     * Fits the clamped spline, whose first derivative takes given values at both ends.
+     *
+     * @param x          the knots, strictly increasing
+     * @param y          the values at the knots
+     * @param startSlope the derivative at the first knot
+     * @param endSlope   the derivative at the last knot
+     * @return the spline
+     */
+    public static CubicSpline clamped(double[] x, double[] y, double startSlope, double endSlope) {
+        checkKnots(x, y);
+        int n = x.length;
+        double[][] system = interiorSystem(x, y);
+        double[] sub = system[0], diag = system[1], sup = system[2], rhs = system[3];
+        diag[0] = 1;
+        sup[0] = 0;
+        rhs[0] = startSlope;
+        sub[n - 1] = 0;
+        diag[n - 1] = 1;
+        rhs[n - 1] = endSlope;
+        solveTridiagonal(sub, diag, sup, rhs);
+        return new CubicSpline(x, y, rhs);
+    }
+
+    /**
+     * Fits the not-a-knot spline, whose third derivative is also continuous at the second and
+     * next-to-last knots, so the first two and the last two pieces are each a single cubic.
+     * The end conditions are folded into the neighbouring equations to keep the system
+     * tridiagonal, as in de Boor's formulation. Three knots give the parabola through them,
+     * two give the line.
+     *
+     * @param x the knots, strictly increasing
+     * @param y the values at the knots
+     * @return the spline
+     */
+    public static CubicSpline notAKnot(double[] x, double[] y) {
+        checkKnots(x, y);
+        int n = x.length;
+        if (n == 2) {
+            double s = secant(x, y, 0);
+            return new CubicSpline(x, y, new double[]{s, s});
+        }
+        if (n == 3) {
+            double d0 = secant(x, y, 0);
+            double curvature = (secant(x, y, 1) - d0) / (x[2] - x[0]);
+            double[] slopes = new double[3];
+            for (int i = 0; i < 3; i++) {
+                slopes[i] = d0 + curvature * (2 * x[i] - x[0] - x[1]);
+            }
+            return new CubicSpline(x, y, slopes);
+        }
+        double[][] system = interiorSystem(x, y);
+        double[] sub = system[0], diag = system[1], sup = system[2], rhs = system[3];
+        double h0 = x[1] - x[0];
+        double h1 = x[2] - x[1];
+        diag[0] = h1;
+        sup[0] = h0 + h1;
+        rhs[0] = (h1 * (2 * h1 + 3 * h0) * secant(x, y, 0) + h0 * h0 * secant(x, y, 1)) / (h0 + h1);
+        double hm = x[n - 2] - x[n - 3];
+        double hl = x[n - 1] - x[n - 2];
+        sub[n - 1] = hm + hl;
+        diag[n - 1] = hm;
+        rhs[n - 1] = (hl * hl * secant(x, y, n - 3) + hm * (2 * hm + 3 * hl) * secant(x, y, n - 2)) / (hm + hl);
+        solveTridiagonal(sub, diag, sup, rhs);
+        return new CubicSpline(x, y, rhs);
+    }
+
+    /**
+     * Fits the monotone piecewise cubic Hermite interpolant (PCHIP). Interior slopes are the
+     * weighted harmonic mean of the adjacent secants, or 0 where the data turns; end slopes use
+     * a one-sided three-point formula limited to keep the shape.
+     *
+     * @param x the knots, strictly increasing
+     * @param y the values at the knots
+     * @return the interpolant
+     */
+    public static CubicSpline pchip(double[] x, double[] y) {
+        checkKnots(x, y);
+        int n = x.length;
+        double[] slopes = new double[n];
+        if (n == 2) {
+            slopes[0] = slopes[1] = secant(x, y, 0);
+            return new CubicSpline(x, y, slopes);
+        }
+        for (int i = 1; i < n - 1; i++) {
+            double previous = secant(x, y, i - 1);
+            double next = secant(x, y, i);
+            if (previous * next <= 0) {
+                slopes[i] = 0;
+            } else {
+                double hPrevious = x[i] - x[i - 1];
+                double hNext = x[i + 1] - x[i];
+                double w1 = 2 * hNext + hPrevious;
+                double w2 = hNext + 2 * hPrevious;
+                slopes[i] = (w1 + w2) / (w1 / previous + w2 / next);
+            }
+        }
+        slopes[0] = endSlope(x[1] - x[0], x[2] - x[1], secant(x, y, 0), secant(x, y, 1));
+        slopes[n - 1] = endSlope(x[n - 1] - x[n - 2], x[n - 2] - x[n - 3], secant(x, y, n - 2), secant(x, y, n - 3));
+        return new CubicSpline(x, y, slopes);
+    }
+
+    /**
+     * @return the number of knots
+     */
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * @return a copy of the knots
+     */
+    public double[] knots() {
+        return x.clone();
+    }
+
+    /**
+     * @return true if the knots are equally spaced, so intervals are found without searching
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    /**
+     * @param t the point to evaluate at
+     * @return the value of the spline at t
+     */
+    @Override
+    public double evaluate(double t) {
+        int i = Knots.interval(x, uniform, inverseSpacing, t);
+        double s = t - x[i];
+        int p = 4 * i;
+        return coefficients[p] + s * (coefficients[p + 1] + s * (coefficients[p + 2] + s * coefficients[p + 3]));
+    }
+
+    /**
+     * Allocates sub-, main and super-diagonal and right-hand side of the slope equations,
+     * filling the rows of the interior knots, which require continuity of the second derivative:
+     * h_i s_{i-1} + 2 (h_{i-1} + h_i) s_i + h_{i-1} s_{i+1} = 3 (h_i d_{i-1} + h_{i-1} d_i).
+     */
+    private static double[][] interiorSystem(double[] x, double[] y) {
+        int n = x.length;
+        double[] sub = new double[n];
+        double[] diag = new double[n];
+        double[] sup = new double[n];
+        double[] rhs = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            double hPrevious = x[i] - x[i - 1];
+            double hNext = x[i + 1] - x[i];
+            sub[i] = hNext;
+            diag[i] = 2 * (hPrevious + hNext);
+            sup[i] = hPrevious;
+            rhs[i] = 3 * (hNext * secant(x, y, i - 1) + hPrevious * secant(x, y, i));
+        }
+        return new double[][]{sub, diag, sup, rhs};
+    }
+
+    /**
+     * Solves a tridiagonal system in O(n) with the Thomas algorithm (Gaussian elimination
+     * without pivoting), overwriting rhs with the solution and sup with scratch values.
+     * Row i reads sub[i] x_{i-1} + diag[i] x_i + sup[i] x_{i+1} = rhs[i].
+     */
+    private static void solveTridiagonal(double[] sub, double[] diag, double[] sup, double[] rhs) {
+        int n = diag.length;
+        double pivot = diag[0];
+        sup[0] /= pivot;
+        rhs[0] /= pivot;
+        for (int i = 1; i < n; i++) {
+            pivot = diag[i] - sub[i] * sup[i - 1];
+            if (pivot == 0) {
+                throw new IllegalArgumentException("Spline system is singular at knot " + i + ".");
+            }
+            sup[i] /= pivot;
+            rhs[i] = (rhs[i] - sub[i] * rhs[i - 1]) / pivot;
+        }
+        for (int i = n - 2; i >= 0; i--) {
+            rhs[i] -= sup[i] * rhs[i + 1];
+        }
+    }
+
+    /**
+     * The shape-preserving one-sided end slope of PCHIP, from the end interval h0, d0
+     * and its neighbour h1, d1.
+     */
+    private static double endSlope(double h0, double h1, double d0, double d1) {
+        double slope = ((2 * h0 + h1) * d0 - h0 * d1) / (h0 + h1);
+        if (Math.signum(slope) != Math.signum(d0)) {
+            return 0;
+        }
+        if (Math.signum(d0) != Math.signum(d1) && Math.abs(slope) > Math.abs(3 * d0)) {
+            return 3 * d0;
+        }
+        return slope;
+    }
+
+    private static double secant(double[] x, double[] y, int i) {
+        return (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+    }
+
+    private static void checkKnots(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Expected as many values as knots, got " + x.length + " and " + y.length + ".");
+        }
+        if (x.length < 2) {
+            throw new IllegalArgumentException("At least two knots are required.");
+        }
+        for (int i = 1; i < x.length; i++) {
+            if (!(x[i] > x[i - 1])) {
+                throw new IllegalArgumentException("Knots must be strictly increasing, but x[" + i + "] = " + x[i]
+                        + " follows " + x[i - 1] + ".");
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import matrices.ParallelLoop;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A fitted interpolating function: the fit is done once when the object is built, and every
+ * evaluation only reads it. The batch methods evaluate large query arrays in chunks spread over
+ * a fork-join pool; implementations supply the sequential kernel for one chunk, written as
+ * plain loops over primitive arrays that the JIT can vectorize.
+ * <p>
+ * Batch evaluation must not overlap with changes to an interpolant that can still be extended,
+ * such as {@link BarycentricInterpolator#add(double, double)}.
+ */
+public interface Interpolant {
+    /**
+     * Number of queries handled by a single task of the batch methods.
+     */
+    int GRAIN = 1 << 14;
+
+    /**
+     * @param x the point to evaluate at
+     * @return the interpolated value at x
+     */
+    double evaluate(double x);
+
+    /**
+     * Evaluates queries [from, to) on the calling thread: ys[i] = f(xs[i]).
+     *
+     * @param xs   the points to evaluate at
+     * @param ys   receives the values
+     * @param from the first index (inclusive)
+     * @param to   the last index (exclusive)
+     */
+    default void evaluate(double[] xs, double[] ys, int from, int to) {
+        for (int i = from; i < to; i++) {
+            ys[i] = evaluate(xs[i]);
+        }
+    }
+
+    /**
+     * Evaluates every query on the common pool.
+     *
+     * @param xs the points to evaluate at
+     * @param ys receives the values, length at least xs.length
+     */
+    default void evaluate(double[] xs, double[] ys) {
+        evaluate(xs, ys, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluates every query, splitting large arrays into chunks of {@link #GRAIN} on the pool.
+     *
+     * @param xs   the points to evaluate at
+     * @param ys   receives the values, length at least xs.length
+     * @param pool the pool to run on, or null to stay on the calling thread
+     */
+    default void evaluate(double[] xs, double[] ys, ForkJoinPool pool) {
+        if (ys.length < xs.length) {
+            throw new IllegalArgumentException("Output holds " + ys.length + " values, need " + xs.length + ".");
+        }
+        ParallelLoop.forRange(pool, 0, xs.length, GRAIN, (from, to) -> evaluate(xs, ys, from, to));
+    }
+
+    /**
+     * Evaluates the remaining queries of a buffer on the common pool.
+     *
+     * @param xs the points to evaluate at, from position to limit
+     * @param ys receives the values from its position on
+     */
+    default void evaluate(DoubleBuffer xs, DoubleBuffer ys) {
+        evaluate(xs, ys, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluates the remaining queries of a buffer, for instance a memory-mapped file of query
+     * points. Heap buffers are evaluated in place through their arrays; other buffers are
+     * copied chunk by chunk with absolute bulk transfers, so tasks never share a position.
+     * Like a relative bulk transfer, this advances the position of both buffers by the number
+     * of queries.
+     *
+     * @param xs   the points to evaluate at, from position to limit
+     * @param ys   receives the values from its position on; it needs at least as many remaining elements
+     * @param pool the pool to run on, or null to stay on the calling thread
+     */
+    default void evaluate(DoubleBuffer xs, DoubleBuffer ys, ForkJoinPool pool) {
+        int count = xs.remaining();
+        if (ys.remaining() < count) {
+            throw new IllegalArgumentException("Output has room for " + ys.remaining() + " values, need " + count + ".");
+        }
+        int xStart = xs.position();
+        int yStart = ys.position();
+        if (xs.hasArray() && ys.hasArray() && xs.arrayOffset() + xStart == 0 && ys.arrayOffset() + yStart == 0) {
+            double[] in = xs.array();
+            double[] out = ys.array();
+            ParallelLoop.forRange(pool, 0, count, GRAIN, (from, to) -> evaluate(in, out, from, to));
+        } else {
+            ParallelLoop.forRange(pool, 0, count, GRAIN, (from, to) -> {
+                double[] in = new double[to - from];
+                double[] out = new double[to - from];
+                xs.get(xStart + from, in, 0, in.length);
+                evaluate(in, out, 0, in.length);
+                ys.put(yStart + from, out, 0, out.length);
+            });
+        }
+        xs.position(xStart + count);
+        ys.position(yStart + count);
+    }
+}
@@ -1,5 +1,12 @@
 // https://github.com/matanof2/Numeric_Analysis.git
 package interpolation;
+import batch.BatchRunner;
+import matrices.DenseMatrix;
+import matrices.Kernels;
+import matrices.MatrixFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 public class Interpolation {
@@ -16,6 +23,29 @@ public class Interpolation {
         return points;
     }
 
+    /**
+     * Loads any number of points from a binary matrix file or a Matrix Market file holding
+     * an n x 2 matrix of (x, y) rows.
+     *
+     * @param path the file to read
+     * @return the points as x0, y0, x1, y1, ...
+     * @throws IOException if the file cannot be read or is not n x 2
+     */
+    public static double[] getInput(Path path) throws IOException {
+        DenseMatrix matrix = MatrixFile.load(path);
+        if (matrix.cols() != 2) {
+            throw new IOException(path + " must hold one (x, y) pair per row, got " + matrix.cols() + " columns.");
+        }
+        double[] points = new double[2 * matrix.rows()];
+        double[] row = new double[2];
+        for (int i = 0; i < matrix.rows(); i++) {
+            matrix.getRow(i, row);
+            points[2 * i] = row[0];
+            points[2 * i + 1] = row[1];
+        }
+        return points;
+    }
+
     public static double linearInterpolation(double[] points, double x) {
         double x0 = points[0], y0 = points[1];
         double x1 = points[2], y1 = points[3];
@@ -29,33 +59,61 @@ public class Interpolation {
         return m * x + b;
     }
 
+    /**
+     * Evaluates the polynomial through any number of points at x, using the Newton form
+     * instead of solving a Vandermonde system. To evaluate the same points many times, or to
+     * append samples as they arrive, keep a {@link NewtonInterpolator} instead.
+     *
+     * @param points the points as x0, y0, x1, y1, ...
+     * @param x      the point to evaluate at
+     * @return the interpolated value
+     */
     public static double polynomialInterpolation(double[] points, double x) {
-        double x0 = points[0], y0 = points[1];
-        double x1 = points[2], y1 = points[3];
-        double x2 = points[4], y2 = points[5];
-
-        double[][] A = {
-                {x0 * x0, x0, 1},
-                {x1 * x1, x1, 1},
-                {x2 * x2, x2, 1}
-        };
-        double[] B = {y0, y1, y2};
-
-        double[] coeffs = solveSystem(A, B);
-        double a = coeffs[0], b = coeffs[1], c = coeffs[2];
-        return a * x * x + b * x + c;
+        return NewtonInterpolator.of(points).evaluate(x);
     }
 
+    /**
+     * Evaluates the Lagrange polynomial through any number of points at x.
+     * To evaluate the same points many times, keep a {@link BarycentricInterpolator} instead,
+     * which pays the O(N^2) setup once.
+     *
+     * @param points the points as x0, y0, x1, y1, ...
+     * @param x      the point to evaluate at
+     * @return the interpolated value
+     */
     public static double lagrangeInterpolation(double[] points, double x) {
-        double x0 = points[0], y0 = points[1];
-        double x1 = points[2], y1 = points[3];
-        double x2 = points[4], y2 = points[5];
+        return BarycentricInterpolator.of(points).evaluate(x);
+    }
+
+    /**
+     * Fits the piecewise-linear interpolant through any number of points once, for evaluating
+     * many queries; with two points it agrees with {@link #linearInterpolation(double[], double)}.
+     *
+     * @param points the points as x0, y0, x1, y1, ..., in any order
+     * @return the fitted interpolant
+     */
+    public static PiecewiseLinearTable fitLinear(double[] points) {
+        return PiecewiseLinearTable.of(points);
+    }
 
-        double L0 = ((x - x1) * (x - x2)) / ((x0 - x1) * (x0 - x2));
-        double L1 = ((x - x0) * (x - x2)) / ((x1 - x0) * (x1 - x2));
-        double L2 = ((x - x0) * (x - x1)) / ((x2 - x0) * (x2 - x1));
+    /**
+     * Fits the interpolating polynomial once, in Newton form.
+     *
+     * @param points the points as x0, y0, x1, y1, ...
+     * @return the fitted interpolant
+     */
+    public static NewtonInterpolator fitPolynomial(double[] points) {
+        return NewtonInterpolator.of(points);
+    }
 
-        return y0 * L0 + y1 * L1 + y2 * L2;
+    /**
+     * Fits the Lagrange polynomial once, in barycentric form.
+     *
+     * @param points the points as x0, y0, x1, y1, ...
+     * @return the fitted interpolant
+     */
+    public static BarycentricInterpolator fitLagrange(double[] points) {
+        return BarycentricInterpolator.of(points);
     }
 
     public static void menu() {
@@ -118,9 +176,7 @@ public class Interpolation {
             for (int k = i + 1; k < n; k++) {
                 double factor = A[k][i] / A[i][i];
                 x[k] -= factor * x[i];
-                for (int j = i; j < n; j++) {
-                    A[k][j] -= factor * A[i][j];
-                }
+                Kernels.axpy(-factor, A[i], i, A[k], i, n - i);
             }
         }
 
@@ -133,7 +189,11 @@ public class Interpolation {
         return x;
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            BatchRunner.main(args);
+            return;
+        }
         menu();
     }
 }
\ No newline at end of file
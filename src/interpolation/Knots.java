@@ -0,0 +1,79 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import java.util.Arrays;
+
+/**
+ * Interval lookup in a strictly increasing knot array, shared by the piecewise interpolants.
+ * Interval i is [x_i, x_{i+1}); points before the first knot map to interval 0 and points
+ * after the last knot to the last interval, so the end pieces extrapolate.
+ */
+final class Knots {
+    /**
+     * Largest deviation of a knot from its equally spaced position, relative to the spacing,
+     * for the knots to count as uniform.
+     */
+    private static final double UNIFORM_TOLERANCE = 1e-9;
+
+    private Knots() {
+    }
+
+    /**
+     * @param x the knots, at least two
+     * @return the reciprocal of the average spacing, which is the exact spacing on a uniform grid
+     */
+    static double inverseSpacing(double[] x) {
+        int n = x.length;
+        double spacing = (x[n - 1] - x[0]) / (n - 1);
+        return 1.0 / spacing;
+    }
+
+    /**
+     * @param x the knots, at least two
+     * @return true if every knot is within {@link #UNIFORM_TOLERANCE} spacings of x_0 + i h
+     */
+    static boolean isUniform(double[] x) {
+        int n = x.length;
+        double spacing = (x[n - 1] - x[0]) / (n - 1);
+        for (int i = 1; i < n - 1; i++) {
+            if (!(Math.abs(x[i] - (x[0] + i * spacing)) <= UNIFORM_TOLERANCE * spacing)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the interval holding t, in O(1) on uniform knots and by binary search otherwise
+     */
+    static int interval(double[] x, boolean uniform, double inverseSpacing, double t) {
+        return uniform ? uniformInterval(x, inverseSpacing, t) : binaryInterval(x, t);
+    }
+
+    /**
+     * Finds the interval of t on uniform knots by arithmetic.
+     *
+     * @param inverseSpacing the value of {@link #inverseSpacing(double[])} for x
+     */
+    static int uniformInterval(double[] x, double inverseSpacing, double t) {
+        int last = x.length - 2;
+        double position = (t - x[0]) * inverseSpacing;
+        int i = position <= 0 ? 0 : position >= last ? last : (int) position;
+        // The computed position can be off by one ulp across a knot; nudge it onto the right side
+        if (t < x[i] && i > 0) {
+            i--;
+        } else if (i < last && t >= x[i + 1]) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Finds the interval of t by binary search, for knots with any spacing.
+     */
+    static int binaryInterval(double[] x, double t) {
+        int found = Arrays.binarySearch(x, t);
+        int i = found >= 0 ? found : -found - 2;
+        return i < 0 ? 0 : Math.min(i, x.length - 2);
+    }
+}
@@ -0,0 +1,173 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import java.util.Arrays;
+
+/**
+ * The interpolating polynomial in Newton form,
+ * <pre>
+ * p(x) = c_0 + c_1 (x - x_0) + c_2 (x - x_0)(x - x_1) + ... + c_{n-1} (x - x_0)...(x - x_{n-2}),
+ * </pre>
+ * where c_k = f[x_0, ..., x_k] are the divided differences along the top edge of the table.
+ * Only the bottom edge of the table, f[x_{n-1}], f[x_{n-2}, x_{n-1}], ..., f[x_0, ..., x_{n-1}],
+ * is needed to extend it, so a new sample costs O(n) time and the whole object O(n) memory.
+ * The earlier coefficients never change when samples are appended, and evaluation is a nested
+ * Horner loop in O(n), with no linear system to solve.
+ */
+public class NewtonInterpolator implements Interpolant {
+    /**
+     * Number of queries carried through the coefficient loop together, so they stay in cache.
+     */
+    private static final int BLOCK = 512;
+
+    private double[] x;
+    private double[] coefficients;
+    private double[] edge;
+    private int size;
+
+    /**
+     * Creates an interpolator without samples.
+     */
+    public NewtonInterpolator() {
+        x = new double[8];
+        coefficients = new double[8];
+        edge = new double[8];
+    }
+
+    /**
+     * @param x the nodes, which must be distinct
+     * @param y the values at the nodes
+     */
+    public NewtonInterpolator(double[] x, double[] y) {
+        this();
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Expected as many values as nodes, got " + x.length + " and " + y.length + ".");
+        }
+        for (int i = 0; i < x.length; i++) {
+            add(x[i], y[i]);
+        }
+    }
+
+    /**
+     * Creates the interpolator through points given the way {@link Interpolation} takes them.
+     *
+     * @param points the points as x0, y0, x1, y1, ...
+     * @return the interpolator through the points
+     */
+    public static NewtonInterpolator of(double[] points) {
+        if (points.length % 2 != 0) {
+            throw new IllegalArgumentException("Points must come in (x, y) pairs.");
+        }
+        NewtonInterpolator interpolator = new NewtonInterpolator();
+        for (int i = 0; i < points.length; i += 2) {
+            interpolator.add(points[i], points[i + 1]);
+        }
+        return interpolator;
+    }
+
+    /**
+     * @return the number of samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a copy of the nodes, in insertion order
+     */
+    public double[] nodes() {
+        return Arrays.copyOf(x, size);
+    }
+
+    /**
+     * @return a copy of the Newton coefficients c_0, ..., c_{n-1}
+     */
+    public double[] coefficients() {
+        return Arrays.copyOf(coefficients, size);
+    }
+
+    /**
+     * Appends a sample, computing the new bottom edge of the divided-difference table from the
+     * old one: f[x_n] = y, then f[x_{n-k}, ..., x_n] = (f[x_{n-k+1}, ..., x_n] - f[x_{n-k}, ..., x_{n-1}]) / (x_n - x_{n-k}).
+     * Its last entry is the new coefficient.
+     *
+     * @param xNew the new node, distinct from the existing ones
+     * @param yNew the value at the new node
+     */
+    public void add(double xNew, double yNew) {
+        for (int k = 0; k < size; k++) {
+            if (x[k] == xNew) {
+                throw new IllegalArgumentException("Nodes must be distinct, but " + xNew + " appears twice.");
+            }
+        }
+        if (size == x.length) {
+            x = Arrays.copyOf(x, 2 * size);
+            coefficients = Arrays.copyOf(coefficients, 2 * size);
+            edge = Arrays.copyOf(edge, 2 * size);
+        }
+        double current = yNew;
+        for (int k = 1; k <= size; k++) {
+            double next = (current - edge[k - 1]) / (xNew - x[size - k]);
+            edge[k - 1] = current;
+            current = next;
+        }
+        edge[size] = current;
+        x[size] = xNew;
+        coefficients[size] = current;
+        size++;
+    }
+
+    /**
+     * @param t the point to evaluate at
+     * @return the value of the interpolating polynomial at t
+     */
+    @Override
+    public double evaluate(double t) {
+        if (size == 0) {
+            throw new IllegalStateException("No samples have been added.");
+        }
+        return evaluate(x, coefficients, size, t);
+    }
+
+    /**
+     * Runs the nested multiplication for all queries of a block side by side, one
+     * coefficient at a time, which turns the serial Horner chain into a loop over
+     * independent queries that vectorizes, see {@link BlockKernels}. Each block of queries is
+     * copied out before any result is written, so ys may be the same array as xs.
+     */
+    @Override
+    public void evaluate(double[] xs, double[] ys, int from, int to) {
+        if (size == 0) {
+            throw new IllegalStateException("No samples have been added.");
+        }
+        double[] t = new double[BLOCK];
+        double[] p = new double[BLOCK];
+        for (int c0 = from; c0 < to; c0 += BLOCK) {
+            int length = Math.min(BLOCK, to - c0);
+            System.arraycopy(xs, c0, t, 0, length);
+            Arrays.fill(p, coefficients[size - 1]);
+            for (int k = size - 2; k >= 0; k--) {
+                BlockKernels.horner(p, t, length, x[k], coefficients[k]);
+            }
+            System.arraycopy(p, 0, ys, c0, length);
+        }
+    }
+
+    /**
+     * Evaluates a Newton-form polynomial from its nodes and coefficients with nested multiplication,
+     * for callers that keep the coefficient vector of {@link #coefficients()}.
+     *
+     * @param nodes        the nodes x_0, ..., x_{n-2} (x_{n-1} is not used)
+     * @param coefficients the coefficients c_0, ..., c_{n-1}
+     * @param n            the number of coefficients
+     * @param t            the point to evaluate at
+     * @return p(t)
+     */
+    public static double evaluate(double[] nodes, double[] coefficients, int n, double t) {
+        double result = coefficients[n - 1];
+        for (int k = n - 2; k >= 0; k--) {
+            result = result * (t - nodes[k]) + coefficients[k];
+        }
+        return result;
+    }
+}
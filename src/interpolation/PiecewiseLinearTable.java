@@ -0,0 +1,383 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import java.util.Arrays;
+
+/**
+ * Linear interpolation in a sorted table of knots: between x_i and x_{i+1} the value is
+ * y_i + s_i (x - x_i), with the slope s_i of every interval computed once when the table is
+ * built. Knots, values and slopes live in three primitive arrays. Points outside the table are
+ * extrapolated along the first or last interval.
+ * <p>
+ * Locating the interval of a query is the expensive part for large tables, so the table is
+ * built for one of several {@link Search} strategies. For a stream of queries that mostly moves
+ * in one direction, such as increasing times, a {@link Cursor} remembers the last interval.
+ */
+public class PiecewiseLinearTable implements Interpolant {
+    /**
+     * How the interval holding a query is found.
+     */
+    public enum Search {
+        /**
+         * Bisection of the knots, O(log n) for any knot layout.
+         */
+        BINARY,
+        /**
+         * Guesses the position by interpolating between the end knots of the current range, then
+         * narrows the range around the guess; O(log log n) for roughly evenly spread knots. After
+         * a few guesses that do not pay off it continues by bisection, which bounds the worst case.
+         */
+        INTERPOLATION,
+        /**
+         * Splits the knot range into n - 1 equal buckets and stores the first interval of every
+         * bucket, so a query costs one multiplication plus a search within its bucket. On equally
+         * spaced knots each bucket is one interval and the index is not stored at all.
+         */
+        BUCKET,
+        /**
+         * Batch evaluation starts every chunk with a binary search and then gallops forward or
+         * backward from the previous query's interval; best for sorted or nearly sorted queries.
+         * Single queries use binary search.
+         */
+        HINT
+    }
+
+    /**
+     * Number of queries located before their pieces are evaluated together.
+     */
+    private static final int BLOCK = 256;
+
+    /**
+     * Consecutive failed guesses after which interpolation search switches to bisection.
+     */
+    private static final int MAX_GUESSES = 4;
+
+    /**
+     * Largest bucket that is scanned linearly instead of bisected.
+     */
+    private static final int SCAN = 8;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] slopes;
+    private final boolean uniform;
+    private final double inverseSpacing;
+    private final Search search;
+    /**
+     * For {@link Search#BUCKET} on unequal knots: bucketStart[b] is the interval holding the
+     * lower edge of bucket b, and bucketStart[n - 1] is the last interval.
+     */
+    private final int[] bucketStart;
+
+    /**
+     * Builds the table with {@link Search#BUCKET} lookup.
+     *
+     * @param x the knots, strictly increasing
+     * @param y the values at the knots
+     */
+    public PiecewiseLinearTable(double[] x, double[] y) {
+        this(x, y, Search.BUCKET);
+    }
+
+    /**
+     * @param x      the knots, strictly increasing
+     * @param y      the values at the knots
+     * @param search how queries are located in the knots
+     */
+    public PiecewiseLinearTable(double[] x, double[] y, Search search) {
+        if (search == null) {
+            throw new IllegalArgumentException("A search strategy is required.");
+        }
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Expected as many values as knots, got " + x.length + " and " + y.length + ".");
+        }
+        int n = x.length;
+        if (n < 2) {
+            throw new IllegalArgumentException("At least two knots are required.");
+        }
+        this.x = x.clone();
+        this.y = y.clone();
+        this.slopes = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            if (!(x[i + 1] > x[i])) {
+                throw new IllegalArgumentException("Knots must be strictly increasing, but x[" + (i + 1) + "] = "
+                        + x[i + 1] + " follows " + x[i] + ".");
+            }
+            slopes[i] = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+        }
+
+        this.uniform = Knots.isUniform(x);
+        this.inverseSpacing = Knots.inverseSpacing(x);
+        this.search = search;
+        this.bucketStart = search == Search.BUCKET && !uniform ? buckets() : null;
+    }
+
+    /**
+     * Creates the table through points given the way {@link Interpolation} takes them,
+     * in any order.
+     *
+     * @param points the points as x0, y0, x1, y1, ...
+     * @return the table through the points, sorted by x
+     */
+    public static PiecewiseLinearTable of(double[] points) {
+        if (points.length % 2 != 0) {
+            throw new IllegalArgumentException("Points must come in (x, y) pairs.");
+        }
+        int n = points.length / 2;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(points[2 * a], points[2 * b]));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = points[2 * order[i]];
+            y[i] = points[2 * order[i] + 1];
+        }
+        return new PiecewiseLinearTable(x, y);
+    }
+
+    /**
+     * @return the number of knots
+     */
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * @return true if the knots are equally spaced
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    /**
+     * @return the search strategy the table was built for
+     */
+    public Search search() {
+        return search;
+    }
+
+    /**
+     * Builds a table over the same knots and values with another search strategy.
+     *
+     * @param strategy the search strategy
+     * @return the new table
+     */
+    public PiecewiseLinearTable withSearch(Search strategy) {
+        return strategy == search ? this : new PiecewiseLinearTable(x, y, strategy);
+    }
+
+    /**
+     * @return a new cursor positioned at the first interval
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public double evaluate(double t) {
+        int i = interval(t);
+        return y[i] + slopes[i] * (t - x[i]);
+    }
+
+    /**
+     * Locates a block of queries first, then evaluates their pieces together with
+     * {@link BlockKernels#linear}, which gathers knots, values and slopes with vector loads
+     * where the Vector API is available. Uniform knots keep a single fused pass: their lookup is a
+     * few flops, and the double-to-int conversion it needs is not vectorized by the JIT.
+     */
+    @Override
+    public void evaluate(double[] xs, double[] ys, int from, int to) {
+        if (search == Search.BUCKET && uniform) {
+            for (int k = from; k < to; k++) {
+                double t = xs[k];
+                int i = Knots.uniformInterval(x, inverseSpacing, t);
+                ys[k] = y[i] + slopes[i] * (t - x[i]);
+            }
+            return;
+        }
+        int[] interval = new int[BLOCK];
+        int i = from < to && search == Search.HINT ? Knots.binaryInterval(x, xs[from]) : 0;
+        for (int c0 = from; c0 < to; c0 += BLOCK) {
+            int length = Math.min(BLOCK, to - c0);
+            if (search == Search.HINT) {
+                for (int k = 0; k < length; k++) {
+                    i = gallop(xs[c0 + k], i);
+                    interval[k] = i;
+                }
+            } else {
+                for (int k = 0; k < length; k++) {
+                    interval[k] = interval(xs[c0 + k]);
+                }
+            }
+            BlockKernels.linear(xs, c0, interval, x, y, slopes, ys, c0, length);
+        }
+    }
+
+    /**
+     * Evaluates a stream of queries that moves mostly in one direction, starting each search
+     * from the interval of the previous query: a query in the same or the next interval costs
+     * one or two comparisons, and a jump of d intervals costs O(log d).
+     * A cursor is cheap and not thread-safe; give each thread its own.
+     */
+    public final class Cursor {
+        private int interval;
+
+        private Cursor() {
+        }
+
+        /**
+         * @param t the point to evaluate at
+         * @return the interpolated value at t
+         */
+        public double evaluate(double t) {
+            int i = gallop(t, interval);
+            interval = i;
+            return y[i] + slopes[i] * (t - x[i]);
+        }
+
+        /**
+         * @return the interval of the last query, as an index into the knots
+         */
+        public int interval() {
+            return interval;
+        }
+    }
+
+    /**
+     * @return the index i of the interval [x_i, x_{i+1}) holding t, clamped to the end intervals
+     */
+    private int interval(double t) {
+        switch (search) {
+            case INTERPOLATION:
+                return interpolation(t);
+            case BUCKET:
+                return bucketStart == null ? Knots.uniformInterval(x, inverseSpacing, t) : bucket(t);
+            default:
+                return Knots.binaryInterval(x, t);
+        }
+    }
+
+    /**
+     * Keeps x[lo] <= t < x[hi] and moves one end to the interpolated guess each step. A guess
+     * that leaves more than half the range is counted as failed, and after
+     * {@link #MAX_GUESSES} of those the rest of the range is bisected.
+     */
+    private int interpolation(double t) {
+        int last = x.length - 2;
+        if (!(t >= x[1])) {
+            return 0;
+        }
+        if (t >= x[last]) {
+            return last;
+        }
+        int lo = 1;
+        int hi = last;
+        int failures = 0;
+        while (hi - lo > 1) {
+            int width = hi - lo;
+            int guess;
+            if (failures < MAX_GUESSES) {
+                guess = lo + (int) ((t - x[lo]) / (x[hi] - x[lo]) * width);
+                guess = Math.max(lo + 1, Math.min(hi - 1, guess));
+            } else {
+                guess = (lo + hi) >>> 1;
+            }
+            if (x[guess] <= t) {
+                lo = guess;
+            } else {
+                hi = guess;
+            }
+            if (2 * (hi - lo) > width) {
+                failures++;
+            }
+        }
+        return lo;
+    }
+
+    private int bucket(double t) {
+        int buckets = x.length - 1;
+        double position = (t - x[0]) * inverseSpacing;
+        int b = position <= 0 ? 0 : position >= buckets - 1 ? buckets - 1 : (int) position;
+        int lo = bucketStart[b];
+        int hi = bucketStart[b + 1];
+        // Rounding of the position can put t just outside its bucket; gallop covers that rare case
+        if (t < x[lo] && lo > 0 || hi < x.length - 2 && t >= x[hi + 1]) {
+            return gallop(t, lo);
+        }
+        if (hi - lo <= SCAN) {
+            while (lo < hi && x[lo + 1] <= t) {
+                lo++;
+            }
+            return lo;
+        }
+        return within(t, lo, hi + 1);
+    }
+
+    /**
+     * Exponential search outward from interval i: steps of 1, 2, 4, ... until t is bracketed,
+     * then bisection of the last step.
+     */
+    private int gallop(double t, int i) {
+        int last = x.length - 2;
+        if (t >= x[i]) {
+            if (i == last || t < x[i + 1]) {
+                return i;
+            }
+            int lo = i + 1;
+            int step = 1;
+            while (lo + step <= last && x[lo + step] <= t) {
+                lo += step;
+                step <<= 1;
+            }
+            return within(t, lo, Math.min(lo + step, last + 1));
+        }
+        if (i == 0) {
+            return 0;
+        }
+        int hi = i;
+        int step = 1;
+        while (hi - step > 0 && x[hi - step] > t) {
+            hi -= step;
+            step <<= 1;
+        }
+        return within(t, Math.max(hi - step, 0), hi);
+    }
+
+    /**
+     * Bisection for the interval holding t, given x[lo] <= t (or lo = 0) and t < x[hi] (or hi
+     * past the last interval).
+     */
+    private int within(double t, int lo, int hi) {
+        while (hi - lo > 1) {
+            int middle = (lo + hi) >>> 1;
+            if (x[middle] <= t) {
+                lo = middle;
+            } else {
+                hi = middle;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Fills the bucket index in one merge-like pass over knots and bucket edges.
+     */
+    private int[] buckets() {
+        int buckets = x.length - 1;
+        int[] start = new int[buckets + 1];
+        double spacing = (x[x.length - 1] - x[0]) / buckets;
+        int i = 0;
+        for (int b = 0; b < buckets; b++) {
+            double edge = x[0] + b * spacing;
+            while (i < buckets - 1 && x[i + 1] <= edge) {
+                i++;
+            }
+            start[b] = i;
+        }
+        start[buckets] = buckets - 1;
+        return start;
+    }
+}
@@ -0,0 +1,40 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+/**
+ * The block kernels in plain Java, used when the Vector API is not available. The loops index
+ * every array the same way, so the JIT may still compile them to packed SIMD instructions.
+ */
+final class ScalarBlockKernels implements BlockKernelSet {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void horner(double[] p, double[] t, int length, double node, double coefficient) {
+        for (int i = 0; i < length; i++) {
+            p[i] = p[i] * (t[i] - node) + coefficient;
+        }
+    }
+
+    @Override
+    public void barycentric(double[] t, double[] numerator, double[] denominator, int length,
+                            double node, double weight, double value) {
+        for (int i = 0; i < length; i++) {
+            double term = weight / (t[i] - node);
+            numerator[i] += term * value;
+            denominator[i] += term;
+        }
+    }
+
+    @Override
+    public void linear(double[] xs, int xOffset, int[] interval, double[] x, double[] y, double[] slopes,
+                       double[] ys, int yOffset, int length) {
+        for (int k = 0; k < length; k++) {
+            int i = interval[k];
+            ys[yOffset + k] = y[i] + slopes[i] * (xs[xOffset + k] - x[i]);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+
+/**
+ * A sparse matrix in compressed sparse column (CSC) form.
+ * The nonzeros of column j are values[columnPointers[j] .. columnPointers[j + 1]), with their
+ * row numbers in the same positions of rowIndices, sorted in increasing order.
+ * Memory use is O(nnz + cols).
+ */
+public class CSCMatrix implements LinearOperator {
+    private final int rows;
+    private final int cols;
+    private final int[] columnPointers;
+    private final int[] rowIndices;
+    private final double[] values;
+
+    /**
+     * Wraps existing CSC arrays without copying them, after checking that they are well formed.
+     *
+     * @param rows           the number of rows
+     * @param cols           the number of columns
+     * @param columnPointers cols + 1 non-decreasing offsets into rowIndices and values, starting at 0
+     * @param rowIndices     the row of each stored entry, strictly increasing within each column
+     * @param values         the value of each stored entry
+     * @throws IllegalArgumentException if the arrays are not a valid CSC matrix
+     */
+    public CSCMatrix(int rows, int cols, int[] columnPointers, int[] rowIndices, double[] values) {
+        SparseMatrixBuilder.checkCompressed("CSC", rows, cols, cols, rows, columnPointers, rowIndices, values);
+        this.rows = rows;
+        this.cols = cols;
+        this.columnPointers = columnPointers;
+        this.rowIndices = rowIndices;
+        this.values = values;
+    }
+
+    /**
+     * Builds a CSC matrix from coordinate triplets; duplicate entries are summed.
+     *
+     * @param rows          the number of rows
+     * @param cols          the number of columns
+     * @param rowIndices    the row of each triplet
+     * @param columnIndices the column of each triplet
+     * @param values        the value of each triplet
+     * @return the compressed matrix
+     */
+    public static CSCMatrix fromTriplets(int rows, int cols, int[] rowIndices, int[] columnIndices, double[] values) {
+        SparseMatrixBuilder.checkTriplets(rows, cols, rowIndices, columnIndices, values);
+        SparseMatrixBuilder.Compressed c = SparseMatrixBuilder.compress(cols, rows, columnIndices, rowIndices, values, values.length);
+        return new CSCMatrix(rows, cols, c.pointers, c.indices, c.values);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return the number of stored entries
+     */
+    public int nonZeros() {
+        return columnPointers[cols];
+    }
+
+    public int[] columnPointers() {
+        return columnPointers;
+    }
+
+    public int[] rowIndices() {
+        return rowIndices;
+    }
+
+    public double[] values() {
+        return values;
+    }
+
+    /**
+     * Returns entry (i, j) using a binary search within column j.
+     *
+     * @param i the row index
+     * @param j the column index
+     * @return the stored value, or 0 if the entry is not stored
+     */
+    public double get(int i, int j) {
+        int lo = columnPointers[j];
+        int hi = columnPointers[j + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int r = rowIndices[mid];
+            if (r < i) {
+                lo = mid + 1;
+            } else if (r > i) {
+                hi = mid - 1;
+            } else {
+                return values[mid];
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Computes y = Ax in O(nnz) by scattering each column.
+     *
+     * @param x the input vector of length cols
+     * @param y the output vector of length rows
+     */
+    @Override
+    public void multiply(double[] x, double[] y) {
+        Arrays.fill(y, 0, rows, 0.0);
+        for (int j = 0; j < cols; j++) {
+            double xj = x[j];
+            if (xj != 0) {
+                for (int p = columnPointers[j]; p < columnPointers[j + 1]; p++) {
+                    y[rowIndices[p]] += values[p] * xj;
+                }
+            }
+        }
+    }
+
+    @Override
+    public long multiplyFlops() {
+        return 2L * nonZeros();
+    }
+
+    /**
+     * @return the same matrix in compressed sparse row form
+     */
+    public CSRMatrix toCSR() {
+        int[] columnOfEntry = new int[nonZeros()];
+        for (int j = 0; j < cols; j++) {
+            for (int p = columnPointers[j]; p < columnPointers[j + 1]; p++) {
+                columnOfEntry[p] = j;
+            }
+        }
+        SparseMatrixBuilder.Compressed c = SparseMatrixBuilder.compress(rows, cols, rowIndices, columnOfEntry, values, nonZeros());
+        return new CSRMatrix(rows, cols, c.pointers, c.indices, c.values);
+    }
+}
@@ -0,0 +1,190 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+/**
+ * A sparse matrix in compressed sparse row (CSR) form.
+ * The nonzeros of row i are values[rowPointers[i] .. rowPointers[i + 1]), with their column
+ * numbers in the same positions of columnIndices, sorted in increasing order.
+ * Memory use is O(nnz + rows).
+ */
+public class CSRMatrix implements LinearOperator {
+    private final int rows;
+    private final int cols;
+    private final int[] rowPointers;
+    private final int[] columnIndices;
+    private final double[] values;
+
+    /**
+     * Wraps existing CSR arrays without copying them, after checking that they are well formed.
+     *
+     * @param rows          the number of rows
+     * @param cols          the number of columns
+     * @param rowPointers   rows + 1 non-decreasing offsets into columnIndices and values, starting at 0
+     * @param columnIndices the column of each stored entry, strictly increasing within each row
+     * @param values        the value of each stored entry
+     * @throws IllegalArgumentException if the arrays are not a valid CSR matrix
+     */
+    public CSRMatrix(int rows, int cols, int[] rowPointers, int[] columnIndices, double[] values) {
+        SparseMatrixBuilder.checkCompressed("CSR", rows, cols, rows, cols, rowPointers, columnIndices, values);
+        this.rows = rows;
+        this.cols = cols;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Builds a CSR matrix from coordinate triplets; duplicate entries are summed.
+     *
+     * @param rows          the number of rows
+     * @param cols          the number of columns
+     * @param rowIndices    the row of each triplet
+     * @param columnIndices the column of each triplet
+     * @param values        the value of each triplet
+     * @return the compressed matrix
+     */
+    public static CSRMatrix fromTriplets(int rows, int cols, int[] rowIndices, int[] columnIndices, double[] values) {
+        SparseMatrixBuilder.checkTriplets(rows, cols, rowIndices, columnIndices, values);
+        SparseMatrixBuilder.Compressed c = SparseMatrixBuilder.compress(rows, cols, rowIndices, columnIndices, values, values.length);
+        return new CSRMatrix(rows, cols, c.pointers, c.indices, c.values);
+    }
+
+    /**
+     * Converts a dense matrix, keeping only its nonzero entries.
+     *
+     * @param matrix the dense matrix
+     * @return the compressed matrix
+     */
+    public static CSRMatrix of(DenseMatrix matrix) {
+        SparseMatrixBuilder builder = new SparseMatrixBuilder(matrix.rows(), matrix.cols());
+        for (int i = 0; i < matrix.rows(); i++) {
+            for (int j = 0; j < matrix.cols(); j++) {
+                if (matrix.get(i, j) != 0) {
+                    builder.add(i, j, matrix.get(i, j));
+                }
+            }
+        }
+        return builder.buildCSR();
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return the number of stored entries
+     */
+    public int nonZeros() {
+        return rowPointers[rows];
+    }
+
+    public int[] rowPointers() {
+        return rowPointers;
+    }
+
+    public int[] columnIndices() {
+        return columnIndices;
+    }
+
+    public double[] values() {
+        return values;
+    }
+
+    /**
+     * Returns entry (i, j) using a binary search within row i.
+     *
+     * @param i the row index
+     * @param j the column index
+     * @return the stored value, or 0 if the entry is not stored
+     */
+    public double get(int i, int j) {
+        int p = find(i, j);
+        return p < 0 ? 0.0 : values[p];
+    }
+
+    /**
+     * @return the position of entry (i, j) in the value array, or -1 if it is not stored
+     */
+    int find(int i, int j) {
+        int lo = rowPointers[i];
+        int hi = rowPointers[i + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = columnIndices[mid];
+            if (c < j) {
+                lo = mid + 1;
+            } else if (c > j) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Computes y = Ax in O(nnz).
+     *
+     * @param x the input vector of length cols
+     * @param y the output vector of length rows
+     */
+    @Override
+    public void multiply(double[] x, double[] y) {
+        for (int i = 0; i < rows; i++) {
+            double sum = 0;
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                sum += values[p] * x[columnIndices[p]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Copies the main diagonal into the given array.
+     *
+     * @param out an array of length min(rows, cols)
+     */
+    public void diagonal(double[] out) {
+        for (int i = 0; i < Math.min(rows, cols); i++) {
+            out[i] = get(i, i);
+        }
+    }
+
+    @Override
+    public long multiplyFlops() {
+        return 2L * nonZeros();
+    }
+
+    /**
+     * @return the same matrix in compressed sparse column form
+     */
+    public CSCMatrix toCSC() {
+        int[] rowOfEntry = new int[nonZeros()];
+        for (int i = 0; i < rows; i++) {
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                rowOfEntry[p] = i;
+            }
+        }
+        SparseMatrixBuilder.Compressed c = SparseMatrixBuilder.compress(cols, rows, columnIndices, rowOfEntry, values, nonZeros());
+        return new CSCMatrix(rows, cols, c.pointers, c.indices, c.values);
+    }
+
+    /**
+     * @return a dense copy of this matrix
+     */
+    public DenseMatrix toDense() {
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                result.set(i, columnIndices[p], values[p]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Estimates condition numbers from an existing LU factorization without forming the inverse,
+ * using Hager's method as refined by Higham (the algorithm behind LAPACK's xLACON).
+ * Each estimate needs a handful of solves with A and A^T, i.e. O(n^2) work on top of the
+ * factorization, instead of the O(n^3) work and n^2 storage of an explicit inverse.
+ * The result is a lower bound on the true value that is exact in most cases and almost
+ * always within a factor of 3.
+ */
+public class ConditionEstimator {
+    private static final int MAX_ITERATIONS = 5;
+
+    /**
+     * A factorization that can solve with A and A^T, which is all an estimate needs.
+     */
+    interface Solver {
+        int size();
+
+        void solve(double[] b, double[] x);
+
+        void solveTranspose(double[] b, double[] x, double[] work);
+    }
+
+    /**
+     * Estimates the 1-norm condition number ||A||_1 * ||A^-1||_1.
+     *
+     * @param A       the matrix
+     * @param factors the LU factors of A
+     * @return the estimated condition number
+     */
+    public static double conditionOne(DenseMatrix A, LUFactors factors) {
+        return matrixOperations.matrixOneNorm(A) * inverseOneNorm(factors);
+    }
+
+    /**
+     * Estimates the infinity-norm condition number ||A||_inf * ||A^-1||_inf.
+     *
+     * @param A       the matrix
+     * @param factors the LU factors of A
+     * @return the estimated condition number
+     */
+    public static double conditionInfinity(DenseMatrix A, LUFactors factors) {
+        return matrixOperations.matrixInfinityNorm(A) * inverseInfinityNorm(factors);
+    }
+
+    /**
+     * Factors A and estimates its infinity-norm condition number.
+     *
+     * @param A the matrix
+     * @return the estimated condition number, or infinity if A is singular
+     */
+    public static double conditionInfinity(DenseMatrix A) {
+        try {
+            return conditionInfinity(A, LUFactorization.factor(A));
+        } catch (IllegalArgumentException e) {
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * @param factors the LU factors of A
+     * @return an estimate of ||A^-1||_1
+     */
+    public static double inverseOneNorm(LUFactors factors) {
+        return estimate(factors, false);
+    }
+
+    /**
+     * @param factors the LU factors of A
+     * @return an estimate of ||A^-1||_inf, computed as ||A^-T||_1
+     */
+    public static double inverseInfinityNorm(LUFactors factors) {
+        return estimate(factors, true);
+    }
+
+    /**
+     * @param solver any factorization of A
+     * @return an estimate of ||A^-1||_inf, computed as ||A^-T||_1
+     */
+    static double inverseInfinityNorm(Solver solver) {
+        return estimate(solver, true);
+    }
+
+    /**
+     * Screens many matrices at once, factoring and estimating each one on the pool.
+     *
+     * @param matrices the square matrices to screen
+     * @param pool     the pool to run on, or null to stay on the calling thread
+     * @return the estimated infinity-norm condition number of each matrix, infinity for singular ones
+     */
+    public static double[] conditionInfinity(List<DenseMatrix> matrices, ForkJoinPool pool) {
+        double[] result = new double[matrices.size()];
+        ParallelLoop.forRange(pool, 0, matrices.size(), 1, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                DenseMatrix A = matrices.get(i);
+                try {
+                    result[i] = conditionInfinity(A, LUFactorization.factorInPlace(A.copy(), null));
+                } catch (IllegalArgumentException e) {
+                    result[i] = Double.POSITIVE_INFINITY;
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Hager-Higham estimate of ||B||_1 where B is A^-1, or A^-T when transposed is set.
+     * It climbs towards the column of B with the largest 1-norm by alternating solves with
+     * B and B^T, then guards against unlucky matrices with Higham's alternating test vector.
+     */
+    private static double estimate(Solver factors, boolean transposed) {
+        int n = factors.size();
+        if (n == 0) {
+            return 0;
+        }
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] work = new double[n];
+        Arrays.fill(x, 1.0 / n);
+
+        double estimate = 0;
+        int lastIndex = -1;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            apply(factors, transposed, x, y, work);
+            double norm = oneNorm(y);
+            if (iteration > 0 && norm <= estimate) {
+                break;
+            }
+            estimate = norm;
+
+            for (int i = 0; i < n; i++) {
+                work[i] = y[i] >= 0 ? 1.0 : -1.0;
+            }
+            apply(factors, !transposed, work, x, y);
+
+            int index = 0;
+            for (int i = 1; i < n; i++) {
+                if (Math.abs(x[i]) > Math.abs(x[index])) {
+                    index = i;
+                }
+            }
+            if (index == lastIndex) {
+                break;
+            }
+            lastIndex = index;
+            Arrays.fill(x, 0.0);
+            x[index] = 1.0;
+        }
+
+        // Higham's extra test vector catches matrices where the climb stalls early
+        for (int i = 0; i < n; i++) {
+            x[i] = (i % 2 == 0 ? 1 : -1) * (1 + (n == 1 ? 0 : (double) i / (n - 1)));
+        }
+        apply(factors, transposed, x, y, work);
+        return Math.max(estimate, 2 * oneNorm(y) / (3 * n));
+    }
+
+    private static void apply(Solver factors, boolean transposed, double[] in, double[] out, double[] work) {
+        if (transposed) {
+            factors.solveTranspose(in, out, work);
+        } else {
+            factors.solve(in, out);
+        }
+    }
+
+    private static double oneNorm(double[] vector) {
+        double sum = 0;
+        for (double v : vector) {
+            sum += Math.abs(v);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,121 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stopping rules shared by the iterative solvers. Instances are immutable; every
+ * {@code with...} method returns a modified copy, starting from {@link #defaults()}.
+ * A solve succeeds once the relative residual ||b - Ax|| / ||b|| drops to the relative
+ * tolerance, or once the largest change of a component within one sweep drops below the
+ * step tolerance. It fails once it runs out of iterations or time, diverges or stalls.
+ */
+public final class ConvergenceCriteria {
+    private static final ConvergenceCriteria DEFAULTS =
+            new ConvergenceCriteria(1e-8, 0, 10_000, Long.MAX_VALUE, 1e6, 100);
+
+    private final double relativeTolerance;
+    private final double stepTolerance;
+    private final int maxIterations;
+    private final long timeBudgetNanos;
+    private final double divergenceFactor;
+    private final int stallWindow;
+
+    private ConvergenceCriteria(double relativeTolerance, double stepTolerance, int maxIterations,
+                                long timeBudgetNanos, double divergenceFactor, int stallWindow) {
+        if (relativeTolerance < 0 || stepTolerance < 0 || maxIterations <= 0 || timeBudgetNanos <= 0
+                || !(divergenceFactor > 1) || stallWindow < 0) {
+            throw new IllegalArgumentException("Invalid convergence criteria.");
+        }
+        this.relativeTolerance = relativeTolerance;
+        this.stepTolerance = stepTolerance;
+        this.maxIterations = maxIterations;
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.divergenceFactor = divergenceFactor;
+        this.stallWindow = stallWindow;
+    }
+
+    /**
+     * @return relative tolerance 1e-8, no step test, at most 10,000 iterations, no time budget,
+     * divergence once the residual grows a million-fold, and a stall once the best residual has not
+     * improved by 0.1% in 100 iterations, which any iteration fast enough to finish within the
+     * iteration limit easily does
+     */
+    public static ConvergenceCriteria defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @param tolerance stop once ||b - Ax|| / ||b|| is at most this; 0 disables the test
+     * @return a copy with the new tolerance
+     */
+    public ConvergenceCriteria withRelativeTolerance(double tolerance) {
+        return new ConvergenceCriteria(tolerance, stepTolerance, maxIterations, timeBudgetNanos, divergenceFactor, stallWindow);
+    }
+
+    /**
+     * @param tolerance stop once no component of x changes by this much in one sweep; 0 disables the test
+     * @return a copy with the new tolerance
+     */
+    public ConvergenceCriteria withStepTolerance(double tolerance) {
+        return new ConvergenceCriteria(relativeTolerance, tolerance, maxIterations, timeBudgetNanos, divergenceFactor, stallWindow);
+    }
+
+    /**
+     * @param iterations the largest number of iterations before giving up
+     * @return a copy with the new limit
+     */
+    public ConvergenceCriteria withMaxIterations(int iterations) {
+        return new ConvergenceCriteria(relativeTolerance, stepTolerance, iterations, timeBudgetNanos, divergenceFactor, stallWindow);
+    }
+
+    /**
+     * @param budget the wall-clock time after which the solve gives up
+     * @param unit   the unit of budget
+     * @return a copy with the new budget
+     */
+    public ConvergenceCriteria withTimeBudget(long budget, TimeUnit unit) {
+        return new ConvergenceCriteria(relativeTolerance, stepTolerance, maxIterations, unit.toNanos(budget), divergenceFactor, stallWindow);
+    }
+
+    /**
+     * @param factor declare divergence once the residual exceeds the initial one by this factor
+     * @return a copy with the new factor
+     */
+    public ConvergenceCriteria withDivergenceFactor(double factor) {
+        return new ConvergenceCriteria(relativeTolerance, stepTolerance, maxIterations, timeBudgetNanos, factor, stallWindow);
+    }
+
+    /**
+     * @param iterations declare a stall once the best residual has not improved by 0.1% for this many
+     *                   iterations; 0 disables the test
+     * @return a copy with the new window
+     */
+    public ConvergenceCriteria withStallWindow(int iterations) {
+        return new ConvergenceCriteria(relativeTolerance, stepTolerance, maxIterations, timeBudgetNanos, divergenceFactor, iterations);
+    }
+
+    public double relativeTolerance() {
+        return relativeTolerance;
+    }
+
+    public double stepTolerance() {
+        return stepTolerance;
+    }
+
+    public int maxIterations() {
+        return maxIterations;
+    }
+
+    public long timeBudgetNanos() {
+        return timeBudgetNanos;
+    }
+
+    public double divergenceFactor() {
+        return divergenceFactor;
+    }
+
+    public int stallWindow() {
+        return stallWindow;
+    }
+}
@@ -0,0 +1,336 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+
+/**
+ * A dense matrix stored in a single flat {@code double[]}.
+ * Element (i, j) lives at {@code offset + i * rowStride + j * colStride}, so sub-blocks,
+ * transposes and row/column slices are views that share the backing array without copying.
+ * Freshly allocated matrices are row-major with {@code colStride == 1}.
+ */
+public class DenseMatrix implements LinearOperator {
+    private final double[] data;
+    private final int offset;
+    private final int rows;
+    private final int cols;
+    private final int rowStride;
+    private final int colStride;
+
+    /**
+     * Creates a zero-filled row-major matrix.
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     */
+    public DenseMatrix(int rows, int cols) {
+        this(new double[Math.multiplyExact(rows, cols)], 0, rows, cols, cols, 1);
+    }
+
+    /**
+     * Wraps an existing array as a matrix view.
+     *
+     * @param data      the backing array
+     * @param offset    index of element (0, 0) in the backing array
+     * @param rows      the number of rows
+     * @param cols      the number of columns
+     * @param rowStride distance in the backing array between (i, j) and (i + 1, j)
+     * @param colStride distance in the backing array between (i, j) and (i, j + 1)
+     */
+    public DenseMatrix(double[] data, int offset, int rows, int cols, int rowStride, int colStride) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Matrix dimensions must be non-negative.");
+        }
+        if (rows > 0 && cols > 0) {
+            long last = offset + (long) (rows - 1) * rowStride + (long) (cols - 1) * colStride;
+            if (offset < 0 || last >= data.length || last < 0) {
+                throw new IllegalArgumentException("View does not fit inside the backing array.");
+            }
+        }
+        this.data = data;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+    }
+
+    /**
+     * Copies a jagged array into a new row-major matrix.
+     *
+     * @param matrix the rectangular array to copy
+     * @return the flat copy of the matrix
+     */
+    public static DenseMatrix of(double[][] matrix) {
+        int rows = matrix.length;
+        int cols = rows == 0 ? 0 : matrix[0].length;
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            if (matrix[i].length != cols) {
+                throw new IllegalArgumentException("All rows must have the same length.");
+            }
+            System.arraycopy(matrix[i], 0, result.data, i * cols, cols);
+        }
+        return result;
+    }
+
+    /**
+     * Creates an n x n identity matrix.
+     *
+     * @param n the dimension
+     * @return the identity matrix
+     */
+    public static DenseMatrix identity(int n) {
+        DenseMatrix result = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            result.data[i * n + i] = 1.0;
+        }
+        return result;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    public double[] data() {
+        return data;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int rowStride() {
+        return rowStride;
+    }
+
+    public int colStride() {
+        return colStride;
+    }
+
+    /**
+     * @return true if every row is contiguous in the backing array
+     */
+    public boolean isRowContiguous() {
+        return colStride == 1;
+    }
+
+    /**
+     * Returns the position of element (i, j) in the backing array.
+     *
+     * @param i the row index
+     * @param j the column index
+     * @return the index into {@link #data()}
+     */
+    public int index(int i, int j) {
+        return offset + i * rowStride + j * colStride;
+    }
+
+    public double get(int i, int j) {
+        return data[offset + i * rowStride + j * colStride];
+    }
+
+    public void set(int i, int j, double value) {
+        data[offset + i * rowStride + j * colStride] = value;
+    }
+
+    public void add(int i, int j, double value) {
+        data[offset + i * rowStride + j * colStride] += value;
+    }
+
+    /**
+     * Computes y = Ax.
+     *
+     * @param x the input vector of length cols
+     * @param y the output vector of length rows
+     */
+    @Override
+    public void multiply(double[] x, double[] y) {
+        for (int i = 0; i < rows; i++) {
+            int p = offset + i * rowStride;
+            double sum = 0;
+            for (int j = 0; j < cols; j++, p += colStride) {
+                sum += data[p] * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Returns a view of the block starting at (row, col).
+     *
+     * @param row    the first row of the block
+     * @param col    the first column of the block
+     * @param height the number of rows in the block
+     * @param width  the number of columns in the block
+     * @return a view sharing this matrix's storage
+     */
+    public DenseMatrix subMatrix(int row, int col, int height, int width) {
+        if (row < 0 || col < 0 || height < 0 || width < 0 || row + height > rows || col + width > cols) {
+            throw new IndexOutOfBoundsException("Block [" + row + ", " + col + ", " + height + ", " + width
+                    + "] is outside a " + rows + "x" + cols + " matrix.");
+        }
+        int start = (height == 0 || width == 0) ? offset : index(row, col);
+        return new DenseMatrix(data, start, height, width, rowStride, colStride);
+    }
+
+    /**
+     * @return a transposed view sharing this matrix's storage
+     */
+    public DenseMatrix transpose() {
+        return new DenseMatrix(data, offset, cols, rows, colStride, rowStride);
+    }
+
+    /**
+     * @param i the row index
+     * @return a 1 x cols view of row i
+     */
+    public DenseMatrix row(int i) {
+        return subMatrix(i, 0, 1, cols);
+    }
+
+    /**
+     * @param j the column index
+     * @return a rows x 1 view of column j
+     */
+    public DenseMatrix column(int j) {
+        return subMatrix(0, j, rows, 1);
+    }
+
+    /**
+     * @return a compact row-major copy of this matrix
+     */
+    public DenseMatrix copy() {
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        result.copyFrom(this);
+        return result;
+    }
+
+    /**
+     * Overwrites this matrix with the contents of another matrix of the same shape.
+     *
+     * @param source the matrix to copy from
+     */
+    public void copyFrom(DenseMatrix source) {
+        checkSameShape(source);
+        if (colStride == 1 && source.colStride == 1) {
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(source.data, source.offset + i * source.rowStride, data, offset + i * rowStride, cols);
+            }
+        } else {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    set(i, j, source.get(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets every element of this matrix to the given value.
+     *
+     * @param value the value to fill with
+     */
+    public void fill(double value) {
+        if (colStride == 1) {
+            for (int i = 0; i < rows; i++) {
+                int start = offset + i * rowStride;
+                Arrays.fill(data, start, start + cols, value);
+            }
+        } else {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    set(i, j, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Swaps two rows of this matrix in place.
+     *
+     * @param i the index of the first row
+     * @param j the index of the second row
+     */
+    public void swapRows(int i, int j) {
+        if (i == j) {
+            return;
+        }
+        int a = offset + i * rowStride;
+        int b = offset + j * rowStride;
+        for (int k = 0; k < cols; k++, a += colStride, b += colStride) {
+            double temp = data[a];
+            data[a] = data[b];
+            data[b] = temp;
+        }
+    }
+
+    /**
+     * Copies row i into the given array.
+     *
+     * @param i   the row index
+     * @param out an array of at least cols elements
+     */
+    public void getRow(int i, double[] out) {
+        int p = offset + i * rowStride;
+        for (int j = 0; j < cols; j++, p += colStride) {
+            out[j] = data[p];
+        }
+    }
+
+    /**
+     * Copies column j into the given array.
+     *
+     * @param j   the column index
+     * @param out an array of at least rows elements
+     */
+    public void getColumn(int j, double[] out) {
+        int p = offset + j * colStride;
+        for (int i = 0; i < rows; i++, p += rowStride) {
+            out[i] = data[p];
+        }
+    }
+
+    /**
+     * @return a jagged copy of this matrix
+     */
+    public double[][] toArray() {
+        double[][] result = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            getRow(i, result[i]);
+        }
+        return result;
+    }
+
+    void checkSameShape(DenseMatrix other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match: " + rows + "x" + cols
+                    + " vs " + other.rows + "x" + other.cols + ".");
+        }
+    }
+
+    void checkSquare() {
+        if (rows != cols) {
+            throw new IllegalArgumentException("Matrix must be square, got " + rows + "x" + cols + ".");
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            sb.append("{ ");
+            for (int j = 0; j < cols; j++) {
+                sb.append(get(i, j)).append(", ");
+            }
+            sb.append("}\n");
+        }
+        return sb.toString();
+    }
+}
@@ -1,10 +1,26 @@
 // https://github.com/matanof2/Numeric_Analysis.git
 package matrices;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
 
 public class JacobiAndGaussSeidel {
     private static final double PRECISION = 0.001;
 
+    /**
+     * The original stopping rule: no component may move by PRECISION or more in a sweep.
+     * The iteration cap keeps a non-converging system from spinning forever, and the default
+     * stall window gives up on one whose residual has stopped falling after 100 sweeps.
+     */
+    private static final ConvergenceCriteria DEFAULT_CRITERIA =
+            ConvergenceCriteria.defaults().withRelativeTolerance(0).withStepTolerance(PRECISION);
+
+    /**
+     * Number of rows relaxed by a single task in the parallel sweeps.
+     */
+    private static final int ROWS_PER_TASK = 2048;
+
     public static void main(String[] args) {
         double[][] matrix = {
                 {4, 2, 0},
@@ -12,92 +28,288 @@ public class JacobiAndGaussSeidel {
                 {0, 4, 5}
         };
         double[] b = {2, 6, 5};
+        CSRMatrix sparse = CSRMatrix.of(DenseMatrix.of(matrix));
 
-        double[] jacobiResult = jacobi(matrix, b);
-        if (jacobiResult != null) {
-            System.out.println("Jacobi [x, y, z]: " + Arrays.toString(jacobiResult));
-        }
+        double[] jacobiResult = new double[b.length];
+        SolverStats jacobiStats = jacobi(sparse, b, jacobiResult, DEFAULT_CRITERIA, null);
+        System.out.println("Jacobi [x, y, z]: " + Arrays.toString(jacobiResult));
+        System.out.println("Jacobi: " + jacobiStats);
 
-        double[] gaussSeidelResult = gaussSeidel(matrix, b);
-        if (gaussSeidelResult != null) {
-            System.out.println("Gauss Seidel [x, y, z]: " + Arrays.toString(gaussSeidelResult));
-        }
+        double[] gaussSeidelResult = new double[b.length];
+        SolverStats gaussSeidelStats = gaussSeidel(sparse, b, gaussSeidelResult, DEFAULT_CRITERIA, null);
+        System.out.println("Gauss Seidel [x, y, z]: " + Arrays.toString(gaussSeidelResult));
+        System.out.println("Gauss Seidel: " + gaussSeidelStats);
     }
 
     public static double[] jacobi(double[][] matrix, double[] b) {
+        return jacobi(CSRMatrix.of(DenseMatrix.of(matrix)), b);
+    }
+
+    public static double[] gaussSeidel(double[][] matrix, double[] b) {
+        return gaussSeidel(CSRMatrix.of(DenseMatrix.of(matrix)), b);
+    }
+
+    /**
+     * Jacobi iteration on a sparse matrix. Each sweep costs O(nnz), and the two iterate
+     * buffers are swapped between sweeps instead of copied.
+     *
+     * @param matrix a square, diagonally dominant matrix in CSR form
+     * @param b      the right-hand side
+     * @return the approximate solution, or null if the matrix is not diagonally dominant or the iteration fails
+     */
+    public static double[] jacobi(CSRMatrix matrix, double[] b) {
+        return jacobi(matrix, b, (ForkJoinPool) null);
+    }
+
+    /**
+     * Parallel Jacobi iteration on a sparse matrix. Rows are independent within a sweep, so they
+     * are split across the pool; the two iterate buffers are swapped between sweeps.
+     *
+     * @param matrix a square, diagonally dominant matrix in CSR form
+     * @param b      the right-hand side
+     * @param pool   the pool that runs the sweeps, or null to stay on the calling thread
+     * @return the approximate solution, or null if the matrix is not diagonally dominant or the iteration fails
+     */
+    public static double[] jacobi(CSRMatrix matrix, double[] b, ForkJoinPool pool) {
         if (!isDominant(matrix)) {
             System.out.println("The matrix does not have a dominant diagonal!");
             return null;
         }
+        double[] x = new double[matrix.rows()];
+        SolverStats stats = jacobi(matrix, b, x, DEFAULT_CRITERIA, pool);
+        if (!stats.converged()) {
+            System.out.println("Jacobi did not converge: " + stats);
+            return null;
+        }
+        return x;
+    }
 
-        double[] x = new double[3];
-        double[] prevX = new double[3];
-        int i = 0;
+    /**
+     * Gauss-Seidel iteration on a sparse matrix. Each sweep costs O(nnz) and updates the
+     * iterate in place, so every row already sees the new values of the rows before it.
+     *
+     * @param matrix a square, diagonally dominant matrix in CSR form
+     * @param b      the right-hand side
+     * @return the approximate solution, or null if the matrix is not diagonally dominant or the iteration fails
+     */
+    public static double[] gaussSeidel(CSRMatrix matrix, double[] b) {
+        return gaussSeidel(matrix, b, (ForkJoinPool) null);
+    }
 
-        while (true) {
-            for (int j = 0; j < 3; j++) {
-                prevX[j] = x[j];
-            }
+    /**
+     * Multicolor Gauss-Seidel iteration on a sparse matrix. Rows are grouped by a
+     * {@link RowColoring} so that rows of one color never read each other; each sweep relaxes
+     * the colors in turn and splits the rows of a color across the pool. On grid stencils this
+     * is red-black Gauss-Seidel.
+     *
+     * @param matrix a square, diagonally dominant matrix in CSR form
+     * @param b      the right-hand side
+     * @param pool   the pool that runs the sweeps, or null for a sequential sweep in natural order
+     * @return the approximate solution, or null if the matrix is not diagonally dominant or the iteration fails
+     */
+    public static double[] gaussSeidel(CSRMatrix matrix, double[] b, ForkJoinPool pool) {
+        if (!isDominant(matrix)) {
+            System.out.println("The matrix does not have a dominant diagonal!");
+            return null;
+        }
+        double[] x = new double[matrix.rows()];
+        SolverStats stats = gaussSeidel(matrix, b, x, DEFAULT_CRITERIA, pool);
+        if (!stats.converged()) {
+            System.out.println("Gauss Seidel did not converge: " + stats);
+            return null;
+        }
+        return x;
+    }
+
+    /**
+     * Jacobi iteration with configurable stopping rules and telemetry. No dominance check is
+     * made; a diverging or stalling iteration is stopped by the criteria instead.
+     * The residual recorded for sweep k is that of the iterate entering the sweep, which the
+     * sweep computes for free: r_i = d_i (x_new_i - x_old_i).
+     *
+     * @param matrix   a square matrix in CSR form with a nonzero diagonal
+     * @param b        the right-hand side
+     * @param x        the initial guess on entry, the last iterate on return
+     * @param criteria the stopping rules
+     * @param pool     the pool that runs the sweeps, or null to stay on the calling thread
+     * @return the telemetry of the solve
+     */
+    public static SolverStats jacobi(CSRMatrix matrix, double[] b, double[] x, ConvergenceCriteria criteria,
+                                     ForkJoinPool pool) {
+        int n = matrix.rows();
+        int[] rowPointers = matrix.rowPointers();
+        int[] columns = matrix.columnIndices();
+        double[] values = matrix.values();
+        double[] diagonal = diagonalOf(matrix);
+        double bNorm = norm(b);
+        long flopsPerSweep = matrix.multiplyFlops() + 4L * n;
 
-            x[0] = (b[0] - matrix[0][1] * prevX[1] - matrix[0][2] * prevX[2]) / matrix[0][0];
-            x[1] = (b[1] - matrix[1][0] * prevX[0] - matrix[1][2] * prevX[2]) / matrix[1][1];
-            x[2] = (b[2] - matrix[2][0] * prevX[0] - matrix[2][1] * prevX[1]) / matrix[2][2];
+        double[][] buffers = {x, x.clone()};
+        DoubleAdder residualSquares = new DoubleAdder();
+        DoubleAccumulator maxStep = new DoubleAccumulator(Math::max, 0);
+        SolverStats stats = new SolverStats(criteria);
+        int current = 0;
 
-            i++;
+        for (int sweep = 1; ; sweep++) {
+            double[] prevX = buffers[current];
+            double[] next = buffers[1 - current];
+            residualSquares.reset();
+            maxStep.reset();
 
-            if (Math.abs(x[0] - prevX[0]) < PRECISION &&
-                    Math.abs(x[1] - prevX[1]) < PRECISION &&
-                    Math.abs(x[2] - prevX[2]) < PRECISION) {
+            ParallelLoop.forRange(pool, 0, n, ROWS_PER_TASK, (from, to) -> {
+                double squares = 0;
+                double step = 0;
+                for (int row = from; row < to; row++) {
+                    double sum = b[row];
+                    for (int p = rowPointers[row]; p < rowPointers[row + 1]; p++) {
+                        int col = columns[p];
+                        if (col != row) {
+                            sum -= values[p] * prevX[col];
+                        }
+                    }
+                    next[row] = sum / diagonal[row];
+                    double change = next[row] - prevX[row];
+                    squares += diagonal[row] * diagonal[row] * change * change;
+                    step = Math.max(step, Math.abs(change));
+                }
+                residualSquares.add(squares);
+                maxStep.accumulate(step);
+            });
+
+            current = 1 - current;
+            double residual = Math.sqrt(residualSquares.sum());
+            if (stats.record(sweep, bNorm == 0 ? residual : residual / bNorm, maxStep.get(), sweep * flopsPerSweep)) {
                 break;
             }
         }
 
-        return x;
+        if (buffers[current] != x) {
+            System.arraycopy(buffers[current], 0, x, 0, n);
+        }
+        stats.finish();
+        return stats;
     }
 
-    public static double[] gaussSeidel(double[][] matrix, double[] b) {
-        if (!isDominant(matrix)) {
-            System.out.println("The matrix does not have a dominant diagonal!");
-            return null;
+    /**
+     * Gauss-Seidel iteration with configurable stopping rules and telemetry. With a pool the rows
+     * are relaxed color by color in parallel (see {@link RowColoring}); without one they are
+     * relaxed in natural order. No dominance check is made; a diverging or stalling iteration is
+     * stopped by the criteria instead. The residual recorded for a sweep is taken row by row as
+     * each row is relaxed, so it mixes old and new values and trails the true residual slightly.
+     *
+     * @param matrix   a square matrix in CSR form with a nonzero diagonal
+     * @param b        the right-hand side
+     * @param x        the initial guess on entry, the last iterate on return
+     * @param criteria the stopping rules
+     * @param pool     the pool that runs the sweeps, or null for a sequential sweep in natural order
+     * @return the telemetry of the solve
+     */
+    public static SolverStats gaussSeidel(CSRMatrix matrix, double[] b, double[] x, ConvergenceCriteria criteria,
+                                          ForkJoinPool pool) {
+        int n = matrix.rows();
+        int[] rowPointers = matrix.rowPointers();
+        int[] columns = matrix.columnIndices();
+        double[] values = matrix.values();
+        double[] diagonal = diagonalOf(matrix);
+        double bNorm = norm(b);
+        long flopsPerSweep = matrix.multiplyFlops() + 4L * n;
+
+        int colorCount = 1;
+        int[] colorPointers = {0, n};
+        int[] order = null;
+        if (pool != null) {
+            RowColoring coloring = RowColoring.of(matrix);
+            colorCount = coloring.colorCount();
+            colorPointers = coloring.colorPointers();
+            order = coloring.rows();
         }
+        int[] rowOrder = order;
+        int grain = pool == null ? n : ROWS_PER_TASK;
 
-        double[] x = new double[3];
-        double[] prevX = new double[3];
-        int i = 0;
+        DoubleAdder residualSquares = new DoubleAdder();
+        DoubleAccumulator maxStep = new DoubleAccumulator(Math::max, 0);
+        SolverStats stats = new SolverStats(criteria);
 
-        while (true) {
-            for (int j = 0; j < 3; j++) {
-                prevX[j] = x[j];
+        for (int sweep = 1; ; sweep++) {
+            residualSquares.reset();
+            maxStep.reset();
+            for (int color = 0; color < colorCount; color++) {
+                ParallelLoop.forRange(pool, colorPointers[color], colorPointers[color + 1], grain, (from, to) -> {
+                    double squares = 0;
+                    double step = 0;
+                    for (int k = from; k < to; k++) {
+                        int row = rowOrder == null ? k : rowOrder[k];
+                        double sum = b[row];
+                        for (int p = rowPointers[row]; p < rowPointers[row + 1]; p++) {
+                            int col = columns[p];
+                            if (col != row) {
+                                sum -= values[p] * x[col];
+                            }
+                        }
+                        double next = sum / diagonal[row];
+                        double change = next - x[row];
+                        squares += diagonal[row] * diagonal[row] * change * change;
+                        step = Math.max(step, Math.abs(change));
+                        x[row] = next;
+                    }
+                    residualSquares.add(squares);
+                    maxStep.accumulate(step);
+                });
             }
 
-            x[0] = (b[0] - matrix[0][1] * x[1] - matrix[0][2] * x[2]) / matrix[0][0];
-            x[1] = (b[1] - matrix[1][0] * x[0] - matrix[1][2] * x[2]) / matrix[1][1];
-            x[2] = (b[2] - matrix[2][0] * x[0] - matrix[2][1] * x[1]) / matrix[2][2];
+            double residual = Math.sqrt(residualSquares.sum());
+            if (stats.record(sweep, bNorm == 0 ? residual : residual / bNorm, maxStep.get(), sweep * flopsPerSweep)) {
+                break;
+            }
+        }
 
-            i++;
+        stats.finish();
+        return stats;
+    }
 
-            if (Math.abs(x[0] - prevX[0]) < PRECISION &&
-                    Math.abs(x[1] - prevX[1]) < PRECISION &&
-                    Math.abs(x[2] - prevX[2]) < PRECISION) {
-                break;
+    private static double[] diagonalOf(CSRMatrix matrix) {
+        if (matrix.rows() != matrix.cols()) {
+            throw new IllegalArgumentException("Matrix must be square, got " + matrix.rows() + "x" + matrix.cols() + ".");
+        }
+        double[] diagonal = new double[matrix.rows()];
+        matrix.diagonal(diagonal);
+        for (int i = 0; i < diagonal.length; i++) {
+            if (diagonal[i] == 0) {
+                throw new IllegalArgumentException("Diagonal entry " + i + " is zero.");
             }
         }
+        return diagonal;
+    }
 
-        return x;
+    private static double norm(double[] vector) {
+        double sum = 0;
+        for (double v : vector) {
+            sum += v * v;
+        }
+        return Math.sqrt(sum);
     }
 
-    private static boolean isDominant(double[][] matrix) {
-        for (int i = 0; i < 3; i++) {
+    private static boolean isDominant(CSRMatrix matrix) {
+        if (matrix.rows() != matrix.cols()) {
+            return false;
+        }
+        int[] rowPointers = matrix.rowPointers();
+        int[] columns = matrix.columnIndices();
+        double[] values = matrix.values();
+        for (int i = 0; i < matrix.rows(); i++) {
             double sum = 0;
-            for (int j = 0; j < 3; j++) {
-                if (i != j) {
-                    sum += Math.abs(matrix[i][j]);
+            double diagonal = 0;
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                if (columns[p] == i) {
+                    diagonal = Math.abs(values[p]);
+                } else {
+                    sum += Math.abs(values[p]);
                 }
             }
-            if (Math.abs(matrix[i][i]) <= sum) {
+            if (diagonal <= sum) {
                 return false;
             }
         }
         return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+/**
+ * One implementation of the {@link Kernels} entry points. {@link Kernels} picks a single
+ * implementation when it is loaded and keeps it in a static final field, so the JIT sees one
+ * receiver type and inlines the calls.
+ */
+interface KernelSet {
+    /**
+     * @return a short name for reports, such as "scalar"
+     */
+    String name();
+
+    double dot(double[] x, int xOffset, double[] y, int yOffset, int length);
+
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+    double absSum(double[] x, int offset, int length);
+
+    void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length);
+}
@@ -0,0 +1,81 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+/**
+ * Inner-loop kernels shared by the dense routines: dot products, axpy, absolute sums and
+ * elementwise subtraction over contiguous array segments.
+ * <p>
+ * The implementation is chosen once, when this class is loaded. If the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} and {@code matrices.VectorKernels} (compiled from
+ * {@code src-vector}) is on the class path, the kernels run on {@code DoubleVector} with the
+ * preferred species of the host CPU; otherwise they fall back to {@link ScalarKernels}.
+ * Setting the system property {@code matrices.kernels=scalar} forces the fallback.
+ */
+public final class Kernels {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNELS = "matrices.VectorKernels";
+
+    static final KernelSet IMPLEMENTATION = select();
+
+    private Kernels() {
+    }
+
+    /**
+     * Loads the Vector API kernels reflectively, so this class links without the incubator module.
+     */
+    private static KernelSet select() {
+        if (!"scalar".equals(System.getProperty("matrices.kernels"))
+                && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (KernelSet) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not compiled into this build; the scalar kernels compute the same results
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    /**
+     * @return the name of the kernel implementation in use, "vector" or "scalar"
+     */
+    public static String implementation() {
+        return IMPLEMENTATION.name();
+    }
+
+    /**
+     * @return the sum of x[xOffset + i] * y[yOffset + i] for i in [0, length)
+     */
+    public static double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        return IMPLEMENTATION.dot(x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * @return the dot product of two vectors of equal length
+     */
+    public static double dot(double[] x, double[] y) {
+        return IMPLEMENTATION.dot(x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Computes y[yOffset + i] += alpha * x[xOffset + i] for i in [0, length).
+     * The two segments must not overlap unless they coincide.
+     */
+    public static void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        IMPLEMENTATION.axpy(alpha, x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * @return the sum of |x[offset + i]| for i in [0, length)
+     */
+    public static double absSum(double[] x, int offset, int length) {
+        return IMPLEMENTATION.absSum(x, offset, length);
+    }
+
+    /**
+     * Computes out[outOffset + i] = a[aOffset + i] - b[bOffset + i] for i in [0, length).
+     * The output must not partially overlap an input.
+     */
+    public static void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length) {
+        IMPLEMENTATION.subtract(a, aOffset, b, bOffset, out, outOffset, length);
+    }
+}
@@ -1,6 +1,11 @@
 // https://github.com/matanof2/Numeric_Analysis.git
 package matrices;
+import batch.BatchRunner;
+
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class implements LU matrix factorization and related operations.
@@ -8,15 +13,23 @@ import java.util.Scanner;
  * compute the inverse of a matrix, and display results interactively through a menu.
  */
 public class LUFactorization {
+    /**
+     * Number of columns factored together as one panel in {@link #factor(DenseMatrix)}.
+     */
+    private static final int BLOCK_SIZE = 64;
 
     /**
      * Main method that provides an interactive menu for performing LU matrix operations.
      * Allows the user to enter a matrix, perform LU decomposition, solve linear systems,
      * compute matrix inverses, and display results.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Nothing for the menu, or the arguments of batch.BatchRunner to run a job file instead.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            BatchRunner.main(args);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
 
         while (true) {
@@ -35,15 +48,23 @@ public class LUFactorization {
                     double[] b = matrixOperations.InitializeVector();// Initialize the vector using a helper method
                     System.out.println("Vector entered successfully.");
 
-                    double[][][] LU = luDecomposition(matrix); // Perform LU decomposition
+                    LUFactors LU;
+                    try {
+                        LU = factor(DenseMatrix.of(matrix)); // Perform LU decomposition with partial pivoting
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Error: " + e.getMessage());
+                        break;
+                    }
+
+                    System.out.println("Row order P: " + Arrays.toString(LU.permutation()));
 
                     System.out.println("L matrix:");
-                    matrixOperations.printMatrix(LU[0]);
+                    matrixOperations.printMatrix(LU.getL());
 
                     System.out.println("U matrix:");
-                    matrixOperations.printMatrix(LU[1]);
+                    matrixOperations.printMatrix(LU.getU());
 
-                    double[] x = solveLU(LU[0], LU[1], b); // Solve the linear system using LU decomposition
+                    double[] x = LU.solve(b); // Solve the linear system using the LU factors
                     System.out.println("Solution vector x:");
                     matrixOperations.printVector(x);
 
@@ -63,15 +84,23 @@ public class LUFactorization {
     }
 
     /**
-     * Performs LU decomposition on a given matrix A.
+     * Performs LU decomposition on a given matrix A, without row interchanges.
      *
      * @param A The input matrix to decompose.
      * @return A double array containing two matrices: L (lower triangular matrix) and U (upper triangular matrix).
+     * @throws IllegalArgumentException if a pivot is zero or negligible, in which case {@link #factor(DenseMatrix)},
+     *                                  which pivots, is needed
      */
     public static double[][][] luDecomposition(double[][] A) {
         int n = A.length;
         double[][] L = new double[n][n];
         double[][] U = new double[n][n];
+        double scale = 0;
+        for (double[] row : A) {
+            for (double value : row) {
+                scale = Math.max(scale, Math.abs(value));
+            }
+        }
 
         for (int i = 0; i < n; i++) {
             L[i][i] = 1.0; // Initialize diagonal of L matrix to 1
@@ -85,6 +114,7 @@ public class LUFactorization {
                 }
                 U[i][j] = A[i][j] - sum; // Calculate elements of U matrix
             }
+            checkPivot(U[j][j], scale, n, j);
 
             for (int i = j + 1; i < n; i++) {
                 double sum = 0.0;
@@ -98,6 +128,241 @@ public class LUFactorization {
         return new double[][][]{L, U}; // Return both L and U matrices
     }
 
+    /**
+     * Performs LU decomposition on a square matrix of any size stored in flat form, without
+     * row interchanges.
+     *
+     * @param A The input matrix to decompose.
+     * @return An array containing two matrices: L (unit lower triangular) and U (upper triangular).
+     * @throws IllegalArgumentException if a pivot is zero or negligible, in which case {@link #factor(DenseMatrix)},
+     *                                  which pivots, is needed
+     */
+    public static DenseMatrix[] luDecomposition(DenseMatrix A) {
+        A.checkSquare();
+        int n = A.rows();
+        DenseMatrix L = DenseMatrix.identity(n);
+        DenseMatrix U = A.copy();
+        double[] l = L.data();
+        double[] u = U.data();
+        double scale = 0;
+        for (double value : u) {
+            scale = Math.max(scale, Math.abs(value));
+        }
+
+        // Right-looking elimination: each step only touches contiguous row segments
+        for (int k = 0; k < n; k++) {
+            double pivot = u[k * n + k];
+            checkPivot(pivot, scale, n, k);
+            for (int i = k + 1; i < n; i++) {
+                double factor = u[i * n + k] / pivot;
+                l[i * n + k] = factor;
+                u[i * n + k] = 0.0;
+                Kernels.axpy(-factor, u, k * n + k + 1, u, i * n + k + 1, n - k - 1);
+            }
+        }
+
+        return new DenseMatrix[]{L, U};
+    }
+
+    /**
+     * Rejects a pivot of the unpivoted decompositions that is zero, or so small next to the
+     * largest entry of A that dividing by it amplifies rounding errors beyond use.
+     */
+    private static void checkPivot(double pivot, double scale, int n, int k) {
+        if (!(Math.abs(pivot) > n * Math.ulp(scale))) {
+            throw new IllegalArgumentException("Zero pivot at row " + k + "; use factor(), which interchanges rows.");
+        }
+    }
+
+    /**
+     * Factors a square matrix as PA = LU using partial pivoting. The input is left unchanged.
+     *
+     * @param A The matrix to factor.
+     * @return The reusable LU factors of A.
+     */
+    public static LUFactors factor(DenseMatrix A) {
+        return factor(A, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Factors a square matrix as PA = LU using partial pivoting on the given pool.
+     * The input is left unchanged.
+     *
+     * @param A    The matrix to factor.
+     * @param pool The pool used for the trailing updates, or null to stay on the calling thread.
+     * @return The reusable LU factors of A.
+     */
+    public static LUFactors factor(DenseMatrix A, ForkJoinPool pool) {
+        return factorInPlace(A.copy(), pool);
+    }
+
+    /**
+     * Factors a square matrix as PA = LU in place using a blocked, right-looking algorithm
+     * with partial pivoting. Each panel of BLOCK_SIZE columns is factored column by column,
+     * the matching block row of U is solved for, and the trailing matrix is updated with one
+     * parallel matrix multiplication.
+     *
+     * @param A    The matrix to factor; it is overwritten by the packed L and U factors and must have contiguous rows.
+     * @param pool The pool used for the trailing updates, or null to stay on the calling thread.
+     * @return The reusable LU factors, which share storage with A.
+     */
+    public static LUFactors factorInPlace(DenseMatrix A, ForkJoinPool pool) {
+        A.checkSquare();
+        if (!A.isRowContiguous()) {
+            throw new IllegalArgumentException("In-place factorization needs a matrix with contiguous rows.");
+        }
+        int n = A.rows();
+        int[] permutation = new int[n];
+        int swaps = factor(A, permutation, pool);
+        return new LUFactors(A, permutation, swaps);
+    }
+
+    /**
+     * Refactors a new matrix into an existing factor object, reusing its storage.
+     * Together with the solves of {@link LUFactors} this lets a steady-state loop run
+     * without allocating arrays.
+     *
+     * @param factors The factors to overwrite, e.g. from {@link LUFactors#allocate(int)}.
+     * @param A       The matrix to factor; it is left unchanged.
+     * @param pool    The pool used for the trailing updates, or null to stay on the calling thread.
+     */
+    public static void factorInto(LUFactors factors, DenseMatrix A, ForkJoinPool pool) {
+        A.checkSquare();
+        if (A.rows() != factors.size()) {
+            throw new IllegalArgumentException("Expected a " + factors.size() + "x" + factors.size() + " matrix.");
+        }
+        factors.packed().copyFrom(A);
+        factors.setSwaps(factor(factors.packed(), factors.permutationArray(), pool));
+    }
+
+    /**
+     * The blocked factorization behind {@link #factorInPlace(DenseMatrix, ForkJoinPool)}.
+     *
+     * @return the number of row interchanges
+     */
+    private static int factor(DenseMatrix A, int[] permutation, ForkJoinPool pool) {
+        int n = A.rows();
+        double[] a = A.data();
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        int swaps = 0;
+
+        for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE) {
+            int kEnd = Math.min(k0 + BLOCK_SIZE, n);
+
+            // Factor the panel A[k0:n, k0:kEnd], swapping whole rows so L and the trailing matrix follow
+            for (int j = k0; j < kEnd; j++) {
+                int pivot = j;
+                double max = Math.abs(a[A.index(j, j)]);
+                for (int i = j + 1; i < n; i++) {
+                    double candidate = Math.abs(a[A.index(i, j)]);
+                    if (candidate > max) {
+                        max = candidate;
+                        pivot = i;
+                    }
+                }
+                if (max == 0) {
+                    throw new IllegalArgumentException("Matrix is singular and cannot be factorized.");
+                }
+                if (pivot != j) {
+                    A.swapRows(j, pivot);
+                    int temp = permutation[j];
+                    permutation[j] = permutation[pivot];
+                    permutation[pivot] = temp;
+                    swaps++;
+                }
+
+                int rowJ = A.index(j, 0);
+                double diag = a[rowJ + j];
+                for (int i = j + 1; i < n; i++) {
+                    int rowI = A.index(i, 0);
+                    double factor = a[rowI + j] / diag;
+                    a[rowI + j] = factor;
+                    Kernels.axpy(-factor, a, rowJ + j + 1, a, rowI + j + 1, kEnd - j - 1);
+                }
+            }
+
+            if (kEnd == n) {
+                break;
+            }
+
+            // Solve L11 * U12 = A12 for the block row of U to the right of the panel
+            for (int j = k0; j < kEnd; j++) {
+                int rowJ = A.index(j, 0);
+                for (int i = j + 1; i < kEnd; i++) {
+                    int rowI = A.index(i, 0);
+                    double factor = a[rowI + j];
+                    Kernels.axpy(-factor, a, rowJ + kEnd, a, rowI + kEnd, n - kEnd);
+                }
+            }
+
+            // Trailing update A22 -= L21 * U12
+            int kb = kEnd - k0;
+            int rest = n - kEnd;
+            MatrixMultiplication.multiply(-1.0, A.subMatrix(kEnd, k0, rest, kb), A.subMatrix(k0, kEnd, kb, rest),
+                    1.0, A.subMatrix(kEnd, kEnd, rest, rest), pool);
+        }
+
+        return swaps;
+    }
+
+    /**
+     * Computes the incomplete LU factorization ILU(0) of a sparse matrix by the row-oriented (IKJ)
+     * form of Gaussian elimination: each row i is reduced, left to right, by the already finished
+     * rows k &lt; i where it has a nonzero in column k. Every update that would fall outside the
+     * sparsity pattern of A is dropped, so L and U take exactly A's nonzeros.
+     *
+     * @param A The square matrix to factor; its diagonal must be stored.
+     * @return The packed factors in A's pattern: unit L strictly below the diagonal, U on and above it.
+     */
+    public static CSRMatrix incompleteLU(CSRMatrix A) {
+        if (A.rows() != A.cols()) {
+            throw new IllegalArgumentException("Matrix must be square, got " + A.rows() + "x" + A.cols() + ".");
+        }
+        int n = A.rows();
+        int[] rowPointers = A.rowPointers();
+        int[] columns = A.columnIndices();
+        double[] values = A.values().clone();
+
+        int[] diagonal = new int[n];
+        for (int i = 0; i < n; i++) {
+            int p = A.find(i, i);
+            if (p < 0) {
+                throw new IllegalArgumentException("Diagonal entry " + i + " is not stored.");
+            }
+            diagonal[i] = p;
+        }
+
+        int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                position[columns[p]] = p;
+            }
+            for (int p = rowPointers[i]; p < diagonal[i]; p++) {
+                int k = columns[p];
+                double pivot = values[diagonal[k]];
+                if (pivot == 0) {
+                    throw new IllegalArgumentException("Zero pivot at row " + k + " of the incomplete factorization.");
+                }
+                double factor = values[p] / pivot; // Calculate elements of L matrix
+                values[p] = factor;
+                for (int q = diagonal[k] + 1; q < rowPointers[k + 1]; q++) {
+                    int j = position[columns[q]];
+                    if (j >= 0) {
+                        values[j] -= factor * values[q]; // Update U only inside the pattern
+                    }
+                }
+            }
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                position[columns[p]] = -1;
+            }
+        }
+
+        return new CSRMatrix(n, n, rowPointers.clone(), columns.clone(), values);
+    }
+
     /**
      * Solves a linear system using LU decomposition.
      *
@@ -108,50 +373,147 @@ public class LUFactorization {
      */
     public static double[] solveLU(double[][] L, double[][] U, double[] b) {
         int n = L.length;
-        double[] y = new double[n];
         double[] x = new double[n];
+        solveLU(L, U, b, new double[n], x);
+        return x;
+    }
+
+    /**
+     * Solves a linear system using LU decomposition into caller-supplied buffers, without allocating.
+     *
+     * @param L The lower triangular matrix L.
+     * @param U The upper triangular matrix U.
+     * @param b The vector b in the equation Ax = b.
+     * @param y Scratch buffer of length n for the intermediate vector y = L^-1 b.
+     * @param x Output buffer of length n for the solution vector x.
+     */
+    public static void solveLU(double[][] L, double[][] U, double[] b, double[] y, double[] x) {
+        int n = L.length;
 
         // Forward substitution to solve Ly = b
         for (int i = 0; i < n; i++) {
-            double sum = 0.0;
-            for (int j = 0; j < i; j++) {
-                sum += L[i][j] * y[j]; // Compute sum for forward substitution
-            }
+            double sum = Kernels.dot(L[i], 0, y, 0, i); // Compute sum for forward substitution
             y[i] = b[i] - sum; // Calculate elements of y vector
         }
 
         // Backward substitution to solve Ux = y
         for (int i = n - 1; i >= 0; i--) {
-            double sum = 0.0;
+            double sum = Kernels.dot(U[i], i + 1, x, i + 1, n - i - 1); // Compute sum for backward substitution
+            x[i] = (y[i] - sum) / U[i][i]; // Calculate elements of x vector
+        }
+    }
+
+    /**
+     * Solves LUX = B for many right-hand sides at once, writing into a caller-supplied matrix.
+     * Forward and backward substitution each make a single pass over L and U, and every
+     * multiply-add in the inner loop updates a whole row of right-hand sides.
+     *
+     * @param L The unit lower triangular matrix L (n x n).
+     * @param U The upper triangular matrix U (n x n).
+     * @param B The n x m matrix whose columns are the right-hand sides.
+     * @param X The n x m output matrix. It may be the same array as B, and any row X[i] may be
+     *          the row B[i] itself, but no row of X may be another row of B, of X, of L or of U,
+     *          since row i of X is written before the later rows of B are read.
+     */
+    public static void solveLU(double[][] L, double[][] U, double[][] B, double[][] X) {
+        int n = L.length;
+        if (B.length != n || X.length != n || U.length != n) {
+            throw new IllegalArgumentException("Expected L, U, B and X with " + n + " rows, got "
+                    + U.length + ", " + B.length + " and " + X.length + " rows for U, B and X.");
+        }
+        if (n == 0) {
+            return;
+        }
+        int m = B[0].length;
+        for (int i = 0; i < n; i++) {
+            if (L[i].length != n || U[i].length != n || B[i].length != m || X[i].length != m) {
+                throw new IllegalArgumentException("Row " + i + " does not fit " + n + "x" + n + " factors and "
+                        + n + "x" + m + " right-hand sides.");
+            }
+        }
+
+        // Forward substitution to solve LY = B, with Y stored in X
+        for (int i = 0; i < n; i++) {
+            double[] xi = X[i];
+            if (xi != B[i]) {
+                System.arraycopy(B[i], 0, xi, 0, m);
+            }
+            for (int j = 0; j < i; j++) {
+                double factor = L[i][j];
+                double[] xj = X[j];
+                Kernels.axpy(-factor, xj, 0, xi, 0, m);
+            }
+        }
+
+        // Backward substitution to solve UX = Y
+        for (int i = n - 1; i >= 0; i--) {
+            double[] xi = X[i];
             for (int j = i + 1; j < n; j++) {
-                sum += U[i][j] * x[j]; // Compute sum for backward substitution
+                double factor = U[i][j];
+                double[] xj = X[j];
+                Kernels.axpy(-factor, xj, 0, xi, 0, m);
+            }
+            double diag = U[i][i];
+            for (int c = 0; c < m; c++) {
+                xi[c] /= diag;
             }
-            x[i] = (y[i] - sum) / U[i][i]; // Calculate elements of x vector
         }
+    }
 
+    /**
+     * Solves a linear system using flat L and U factors of any size.
+     *
+     * @param L The unit lower triangular matrix L.
+     * @param U The upper triangular matrix U.
+     * @param b The vector b in the equation Ax = b.
+     * @return The solution vector x.
+     */
+    public static double[] solveLU(DenseMatrix L, DenseMatrix U, double[] b) {
+        int n = L.rows();
+        double[] x = new double[n];
+        solveLU(L, U, b, new double[n], x);
         return x;
     }
 
     /**
-     * Computes the inverse of a matrix A using LU decomposition.
+     * Solves a linear system using flat L and U factors into caller-supplied buffers, without allocating.
      *
-     * @param A The matrix A to invert.
-     * @return The inverse matrix of A.
+     * @param L The unit lower triangular matrix L.
+     * @param U The upper triangular matrix U.
+     * @param b The vector b in the equation Ax = b.
+     * @param y Scratch buffer of length n for the intermediate vector y = L^-1 b.
+     * @param x Output buffer of length n for the solution vector x.
      */
-    public static double[][] inverse(double[][] A) {
-        int n = A.length;
-        double[][] AInv = new double[n][n];
-        double[] b;
+    public static void solveLU(DenseMatrix L, DenseMatrix U, double[] b, double[] y, double[] x) {
+        int n = L.rows();
 
+        // Forward substitution to solve Ly = b
         for (int i = 0; i < n; i++) {
-            b = new double[n];
-            b[i] = 1.0;
-            double[] col = solveLU(luDecomposition(A)[0], luDecomposition(A)[1], b);
-            for (int j = 0; j < n; j++) {
-                AInv[j][i] = col[j];
+            double sum = 0.0;
+            for (int j = 0; j < i; j++) {
+                sum += L.get(i, j) * y[j];
             }
+            y[i] = b[i] - sum;
         }
 
-        return AInv;
+        // Backward substitution to solve Ux = y
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = 0.0;
+            for (int j = i + 1; j < n; j++) {
+                sum += U.get(i, j) * x[j];
+            }
+            x[i] = (y[i] - sum) / U.get(i, i);
+        }
+    }
+
+    /**
+     * Computes the inverse of a matrix A using LU decomposition.
+     * A is factored once and all n unit columns are then solved together.
+     *
+     * @param A The matrix A to invert.
+     * @return The inverse matrix of A.
+     */
+    public static double[][] inverse(double[][] A) {
+        return factor(DenseMatrix.of(A)).inverse().toArray();
     }
 }
\ No newline at end of file
@@ -0,0 +1,387 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * The result of an LU factorization with partial pivoting, PA = LU.
+ * L (unit lower triangular, diagonal not stored) and U share a single n x n buffer,
+ * and the row permutation P is kept as a vector. Once built, the factors can be reused
+ * for any number of solves.
+ */
+public class LUFactors implements ConditionEstimator.Solver {
+    /**
+     * Number of right-hand-side columns solved together by one task in the multi-column solves.
+     */
+    private static final int COLUMN_BLOCK = 64;
+
+    /**
+     * Number of rows handled by the small triangular solves in the multi-column solves;
+     * everything off the diagonal blocks goes through {@link MatrixMultiplication}.
+     */
+    private static final int ROW_BLOCK = 64;
+
+    private final DenseMatrix lu;
+    private final int[] permutation;
+    private int swaps;
+
+    /**
+     * @param lu          the packed L and U factors
+     * @param permutation permutation[i] is the row of A that ended up as row i of PA
+     * @param swaps       the number of row interchanges performed, used for the determinant sign
+     */
+    LUFactors(DenseMatrix lu, int[] permutation, int swaps) {
+        this.lu = lu;
+        this.permutation = permutation;
+        this.swaps = swaps;
+    }
+
+    /**
+     * Creates an empty factor object of dimension n that can be filled repeatedly with
+     * {@link LUFactorization#factorInto(LUFactors, DenseMatrix, ForkJoinPool)}.
+     *
+     * @param n the dimension
+     * @return factors of an n x n matrix, to be filled before use
+     */
+    public static LUFactors allocate(int n) {
+        return new LUFactors(new DenseMatrix(n, n), new int[n], 0);
+    }
+
+    /**
+     * @return the permutation array itself, for refactoring in place
+     */
+    int[] permutationArray() {
+        return permutation;
+    }
+
+    void setSwaps(int swaps) {
+        this.swaps = swaps;
+    }
+
+    /**
+     * @return the dimension of the factored matrix
+     */
+    @Override
+    public int size() {
+        return lu.rows();
+    }
+
+    /**
+     * @return the packed factors: U on and above the diagonal, L strictly below it
+     */
+    public DenseMatrix packed() {
+        return lu;
+    }
+
+    /**
+     * @return a copy of the row permutation, where entry i is the original row placed at row i
+     */
+    public int[] permutation() {
+        return permutation.clone();
+    }
+
+    /**
+     * @return a new matrix holding the unit lower triangular factor L
+     */
+    public DenseMatrix getL() {
+        int n = size();
+        DenseMatrix L = DenseMatrix.identity(n);
+        for (int i = 1; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                L.set(i, j, lu.get(i, j));
+            }
+        }
+        return L;
+    }
+
+    /**
+     * @return a new matrix holding the upper triangular factor U
+     */
+    public DenseMatrix getU() {
+        int n = size();
+        DenseMatrix U = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                U.set(i, j, lu.get(i, j));
+            }
+        }
+        return U;
+    }
+
+    /**
+     * @return the determinant of the factored matrix
+     */
+    public double determinant() {
+        double det = (swaps % 2 == 0) ? 1.0 : -1.0;
+        for (int i = 0; i < size(); i++) {
+            det *= lu.get(i, i);
+        }
+        return det;
+    }
+
+    /**
+     * Solves Ax = b using the stored factors.
+     *
+     * @param b The vector b in the equation Ax = b.
+     * @return The solution vector x.
+     */
+    public double[] solve(double[] b) {
+        int n = size();
+        if (b.length != n) {
+            throw new IllegalArgumentException("Expected a vector of length " + n + ", got " + b.length + ".");
+        }
+        double[] x = new double[n];
+        solve(b, x);
+        return x;
+    }
+
+    /**
+     * Solves Ax = b into a caller-supplied buffer without allocating.
+     *
+     * @param b The vector b in the equation Ax = b.
+     * @param x The output buffer of length n; it must not be the same array as b.
+     */
+    @Override
+    public void solve(double[] b, double[] x) {
+        int n = size();
+        if (b.length != n || x.length != n) {
+            throw new IllegalArgumentException("Expected vectors of length " + n + ".");
+        }
+        for (int i = 0; i < n; i++) {
+            x[i] = b[permutation[i]];
+        }
+        forwardSubstitution(x);
+        backSubstitution(x);
+    }
+
+    /**
+     * Solves the transposed system A^T x = b into a caller-supplied buffer without allocating.
+     * With PA = LU this is U^T w = b, then L^T v = w, then x = P^T v.
+     *
+     * @param b    The vector b in the equation A^T x = b.
+     * @param x    The output buffer of length n; it must not be the same array as b.
+     * @param work Scratch buffer of length n.
+     */
+    @Override
+    public void solveTranspose(double[] b, double[] x, double[] work) {
+        int n = size();
+        double[] a = lu.data();
+        System.arraycopy(b, 0, work, 0, n);
+
+        // Forward substitution with U^T: column i of U is read down its rows
+        for (int i = 0; i < n; i++) {
+            double wi = work[i] / a[lu.index(i, i)];
+            work[i] = wi;
+            int row = lu.index(i, 0);
+            Kernels.axpy(-wi, a, row + i + 1, work, i + 1, n - i - 1);
+        }
+
+        // Backward substitution with the unit upper triangular L^T
+        for (int i = n - 1; i >= 0; i--) {
+            double vi = work[i];
+            Kernels.axpy(-vi, a, lu.index(i, 0), work, 0, i);
+        }
+
+        for (int i = 0; i < n; i++) {
+            x[permutation[i]] = work[i];
+        }
+    }
+
+    /**
+     * Solves AX = B for every column of B at once on the calling thread.
+     * No work buffers are allocated; L and U are each traversed once for all right-hand sides.
+     *
+     * @param B The n x m matrix whose columns are the right-hand sides.
+     * @param X The n x m output matrix with contiguous rows; it must not share storage with B.
+     */
+    public void solve(DenseMatrix B, DenseMatrix X) {
+        permuteInto(B, X);
+        solveColumnsInPlace(X, 0, X.cols());
+    }
+
+    /**
+     * Solves AX = B for every column of B, running independent column blocks on the given pool.
+     *
+     * @param B    The n x m matrix whose columns are the right-hand sides.
+     * @param X    The n x m output matrix with contiguous rows; it must not share storage with B.
+     * @param pool The pool to run the column blocks on, or null to stay on the calling thread.
+     */
+    public void solve(DenseMatrix B, DenseMatrix X, ForkJoinPool pool) {
+        permuteInto(B, X);
+        int m = X.cols();
+        int blocks = (m + COLUMN_BLOCK - 1) / COLUMN_BLOCK;
+        ParallelLoop.forRange(pool, 0, blocks, 1,
+                (from, to) -> solveColumnsInPlace(X, from * COLUMN_BLOCK, Math.min(m, to * COLUMN_BLOCK)));
+    }
+
+    /**
+     * Solves Ax = b for a stream of right-hand sides, reusing one output buffer.
+     * The buffer is handed to the sink after each solve and is overwritten by the next one.
+     *
+     * @param rightHandSides The right-hand sides to solve for.
+     * @param x              The output buffer of length n.
+     * @param sink           Receives x after each solve.
+     */
+    public void solveEach(Iterator<double[]> rightHandSides, double[] x, Consumer<double[]> sink) {
+        while (rightHandSides.hasNext()) {
+            solve(rightHandSides.next(), x);
+            sink.accept(x);
+        }
+    }
+
+    /**
+     * Copies the rows of B into X in pivot order, so that X holds PB.
+     */
+    private void permuteInto(DenseMatrix B, DenseMatrix X) {
+        int n = size();
+        if (B.rows() != n || X.rows() != n || B.cols() != X.cols()) {
+            throw new IllegalArgumentException("Expected " + n + "xm right-hand sides and output of the same shape.");
+        }
+        if (!X.isRowContiguous()) {
+            throw new IllegalArgumentException("The output matrix needs contiguous rows.");
+        }
+        double[] b = B.data();
+        double[] x = X.data();
+        for (int i = 0; i < n; i++) {
+            int from = B.index(permutation[i], 0);
+            int to = X.index(i, 0);
+            for (int c = 0; c < X.cols(); c++, from += B.colStride()) {
+                x[to + c] = b[from];
+            }
+        }
+    }
+
+    /**
+     * Computes the inverse of the factored matrix using the common fork-join pool.
+     *
+     * @return The inverse matrix.
+     */
+    public DenseMatrix inverse() {
+        return inverse(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the inverse of the factored matrix by solving LUX = P for all n columns at once.
+     * Column blocks are independent, so they are solved in parallel directly inside the result.
+     *
+     * @param pool The pool to run the column blocks on, or null to stay on the calling thread.
+     * @return The inverse matrix.
+     */
+    public DenseMatrix inverse(ForkJoinPool pool) {
+        int n = size();
+        DenseMatrix inverse = new DenseMatrix(n, n);
+        inverseInto(inverse, pool);
+        return inverse;
+    }
+
+    /**
+     * Writes the inverse of the factored matrix into a caller-supplied matrix.
+     *
+     * @param inverse The n x n output matrix with contiguous rows; its previous contents are overwritten.
+     * @param pool    The pool to run the column blocks on, or null to stay on the calling thread.
+     */
+    public void inverseInto(DenseMatrix inverse, ForkJoinPool pool) {
+        int n = size();
+        if (inverse.rows() != n || inverse.cols() != n || !inverse.isRowContiguous()) {
+            throw new IllegalArgumentException("Expected an " + n + "x" + n + " output with contiguous rows.");
+        }
+        inverse.fill(0.0);
+        double[] x = inverse.data();
+        int blocks = (n + COLUMN_BLOCK - 1) / COLUMN_BLOCK;
+        ParallelLoop.forRange(pool, 0, blocks, 1, (from, to) -> {
+            int c0 = from * COLUMN_BLOCK;
+            int c1 = Math.min(n, to * COLUMN_BLOCK);
+            // Row i of P is the unit row selecting original row permutation[i]
+            for (int i = 0; i < n; i++) {
+                int column = permutation[i];
+                if (column >= c0 && column < c1) {
+                    x[inverse.index(i, column)] = 1.0;
+                }
+            }
+            solveColumnsInPlace(inverse, c0, c1);
+        });
+    }
+
+    /**
+     * Overwrites columns [c0, c1) of X, which already hold PB, with the solution of LUX = PB.
+     * This is a blocked triangular solve: the contribution of already-solved row blocks is
+     * subtracted with one matrix multiplication per block, and only the ROW_BLOCK x ROW_BLOCK
+     * diagonal triangles are solved row by row.
+     *
+     * @param X  a matrix with n rows and contiguous rows
+     * @param c0 the first column to solve (inclusive)
+     * @param c1 the last column to solve (exclusive)
+     */
+    void solveColumnsInPlace(DenseMatrix X, int c0, int c1) {
+        int n = size();
+        int width = c1 - c0;
+        double[] a = lu.data();
+        double[] x = X.data();
+
+        // Forward substitution with the unit lower triangular L
+        for (int i0 = 0; i0 < n; i0 += ROW_BLOCK) {
+            int i1 = Math.min(n, i0 + ROW_BLOCK);
+            if (i0 > 0) {
+                MatrixMultiplication.multiply(-1.0, lu.subMatrix(i0, 0, i1 - i0, i0), X.subMatrix(0, c0, i0, width),
+                        1.0, X.subMatrix(i0, c0, i1 - i0, width), null);
+            }
+            for (int i = i0 + 1; i < i1; i++) {
+                int rowA = lu.index(i, 0);
+                int rowI = X.index(i, 0);
+                for (int j = i0; j < i; j++) {
+                    double factor = a[rowA + j];
+                    int rowJ = X.index(j, 0);
+                    Kernels.axpy(-factor, x, rowJ + c0, x, rowI + c0, c1 - c0);
+                }
+            }
+        }
+
+        // Backward substitution with the upper triangular U
+        for (int i1 = n; i1 > 0; i1 -= ROW_BLOCK) {
+            int i0 = Math.max(0, i1 - ROW_BLOCK);
+            if (i1 < n) {
+                MatrixMultiplication.multiply(-1.0, lu.subMatrix(i0, i1, i1 - i0, n - i1), X.subMatrix(i1, c0, n - i1, width),
+                        1.0, X.subMatrix(i0, c0, i1 - i0, width), null);
+            }
+            for (int i = i1 - 1; i >= i0; i--) {
+                int rowA = lu.index(i, 0);
+                int rowI = X.index(i, 0);
+                for (int j = i + 1; j < i1; j++) {
+                    double factor = a[rowA + j];
+                    int rowJ = X.index(j, 0);
+                    Kernels.axpy(-factor, x, rowJ + c0, x, rowI + c0, c1 - c0);
+                }
+                double diag = a[rowA + i];
+                for (int c = c0; c < c1; c++) {
+                    x[rowI + c] /= diag;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves Ly = x in place, where L is the unit lower triangular factor.
+     */
+    void forwardSubstitution(double[] x) {
+        int n = size();
+        double[] a = lu.data();
+        for (int i = 0; i < n; i++) {
+            x[i] -= Kernels.dot(a, lu.index(i, 0), x, 0, i);
+        }
+    }
+
+    /**
+     * Solves Ux = y in place, where U is the upper triangular factor.
+     */
+    void backSubstitution(double[] x) {
+        int n = size();
+        double[] a = lu.data();
+        for (int i = n - 1; i >= 0; i--) {
+            int row = lu.index(i, 0);
+            double sum = Kernels.dot(a, row + i + 1, x, i + 1, n - i - 1);
+            x[i] = (x[i] - sum) / a[row + i];
+        }
+    }
+}
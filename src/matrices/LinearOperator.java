@@ -0,0 +1,35 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+/**
+ * Anything that can be applied to a vector as a linear map, y = Ax.
+ * The iterative solvers only need this, so they work on dense and sparse matrices alike
+ * as well as on matrix-free operators.
+ */
+public interface LinearOperator {
+
+    /**
+     * @return the length of the output vector
+     */
+    int rows();
+
+    /**
+     * @return the length of the input vector
+     */
+    int cols();
+
+    /**
+     * Computes y = Ax without allocating.
+     *
+     * @param x the input vector of length cols()
+     * @param y the output vector of length rows(); must not be the same array as x
+     */
+    void multiply(double[] x, double[] y);
+
+    /**
+     * @return the number of floating-point operations in one call to {@link #multiply(double[], double[])}
+     */
+    default long multiplyFlops() {
+        return 2L * rows() * cols();
+    }
+}
@@ -0,0 +1,247 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A dense row-major matrix of doubles that lives in a memory-mapped file instead of the heap,
+ * so it can be larger than the heap or even than physical memory; the operating system pages
+ * rows in and out on demand.
+ * <p>
+ * The file is a {@link MatrixFile} in the dense row-major float64 layout: a 64-byte header
+ * followed by the elements row by row.
+ * A single mapping is limited to 2 GB, so the file is mapped in chunks of whole rows.
+ * <p>
+ * Element access goes through {@link #get(int, int)} and {@link #set(int, int, double)};
+ * the out-of-core algorithms move whole blocks with {@link #readBlock(int, int, DenseMatrix)}
+ * and {@link #writeBlock(int, int, DenseMatrix)} and work on them in memory.
+ */
+public class MappedMatrix implements LinearOperator, AutoCloseable {
+    /**
+     * Largest mapping created for one chunk of rows.
+     */
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final boolean writable;
+    private final int rows;
+    private final int cols;
+    private final int rowsPerChunk;
+    private final MappedByteBuffer[] mappings;
+    private final DoubleBuffer[] chunks;
+
+    private MappedMatrix(FileChannel channel, boolean writable, int rows, int cols) throws IOException {
+        long rowBytes = 8L * Math.max(cols, 1);
+        if (rowBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("A single row of " + cols + " columns does not fit in one mapping.");
+        }
+        this.channel = channel;
+        this.writable = writable;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowsPerChunk = (int) Math.max(1, Math.min(rows, MAX_CHUNK_BYTES / rowBytes));
+        int chunkCount = rows == 0 ? 0 : (rows + rowsPerChunk - 1) / rowsPerChunk;
+        this.mappings = new MappedByteBuffer[chunkCount];
+        this.chunks = new DoubleBuffer[chunkCount];
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (int c = 0; c < chunkCount; c++) {
+            // Mapping only reserves address space; pages are read when first touched
+            int first = c * rowsPerChunk;
+            int count = Math.min(rowsPerChunk, rows - first);
+            mappings[c] = channel.map(mode, MatrixFile.HEADER_BYTES + 8L * first * cols, 8L * count * cols);
+            chunks[c] = mappings[c].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Creates a zero-filled matrix file, replacing any existing one, and maps it read-write.
+     *
+     * @param path the file to create
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @return the mapped matrix
+     * @throws IOException if the file cannot be created
+     */
+    public static MappedMatrix create(Path path, int rows, int cols) throws IOException {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Matrix dimensions must be non-negative.");
+        }
+        FileChannel channel = MatrixFile.create(path);
+        try {
+            MatrixFile.Header header = new MatrixFile.Header(MatrixFile.DTYPE_FLOAT64,
+                    MatrixFile.LAYOUT_DENSE_ROW_MAJOR, rows, cols, 0);
+            header.write(channel);
+            long size = header.fileSize();
+            if (size > MatrixFile.HEADER_BYTES) {
+                // Extend the file without writing the data, leaving a sparse file of zeros
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+            return new MappedMatrix(channel, true, rows, cols);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a matrix file holding a copy of an in-memory matrix.
+     *
+     * @param path   the file to create
+     * @param source the matrix to copy
+     * @return the mapped matrix
+     * @throws IOException if the file cannot be created
+     */
+    public static MappedMatrix copyOf(Path path, DenseMatrix source) throws IOException {
+        MappedMatrix result = create(path, source.rows(), source.cols());
+        result.writeBlock(0, 0, source);
+        return result;
+    }
+
+    /**
+     * Maps an existing dense matrix file.
+     *
+     * @param path     the file to open
+     * @param writable true to map it read-write, false for read-only
+     * @return the mapped matrix
+     * @throws IOException if the file cannot be read or is not a dense matrix of doubles
+     */
+    public static MappedMatrix open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MatrixFile.Header header = MatrixFile.Header.read(channel, path);
+            if (header.dtype != MatrixFile.DTYPE_FLOAT64 || header.layout != MatrixFile.LAYOUT_DENSE_ROW_MAJOR) {
+                throw new IOException(path + " does not hold a dense row-major matrix of doubles.");
+            }
+            return new MappedMatrix(channel, writable, (int) header.rows, (int) header.cols);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    private DoubleBuffer chunk(int i) {
+        return chunks[i / rowsPerChunk];
+    }
+
+    private int position(int i, int j) {
+        return (i % rowsPerChunk) * cols + j;
+    }
+
+    public double get(int i, int j) {
+        return chunk(i).get(position(i, j));
+    }
+
+    public void set(int i, int j, double value) {
+        chunk(i).put(position(i, j), value);
+    }
+
+    /**
+     * Copies the block whose top-left corner is (row, col) and whose shape is that of dest
+     * into dest, one row segment at a time.
+     *
+     * @param row  the first row of the block
+     * @param col  the first column of the block
+     * @param dest the in-memory matrix to fill; it needs contiguous rows
+     */
+    public void readBlock(int row, int col, DenseMatrix dest) {
+        checkBlock(row, col, dest);
+        for (int i = 0; i < dest.rows(); i++) {
+            chunk(row + i).get(position(row + i, col), dest.data(), dest.index(i, 0), dest.cols());
+        }
+    }
+
+    /**
+     * Copies an in-memory matrix into the block whose top-left corner is (row, col).
+     *
+     * @param row    the first row of the block
+     * @param col    the first column of the block
+     * @param source the matrix to copy; it needs contiguous rows
+     */
+    public void writeBlock(int row, int col, DenseMatrix source) {
+        checkBlock(row, col, source);
+        for (int i = 0; i < source.rows(); i++) {
+            chunk(row + i).put(position(row + i, col), source.data(), source.index(i, 0), source.cols());
+        }
+    }
+
+    private void checkBlock(int row, int col, DenseMatrix block) {
+        if (!block.isRowContiguous()) {
+            throw new IllegalArgumentException("Block transfers need a matrix with contiguous rows.");
+        }
+        if (row < 0 || col < 0 || row + block.rows() > rows || col + block.cols() > cols) {
+            throw new IndexOutOfBoundsException("Block [" + row + ", " + col + ", " + block.rows() + ", "
+                    + block.cols() + "] is outside a " + rows + "x" + cols + " matrix.");
+        }
+    }
+
+    /**
+     * Computes y = Ax, streaming the rows through memory once.
+     *
+     * @param x the input vector of length cols
+     * @param y the output vector of length rows
+     */
+    @Override
+    public void multiply(double[] x, double[] y) {
+        for (int i = 0; i < rows; i++) {
+            DoubleBuffer chunk = chunk(i);
+            int p = position(i, 0);
+            double sum = 0;
+            for (int j = 0; j < cols; j++) {
+                sum += chunk.get(p + j) * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * @return an in-memory copy of the whole matrix
+     */
+    public DenseMatrix toDense() {
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        readBlock(0, 0, result);
+        return result;
+    }
+
+    /**
+     * Writes any modified pages back to the file.
+     */
+    public void flush() {
+        if (!writable) {
+            return;
+        }
+        for (MappedByteBuffer mapping : mappings) {
+            if (mapping != null) {
+                mapping.force();
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the file. The mappings stay valid until they are garbage collected,
+     * but must not be used after closing.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,225 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A batch of 3x3 matrices stored as struct-of-arrays: element (i, j) of every matrix lives in
+ * its own array {@code element(i, j)}, so matrix k is spread over index k of nine parallel arrays.
+ * The batched operations below are closed-form and fully unrolled, touch each array
+ * sequentially, allocate nothing per matrix, and split the batch across a fork-join pool.
+ */
+public class Matrix3Batch {
+    /**
+     * Number of matrices handled by a single task.
+     */
+    static final int GRAIN = 4096;
+
+    private final int size;
+    private final double[] a00, a01, a02, a10, a11, a12, a20, a21, a22;
+
+    /**
+     * Creates a zero-filled batch.
+     *
+     * @param size the number of matrices
+     */
+    public Matrix3Batch(int size) {
+        this.size = size;
+        a00 = new double[size];
+        a01 = new double[size];
+        a02 = new double[size];
+        a10 = new double[size];
+        a11 = new double[size];
+        a12 = new double[size];
+        a20 = new double[size];
+        a21 = new double[size];
+        a22 = new double[size];
+    }
+
+    /**
+     * @return the number of matrices in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the array holding element (i, j) of every matrix, for filling or reading in bulk.
+     *
+     * @param i the row index
+     * @param j the column index
+     * @return the backing array of length size()
+     */
+    public double[] element(int i, int j) {
+        switch (i * 3 + j) {
+            case 0: return a00;
+            case 1: return a01;
+            case 2: return a02;
+            case 3: return a10;
+            case 4: return a11;
+            case 5: return a12;
+            case 6: return a20;
+            case 7: return a21;
+            case 8: return a22;
+            default: throw new IndexOutOfBoundsException("Element (" + i + ", " + j + ") is outside a 3x3 matrix.");
+        }
+    }
+
+    /**
+     * Copies a 3x3 matrix into slot k.
+     *
+     * @param k      the slot index
+     * @param matrix the matrix to store
+     */
+    public void set(int k, double[][] matrix) {
+        a00[k] = matrix[0][0]; a01[k] = matrix[0][1]; a02[k] = matrix[0][2];
+        a10[k] = matrix[1][0]; a11[k] = matrix[1][1]; a12[k] = matrix[1][2];
+        a20[k] = matrix[2][0]; a21[k] = matrix[2][1]; a22[k] = matrix[2][2];
+    }
+
+    /**
+     * Copies the matrix in slot k into an existing 3x3 array.
+     *
+     * @param k    the slot index
+     * @param dest the 3x3 array to overwrite
+     */
+    public void get(int k, double[][] dest) {
+        dest[0][0] = a00[k]; dest[0][1] = a01[k]; dest[0][2] = a02[k];
+        dest[1][0] = a10[k]; dest[1][1] = a11[k]; dest[1][2] = a12[k];
+        dest[2][0] = a20[k]; dest[2][1] = a21[k]; dest[2][2] = a22[k];
+    }
+
+    /**
+     * Computes the determinant of every matrix.
+     *
+     * @param out  receives the determinants, length at least size()
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void determinant(double[] out, ForkJoinPool pool) {
+        ParallelLoop.forRange(pool, 0, size, GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                out[k] = a00[k] * (a11[k] * a22[k] - a12[k] * a21[k])
+                        - a01[k] * (a10[k] * a22[k] - a12[k] * a20[k])
+                        + a02[k] * (a10[k] * a21[k] - a11[k] * a20[k]);
+            }
+        });
+    }
+
+    /**
+     * Computes the infinity norm (maximum absolute row sum) of every matrix.
+     *
+     * @param out  receives the norms, length at least size()
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void infinityNorm(double[] out, ForkJoinPool pool) {
+        ParallelLoop.forRange(pool, 0, size, GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                double r0 = Math.abs(a00[k]) + Math.abs(a01[k]) + Math.abs(a02[k]);
+                double r1 = Math.abs(a10[k]) + Math.abs(a11[k]) + Math.abs(a12[k]);
+                double r2 = Math.abs(a20[k]) + Math.abs(a21[k]) + Math.abs(a22[k]);
+                out[k] = Math.max(r0, Math.max(r1, r2));
+            }
+        });
+    }
+
+    /**
+     * Inverts every matrix through its adjugate. Singular matrices (zero determinant) get NaN
+     * in every element of their inverse.
+     *
+     * @param dest the batch that receives the inverses; it may be this batch
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void inverse(Matrix3Batch dest, ForkJoinPool pool) {
+        checkSize(dest);
+        ParallelLoop.forRange(pool, 0, size, GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                double m00 = a00[k], m01 = a01[k], m02 = a02[k];
+                double m10 = a10[k], m11 = a11[k], m12 = a12[k];
+                double m20 = a20[k], m21 = a21[k], m22 = a22[k];
+                double c00 = m11 * m22 - m12 * m21;
+                double c10 = m12 * m20 - m10 * m22;
+                double c20 = m10 * m21 - m11 * m20;
+                double det = m00 * c00 + m01 * c10 + m02 * c20;
+                double s = det == 0 ? Double.NaN : 1.0 / det;
+                dest.a00[k] = c00 * s;
+                dest.a01[k] = (m02 * m21 - m01 * m22) * s;
+                dest.a02[k] = (m01 * m12 - m02 * m11) * s;
+                dest.a10[k] = c10 * s;
+                dest.a11[k] = (m00 * m22 - m02 * m20) * s;
+                dest.a12[k] = (m02 * m10 - m00 * m12) * s;
+                dest.a20[k] = c20 * s;
+                dest.a21[k] = (m01 * m20 - m00 * m21) * s;
+                dest.a22[k] = (m00 * m11 - m01 * m10) * s;
+            }
+        });
+    }
+
+    /**
+     * Computes the infinity-norm condition number ||A|| ||A^-1|| of every matrix, forming each
+     * inverse in registers only. Singular matrices get infinity.
+     *
+     * @param out  receives the condition numbers, length at least size()
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void condition(double[] out, ForkJoinPool pool) {
+        ParallelLoop.forRange(pool, 0, size, GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                double m00 = a00[k], m01 = a01[k], m02 = a02[k];
+                double m10 = a10[k], m11 = a11[k], m12 = a12[k];
+                double m20 = a20[k], m21 = a21[k], m22 = a22[k];
+                double c00 = m11 * m22 - m12 * m21;
+                double c10 = m12 * m20 - m10 * m22;
+                double c20 = m10 * m21 - m11 * m20;
+                double det = m00 * c00 + m01 * c10 + m02 * c20;
+                if (det == 0) {
+                    out[k] = Double.POSITIVE_INFINITY;
+                    continue;
+                }
+                double norm = Math.max(Math.abs(m00) + Math.abs(m01) + Math.abs(m02),
+                        Math.max(Math.abs(m10) + Math.abs(m11) + Math.abs(m12),
+                                Math.abs(m20) + Math.abs(m21) + Math.abs(m22)));
+                double r0 = Math.abs(c00) + Math.abs(m02 * m21 - m01 * m22) + Math.abs(m01 * m12 - m02 * m11);
+                double r1 = Math.abs(c10) + Math.abs(m00 * m22 - m02 * m20) + Math.abs(m02 * m10 - m00 * m12);
+                double r2 = Math.abs(c20) + Math.abs(m01 * m20 - m00 * m21) + Math.abs(m00 * m11 - m01 * m10);
+                out[k] = norm * Math.max(r0, Math.max(r1, r2)) / Math.abs(det);
+            }
+        });
+    }
+
+    /**
+     * Computes C_k = A_k * B_k for every k, where A is this batch.
+     *
+     * @param B    the right-hand batch
+     * @param C    the batch that receives the products; it may be this batch or B
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void multiply(Matrix3Batch B, Matrix3Batch C, ForkJoinPool pool) {
+        checkSize(B);
+        checkSize(C);
+        ParallelLoop.forRange(pool, 0, size, GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                double x00 = a00[k], x01 = a01[k], x02 = a02[k];
+                double x10 = a10[k], x11 = a11[k], x12 = a12[k];
+                double x20 = a20[k], x21 = a21[k], x22 = a22[k];
+                double y00 = B.a00[k], y01 = B.a01[k], y02 = B.a02[k];
+                double y10 = B.a10[k], y11 = B.a11[k], y12 = B.a12[k];
+                double y20 = B.a20[k], y21 = B.a21[k], y22 = B.a22[k];
+                C.a00[k] = x00 * y00 + x01 * y10 + x02 * y20;
+                C.a01[k] = x00 * y01 + x01 * y11 + x02 * y21;
+                C.a02[k] = x00 * y02 + x01 * y12 + x02 * y22;
+                C.a10[k] = x10 * y00 + x11 * y10 + x12 * y20;
+                C.a11[k] = x10 * y01 + x11 * y11 + x12 * y21;
+                C.a12[k] = x10 * y02 + x11 * y12 + x12 * y22;
+                C.a20[k] = x20 * y00 + x21 * y10 + x22 * y20;
+                C.a21[k] = x20 * y01 + x21 * y11 + x22 * y21;
+                C.a22[k] = x20 * y02 + x21 * y12 + x22 * y22;
+            }
+        });
+    }
+
+    private void checkSize(Matrix3Batch other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Batch sizes do not match: " + size + " vs " + other.size + ".");
+        }
+    }
+}
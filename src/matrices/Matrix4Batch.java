@@ -0,0 +1,252 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A batch of 4x4 matrices stored as struct-of-arrays: element (i, j) of every matrix lives in
+ * its own array {@code element(i, j)}, so matrix k is spread over index k of sixteen parallel arrays.
+ * The batched operations are closed-form and fully unrolled, allocate nothing per matrix, and
+ * split the batch across a fork-join pool. The inverse uses the twelve 2x2 minors of the top and
+ * bottom row pairs, which also give the determinant by the Laplace expansion.
+ *
+ * @see Matrix3Batch
+ */
+public class Matrix4Batch {
+    private final int size;
+    private final double[][] elements;
+
+    /**
+     * Creates a zero-filled batch.
+     *
+     * @param size the number of matrices
+     */
+    public Matrix4Batch(int size) {
+        this.size = size;
+        this.elements = new double[16][size];
+    }
+
+    /**
+     * @return the number of matrices in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the array holding element (i, j) of every matrix, for filling or reading in bulk.
+     *
+     * @param i the row index
+     * @param j the column index
+     * @return the backing array of length size()
+     */
+    public double[] element(int i, int j) {
+        if (i < 0 || i > 3 || j < 0 || j > 3) {
+            throw new IndexOutOfBoundsException("Element (" + i + ", " + j + ") is outside a 4x4 matrix.");
+        }
+        return elements[i * 4 + j];
+    }
+
+    /**
+     * Copies a 4x4 matrix into slot k.
+     *
+     * @param k      the slot index
+     * @param matrix the matrix to store
+     */
+    public void set(int k, double[][] matrix) {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                elements[i * 4 + j][k] = matrix[i][j];
+            }
+        }
+    }
+
+    /**
+     * Copies the matrix in slot k into an existing 4x4 array.
+     *
+     * @param k    the slot index
+     * @param dest the 4x4 array to overwrite
+     */
+    public void get(int k, double[][] dest) {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                dest[i][j] = elements[i * 4 + j][k];
+            }
+        }
+    }
+
+    /**
+     * Computes the determinant of every matrix.
+     *
+     * @param out  receives the determinants, length at least size()
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void determinant(double[] out, ForkJoinPool pool) {
+        double[][] e = elements;
+        ParallelLoop.forRange(pool, 0, size, Matrix3Batch.GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                double m00 = e[0][k], m01 = e[1][k], m02 = e[2][k], m03 = e[3][k];
+                double m10 = e[4][k], m11 = e[5][k], m12 = e[6][k], m13 = e[7][k];
+                double m20 = e[8][k], m21 = e[9][k], m22 = e[10][k], m23 = e[11][k];
+                double m30 = e[12][k], m31 = e[13][k], m32 = e[14][k], m33 = e[15][k];
+                out[k] = (m00 * m11 - m10 * m01) * (m22 * m33 - m32 * m23)
+                        - (m00 * m12 - m10 * m02) * (m21 * m33 - m31 * m23)
+                        + (m00 * m13 - m10 * m03) * (m21 * m32 - m31 * m22)
+                        + (m01 * m12 - m11 * m02) * (m20 * m33 - m30 * m23)
+                        - (m01 * m13 - m11 * m03) * (m20 * m32 - m30 * m22)
+                        + (m02 * m13 - m12 * m03) * (m20 * m31 - m30 * m21);
+            }
+        });
+    }
+
+    /**
+     * Computes the infinity norm (maximum absolute row sum) of every matrix.
+     *
+     * @param out  receives the norms, length at least size()
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void infinityNorm(double[] out, ForkJoinPool pool) {
+        double[][] e = elements;
+        ParallelLoop.forRange(pool, 0, size, Matrix3Batch.GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                double r0 = Math.abs(e[0][k]) + Math.abs(e[1][k]) + Math.abs(e[2][k]) + Math.abs(e[3][k]);
+                double r1 = Math.abs(e[4][k]) + Math.abs(e[5][k]) + Math.abs(e[6][k]) + Math.abs(e[7][k]);
+                double r2 = Math.abs(e[8][k]) + Math.abs(e[9][k]) + Math.abs(e[10][k]) + Math.abs(e[11][k]);
+                double r3 = Math.abs(e[12][k]) + Math.abs(e[13][k]) + Math.abs(e[14][k]) + Math.abs(e[15][k]);
+                out[k] = Math.max(Math.max(r0, r1), Math.max(r2, r3));
+            }
+        });
+    }
+
+    /**
+     * Inverts every matrix. Singular matrices (zero determinant) get NaN in every element of
+     * their inverse.
+     *
+     * @param dest the batch that receives the inverses; it may be this batch
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void inverse(Matrix4Batch dest, ForkJoinPool pool) {
+        checkSize(dest);
+        double[][] e = elements;
+        double[][] d = dest.elements;
+        ParallelLoop.forRange(pool, 0, size, Matrix3Batch.GRAIN, (from, to) -> {
+            double[] inverse = new double[16];
+            for (int k = from; k < to; k++) {
+                double det = adjugate(e, k, inverse);
+                double s = det == 0 ? Double.NaN : 1.0 / det;
+                for (int p = 0; p < 16; p++) {
+                    d[p][k] = inverse[p] * s;
+                }
+            }
+        });
+    }
+
+    /**
+     * Computes the infinity-norm condition number ||A|| ||A^-1|| of every matrix.
+     * Singular matrices get infinity.
+     *
+     * @param out  receives the condition numbers, length at least size()
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void condition(double[] out, ForkJoinPool pool) {
+        double[][] e = elements;
+        ParallelLoop.forRange(pool, 0, size, Matrix3Batch.GRAIN, (from, to) -> {
+            double[] adjugate = new double[16];
+            for (int k = from; k < to; k++) {
+                double det = adjugate(e, k, adjugate);
+                if (det == 0) {
+                    out[k] = Double.POSITIVE_INFINITY;
+                    continue;
+                }
+                double norm = 0;
+                double inverseNorm = 0;
+                for (int i = 0; i < 16; i += 4) {
+                    norm = Math.max(norm, Math.abs(e[i][k]) + Math.abs(e[i + 1][k])
+                            + Math.abs(e[i + 2][k]) + Math.abs(e[i + 3][k]));
+                    inverseNorm = Math.max(inverseNorm, Math.abs(adjugate[i]) + Math.abs(adjugate[i + 1])
+                            + Math.abs(adjugate[i + 2]) + Math.abs(adjugate[i + 3]));
+                }
+                out[k] = norm * inverseNorm / Math.abs(det);
+            }
+        });
+    }
+
+    /**
+     * Computes C_k = A_k * B_k for every k, where A is this batch.
+     *
+     * @param B    the right-hand batch
+     * @param C    the batch that receives the products; it may be this batch or B
+     * @param pool the pool to split the batch across, or null to stay on the calling thread
+     */
+    public void multiply(Matrix4Batch B, Matrix4Batch C, ForkJoinPool pool) {
+        checkSize(B);
+        checkSize(C);
+        double[][] x = elements;
+        double[][] y = B.elements;
+        double[][] z = C.elements;
+        ParallelLoop.forRange(pool, 0, size, Matrix3Batch.GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                double y00 = y[0][k], y01 = y[1][k], y02 = y[2][k], y03 = y[3][k];
+                double y10 = y[4][k], y11 = y[5][k], y12 = y[6][k], y13 = y[7][k];
+                double y20 = y[8][k], y21 = y[9][k], y22 = y[10][k], y23 = y[11][k];
+                double y30 = y[12][k], y31 = y[13][k], y32 = y[14][k], y33 = y[15][k];
+                for (int i = 0; i < 16; i += 4) {
+                    double x0 = x[i][k], x1 = x[i + 1][k], x2 = x[i + 2][k], x3 = x[i + 3][k];
+                    z[i][k] = x0 * y00 + x1 * y10 + x2 * y20 + x3 * y30;
+                    z[i + 1][k] = x0 * y01 + x1 * y11 + x2 * y21 + x3 * y31;
+                    z[i + 2][k] = x0 * y02 + x1 * y12 + x2 * y22 + x3 * y32;
+                    z[i + 3][k] = x0 * y03 + x1 * y13 + x2 * y23 + x3 * y33;
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the adjugate of matrix k, row by row, into out and returns its determinant.
+     */
+    private static double adjugate(double[][] e, int k, double[] out) {
+        double m00 = e[0][k], m01 = e[1][k], m02 = e[2][k], m03 = e[3][k];
+        double m10 = e[4][k], m11 = e[5][k], m12 = e[6][k], m13 = e[7][k];
+        double m20 = e[8][k], m21 = e[9][k], m22 = e[10][k], m23 = e[11][k];
+        double m30 = e[12][k], m31 = e[13][k], m32 = e[14][k], m33 = e[15][k];
+
+        // 2x2 minors of rows 0-1 (s) and rows 2-3 (c)
+        double s0 = m00 * m11 - m10 * m01;
+        double s1 = m00 * m12 - m10 * m02;
+        double s2 = m00 * m13 - m10 * m03;
+        double s3 = m01 * m12 - m11 * m02;
+        double s4 = m01 * m13 - m11 * m03;
+        double s5 = m02 * m13 - m12 * m03;
+        double c5 = m22 * m33 - m32 * m23;
+        double c4 = m21 * m33 - m31 * m23;
+        double c3 = m21 * m32 - m31 * m22;
+        double c2 = m20 * m33 - m30 * m23;
+        double c1 = m20 * m32 - m30 * m22;
+        double c0 = m20 * m31 - m30 * m21;
+
+        out[0] = m11 * c5 - m12 * c4 + m13 * c3;
+        out[1] = -m01 * c5 + m02 * c4 - m03 * c3;
+        out[2] = m31 * s5 - m32 * s4 + m33 * s3;
+        out[3] = -m21 * s5 + m22 * s4 - m23 * s3;
+        out[4] = -m10 * c5 + m12 * c2 - m13 * c1;
+        out[5] = m00 * c5 - m02 * c2 + m03 * c1;
+        out[6] = -m30 * s5 + m32 * s2 - m33 * s1;
+        out[7] = m20 * s5 - m22 * s2 + m23 * s1;
+        out[8] = m10 * c4 - m11 * c2 + m13 * c0;
+        out[9] = -m00 * c4 + m01 * c2 - m03 * c0;
+        out[10] = m30 * s4 - m31 * s2 + m33 * s0;
+        out[11] = -m20 * s4 + m21 * s2 - m23 * s0;
+        out[12] = -m10 * c3 + m11 * c1 - m12 * c0;
+        out[13] = m00 * c3 - m01 * c1 + m02 * c0;
+        out[14] = -m30 * s3 + m31 * s1 - m32 * s0;
+        out[15] = m20 * s3 - m21 * s1 + m22 * s0;
+
+        return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    }
+
+    private void checkSize(Matrix4Batch other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Batch sizes do not match: " + size + " vs " + other.size + ".");
+        }
+    }
+}
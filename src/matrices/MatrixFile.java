@@ -0,0 +1,389 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes the compact binary matrix format.
+ * <p>
+ * A file starts with a {@value #HEADER_BYTES}-byte little-endian header:
+ * <pre>
+ *  0  int   magic "NAMX"
+ *  4  int   version
+ *  8  int   dtype     1 = float64, 2 = float32
+ * 12  int   layout    0 = dense row-major, 1 = dense column-major, 2 = coordinate
+ * 16  long  rows
+ * 24  long  cols
+ * 32  long  non-zeros (coordinate layout only)
+ * 40        reserved, zero
+ * </pre>
+ * Dense layouts are followed by rows * cols elements. The coordinate layout is followed by
+ * nnz int row indices, nnz int column indices, padding to a multiple of 8 bytes, and nnz
+ * values, so every section can be copied out with one bulk transfer.
+ * <p>
+ * Readers map the file and copy each section with a bulk buffer transfer instead of parsing,
+ * and a dense row-major float64 file can also be used in place through {@link #map(Path, boolean)}.
+ * {@link #load(Path)} also accepts Matrix Market text files, see {@link MatrixMarket}.
+ */
+public class MatrixFile {
+    static final int MAGIC = 0x584D414E; // "NAMX" when read as little-endian bytes
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    public static final int DTYPE_FLOAT64 = 1;
+    public static final int DTYPE_FLOAT32 = 2;
+    public static final int LAYOUT_DENSE_ROW_MAJOR = 0;
+    public static final int LAYOUT_DENSE_COLUMN_MAJOR = 1;
+    public static final int LAYOUT_COORDINATE = 2;
+
+    /**
+     * Largest region mapped or buffered at once.
+     */
+    private static final int CHUNK_BYTES = 1 << 30;
+
+    /**
+     * Size of the staging buffer used when writing.
+     */
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * The decoded fixed-size header of a matrix file.
+     */
+    static final class Header {
+        final int dtype;
+        final int layout;
+        final long rows;
+        final long cols;
+        final long nonZeros;
+
+        Header(int dtype, int layout, long rows, long cols, long nonZeros) {
+            this.dtype = dtype;
+            this.layout = layout;
+            this.rows = rows;
+            this.cols = cols;
+            this.nonZeros = nonZeros;
+        }
+
+        int elementBytes() {
+            return dtype == DTYPE_FLOAT32 ? 4 : 8;
+        }
+
+        /**
+         * @return the byte offset of the values section
+         * @throws ArithmeticException if it does not fit in a long
+         */
+        long valuesOffset() {
+            if (layout != LAYOUT_COORDINATE) {
+                return HEADER_BYTES;
+            }
+            long indices = Math.addExact(HEADER_BYTES, Math.multiplyExact(8L, nonZeros));
+            return Math.addExact(indices, 7) & ~7L;
+        }
+
+        /**
+         * @return the number of stored values
+         * @throws ArithmeticException if it does not fit in a long
+         */
+        long valueCount() {
+            return layout == LAYOUT_COORDINATE ? nonZeros : Math.multiplyExact(rows, cols);
+        }
+
+        /**
+         * @return the size in bytes of a file holding this matrix
+         * @throws ArithmeticException if it does not fit in a long
+         */
+        long fileSize() {
+            return Math.addExact(valuesOffset(), Math.multiplyExact(valueCount(), elementBytes()));
+        }
+
+        /**
+         * @return {@link #fileSize()}, or Long.MAX_VALUE, which no file reaches, if it overflows
+         */
+        private long sizeOrMax() {
+            try {
+                return fileSize();
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        void write(FileChannel channel) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(dtype).putInt(layout)
+                    .putLong(rows).putLong(cols).putLong(nonZeros);
+            header.clear();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+
+        static Header read(FileChannel channel, Path path) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a matrix file.");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(path + " has unsupported version " + header.getInt(4) + ".");
+            }
+            Header result = new Header(header.getInt(8), header.getInt(12),
+                    header.getLong(16), header.getLong(24), header.getLong(32));
+            if (result.dtype != DTYPE_FLOAT64 && result.dtype != DTYPE_FLOAT32) {
+                throw new IOException(path + " has unknown dtype " + result.dtype + ".");
+            }
+            if (result.layout < LAYOUT_DENSE_ROW_MAJOR || result.layout > LAYOUT_COORDINATE) {
+                throw new IOException(path + " has unknown layout " + result.layout + ".");
+            }
+            if (result.rows < 0 || result.cols < 0 || result.rows > Integer.MAX_VALUE || result.cols > Integer.MAX_VALUE
+                    || result.nonZeros < 0 || channel.size() < result.sizeOrMax()) {
+                throw new IOException(path + " has an invalid size for a " + result.rows + "x" + result.cols
+                        + " matrix.");
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Writes a matrix in the dense row-major float64 layout.
+     *
+     * @param path   the file to create or overwrite
+     * @param matrix the matrix to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, DenseMatrix matrix) throws IOException {
+        write(path, matrix, false);
+    }
+
+    /**
+     * Writes a matrix in the dense row-major layout.
+     *
+     * @param path            the file to create or overwrite
+     * @param matrix          the matrix to write
+     * @param singlePrecision true to store float32 values, halving the file size
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, DenseMatrix matrix, boolean singlePrecision) throws IOException {
+        Header header = new Header(singlePrecision ? DTYPE_FLOAT32 : DTYPE_FLOAT64, LAYOUT_DENSE_ROW_MAJOR,
+                matrix.rows(), matrix.cols(), 0);
+        try (FileChannel channel = create(path)) {
+            header.write(channel);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_BYTES);
+            for (int i = 0; i < matrix.rows(); i++) {
+                for (int j = 0; j < matrix.cols(); j++) {
+                    if (buffer.remaining() < 8) {
+                        drain(channel, buffer);
+                    }
+                    if (singlePrecision) {
+                        buffer.putFloat((float) matrix.get(i, j));
+                    } else {
+                        buffer.putDouble(matrix.get(i, j));
+                    }
+                }
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes a sparse matrix in the coordinate float64 layout.
+     *
+     * @param path   the file to create or overwrite
+     * @param matrix the matrix to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, CSRMatrix matrix) throws IOException {
+        int nnz = matrix.nonZeros();
+        Header header = new Header(DTYPE_FLOAT64, LAYOUT_COORDINATE, matrix.rows(), matrix.cols(), nnz);
+        int[] rowPointers = matrix.rowPointers();
+        int[] columns = matrix.columnIndices();
+        double[] values = matrix.values();
+        try (FileChannel channel = create(path)) {
+            header.write(channel);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_BYTES);
+            for (int i = 0; i < matrix.rows(); i++) {
+                for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                    if (buffer.remaining() < 4) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putInt(i);
+                }
+            }
+            for (int p = 0; p < nnz; p++) {
+                if (buffer.remaining() < 4) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(columns[p]);
+            }
+            drain(channel, buffer);
+            channel.position(header.valuesOffset());
+            for (int p = 0; p < nnz; p++) {
+                if (buffer.remaining() < 8) {
+                    drain(channel, buffer);
+                }
+                buffer.putDouble(values[p]);
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Reads a matrix file of any dtype and layout into a dense in-memory matrix.
+     *
+     * @param path the file to read
+     * @return the matrix
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static DenseMatrix readDense(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = Header.read(channel, path);
+            int rows = (int) header.rows;
+            int cols = (int) header.cols;
+            if (header.rows * header.cols > Integer.MAX_VALUE - 8) {
+                throw new IOException(path + " is too large to load onto the heap; map it instead.");
+            }
+            if (header.layout == LAYOUT_COORDINATE) {
+                return readTriplets(channel, header, path).toDense();
+            }
+            double[] values = new double[rows * cols];
+            readValues(channel, header, values);
+            DenseMatrix stored = header.layout == LAYOUT_DENSE_ROW_MAJOR
+                    ? new DenseMatrix(values, 0, rows, cols, cols, 1)
+                    : new DenseMatrix(values, 0, rows, cols, 1, rows);
+            return stored.isRowContiguous() ? stored : stored.copy();
+        }
+    }
+
+    /**
+     * Reads a matrix file of any dtype and layout into a sparse in-memory matrix.
+     * Dense layouts keep only their nonzero entries.
+     *
+     * @param path the file to read
+     * @return the matrix
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static CSRMatrix readSparse(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = Header.read(channel, path);
+            if (header.layout == LAYOUT_COORDINATE) {
+                return readTriplets(channel, header, path);
+            }
+        }
+        return CSRMatrix.of(readDense(path));
+    }
+
+    /**
+     * Maps a dense row-major float64 file without copying it onto the heap.
+     *
+     * @param path     the file to map
+     * @param writable true to map it read-write, false for read-only
+     * @return the mapped matrix
+     * @throws IOException if the file cannot be read or has another dtype or layout
+     */
+    public static MappedMatrix map(Path path, boolean writable) throws IOException {
+        return MappedMatrix.open(path, writable);
+    }
+
+    /**
+     * Reads a matrix from either a binary matrix file or a Matrix Market file, telling them
+     * apart by their first bytes.
+     *
+     * @param path the file to read
+     * @return the matrix
+     * @throws IOException if the file cannot be read or is in neither format
+     */
+    public static DenseMatrix load(Path path) throws IOException {
+        byte[] start = new byte[4];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(start);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until four bytes are in or the file ends
+            }
+        }
+        if ((start[0] & 0xFF | (start[1] & 0xFF) << 8 | (start[2] & 0xFF) << 16 | (start[3] & 0xFF) << 24) == MAGIC) {
+            return readDense(path);
+        }
+        return MatrixMarket.readDense(path);
+    }
+
+    private static CSRMatrix readTriplets(FileChannel channel, Header header, Path path) throws IOException {
+        if (header.nonZeros > Integer.MAX_VALUE - 8) {
+            throw new IOException(path + " has too many entries to load onto the heap.");
+        }
+        int nnz = (int) header.nonZeros;
+        int[] rowIndices = new int[nnz];
+        int[] columnIndices = new int[nnz];
+        double[] values = new double[nnz];
+        readInts(channel, HEADER_BYTES, rowIndices);
+        readInts(channel, HEADER_BYTES + 4L * nnz, columnIndices);
+        readValues(channel, header, values);
+        for (int k = 0; k < nnz; k++) {
+            if (rowIndices[k] < 0 || rowIndices[k] >= header.rows || columnIndices[k] < 0
+                    || columnIndices[k] >= header.cols) {
+                throw new IOException(path + " has an entry outside the matrix at position " + k + ".");
+            }
+        }
+        return CSRMatrix.fromTriplets((int) header.rows, (int) header.cols, rowIndices, columnIndices, values);
+    }
+
+    /**
+     * Copies the values section into dest with bulk transfers from successive mappings.
+     */
+    private static void readValues(FileChannel channel, Header header, double[] dest) throws IOException {
+        long offset = header.valuesOffset();
+        int elementBytes = header.elementBytes();
+        int perChunk = CHUNK_BYTES / elementBytes;
+        for (int done = 0; done < dest.length; ) {
+            int count = Math.min(perChunk, dest.length - done);
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY,
+                    offset + (long) done * elementBytes, (long) count * elementBytes);
+            mapping.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.dtype == DTYPE_FLOAT64) {
+                mapping.asDoubleBuffer().get(dest, done, count);
+            } else {
+                for (int k = 0; k < count; k++) {
+                    dest[done + k] = mapping.getFloat(4 * k);
+                }
+            }
+            done += count;
+        }
+    }
+
+    private static void readInts(FileChannel channel, long offset, int[] dest) throws IOException {
+        int perChunk = CHUNK_BYTES / 4;
+        for (int done = 0; done < dest.length; ) {
+            int count = Math.min(perChunk, dest.length - done);
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, offset + 4L * done, 4L * count);
+            mapping.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(dest, done, count);
+            done += count;
+        }
+    }
+
+    /**
+     * Opens a new, empty file for reading and writing in place of any existing one. The old file
+     * is deleted rather than truncated, so a mapping of it stays valid instead of faulting.
+     */
+    static FileChannel create(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        return FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.READ);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,387 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Reader for Matrix Market text files (real, integer or pattern values; general, symmetric or
+ * skew-symmetric storage; coordinate or array format).
+ * <p>
+ * The file is streamed through one reused NIO buffer and tokens are parsed straight from the
+ * bytes. Numbers with at most 18 significant digits and a small decimal exponent are converted
+ * with a single exact multiplication or division by a power of ten, which gives the correctly
+ * rounded result; anything else falls back to {@link Double#parseDouble(String)}.
+ */
+public class MatrixMarket {
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int MAX_TOKEN = 256;
+
+    /**
+     * Powers of ten that are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Reads a Matrix Market file into a sparse matrix. Symmetric storage is expanded, so the
+     * result always holds both triangles.
+     *
+     * @param path the file to read
+     * @return the matrix
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static CSRMatrix read(Path path) throws IOException {
+        try (Tokenizer in = new Tokenizer(path)) {
+            Banner banner = Banner.read(in, path);
+            if (banner.array) {
+                return CSRMatrix.of(readArray(in, banner));
+            }
+            return readCoordinate(in, banner, path);
+        }
+    }
+
+    /**
+     * Reads a Matrix Market file into a dense matrix. Symmetric storage is expanded.
+     *
+     * @param path the file to read
+     * @return the matrix
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static DenseMatrix readDense(Path path) throws IOException {
+        try (Tokenizer in = new Tokenizer(path)) {
+            Banner banner = Banner.read(in, path);
+            if (banner.array) {
+                return readArray(in, banner);
+            }
+            return readCoordinate(in, banner, path).toDense();
+        }
+    }
+
+    /**
+     * The parsed first line of the file and the size line after the comments.
+     */
+    private static final class Banner {
+        boolean array;
+        boolean pattern;
+        boolean symmetric;
+        boolean skew;
+        int rows;
+        int cols;
+        long entries;
+
+        static Banner read(Tokenizer in, Path path) throws IOException {
+            String first = in.nextLine();
+            String[] words = first == null ? new String[0] : first.trim().toLowerCase(Locale.ROOT).split("\\s+");
+            if (words.length != 5 || !words[0].equals("%%matrixmarket") || !words[1].equals("matrix")) {
+                throw new IOException(path + " does not start with a Matrix Market banner.");
+            }
+            Banner banner = new Banner();
+            switch (words[2]) {
+                case "coordinate":
+                    break;
+                case "array":
+                    banner.array = true;
+                    break;
+                default:
+                    throw new IOException(path + " has unknown format '" + words[2] + "'.");
+            }
+            switch (words[3]) {
+                case "real":
+                case "integer":
+                case "double":
+                    break;
+                case "pattern":
+                    banner.pattern = true;
+                    break;
+                default:
+                    throw new IOException(path + " has unsupported field '" + words[3] + "'.");
+            }
+            switch (words[4]) {
+                case "general":
+                    break;
+                case "symmetric":
+                    banner.symmetric = true;
+                    break;
+                case "skew-symmetric":
+                    banner.symmetric = true;
+                    banner.skew = true;
+                    break;
+                default:
+                    throw new IOException(path + " has unsupported symmetry '" + words[4] + "'.");
+            }
+            if (banner.array && banner.pattern) {
+                throw new IOException(path + " uses the pattern field with the array format.");
+            }
+
+            in.skipComments();
+            banner.rows = in.nextInt();
+            banner.cols = in.nextInt();
+            banner.entries = banner.array ? (long) banner.rows * banner.cols : in.nextInt();
+            if (banner.rows < 0 || banner.cols < 0 || banner.entries < 0) {
+                throw new IOException(path + " has a negative size.");
+            }
+            if (banner.symmetric && banner.rows != banner.cols) {
+                throw new IOException(path + " is symmetric but not square.");
+            }
+            return banner;
+        }
+    }
+
+    private static CSRMatrix readCoordinate(Tokenizer in, Banner banner, Path path) throws IOException {
+        long capacity = banner.symmetric ? 2 * banner.entries : banner.entries;
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IOException(path + " has too many entries to load onto the heap.");
+        }
+        int[] rowIndices = new int[(int) capacity];
+        int[] columnIndices = new int[(int) capacity];
+        double[] values = new double[(int) capacity];
+        int count = 0;
+        for (long k = 0; k < banner.entries; k++) {
+            int i = in.nextInt() - 1;
+            int j = in.nextInt() - 1;
+            double value = banner.pattern ? 1.0 : in.nextDouble();
+            if (i < 0 || i >= banner.rows || j < 0 || j >= banner.cols) {
+                throw new IOException(path + " has entry (" + (i + 1) + ", " + (j + 1) + ") outside a "
+                        + banner.rows + "x" + banner.cols + " matrix.");
+            }
+            rowIndices[count] = i;
+            columnIndices[count] = j;
+            values[count++] = value;
+            if (banner.symmetric && i != j) {
+                rowIndices[count] = j;
+                columnIndices[count] = i;
+                values[count++] = banner.skew ? -value : value;
+            }
+        }
+        SparseMatrixBuilder.Compressed c = SparseMatrixBuilder.compress(banner.rows, banner.cols,
+                rowIndices, columnIndices, values, count);
+        return new CSRMatrix(banner.rows, banner.cols, c.pointers, c.indices, c.values);
+    }
+
+    /**
+     * Array format stores the matrix column by column; symmetric storage keeps only the lower
+     * triangle (without the diagonal when skew-symmetric).
+     */
+    private static DenseMatrix readArray(Tokenizer in, Banner banner) throws IOException {
+        DenseMatrix result = new DenseMatrix(banner.rows, banner.cols);
+        for (int j = 0; j < banner.cols; j++) {
+            int first = !banner.symmetric ? 0 : banner.skew ? j + 1 : j;
+            for (int i = first; i < banner.rows; i++) {
+                double value = in.nextDouble();
+                result.set(i, j, value);
+                if (banner.symmetric && i != j) {
+                    result.set(j, i, banner.skew ? -value : value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits the file into whitespace-separated tokens, refilling one buffer from the channel.
+     */
+    private static final class Tokenizer implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        private final byte[] bytes = buffer.array();
+        private final byte[] token = new byte[MAX_TOKEN];
+        private int position;
+        private int limit;
+
+        Tokenizer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        /**
+         * @return false once the file is exhausted
+         */
+        private boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        }
+
+        String nextLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            while (fill()) {
+                byte b = bytes[position++];
+                if (b == '\n') {
+                    return line.toString();
+                }
+                line.append((char) (b & 0xFF));
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+
+        /**
+         * Skips blank lines and lines starting with '%'.
+         */
+        void skipComments() throws IOException {
+            while (fill()) {
+                byte b = bytes[position];
+                if (b == '%') {
+                    nextLine();
+                } else if (isSpace(b)) {
+                    position++;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Copies the next token into the token array and returns its length.
+         */
+        private int nextToken() throws IOException {
+            while (fill() && isSpace(bytes[position])) {
+                position++;
+            }
+            int length = 0;
+            while (fill() && !isSpace(bytes[position])) {
+                if (length == MAX_TOKEN) {
+                    throw new IOException("Token longer than " + MAX_TOKEN + " characters.");
+                }
+                token[length++] = bytes[position++];
+            }
+            if (length == 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+            return length;
+        }
+
+        int nextInt() throws IOException {
+            int length = nextToken();
+            int k = 0;
+            boolean negative = token[0] == '-';
+            if (negative || token[0] == '+') {
+                k++;
+            }
+            if (k == length) {
+                throw new IOException("Expected an integer, got '" + text(length) + "'.");
+            }
+            long value = 0;
+            for (; k < length; k++) {
+                int digit = token[k] - '0';
+                if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                    throw new IOException("Expected an integer, got '" + text(length) + "'.");
+                }
+                value = value * 10 + digit;
+            }
+            value = negative ? -value : value;
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new IOException("Integer out of range: '" + text(length) + "'.");
+            }
+            return (int) value;
+        }
+
+        double nextDouble() throws IOException {
+            int length = nextToken();
+            int k = 0;
+            boolean negative = token[0] == '-';
+            if (negative || token[0] == '+') {
+                k++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean seenDigit = false;
+            boolean seenPoint = false;
+            for (; k < length; k++) {
+                byte b = token[k];
+                if (b >= '0' && b <= '9') {
+                    seenDigit = true;
+                    if (mantissa == 0 && b == '0') {
+                        if (seenPoint) {
+                            exponent--;
+                        }
+                        continue;
+                    }
+                    if (++digits > 18) {
+                        return parseSlow(length);
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (seenPoint) {
+                        exponent--;
+                    }
+                } else if (b == '.' && !seenPoint) {
+                    seenPoint = true;
+                } else {
+                    break;
+                }
+            }
+            if (!seenDigit) {
+                return parseSlow(length);
+            }
+            if (k < length) {
+                if (token[k] != 'e' && token[k] != 'E' && token[k] != 'd' && token[k] != 'D') {
+                    return parseSlow(length);
+                }
+                k++;
+                boolean negativeExponent = k < length && token[k] == '-';
+                if (k < length && (token[k] == '-' || token[k] == '+')) {
+                    k++;
+                }
+                if (k == length) {
+                    return parseSlow(length);
+                }
+                int e = 0;
+                for (; k < length; k++) {
+                    int digit = token[k] - '0';
+                    if (digit < 0 || digit > 9 || e > 10000) {
+                        return parseSlow(length);
+                    }
+                    e = e * 10 + digit;
+                }
+                exponent += negativeExponent ? -e : e;
+            }
+
+            double value;
+            if (mantissa == 0) {
+                value = 0.0;
+            } else if (mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+                value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            } else {
+                return parseSlow(length);
+            }
+            return negative ? -value : value;
+        }
+
+        private double parseSlow(int length) throws IOException {
+            String text = text(length);
+            try {
+                return Double.parseDouble(text.replace('d', 'e').replace('D', 'e'));
+            } catch (NumberFormatException e) {
+                throw new IOException("Expected a number, got '" + text + "'.", e);
+            }
+        }
+
+        private String text(int length) {
+            return new String(token, 0, length, StandardCharsets.US_ASCII);
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * General matrix multiplication engine (GEMM) for {@link DenseMatrix}.
+ * Computes C = alpha * A * B + beta * C with the loop nest of GotoBLAS. A KC x NC panel of B
+ * (2 MB) is packed once into NR-wide column slivers and shared by every row block, so it is
+ * read from the outer cache levels rather than from memory. An MC x KC block of A (256 KB) is
+ * packed into MR-tall row slivers sized for L2. The micro-kernel keeps an MR x NR tile of C in
+ * local variables while it streams one sliver of each (8 KB apiece) through L1.
+ * Large products split the row blocks of each panel across a fork-join pool.
+ */
+public class MatrixMultiplication {
+    static final int MR = 4;
+    static final int NR = 4;
+    static final int MC = 128;
+    static final int KC = 256;
+    static final int NC = 1024;
+
+    /**
+     * Products with fewer multiply-adds than this run on the calling thread.
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 21;
+
+    private static final ThreadLocal<double[]> PACKED_A = ThreadLocal.withInitial(() -> new double[MC * KC]);
+    private static final ThreadLocal<double[]> PACKED_B = ThreadLocal.withInitial(() -> new double[KC * NC]);
+
+    /**
+     * Multiplies two matrices into a newly allocated result.
+     *
+     * @param A the left matrix (m x k)
+     * @param B the right matrix (k x n)
+     * @return the m x n product A * B
+     */
+    public static DenseMatrix multiply(DenseMatrix A, DenseMatrix B) {
+        DenseMatrix C = new DenseMatrix(A.rows(), B.cols());
+        multiply(1.0, A, B, 0.0, C);
+        return C;
+    }
+
+    /**
+     * Computes C = alpha * A * B + beta * C using the common fork-join pool.
+     *
+     * @param alpha scale applied to the product
+     * @param A     the left matrix (m x k)
+     * @param B     the right matrix (k x n)
+     * @param beta  scale applied to the existing contents of C; 0 ignores them entirely
+     * @param C     the m x n output matrix, which must not share storage with A or B
+     */
+    public static void multiply(double alpha, DenseMatrix A, DenseMatrix B, double beta, DenseMatrix C) {
+        multiply(alpha, A, B, beta, C, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes C = alpha * A * B + beta * C on the given pool.
+     *
+     * @param alpha scale applied to the product
+     * @param A     the left matrix (m x k)
+     * @param B     the right matrix (k x n)
+     * @param beta  scale applied to the existing contents of C; 0 ignores them entirely
+     * @param C     the m x n output matrix, which must not share storage with A or B
+     * @param pool  the pool that runs the row blocks, or null to stay on the calling thread
+     */
+    public static void multiply(double alpha, DenseMatrix A, DenseMatrix B, double beta, DenseMatrix C,
+                                ForkJoinPool pool) {
+        int m = A.rows();
+        int k = A.cols();
+        int n = B.cols();
+        if (B.rows() != k || C.rows() != m || C.cols() != n) {
+            throw new IllegalArgumentException("Cannot multiply a " + m + "x" + k + " matrix by a "
+                    + B.rows() + "x" + n + " matrix into a " + C.rows() + "x" + C.cols() + " matrix.");
+        }
+        if (m == 0 || n == 0) {
+            return;
+        }
+        if (alpha == 0 || k == 0) {
+            scaleTile(C, beta, 0, m, 0, n);
+            return;
+        }
+
+        // Short products use row blocks smaller than MC so that every worker still gets one
+        int rowBlock = pool == null ? MC
+                : Math.min(MC, roundUp((m + pool.getParallelism() - 1) / pool.getParallelism(), MR));
+        if (pool == null || (long) m * n * k < PARALLEL_THRESHOLD || rowBlock >= m) {
+            // The calling thread never joins, so it can keep the panel in its own buffer and allocate nothing
+            double[] packedB = PACKED_B.get();
+            for (int jc = 0; jc < n; jc += NC) {
+                int nc = Math.min(NC, n - jc);
+                for (int pc = 0; pc < k; pc += KC) {
+                    int kc = Math.min(KC, k - pc);
+                    packB(B, pc, kc, jc, nc, packedB);
+                    for (int ic = 0; ic < m; ic += MC) {
+                        multiplyBlock(alpha, A, beta, C, packedB, pc, kc, ic, Math.min(MC, m - ic), jc, nc);
+                    }
+                }
+            }
+            return;
+        }
+
+        // A worker that joins may run another product meanwhile, so the shared panel gets its own buffer
+        int rowBlocks = (m + rowBlock - 1) / rowBlock;
+        double[] packedB = new double[KC * roundUp(Math.min(NC, n), NR)];
+        for (int jc = 0; jc < n; jc += NC) {
+            int nc = Math.min(NC, n - jc);
+            for (int pc = 0; pc < k; pc += KC) {
+                int kc = Math.min(KC, k - pc);
+                packB(B, pc, kc, jc, nc, packedB);
+                pool.invoke(new TileTask(alpha, A, beta, C, packedB, pc, kc, jc, nc, rowBlock, 0, rowBlocks));
+            }
+        }
+    }
+
+    private static int roundUp(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+
+    /**
+     * Recursively splits a range of row blocks in half until each task owns a single block,
+     * which it multiplies by one packed panel of B.
+     */
+    private static class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double alpha;
+        private final double beta;
+        private final DenseMatrix A;
+        private final DenseMatrix C;
+        private final double[] packedB;
+        private final int pc;
+        private final int kc;
+        private final int jc;
+        private final int nc;
+        private final int rowBlock;
+        private final int from;
+        private final int to;
+
+        TileTask(double alpha, DenseMatrix A, double beta, DenseMatrix C, double[] packedB,
+                 int pc, int kc, int jc, int nc, int rowBlock, int from, int to) {
+            this.alpha = alpha;
+            this.beta = beta;
+            this.A = A;
+            this.C = C;
+            this.packedB = packedB;
+            this.pc = pc;
+            this.kc = kc;
+            this.jc = jc;
+            this.nc = nc;
+            this.rowBlock = rowBlock;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TileTask(alpha, A, beta, C, packedB, pc, kc, jc, nc, rowBlock, from, mid),
+                        new TileTask(alpha, A, beta, C, packedB, pc, kc, jc, nc, rowBlock, mid, to));
+                return;
+            }
+            int ic = from * rowBlock;
+            multiplyBlock(alpha, A, beta, C, packedB, pc, kc, ic, Math.min(rowBlock, C.rows() - ic), jc, nc);
+        }
+    }
+
+    /**
+     * Adds alpha times the product of the mc x kc block of A at (ic, pc) and the packed kc x nc
+     * panel of B into C at (ic, jc), after scaling that part of C by beta on the first slice.
+     */
+    private static void multiplyBlock(double alpha, DenseMatrix A, double beta, DenseMatrix C, double[] packedB,
+                                      int pc, int kc, int ic, int mc, int jc, int nc) {
+        if (pc == 0) {
+            scaleTile(C, beta, ic, mc, jc, nc);
+        }
+        double[] packedA = PACKED_A.get();
+        packA(A, ic, mc, pc, kc, packedA);
+        for (int jr = 0; jr < nc; jr += NR) {
+            int nr = Math.min(NR, nc - jr);
+            int bOffset = jr * kc;
+            for (int ir = 0; ir < mc; ir += MR) {
+                int mr = Math.min(MR, mc - ir);
+                microKernel(kc, alpha, packedA, ir * kc, packedB, bOffset, C, ic + ir, jc + jr, mr, nr);
+            }
+        }
+    }
+
+    private static void scaleTile(DenseMatrix C, double beta, int ic, int mc, int jc, int nc) {
+        if (beta == 1.0) {
+            return;
+        }
+        double[] c = C.data();
+        for (int i = 0; i < mc; i++) {
+            int p = C.index(ic + i, jc);
+            for (int j = 0; j < nc; j++, p += C.colStride()) {
+                c[p] = beta == 0.0 ? 0.0 : beta * c[p];
+            }
+        }
+    }
+
+    /**
+     * Packs the mc x kc block of A at (ic, pc) into MR-tall slivers, each stored column by column,
+     * padding the last sliver with zeros.
+     */
+    private static void packA(DenseMatrix A, int ic, int mc, int pc, int kc, double[] packed) {
+        double[] a = A.data();
+        int rs = A.rowStride();
+        int cs = A.colStride();
+        int idx = 0;
+        for (int ir = 0; ir < mc; ir += MR) {
+            int mr = Math.min(MR, mc - ir);
+            int base = A.index(ic + ir, pc);
+            for (int p = 0; p < kc; p++) {
+                int q = base + p * cs;
+                for (int r = 0; r < MR; r++) {
+                    packed[idx++] = r < mr ? a[q + r * rs] : 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs the kc x nc block of B at (pc, jc) into NR-wide slivers, each stored row by row,
+     * padding the last sliver with zeros.
+     */
+    private static void packB(DenseMatrix B, int pc, int kc, int jc, int nc, double[] packed) {
+        double[] b = B.data();
+        int rs = B.rowStride();
+        int cs = B.colStride();
+        int idx = 0;
+        for (int jr = 0; jr < nc; jr += NR) {
+            int nr = Math.min(NR, nc - jr);
+            int base = B.index(pc, jc + jr);
+            for (int p = 0; p < kc; p++) {
+                int q = base + p * rs;
+                for (int c = 0; c < NR; c++) {
+                    packed[idx++] = c < nr ? b[q + c * cs] : 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Accumulates an MR x NR register tile from packed slivers and adds alpha times it into C.
+     */
+    private static void microKernel(int kc, double alpha, double[] a, int aOffset, double[] b, int bOffset,
+                                    DenseMatrix C, int ci, int cj, int mr, int nr) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+
+        int pa = aOffset;
+        int pb = bOffset;
+        for (int p = 0; p < kc; p++, pa += MR, pb += NR) {
+            double a0 = a[pa], a1 = a[pa + 1], a2 = a[pa + 2], a3 = a[pa + 3];
+            double b0 = b[pb], b1 = b[pb + 1], b2 = b[pb + 2], b3 = b[pb + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+
+        double[] c = C.data();
+        int rs = C.rowStride();
+        int cs = C.colStride();
+        int base = C.index(ci, cj);
+        if (mr == MR && nr == NR) {
+            int r0 = base, r1 = base + rs, r2 = base + 2 * rs, r3 = base + 3 * rs;
+            c[r0] += alpha * c00; c[r0 + cs] += alpha * c01; c[r0 + 2 * cs] += alpha * c02; c[r0 + 3 * cs] += alpha * c03;
+            c[r1] += alpha * c10; c[r1 + cs] += alpha * c11; c[r1 + 2 * cs] += alpha * c12; c[r1 + 3 * cs] += alpha * c13;
+            c[r2] += alpha * c20; c[r2 + cs] += alpha * c21; c[r2 + 2 * cs] += alpha * c22; c[r2 + 3 * cs] += alpha * c23;
+            c[r3] += alpha * c30; c[r3 + cs] += alpha * c31; c[r3 + 2 * cs] += alpha * c32; c[r3 + 3 * cs] += alpha * c33;
+            return;
+        }
+
+        // Edge tile: write the valid mr x nr corner without staging it in a temporary array
+        addRow(c, base, cs, nr, alpha, c00, c01, c02, c03);
+        if (mr > 1) {
+            addRow(c, base + rs, cs, nr, alpha, c10, c11, c12, c13);
+        }
+        if (mr > 2) {
+            addRow(c, base + 2 * rs, cs, nr, alpha, c20, c21, c22, c23);
+        }
+        if (mr > 3) {
+            addRow(c, base + 3 * rs, cs, nr, alpha, c30, c31, c32, c33);
+        }
+    }
+
+    private static void addRow(double[] c, int p, int cs, int nr, double alpha,
+                               double t0, double t1, double t2, double t3) {
+        c[p] += alpha * t0;
+        if (nr > 1) {
+            c[p + cs] += alpha * t1;
+        }
+        if (nr > 2) {
+            c[p + 2 * cs] += alpha * t2;
+        }
+        if (nr > 3) {
+            c[p + 3 * cs] += alpha * t3;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Named matrices together with a cache of what has been derived from them: LU factors, inverse,
+ * norms, condition number and condition estimate. The first query for an artifact computes it; later queries for
+ * the same matrix return the cached result, so asking again costs O(1) instead of another O(n^3)
+ * factorization.
+ * <p>
+ * Stored matrices are never modified in place. {@link #update(String, Consumer)} mutates a copy
+ * and publishes it as a new version, which invalidates every artifact of the old one, while readers
+ * that already hold the old matrix keep a consistent snapshot: every artifact is derived from the
+ * version that was current when it was requested, including the artifacts it is built from.
+ * Reading stored matrices is lock-free. The cache is a size-weighted LRU bounded by a byte budget,
+ * guarded by one lock that is held for the map bookkeeping of each lookup but never during a
+ * computation; concurrent requests for the same missing artifact share one computation.
+ */
+public class MatrixRegistry {
+
+    /**
+     * The artifacts that can be derived from a matrix.
+     */
+    public enum Artifact {
+        FACTORS, INVERSE, INFINITY_NORM, ONE_NORM, CONDITION, CONDITION_ESTIMATE;
+
+        /**
+         * @return the approximate heap footprint of this artifact for an n x n matrix
+         */
+        long weight(int n) {
+            switch (this) {
+                case FACTORS:
+                    return 8L * n * n + 4L * n;
+                case INVERSE:
+                    return 8L * n * n;
+                default:
+                    return 16;
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final DenseMatrix matrix;
+        final long version;
+
+        Entry(String name, DenseMatrix matrix, long version) {
+            this.name = name;
+            this.matrix = matrix;
+            this.version = version;
+        }
+    }
+
+    private static final class Key {
+        final String name;
+        final long version;
+        final Artifact artifact;
+
+        Key(String name, long version, Artifact artifact) {
+            this.name = name;
+            this.version = version;
+            this.artifact = artifact;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return version == key.version && artifact == key.artifact && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, version, artifact);
+        }
+    }
+
+    private static final class Cached {
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+        final long weight;
+
+        Cached(long weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Key, Cached> cache = new LinkedHashMap<>(16, 0.75f, true); // guarded by cache
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long weight; // guarded by cache
+
+    /**
+     * @param maxBytes the largest total weight of cached artifacts; the least recently used ones
+     *                 are evicted beyond it
+     */
+    public MatrixRegistry(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Stores a copy of a matrix under a name, replacing and invalidating any previous one.
+     *
+     * @param name   the name
+     * @param matrix the matrix to store
+     */
+    public void put(String name, DenseMatrix matrix) {
+        entries.put(name, new Entry(name, matrix.copy(), versions.incrementAndGet()));
+        invalidate(name);
+    }
+
+    /**
+     * Applies a mutation to a copy of the named matrix and stores the result as a new version.
+     *
+     * @param name    the name
+     * @param mutator changes the matrix in place
+     */
+    public void update(String name, Consumer<DenseMatrix> mutator) {
+        entries.compute(name, (key, entry) -> {
+            if (entry == null) {
+                throw new IllegalArgumentException("No matrix named '" + name + "'.");
+            }
+            DenseMatrix copy = entry.matrix.copy();
+            mutator.accept(copy);
+            return new Entry(name, copy, versions.incrementAndGet());
+        });
+        invalidate(name);
+    }
+
+    /**
+     * Removes a matrix and everything cached for it.
+     *
+     * @param name the name
+     */
+    public void remove(String name) {
+        entries.remove(name);
+        invalidate(name);
+    }
+
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * @return a snapshot of the stored names
+     */
+    public List<String> names() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Returns the stored matrix. It is shared with the registry and must not be modified;
+     * use {@link #update(String, Consumer)} instead.
+     *
+     * @param name the name
+     * @return the matrix
+     */
+    public DenseMatrix get(String name) {
+        return entry(name).matrix;
+    }
+
+    /**
+     * @param name the name of a square matrix
+     * @return its LU factors, shared with the registry
+     */
+    public LUFactors factors(String name) {
+        return factors(entry(name));
+    }
+
+    /**
+     * @param name the name of a square matrix
+     * @return its inverse, shared with the registry and not to be modified
+     */
+    public DenseMatrix inverse(String name) {
+        return inverse(entry(name));
+    }
+
+    /**
+     * @param name the name
+     * @return the infinity norm (maximum absolute row sum) of the matrix
+     */
+    public double infinityNorm(String name) {
+        return infinityNorm(entry(name));
+    }
+
+    /**
+     * @param name the name
+     * @return the 1-norm (maximum absolute column sum) of the matrix
+     */
+    public double oneNorm(String name) {
+        return (Double) derive(entry(name), Artifact.ONE_NORM, entry -> matrixOperations.matrixOneNorm(entry.matrix));
+    }
+
+    /**
+     * Computes the infinity-norm condition number exactly, as the norm of the matrix times the
+     * norm of its inverse. Once the inverse is cached this costs O(n^2).
+     *
+     * @param name the name of a square matrix
+     * @return the condition number
+     * @throws IllegalArgumentException if the matrix is singular
+     */
+    public double condition(String name) {
+        return (Double) derive(entry(name), Artifact.CONDITION,
+                entry -> infinityNorm(entry) * matrixOperations.matrixInfinityNorm(inverse(entry)));
+    }
+
+    /**
+     * Estimates the infinity-norm condition number from the cached LU factors without forming
+     * the inverse, see {@link ConditionEstimator}. The estimate is a lower bound and usually
+     * within a small factor of {@link #condition(String)}.
+     *
+     * @param name the name of a square matrix
+     * @return the estimate, or infinity if the matrix is singular
+     */
+    public double conditionEstimate(String name) {
+        return (Double) derive(entry(name), Artifact.CONDITION_ESTIMATE, entry -> {
+            try {
+                return ConditionEstimator.conditionInfinity(entry.matrix, factors(entry));
+            } catch (IllegalArgumentException e) {
+                return Double.POSITIVE_INFINITY;
+            }
+        });
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the total weight of the cached artifacts in bytes
+     */
+    public long cachedBytes() {
+        synchronized (cache) {
+            return weight;
+        }
+    }
+
+    /*
+     * The artifacts that others are built from take the entry rather than the name, so a
+     * computation never picks up a version published after it started.
+     */
+
+    private LUFactors factors(Entry entry) {
+        return (LUFactors) derive(entry, Artifact.FACTORS, e -> LUFactorization.factor(e.matrix));
+    }
+
+    private DenseMatrix inverse(Entry entry) {
+        return (DenseMatrix) derive(entry, Artifact.INVERSE, e -> factors(e).inverse());
+    }
+
+    private double infinityNorm(Entry entry) {
+        return (Double) derive(entry, Artifact.INFINITY_NORM, e -> matrixOperations.matrixInfinityNorm(e.matrix));
+    }
+
+    private Entry entry(String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("No matrix named '" + name + "'.");
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the cached artifact for one version of a matrix, computing it on a miss. The
+     * computation runs outside the lock; other threads asking for the same artifact meanwhile
+     * wait for it instead of repeating it. Failures are not cached.
+     */
+    private Object derive(Entry entry, Artifact artifact, Function<Entry, Object> compute) {
+        Key key = new Key(entry.name, entry.version, artifact);
+        Cached cached;
+        boolean owner = false;
+        synchronized (cache) {
+            cached = cache.get(key);
+            if (cached == null) {
+                cached = new Cached(artifact.weight(Math.max(entry.matrix.rows(), entry.matrix.cols())));
+                // An artifact of a replaced version would never be invalidated, so it is computed but not cached
+                if (entries.get(entry.name) == entry) {
+                    cache.put(key, cached);
+                    weight += cached.weight;
+                }
+                owner = true;
+            }
+        }
+        if (owner) {
+            misses.incrementAndGet();
+            try {
+                cached.value.complete(compute.apply(entry));
+            } catch (RuntimeException e) {
+                cached.value.completeExceptionally(e);
+                synchronized (cache) {
+                    if (cache.remove(key, cached)) {
+                        weight -= cached.weight;
+                    }
+                }
+                throw e;
+            }
+            evict();
+        } else {
+            hits.incrementAndGet();
+        }
+        try {
+            return cached.value.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Drops least recently used artifacts until the cache fits its budget again. The most
+     * recently used artifact is always kept, even if it alone exceeds the budget.
+     */
+    private void evict() {
+        synchronized (cache) {
+            Iterator<Map.Entry<Key, Cached>> it = cache.entrySet().iterator();
+            while (weight > maxBytes && cache.size() > 1 && it.hasNext()) {
+                Cached cached = it.next().getValue();
+                if (!cached.value.isDone()) {
+                    continue;
+                }
+                it.remove();
+                weight -= cached.weight;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void invalidate(String name) {
+        synchronized (cache) {
+            Iterator<Map.Entry<Key, Cached>> it = cache.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Cached> cached = it.next();
+                if (cached.getKey().name.equals(name)) {
+                    it.remove();
+                    weight -= cached.getValue().weight;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * LU factorization with partial pivoting carried out in single precision, with solves brought
+ * back to full double accuracy by iterative refinement, the scheme of LAPACK's DSGESV.
+ * The float factors take half the memory and bandwidth of {@link LUFactors}, and the O(n^3)
+ * elimination runs on twice as many lanes per vector instruction. Each solve starts from the
+ * float solution and repeatedly adds the correction for the residual b - Ax, which is computed
+ * against the original double matrix; the triangular solves read float factors but accumulate
+ * in double.
+ * <p>
+ * Refinement converges when cond(A) times the float rounding error is well below one. If the
+ * condition estimate taken right after the float factorization exceeds the limit, or a later
+ * solve stops converging, the matrix is factored in double instead and every following solve
+ * goes through those factors.
+ */
+public class MixedPrecisionLU {
+    /**
+     * Largest estimated infinity-norm condition number for which the float factors are kept.
+     * With float rounding of about 6e-8 each refinement step then gains at least a digit.
+     */
+    public static final double DEFAULT_MAX_CONDITION = 1e6;
+
+    /**
+     * Refinement steps allowed before a solve gives up on the float factors.
+     */
+    private static final int MAX_ITERATIONS = 30;
+
+    /**
+     * Number of columns factored together as one panel.
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    /**
+     * Width of the column tiles of the trailing update, chosen so that the BLOCK_SIZE rows of
+     * U being applied (64 KB of floats) stay in cache while a block of rows streams past.
+     */
+    private static final int TILE = 256;
+
+    /**
+     * Number of trailing rows updated by a single task.
+     */
+    private static final int ROW_GRAIN = 32;
+
+    private final DenseMatrix A;
+    private final int n;
+    private final double norm;
+    private final ForkJoinPool pool;
+    private final int[] permutation;
+    private volatile float[][] lu;
+    private volatile double condition;
+    private volatile LUFactors fallback;
+
+    private MixedPrecisionLU(DenseMatrix A, ForkJoinPool pool) {
+        this.A = A;
+        this.n = A.rows();
+        this.norm = matrixOperations.matrixInfinityNorm(A);
+        this.pool = pool;
+        this.permutation = new int[n];
+    }
+
+    /**
+     * Factors A in single precision on the common pool, falling back to double above
+     * {@link #DEFAULT_MAX_CONDITION}.
+     *
+     * @param A the square matrix to factor; it is kept for the residuals and must not change afterwards
+     * @return the factors
+     */
+    public static MixedPrecisionLU factor(DenseMatrix A) {
+        return factor(A, DEFAULT_MAX_CONDITION, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Factors A in single precision, or in double if it is too ill-conditioned for refinement.
+     *
+     * @param A            the square matrix to factor; it is kept for the residuals and must not change afterwards
+     * @param maxCondition the largest condition estimate for which the float factors are used
+     * @param pool         the pool used for the trailing updates, or null to stay on the calling thread
+     * @return the factors
+     * @throws IllegalArgumentException if A is singular
+     */
+    public static MixedPrecisionLU factor(DenseMatrix A, double maxCondition, ForkJoinPool pool) {
+        A.checkSquare();
+        MixedPrecisionLU factors = new MixedPrecisionLU(A, pool);
+        int n = factors.n;
+        float[][] lu = new float[n][n];
+        boolean representable = true;
+        for (int i = 0; i < n && representable; i++) {
+            for (int j = 0; j < n; j++) {
+                float value = (float) A.get(i, j);
+                if (Float.isInfinite(value)) {
+                    representable = false;
+                    break;
+                }
+                lu[i][j] = value;
+            }
+        }
+        if (representable && factorFloat(lu, n, factors.permutation, pool)) {
+            factors.lu = lu;
+            factors.condition = factors.norm * ConditionEstimator.inverseInfinityNorm(factors.new FloatSolver());
+            if (factors.condition <= maxCondition) {
+                return factors;
+            }
+        }
+        factors.fallBack();
+        return factors;
+    }
+
+    /**
+     * @return the dimension of the factored matrix
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return true if the matrix ended up factored in double, so solves no longer refine
+     */
+    public boolean isDoublePrecision() {
+        return fallback != null;
+    }
+
+    /**
+     * @return the infinity-norm condition estimate, taken from whichever factors are in use
+     */
+    public double conditionEstimate() {
+        return condition;
+    }
+
+    /**
+     * Solves Ax = b to double accuracy.
+     *
+     * @param b The vector b in the equation Ax = b.
+     * @return The solution vector x.
+     */
+    public double[] solve(double[] b) {
+        double[] x = new double[n];
+        solve(b, x);
+        return x;
+    }
+
+    /**
+     * Solves Ax = b to double accuracy into a caller-supplied buffer, refining the float
+     * solution until the residual is at the level of double rounding:
+     * ||b - Ax|| <= sqrt(n) * eps * ||A|| * ||x||.
+     *
+     * @param b The vector b in the equation Ax = b.
+     * @param x The output buffer of length n; it must not be the same array as b.
+     * @return The number of refinement steps taken, 0 when the double factors were used.
+     */
+    public int solve(double[] b, double[] x) {
+        if (b.length != n || x.length != n) {
+            throw new IllegalArgumentException("Expected vectors of length " + n + ".");
+        }
+        float[][] a = lu;
+        if (a == null || fallback != null) {
+            fallBack().solve(b, x);
+            return 0;
+        }
+        double[] r = new double[n];
+        double[] d = new double[n];
+        solveFloat(a, b, x);
+        double threshold = Math.sqrt(n) * Math.ulp(1.0) * norm;
+        double lastCorrection = Double.POSITIVE_INFINITY;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            residual(b, x, r);
+            if (maxAbs(r) <= threshold * maxAbs(x)) {
+                return iteration;
+            }
+            solveFloat(a, r, d);
+            double correction = maxAbs(d);
+            // A correction that does not shrink means the float factors are too inaccurate for this matrix
+            if (!(correction < lastCorrection)) {
+                break;
+            }
+            lastCorrection = correction;
+            for (int i = 0; i < n; i++) {
+                x[i] += d[i];
+            }
+        }
+        fallBack().solve(b, x);
+        return 0;
+    }
+
+    /**
+     * Unrefined solves with the float factors, for the condition estimate. Only valid while the
+     * float factors are in use.
+     */
+    class FloatSolver implements ConditionEstimator.Solver {
+        @Override
+        public int size() {
+            return n;
+        }
+
+        @Override
+        public void solve(double[] b, double[] x) {
+            solveFloat(lu, b, x);
+        }
+
+        /**
+         * With PA = LU this is U^T w = b, then L^T v = w, then x = P^T v.
+         */
+        @Override
+        public void solveTranspose(double[] b, double[] x, double[] work) {
+            float[][] a = lu;
+            System.arraycopy(b, 0, work, 0, n);
+            for (int i = 0; i < n; i++) {
+                float[] row = a[i];
+                double wi = work[i] / row[i];
+                work[i] = wi;
+                for (int j = i + 1; j < n; j++) {
+                    work[j] -= wi * row[j];
+                }
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                float[] row = a[i];
+                double vi = work[i];
+                for (int j = 0; j < i; j++) {
+                    work[j] -= vi * row[j];
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                x[permutation[i]] = work[i];
+            }
+        }
+    }
+
+    /**
+     * Factors A in double, once, and switches every later solve over to those factors.
+     */
+    private synchronized LUFactors fallBack() {
+        if (fallback == null) {
+            LUFactors factors = LUFactorization.factorInPlace(A.copy(), pool);
+            condition = ConditionEstimator.conditionInfinity(A, factors);
+            fallback = factors;
+            lu = null;
+        }
+        return fallback;
+    }
+
+    /**
+     * Computes r = b - Ax in double.
+     */
+    private void residual(double[] b, double[] x, double[] r) {
+        if (A.isRowContiguous()) {
+            double[] data = A.data();
+            for (int i = 0; i < n; i++) {
+                r[i] = b[i] - Kernels.dot(data, A.index(i, 0), x, 0, n);
+            }
+        } else {
+            A.multiply(x, r);
+            for (int i = 0; i < n; i++) {
+                r[i] = b[i] - r[i];
+            }
+        }
+    }
+
+    /**
+     * Solves LUx = Pb with the float factors, accumulating in double.
+     */
+    private void solveFloat(float[][] a, double[] b, double[] x) {
+        for (int i = 0; i < n; i++) {
+            x[i] = b[permutation[i]];
+        }
+        for (int i = 0; i < n; i++) {
+            float[] row = a[i];
+            double sum = 0;
+            for (int j = 0; j < i; j++) {
+                sum += row[j] * x[j];
+            }
+            x[i] -= sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            float[] row = a[i];
+            double sum = 0;
+            for (int j = i + 1; j < n; j++) {
+                sum += row[j] * x[j];
+            }
+            x[i] = (x[i] - sum) / row[i];
+        }
+    }
+
+    /**
+     * Blocked right-looking LU with partial pivoting in single precision, the float counterpart of
+     * the factorization in {@link LUFactorization}. The rows are separate arrays, so a row
+     * interchange is a swap of two references, and every update reads and writes its rows at the
+     * same column index, which is the loop shape the JIT turns into vector instructions. The
+     * trailing update applies each panel's block row of U to independent row blocks on the pool,
+     * one cache-sized column tile and four rows of U at a time.
+     *
+     * @return false if a zero pivot was met
+     */
+    private static boolean factorFloat(float[][] a, int n, int[] permutation, ForkJoinPool pool) {
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE) {
+            int kEnd = Math.min(k0 + BLOCK_SIZE, n);
+
+            // Factor the panel A[k0:n, k0:kEnd], swapping whole rows
+            for (int j = k0; j < kEnd; j++) {
+                int pivot = j;
+                float max = Math.abs(a[j][j]);
+                for (int i = j + 1; i < n; i++) {
+                    float candidate = Math.abs(a[i][j]);
+                    if (candidate > max) {
+                        max = candidate;
+                        pivot = i;
+                    }
+                }
+                if (max == 0) {
+                    return false;
+                }
+                if (pivot != j) {
+                    float[] row = a[j];
+                    a[j] = a[pivot];
+                    a[pivot] = row;
+                    int temp = permutation[j];
+                    permutation[j] = permutation[pivot];
+                    permutation[pivot] = temp;
+                }
+
+                float[] rowJ = a[j];
+                float diag = rowJ[j];
+                for (int i = j + 1; i < n; i++) {
+                    float[] rowI = a[i];
+                    float factor = rowI[j] / diag;
+                    rowI[j] = factor;
+                    axpy(-factor, rowJ, rowI, j + 1, kEnd);
+                }
+            }
+
+            if (kEnd == n) {
+                break;
+            }
+
+            // Solve L11 * U12 = A12 for the block row of U to the right of the panel
+            for (int j = k0; j < kEnd; j++) {
+                for (int i = j + 1; i < kEnd; i++) {
+                    axpy(-a[i][j], a[j], a[i], kEnd, n);
+                }
+            }
+
+            // Trailing update A22 -= L21 * U12
+            int panelStart = k0;
+            int panelEnd = kEnd;
+            ParallelLoop.forRange(pool, kEnd, n, ROW_GRAIN, (from, to) -> {
+                for (int c0 = panelEnd; c0 < n; c0 += TILE) {
+                    int c1 = Math.min(n, c0 + TILE);
+                    for (int i = from; i < to; i++) {
+                        float[] rowI = a[i];
+                        int k = panelStart;
+                        for (; k + 4 <= panelEnd; k += 4) {
+                            update4(rowI[k], rowI[k + 1], rowI[k + 2], rowI[k + 3],
+                                    a[k], a[k + 1], a[k + 2], a[k + 3], rowI, c0, c1);
+                        }
+                        for (; k < panelEnd; k++) {
+                            axpy(-rowI[k], a[k], rowI, c0, c1);
+                        }
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Computes y -= l0 u0 + l1 u1 + l2 u2 + l3 u3 over columns [from, to), so each element of y
+     * is loaded and stored once per four multiply-adds.
+     */
+    private static void update4(float l0, float l1, float l2, float l3,
+                                float[] u0, float[] u1, float[] u2, float[] u3, float[] y, int from, int to) {
+        for (int j = from; j < to; j++) {
+            y[j] -= l0 * u0[j] + l1 * u1[j] + l2 * u2[j] + l3 * u3[j];
+        }
+    }
+
+    /**
+     * Computes y += alpha x over columns [from, to).
+     */
+    private static void axpy(float alpha, float[] x, float[] y, int from, int to) {
+        for (int j = from; j < to; j++) {
+            y[j] += alpha * x[j];
+        }
+    }
+
+    private static double maxAbs(double[] vector) {
+        double max = 0;
+        for (double v : vector) {
+            max = Math.max(max, Math.abs(v));
+        }
+        return max;
+    }
+}
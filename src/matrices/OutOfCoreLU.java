@@ -0,0 +1,240 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * LU factorization with partial pivoting of a {@link MappedMatrix} that does not fit in memory,
+ * computed in place in the file, together with the solves that use the factors.
+ * <p>
+ * The factorization is left-looking: the matrix is processed in column panels of w columns,
+ * and only the current panel and one earlier panel are in memory at a time (16 n w bytes).
+ * Each panel is brought up to date with every earlier panel (a unit triangular solve and a
+ * matrix multiplication per earlier panel), factored in memory, and written back. The file is
+ * only ever written panel by panel, and the row interchanges chosen by later panels are applied
+ * to the columns of L in one final pass.
+ */
+public class OutOfCoreLU {
+    private final MappedMatrix lu;
+    private final int[] permutation;
+    private final int swaps;
+
+    private OutOfCoreLU(MappedMatrix lu, int[] permutation, int swaps) {
+        this.lu = lu;
+        this.permutation = permutation;
+        this.swaps = swaps;
+    }
+
+    /**
+     * Factors a square file-backed matrix in place so that PA = LU, holding at most about
+     * memoryBudget bytes of it in memory.
+     *
+     * @param A            the matrix to factor; on return it holds L below the diagonal and U on and above it
+     * @param memoryBudget the number of bytes the two in-memory panels may use
+     * @param pool         the pool used for the panel updates, or null to stay on the calling thread
+     * @return the factors, which read from A
+     */
+    public static OutOfCoreLU factor(MappedMatrix A, long memoryBudget, ForkJoinPool pool) {
+        int n = A.rows();
+        if (A.cols() != n) {
+            throw new IllegalArgumentException("Matrix must be square, got " + A.rows() + "x" + A.cols() + ".");
+        }
+        long width = memoryBudget / (16L * Math.max(n, 1));
+        if (width < 1) {
+            throw new IllegalArgumentException("A memory budget of " + memoryBudget
+                    + " bytes cannot hold two columns of the matrix.");
+        }
+        return factor(A, (int) Math.min(width, Math.max(n, 1)), pool);
+    }
+
+    /**
+     * Factors a square file-backed matrix in place so that PA = LU, using panels of the given width.
+     *
+     * @param A     the matrix to factor; on return it holds L below the diagonal and U on and above it
+     * @param width the number of columns in a panel
+     * @param pool  the pool used for the panel updates, or null to stay on the calling thread
+     * @return the factors, which read from A
+     */
+    public static OutOfCoreLU factor(MappedMatrix A, int width, ForkJoinPool pool) {
+        int n = A.rows();
+        if (A.cols() != n) {
+            throw new IllegalArgumentException("Matrix must be square, got " + A.rows() + "x" + A.cols() + ".");
+        }
+        if (width < 1) {
+            throw new IllegalArgumentException("Panel width must be positive.");
+        }
+        int[] pivots = new int[n];
+        DenseMatrix panelBuffer = new DenseMatrix(n, Math.min(width, Math.max(n, 1)));
+        DenseMatrix earlierBuffer = new DenseMatrix(n, Math.min(width, Math.max(n, 1)));
+
+        for (int j0 = 0; j0 < n; j0 += width) {
+            int j1 = Math.min(j0 + width, n);
+            DenseMatrix P = panelBuffer.subMatrix(0, 0, n, j1 - j0);
+            A.readBlock(0, j0, P);
+            for (int j = 0; j < j0; j++) {
+                P.swapRows(j, pivots[j]);
+            }
+
+            // Bring the panel up to date with every earlier panel K = [k0, k1)
+            for (int k0 = 0; k0 < j0; k0 += width) {
+                int k1 = Math.min(k0 + width, j0);
+                DenseMatrix L = earlierBuffer.subMatrix(0, 0, n - k0, k1 - k0);
+                A.readBlock(k0, k0, L);
+                for (int j = k1; j < j0; j++) {
+                    L.swapRows(j - k0, pivots[j] - k0);
+                }
+                updatePanel(L, P, k0, k1, pool);
+            }
+
+            factorPanel(P, j0, pivots);
+            A.writeBlock(0, j0, P);
+        }
+
+        // Apply the interchanges chosen by later panels to the L part of each earlier panel
+        for (int k0 = 0; k0 < n; k0 += width) {
+            int k1 = Math.min(k0 + width, n);
+            if (k1 == n) {
+                break;
+            }
+            DenseMatrix L = earlierBuffer.subMatrix(0, 0, n - k1, k1 - k0);
+            A.readBlock(k1, k0, L);
+            for (int j = k1; j < n; j++) {
+                L.swapRows(j - k1, pivots[j] - k1);
+            }
+            A.writeBlock(k1, k0, L);
+        }
+
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        int swaps = 0;
+        for (int j = 0; j < n; j++) {
+            if (pivots[j] != j) {
+                int temp = permutation[j];
+                permutation[j] = permutation[pivots[j]];
+                permutation[pivots[j]] = temp;
+                swaps++;
+            }
+        }
+        return new OutOfCoreLU(A, permutation, swaps);
+    }
+
+    /**
+     * Applies the earlier panel whose columns are [k0, k1) to the current panel P:
+     * P[k0:k1] = L11^-1 P[k0:k1], then P[k1:n] -= L21 P[k0:k1].
+     *
+     * @param L rows k0..n-1 of the earlier panel, already in the current row order
+     */
+    private static void updatePanel(DenseMatrix L, DenseMatrix P, int k0, int k1, ForkJoinPool pool) {
+        int n = P.rows();
+        int w = P.cols();
+        int kb = k1 - k0;
+        double[] p = P.data();
+        for (int r = 1; r < kb; r++) {
+            int rowR = P.index(k0 + r, 0);
+            for (int t = 0; t < r; t++) {
+                Kernels.axpy(-L.get(r, t), p, P.index(k0 + t, 0), p, rowR, w);
+            }
+        }
+        if (k1 < n) {
+            MatrixMultiplication.multiply(-1.0, L.subMatrix(kb, 0, n - k1, kb), P.subMatrix(k0, 0, kb, w),
+                    1.0, P.subMatrix(k1, 0, n - k1, w), pool);
+        }
+    }
+
+    /**
+     * Factors rows j0..n-1 of the up-to-date panel P with partial pivoting, swapping whole panel rows
+     * and recording the pivot row chosen for each column in pivots.
+     */
+    private static void factorPanel(DenseMatrix P, int j0, int[] pivots) {
+        int n = P.rows();
+        int w = P.cols();
+        double[] p = P.data();
+        for (int c = 0; c < w; c++) {
+            int j = j0 + c;
+            int pivot = j;
+            double max = Math.abs(P.get(j, c));
+            for (int i = j + 1; i < n; i++) {
+                double candidate = Math.abs(P.get(i, c));
+                if (candidate > max) {
+                    max = candidate;
+                    pivot = i;
+                }
+            }
+            if (max == 0) {
+                throw new IllegalArgumentException("Matrix is singular and cannot be factorized.");
+            }
+            P.swapRows(j, pivot);
+            pivots[j] = pivot;
+
+            int rowJ = P.index(j, 0);
+            double diag = p[rowJ + c];
+            for (int i = j + 1; i < n; i++) {
+                int rowI = P.index(i, 0);
+                double factor = p[rowI + c] / diag;
+                p[rowI + c] = factor;
+                Kernels.axpy(-factor, p, rowJ + c + 1, p, rowI + c + 1, w - c - 1);
+            }
+        }
+    }
+
+    /**
+     * @return the dimension of the factored matrix
+     */
+    public int size() {
+        return lu.rows();
+    }
+
+    /**
+     * @return the file holding L below the diagonal and U on and above it
+     */
+    public MappedMatrix packed() {
+        return lu;
+    }
+
+    /**
+     * @return a copy of the row permutation: row i of PA is row permutation[i] of A
+     */
+    public int[] permutation() {
+        return permutation.clone();
+    }
+
+    /**
+     * @return the determinant of the factored matrix
+     */
+    public double determinant() {
+        double det = swaps % 2 == 0 ? 1.0 : -1.0;
+        for (int i = 0; i < size(); i++) {
+            det *= lu.get(i, i);
+        }
+        return det;
+    }
+
+    /**
+     * Solves Ax = b by streaming the rows of the factors forward for L and backward for U.
+     *
+     * @param b The vector b in the equation Ax = b.
+     * @param x The output buffer of length n; it must not be the same array as b.
+     */
+    public void solve(double[] b, double[] x) {
+        int n = size();
+        if (b.length != n || x.length != n) {
+            throw new IllegalArgumentException("Expected vectors of length " + n + ".");
+        }
+        double[] row = new double[n];
+        DenseMatrix rowView = new DenseMatrix(row, 0, 1, n, n, 1);
+
+        // Forward substitution to solve Ly = Pb, with y stored in x
+        for (int i = 0; i < n; i++) {
+            lu.readBlock(i, 0, rowView.subMatrix(0, 0, 1, i));
+            x[i] = b[permutation[i]] - Kernels.dot(row, 0, x, 0, i);
+        }
+
+        // Backward substitution to solve Ux = y
+        for (int i = n - 1; i >= 0; i--) {
+            lu.readBlock(i, i, rowView.subMatrix(0, 0, 1, n - i));
+            x[i] = (x[i] - Kernels.dot(row, 1, x, i + 1, n - i - 1)) / row[0];
+        }
+    }
+}
@@ -0,0 +1,81 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Matrix multiplication for {@link MappedMatrix} operands that do not fit in memory.
+ * B is streamed through memory once, one column panel at a time; for every panel of B the
+ * row panels of A are streamed past it and each product tile is computed in memory by
+ * {@link MatrixMultiplication} and written straight to C. Every panel is read row by row,
+ * so the file access stays sequential within each row segment.
+ */
+public class OutOfCoreMultiplication {
+
+    /**
+     * Panels are multiples of this many rows or columns, to keep the GEMM tiles full.
+     */
+    private static final int PANEL_ALIGNMENT = 64;
+
+    /**
+     * Computes C = A * B, holding at most about memoryBudget bytes of the operands in memory.
+     *
+     * @param A            the left matrix (m x k)
+     * @param B            the right matrix (k x n)
+     * @param C            the m x n output matrix, which must be a different file from A and B
+     * @param memoryBudget the number of bytes the in-memory panels may use
+     * @param pool         the pool that multiplies the panels, or null to stay on the calling thread
+     */
+    public static void multiply(MappedMatrix A, MappedMatrix B, MappedMatrix C, long memoryBudget, ForkJoinPool pool) {
+        int m = A.rows();
+        int k = A.cols();
+        int n = B.cols();
+        if (B.rows() != k || C.rows() != m || C.cols() != n) {
+            throw new IllegalArgumentException("Cannot multiply a " + m + "x" + k + " matrix by a "
+                    + B.rows() + "x" + n + " matrix into a " + C.rows() + "x" + C.cols() + " matrix.");
+        }
+        if (m == 0 || n == 0) {
+            return;
+        }
+
+        int panel = panelSize(Math.max(m, n), k, memoryBudget);
+        int rowPanel = Math.min(panel, m);
+        int colPanel = Math.min(panel, n);
+        DenseMatrix aPanel = new DenseMatrix(rowPanel, k);
+        DenseMatrix bPanel = new DenseMatrix(k, colPanel);
+        DenseMatrix cTile = new DenseMatrix(rowPanel, colPanel);
+
+        for (int j0 = 0; j0 < n; j0 += colPanel) {
+            int nc = Math.min(colPanel, n - j0);
+            DenseMatrix b = bPanel.subMatrix(0, 0, k, nc);
+            B.readBlock(0, j0, b);
+            for (int i0 = 0; i0 < m; i0 += rowPanel) {
+                int mc = Math.min(rowPanel, m - i0);
+                DenseMatrix a = aPanel.subMatrix(0, 0, mc, k);
+                DenseMatrix c = cTile.subMatrix(0, 0, mc, nc);
+                A.readBlock(i0, 0, a);
+                MatrixMultiplication.multiply(1.0, a, b, 0.0, c, pool);
+                C.writeBlock(i0, j0, c);
+            }
+        }
+    }
+
+    /**
+     * Returns the largest panel size p with 8 (2pk + p^2) <= memoryBudget, rounded down to a
+     * multiple of {@link #PANEL_ALIGNMENT} when that is possible.
+     */
+    static int panelSize(int limit, int k, long memoryBudget) {
+        double elements = memoryBudget / 8.0;
+        // Positive root of p^2 + 2kp - elements = 0
+        double root = Math.sqrt((double) k * k + elements) - k;
+        long panel = (long) Math.min(root, limit);
+        if (panel >= PANEL_ALIGNMENT && panel < limit) {
+            panel -= panel % PANEL_ALIGNMENT;
+        }
+        if (panel < 1) {
+            throw new IllegalArgumentException("A memory budget of " + memoryBudget
+                    + " bytes cannot hold even a single row of the operands.");
+        }
+        return (int) panel;
+    }
+}
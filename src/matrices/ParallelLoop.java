@@ -0,0 +1,73 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a loop body over an index range on a fork-join pool by splitting the range in half
+ * until each piece is no longer than a given grain size.
+ */
+public final class ParallelLoop {
+
+    /**
+     * The body of a parallel loop, called once per chunk of the range.
+     */
+    @FunctionalInterface
+    public interface Body {
+        /**
+         * @param from the first index of the chunk (inclusive)
+         * @param to   the last index of the chunk (exclusive)
+         */
+        void run(int from, int to);
+    }
+
+    private ParallelLoop() {
+    }
+
+    /**
+     * Runs body over [from, to) in chunks of at most grain indices.
+     *
+     * @param pool  the pool to run on, or null to run the whole range on the calling thread
+     * @param from  the first index (inclusive)
+     * @param to    the last index (exclusive)
+     * @param grain the largest chunk handed to a single call of body
+     * @param body  the loop body
+     */
+    public static void forRange(ForkJoinPool pool, int from, int to, int grain, Body body) {
+        if (to <= from) {
+            return;
+        }
+        if (pool == null || to - from <= grain) {
+            body.run(from, to);
+            return;
+        }
+        pool.invoke(new RangeTask(from, to, Math.max(1, grain), body));
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final Body body;
+
+        RangeTask(int from, int to, int grain, Body body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+
+/**
+ * A partition of the rows of a square sparse matrix into colors such that no two rows of the
+ * same color are coupled, i.e. A[i][j] == 0 and A[j][i] == 0 whenever i and j share a color.
+ * Rows of one color can then be relaxed concurrently in a Gauss-Seidel sweep.
+ * On a 5-point grid stencil the greedy coloring in natural order is the classic red-black ordering.
+ */
+public class RowColoring {
+    private final int colorCount;
+    private final int[] colorPointers;
+    private final int[] rows;
+
+    private RowColoring(int colorCount, int[] colorPointers, int[] rows) {
+        this.colorCount = colorCount;
+        this.colorPointers = colorPointers;
+        this.rows = rows;
+    }
+
+    /**
+     * Colors the rows greedily in natural order, giving each row the smallest color
+     * not already used by a coupled row.
+     *
+     * @param matrix a square matrix in CSR form
+     * @return the coloring
+     */
+    public static RowColoring of(CSRMatrix matrix) {
+        if (matrix.rows() != matrix.cols()) {
+            throw new IllegalArgumentException("Matrix must be square, got " + matrix.rows() + "x" + matrix.cols() + ".");
+        }
+        int n = matrix.rows();
+        CSCMatrix columns = matrix.toCSC();
+        int[] rowPointers = matrix.rowPointers();
+        int[] columnIndices = matrix.columnIndices();
+        int[] columnPointers = columns.columnPointers();
+        int[] rowIndices = columns.rowIndices();
+
+        int[] color = new int[n];
+        Arrays.fill(color, -1);
+        // forbidden[c] == row means color c is taken by a neighbour of row
+        int[] forbidden = new int[n + 1];
+        Arrays.fill(forbidden, -1);
+        int colorCount = 0;
+
+        for (int row = 0; row < n; row++) {
+            for (int p = rowPointers[row]; p < rowPointers[row + 1]; p++) {
+                int neighbour = columnIndices[p];
+                if (color[neighbour] >= 0) {
+                    forbidden[color[neighbour]] = row;
+                }
+            }
+            for (int p = columnPointers[row]; p < columnPointers[row + 1]; p++) {
+                int neighbour = rowIndices[p];
+                if (color[neighbour] >= 0) {
+                    forbidden[color[neighbour]] = row;
+                }
+            }
+            int c = 0;
+            while (forbidden[c] == row) {
+                c++;
+            }
+            color[row] = c;
+            colorCount = Math.max(colorCount, c + 1);
+        }
+
+        int[] colorPointers = new int[colorCount + 1];
+        for (int row = 0; row < n; row++) {
+            colorPointers[color[row] + 1]++;
+        }
+        for (int c = 0; c < colorCount; c++) {
+            colorPointers[c + 1] += colorPointers[c];
+        }
+        int[] next = Arrays.copyOf(colorPointers, colorCount);
+        int[] rows = new int[n];
+        for (int row = 0; row < n; row++) {
+            rows[next[color[row]]++] = row;
+        }
+        return new RowColoring(colorCount, colorPointers, rows);
+    }
+
+    /**
+     * @return the number of colors used
+     */
+    public int colorCount() {
+        return colorCount;
+    }
+
+    /**
+     * @return colorCount + 1 offsets into {@link #rows()}; color c owns rows()[colorPointers()[c] .. colorPointers()[c + 1])
+     */
+    public int[] colorPointers() {
+        return colorPointers;
+    }
+
+    /**
+     * @return all row numbers, grouped by color and in increasing order within a color
+     */
+    public int[] rows() {
+        return rows;
+    }
+}
@@ -0,0 +1,62 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+/**
+ * The kernels in plain Java, used when the Vector API is not available.
+ * Reductions keep four independent accumulators so the loop is not serialized on one
+ * floating-point add chain, and the elementwise kernels are plain counted loops that the
+ * JIT may compile to packed SIMD instructions.
+ */
+final class ScalarKernels implements KernelSet {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i <= length - 4; i += 4) {
+            s0 += x[xOffset + i] * y[yOffset + i];
+            s1 += x[xOffset + i + 1] * y[yOffset + i + 1];
+            s2 += x[xOffset + i + 2] * y[yOffset + i + 2];
+            s3 += x[xOffset + i + 3] * y[yOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += x[xOffset + i] * y[yOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public double absSum(double[] x, int offset, int length) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i <= length - 4; i += 4) {
+            s0 += Math.abs(x[offset + i]);
+            s1 += Math.abs(x[offset + i + 1]);
+            s2 += Math.abs(x[offset + i + 2]);
+            s3 += Math.abs(x[offset + i + 3]);
+        }
+        for (; i < length; i++) {
+            s0 += Math.abs(x[offset + i]);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = a[aOffset + i] - b[bOffset + i];
+        }
+    }
+}
@@ -0,0 +1,175 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+
+/**
+ * Telemetry of one iterative solve: how it ended, the number of iterations, the relative
+ * residual and wall-clock time of every iteration, and an estimate of the flops spent.
+ * Solvers feed it through {@link #record(int, double, double, long)}, which also applies the
+ * {@link ConvergenceCriteria} and tells the solver when to stop.
+ */
+public class SolverStats {
+
+    /**
+     * How a solve ended. DRIFTED marks a solve that stopped because its updated residual met the
+     * tolerance while the true residual of the final iterate, recorded afterwards, does not.
+     */
+    public enum Status {
+        RUNNING, CONVERGED, MAX_ITERATIONS, TIME_LIMIT, DIVERGED, STALLED, BREAKDOWN, DRIFTED
+    }
+
+    private static final double STALL_IMPROVEMENT = 0.999;
+
+    private final ConvergenceCriteria criteria;
+    private Status status = Status.RUNNING;
+    private int iterations;
+    private int entries;
+    private double[] residuals = new double[16];
+    private long[] iterationNanos = new long[16];
+    private long flops;
+    private long startNanos;
+    private long lastNanos;
+    private long elapsedNanos;
+    private double bestResidual;
+    private int bestIteration;
+
+    /**
+     * @param criteria the stopping rules to apply
+     */
+    public SolverStats(ConvergenceCriteria criteria) {
+        this.criteria = criteria;
+        startNanos = System.nanoTime();
+        lastNanos = startNanos;
+    }
+
+    /**
+     * Records the state after an iteration and decides whether the solver should stop.
+     * Recording the same iteration number again replaces the previous entry, which lets a
+     * solver correct an estimated residual with the true one at the end; a correction that
+     * undoes convergence turns the status into {@link Status#DRIFTED}.
+     *
+     * @param iteration        the number of iterations done so far, starting with 0 for the initial guess
+     * @param relativeResidual ||b - Ax|| / ||b|| for the current iterate
+     * @param step             the largest change of a component of x in this iteration, or NaN if unknown
+     * @param totalFlops       the floating-point operations spent so far
+     * @return true if the solver should stop
+     */
+    public boolean record(int iteration, double relativeResidual, double step, long totalFlops) {
+        long now = System.nanoTime();
+        if (entries > 0 && iteration == iterations) {
+            entries--;
+        } else if (entries == residuals.length) {
+            residuals = Arrays.copyOf(residuals, 2 * entries);
+            iterationNanos = Arrays.copyOf(iterationNanos, 2 * entries);
+        }
+        residuals[entries] = relativeResidual;
+        iterationNanos[entries] = now - lastNanos;
+        entries++;
+        iterations = iteration;
+        flops = totalFlops;
+        lastNanos = now;
+        elapsedNanos = now - startNanos;
+
+        if (entries == 1 || relativeResidual < bestResidual * STALL_IMPROVEMENT) {
+            bestResidual = relativeResidual;
+            bestIteration = iteration;
+        }
+
+        Status next = evaluate(relativeResidual, step);
+        if (next != Status.RUNNING || status == Status.RUNNING) {
+            status = next;
+        } else if (status == Status.CONVERGED) {
+            status = Status.DRIFTED;
+        }
+        return status != Status.RUNNING;
+    }
+
+    private Status evaluate(double relativeResidual, double step) {
+        if (relativeResidual <= criteria.relativeTolerance() || step < criteria.stepTolerance()) {
+            return Status.CONVERGED;
+        }
+        if (!Double.isFinite(relativeResidual) || relativeResidual > criteria.divergenceFactor() * residuals[0]) {
+            return Status.DIVERGED;
+        }
+        if (iterations >= criteria.maxIterations()) {
+            return Status.MAX_ITERATIONS;
+        }
+        if (elapsedNanos >= criteria.timeBudgetNanos()) {
+            return Status.TIME_LIMIT;
+        }
+        if (criteria.stallWindow() > 0 && iterations - bestIteration >= criteria.stallWindow()) {
+            return Status.STALLED;
+        }
+        return Status.RUNNING;
+    }
+
+    /**
+     * Marks a solve that ended without meeting any criterion, e.g. because of a zero divisor
+     * inside the method, as a breakdown.
+     */
+    public void finish() {
+        if (status == Status.RUNNING) {
+            status = Status.BREAKDOWN;
+        }
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    /**
+     * @return true if the solve met its tolerance
+     */
+    public boolean converged() {
+        return status == Status.CONVERGED;
+    }
+
+    /**
+     * @return the number of iterations performed
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the relative residual of the final iterate
+     */
+    public double relativeResidual() {
+        return entries == 0 ? Double.NaN : residuals[entries - 1];
+    }
+
+    /**
+     * @return the relative residual after each iteration, starting with the initial guess
+     */
+    public double[] residualHistory() {
+        return Arrays.copyOf(residuals, entries);
+    }
+
+    /**
+     * @return the wall-clock time of each iteration in nanoseconds, aligned with {@link #residualHistory()}
+     */
+    public long[] iterationNanos() {
+        return Arrays.copyOf(iterationNanos, entries);
+    }
+
+    /**
+     * @return the estimated number of floating-point operations spent
+     */
+    public long flops() {
+        return flops;
+    }
+
+    /**
+     * @return the wall-clock time of the solve in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return status + " after " + iterations + " iterations, relative residual " + relativeResidual()
+                + ", " + elapsedNanos / 1_000_000.0 + " ms, " + flops + " flops";
+    }
+}
@@ -0,0 +1,218 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+
+/**
+ * Collects (row, column, value) triplets in growable primitive arrays and compresses
+ * them into {@link CSRMatrix} or {@link CSCMatrix} form. Duplicate entries are summed.
+ */
+public class SparseMatrixBuilder {
+    private final int rows;
+    private final int cols;
+    private int[] rowIndices;
+    private int[] colIndices;
+    private double[] values;
+    private int size;
+
+    /**
+     * @param rows the number of rows of the matrix being built
+     * @param cols the number of columns of the matrix being built
+     */
+    public SparseMatrixBuilder(int rows, int cols) {
+        this(rows, cols, 16);
+    }
+
+    /**
+     * @param rows     the number of rows of the matrix being built
+     * @param cols     the number of columns of the matrix being built
+     * @param capacity the expected number of triplets
+     */
+    public SparseMatrixBuilder(int rows, int cols, int capacity) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Matrix dimensions must be non-negative.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        capacity = Math.max(capacity, 1);
+        this.rowIndices = new int[capacity];
+        this.colIndices = new int[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Adds value to entry (i, j).
+     *
+     * @param i     the row index
+     * @param j     the column index
+     * @param value the value to add
+     * @return this builder
+     */
+    public SparseMatrixBuilder add(int i, int j, double value) {
+        checkEntry(rows, cols, i, j);
+        if (size == values.length) {
+            int capacity = Math.max(2 * size, 16);
+            rowIndices = Arrays.copyOf(rowIndices, capacity);
+            colIndices = Arrays.copyOf(colIndices, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        rowIndices[size] = i;
+        colIndices[size] = j;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * @return the number of triplets added so far, counting duplicates
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the collected entries in compressed sparse row form
+     */
+    public CSRMatrix buildCSR() {
+        Compressed c = compress(rows, cols, rowIndices, colIndices, values, size);
+        return new CSRMatrix(rows, cols, c.pointers, c.indices, c.values);
+    }
+
+    /**
+     * @return the collected entries in compressed sparse column form
+     */
+    public CSCMatrix buildCSC() {
+        Compressed c = compress(cols, rows, colIndices, rowIndices, values, size);
+        return new CSCMatrix(rows, cols, c.pointers, c.indices, c.values);
+    }
+
+    /**
+     * Validates triplet arrays the way the builder validates its arguments, for the
+     * fromTriplets factories that compress caller-supplied arrays directly.
+     */
+    static void checkTriplets(int rows, int cols, int[] rowIndices, int[] colIndices, double[] values) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Matrix dimensions must be non-negative.");
+        }
+        if (rowIndices.length != values.length || colIndices.length != values.length) {
+            throw new IllegalArgumentException("Expected as many row and column indices as values, got "
+                    + rowIndices.length + ", " + colIndices.length + " and " + values.length + ".");
+        }
+        for (int k = 0; k < values.length; k++) {
+            checkEntry(rows, cols, rowIndices[k], colIndices[k]);
+        }
+    }
+
+    /**
+     * Checks compressed arrays the way {@link #compress} produces them: pointers start at 0 and never
+     * decrease, and the minor indices of each major line are strictly increasing and in range.
+     *
+     * @param form "CSR" or "CSC", for the error message
+     */
+    static void checkCompressed(String form, int rows, int cols, int major, int minor, int[] pointers,
+                                int[] indices, double[] values) {
+        if (rows < 0 || cols < 0 || pointers.length != major + 1 || pointers[0] != 0
+                || indices.length < pointers[major] || values.length < pointers[major]) {
+            throw new IllegalArgumentException(form + " arrays do not match a " + rows + "x" + cols + " matrix.");
+        }
+        for (int line = 0; line < major; line++) {
+            if (pointers[line + 1] < pointers[line]) {
+                throw new IllegalArgumentException(form + " pointers decrease at " + line + ".");
+            }
+            for (int p = pointers[line]; p < pointers[line + 1]; p++) {
+                if (indices[p] < 0 || indices[p] >= minor || (p > pointers[line] && indices[p] <= indices[p - 1])) {
+                    throw new IllegalArgumentException(form + " index " + indices[p] + " at position " + p
+                            + " is out of range or not in increasing order.");
+                }
+            }
+        }
+    }
+
+    private static void checkEntry(int rows, int cols, int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols) {
+            throw new IndexOutOfBoundsException("Entry (" + i + ", " + j + ") is outside a " + rows + "x" + cols + " matrix.");
+        }
+    }
+
+    /**
+     * The three arrays of a compressed sparse matrix.
+     */
+    static class Compressed {
+        final int[] pointers;
+        final int[] indices;
+        final double[] values;
+
+        Compressed(int[] pointers, int[] indices, double[] values) {
+            this.pointers = pointers;
+            this.indices = indices;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Compresses triplets along the major dimension with a counting sort, sorts each
+     * major slice by minor index and sums duplicate entries. Runs in O(nnz + majorSize)
+     * plus the cost of sorting the (short) slices.
+     */
+    static Compressed compress(int majorSize, int minorSize, int[] major, int[] minor, double[] vals, int count) {
+        int[] pointers = new int[majorSize + 1];
+        for (int k = 0; k < count; k++) {
+            pointers[major[k] + 1]++;
+        }
+        for (int i = 0; i < majorSize; i++) {
+            pointers[i + 1] += pointers[i];
+        }
+
+        int[] next = Arrays.copyOf(pointers, majorSize);
+        int[] indices = new int[count];
+        double[] values = new double[count];
+        for (int k = 0; k < count; k++) {
+            int p = next[major[k]]++;
+            indices[p] = minor[k];
+            values[p] = vals[k];
+        }
+
+        // Sort each slice by minor index, then merge duplicates while compacting
+        int write = 0;
+        int start = 0;
+        for (int i = 0; i < majorSize; i++) {
+            int end = pointers[i + 1];
+            sortSlice(indices, values, start, end);
+            pointers[i] = write;
+            for (int p = start; p < end; p++) {
+                if (write > pointers[i] && indices[write - 1] == indices[p]) {
+                    values[write - 1] += values[p];
+                } else {
+                    indices[write] = indices[p];
+                    values[write] = values[p];
+                    write++;
+                }
+            }
+            start = end;
+        }
+        pointers[majorSize] = write;
+        if (write < count) {
+            indices = Arrays.copyOf(indices, write);
+            values = Arrays.copyOf(values, write);
+        }
+        return new Compressed(pointers, indices, values);
+    }
+
+    /**
+     * Insertion sort for the few entries of one row or column, keeping values paired with indices.
+     */
+    private static void sortSlice(int[] indices, double[] values, int start, int end) {
+        for (int p = start + 1; p < end; p++) {
+            int index = indices[p];
+            double value = values[p];
+            int q = p - 1;
+            while (q >= start && indices[q] > index) {
+                indices[q + 1] = indices[q];
+                values[q + 1] = values[q];
+                q--;
+            }
+            indices[q + 1] = index;
+            values[q + 1] = value;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A square matrix together with its LU factors and, on request, its inverse, all of which
+ * follow low-rank changes to the matrix in O(n^2) per rank instead of being recomputed in O(n^3).
+ * <p>
+ * A rank-1 change A + xy^T becomes LU + (Px)y^T for PA = LU, and the factors are updated with
+ * Bennett's algorithm, keeping the pivot order of the last full factorization. The inverse is
+ * updated with the Sherman-Morrison formula, or the Woodbury formula for rank-k changes.
+ * A downdate is the same operation with x negated.
+ * <p>
+ * Neither update re-pivots, so errors can grow over many updates. After each update a fixed
+ * probe vector w is pushed through A and back through the factors (and the inverse, if kept);
+ * when the relative error of the round trip exceeds the tolerance, and has grown well beyond
+ * what the last full factorization achieved, the matrix is refactored from scratch.
+ */
+public class UpdatableLU {
+    /**
+     * Probe error allowed relative to the error measured right after a full factorization,
+     * so that ill-conditioned matrices do not trigger a refactorization on every update.
+     */
+    private static final double GROWTH = 10.0;
+
+    private final int n;
+    private final DenseMatrix A;
+    private final LUFactors factors;
+    private final double tolerance;
+    private final ForkJoinPool pool;
+    private DenseMatrix inverse;
+
+    private final double[] probe;
+    private final double[] image;
+    private final double[] result;
+    private final double[] px;
+    private final double[] py;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] u;
+    private final double[] v;
+
+    private double baselineDrift;
+    private double drift;
+    private long updates;
+    private long refactorizations;
+
+    /**
+     * Factors a copy of A with a probe tolerance of 1e-8 on the common pool.
+     *
+     * @param A the square matrix to track
+     */
+    public UpdatableLU(DenseMatrix A) {
+        this(A, 1e-8, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Factors a copy of A.
+     *
+     * @param A         the square matrix to track
+     * @param tolerance the relative probe error above which the matrix is refactored
+     * @param pool      the pool used for refactorizations and rank-k products, or null to stay on the calling thread
+     */
+    public UpdatableLU(DenseMatrix A, double tolerance, ForkJoinPool pool) {
+        A.checkSquare();
+        this.n = A.rows();
+        this.A = A.copy();
+        this.factors = LUFactors.allocate(n);
+        this.tolerance = tolerance;
+        this.pool = pool;
+        this.probe = new double[n];
+        this.image = new double[n];
+        this.result = new double[n];
+        this.px = new double[n];
+        this.py = new double[n];
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.u = new double[n];
+        this.v = new double[n];
+        Random random = new Random(n);
+        for (int i = 0; i < n; i++) {
+            probe[i] = 1.0 + random.nextDouble();
+        }
+        refactor();
+    }
+
+    /**
+     * @return the dimension of the matrix
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return the current matrix, shared with this object and not to be modified directly
+     */
+    public DenseMatrix matrix() {
+        return A;
+    }
+
+    /**
+     * @return the current LU factors, shared with this object and updated in place
+     */
+    public LUFactors factors() {
+        return factors;
+    }
+
+    /**
+     * Returns the inverse of the current matrix. It is computed from the factors on the first
+     * call and from then on kept up to date by every update.
+     *
+     * @return the inverse, shared with this object and not to be modified
+     */
+    public DenseMatrix inverse() {
+        if (inverse == null) {
+            inverse = factors.inverse(pool);
+        }
+        return inverse;
+    }
+
+    /**
+     * Solves Ax = b with the current factors.
+     *
+     * @param b the right-hand side
+     * @param x the output buffer of length n; it must not be the same array as b
+     */
+    public void solve(double[] b, double[] x) {
+        factors.solve(b, x);
+    }
+
+    /**
+     * @return the relative error of the probe round trip after the last update
+     */
+    public double drift() {
+        return drift;
+    }
+
+    /**
+     * @return the number of updates applied so far
+     */
+    public long updates() {
+        return updates;
+    }
+
+    /**
+     * @return the number of full factorizations, including the initial one
+     */
+    public long refactorizations() {
+        return refactorizations;
+    }
+
+    /**
+     * Replaces A with A + xy^T. A downdate A - xy^T is the same call with x negated.
+     *
+     * @param x the column vector of the rank-1 term
+     * @param y the row vector of the rank-1 term
+     * @throws IllegalArgumentException if the updated matrix is singular; the matrix is then left as it was
+     */
+    public void rankOneUpdate(double[] x, double[] y) {
+        if (x.length != n || y.length != n) {
+            throw new IllegalArgumentException("Expected vectors of length " + n + ".");
+        }
+        double[] a = A.data();
+        for (int i = 0; i < n; i++) {
+            Kernels.axpy(x[i], y, 0, a, A.index(i, 0), n);
+        }
+        boolean stable = updateFactors(x, y);
+        if (inverse != null && stable) {
+            stable = updateInverse(x, y);
+        }
+        updates++;
+        finish(stable, () -> {
+            for (int i = 0; i < n; i++) {
+                Kernels.axpy(-x[i], y, 0, a, A.index(i, 0), n);
+            }
+        });
+    }
+
+    /**
+     * Replaces A with A + XY^T, a sum of k rank-1 terms.
+     *
+     * @param X the n x k matrix whose columns are the column vectors of the terms
+     * @param Y the n x k matrix whose columns are the row vectors of the terms
+     * @throws IllegalArgumentException if the updated matrix is singular; the matrix is then left as it was
+     */
+    public void rankUpdate(DenseMatrix X, DenseMatrix Y) {
+        int k = X.cols();
+        if (X.rows() != n || Y.rows() != n || Y.cols() != k) {
+            throw new IllegalArgumentException("Expected two " + n + "xk matrices with the same k.");
+        }
+        MatrixMultiplication.multiply(1.0, X, Y.transpose(), 1.0, A, pool);
+        boolean stable = true;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int c = 0; c < k && stable; c++) {
+            X.getColumn(c, x);
+            Y.getColumn(c, y);
+            stable = updateFactors(x, y);
+        }
+        if (inverse != null && stable) {
+            stable = updateInverse(X, Y);
+        }
+        updates++;
+        finish(stable, () -> MatrixMultiplication.multiply(-1.0, X, Y.transpose(), 1.0, A, pool));
+    }
+
+    /**
+     * Overwrites row i of the matrix, as the rank-1 update e_i (row - A_i)^T.
+     *
+     * @param i   the row index
+     * @param row the new row
+     */
+    public void replaceRow(int i, double[] row) {
+        double[] x = new double[n];
+        double[] y = new double[n];
+        A.getRow(i, y);
+        Kernels.subtract(row, 0, y, 0, y, 0, n);
+        x[i] = 1.0;
+        rankOneUpdate(x, y);
+    }
+
+    /**
+     * Overwrites column j of the matrix, as the rank-1 update (column - A^j) e_j^T.
+     *
+     * @param j      the column index
+     * @param column the new column
+     */
+    public void replaceColumn(int j, double[] column) {
+        double[] x = new double[n];
+        double[] y = new double[n];
+        A.getColumn(j, x);
+        Kernels.subtract(column, 0, x, 0, x, 0, n);
+        y[j] = 1.0;
+        rankOneUpdate(x, y);
+    }
+
+    /**
+     * Updates the packed factors for LU + (Px)y^T with Bennett's algorithm, one row at a time so
+     * that both L and U are read along contiguous rows. Step k of the column-oriented algorithm
+     * updates column k of L and row k of U; row k of L only depends on the earlier steps through
+     * the values xs[m] and ys[m] they produce, so it can be finished just before row k of U.
+     *
+     * @return false if a pivot became zero or non-finite, in which case the factors are garbage
+     */
+    private boolean updateFactors(double[] x, double[] y) {
+        int[] permutation = factors.permutationArray();
+        DenseMatrix lu = factors.packed();
+        double[] a = lu.data();
+        for (int i = 0; i < n; i++) {
+            px[i] = x[permutation[i]];
+        }
+        System.arraycopy(y, 0, py, 0, n);
+
+        for (int k = 0; k < n; k++) {
+            int row = lu.index(k, 0);
+            double xk = px[k];
+            for (int m = 0; m < k; m++) {
+                xk -= xs[m] * a[row + m];
+                a[row + m] += ys[m] * xk;
+            }
+            double pivot = a[row + k] + xk * py[k];
+            if (pivot == 0 || !Double.isFinite(pivot)) {
+                return false;
+            }
+            a[row + k] = pivot;
+            double yk = py[k] / pivot;
+            Kernels.axpy(xk, py, k + 1, a, row + k + 1, n - k - 1);
+            Kernels.axpy(-yk, a, row + k + 1, py, k + 1, n - k - 1);
+            xs[k] = xk;
+            ys[k] = yk;
+        }
+        return true;
+    }
+
+    /**
+     * Sherman-Morrison: (A + xy^T)^-1 = A^-1 - (A^-1 x)(y^T A^-1) / (1 + y^T A^-1 x).
+     *
+     * @return false if the denominator vanished numerically
+     */
+    private boolean updateInverse(double[] x, double[] y) {
+        inverse.multiply(x, u);
+        inverse.transpose().multiply(y, v);
+        double denominator = 1.0 + Kernels.dot(y, u);
+        if (Math.abs(denominator) <= 1e-14 * (1.0 + Math.abs(denominator - 1.0))) {
+            return false;
+        }
+        double[] b = inverse.data();
+        for (int i = 0; i < n; i++) {
+            Kernels.axpy(-u[i] / denominator, v, 0, b, inverse.index(i, 0), n);
+        }
+        return true;
+    }
+
+    /**
+     * Woodbury: (A + XY^T)^-1 = A^-1 - (A^-1 X)(I + Y^T A^-1 X)^-1 (Y^T A^-1).
+     *
+     * @return false if the k x k capacitance matrix is singular
+     */
+    private boolean updateInverse(DenseMatrix X, DenseMatrix Y) {
+        int k = X.cols();
+        DenseMatrix Z = new DenseMatrix(n, k);
+        DenseMatrix W = new DenseMatrix(k, n);
+        MatrixMultiplication.multiply(1.0, inverse, X, 0.0, Z, pool);
+        MatrixMultiplication.multiply(1.0, Y.transpose(), inverse, 0.0, W, pool);
+        DenseMatrix capacitance = DenseMatrix.identity(k);
+        MatrixMultiplication.multiply(1.0, Y.transpose(), Z, 1.0, capacitance, null);
+        DenseMatrix T = new DenseMatrix(k, n);
+        try {
+            LUFactorization.factor(capacitance).solve(W, T);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        MatrixMultiplication.multiply(-1.0, Z, T, 1.0, inverse, pool);
+        return true;
+    }
+
+    /**
+     * Checks the probe after an update and refactors when the update broke down or drifted.
+     * If the updated matrix turns out to be singular, undo restores the previous matrix,
+     * which is refactored before the exception is rethrown.
+     */
+    private void finish(boolean stable, Runnable undo) {
+        if (stable) {
+            drift = measureDrift();
+            if (drift <= Math.max(tolerance, GROWTH * baselineDrift)) {
+                return;
+            }
+        }
+        try {
+            refactor();
+        } catch (IllegalArgumentException e) {
+            undo.run();
+            refactor();
+            throw new IllegalArgumentException("Matrix is singular after the update, which was not applied.", e);
+        }
+    }
+
+    private void refactor() {
+        LUFactorization.factorInto(factors, A, pool);
+        if (inverse != null) {
+            factors.inverseInto(inverse, pool);
+        }
+        refactorizations++;
+        baselineDrift = measureDrift();
+        drift = baselineDrift;
+    }
+
+    /**
+     * @return the larger relative error of w recovered from Aw through the factors and through the inverse
+     */
+    private double measureDrift() {
+        A.multiply(probe, image);
+        factors.solve(image, result);
+        double error = relativeError(result);
+        if (inverse != null) {
+            inverse.multiply(image, result);
+            error = Math.max(error, relativeError(result));
+        }
+        return error;
+    }
+
+    private double relativeError(double[] w) {
+        double error = 0;
+        double norm = 0;
+        for (int i = 0; i < n; i++) {
+            error = Math.max(error, Math.abs(w[i] - probe[i]));
+            norm = Math.max(norm, Math.abs(probe[i]));
+        }
+        // NaN compares false everywhere, so report it as an infinite error
+        return Double.isNaN(error) ? Double.POSITIVE_INFINITY : error / norm;
+    }
+}
@@ -0,0 +1,74 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch storage for the {@code ...Into} operations, so that a steady-state loop
+ * of factorizations and solves allocates nothing once every buffer has reached its size.
+ * Buffers are addressed by a caller-chosen slot number and created on first use; asking for
+ * the same slot with the same size returns the same storage. A workspace is not thread-safe;
+ * give each thread its own.
+ */
+public class Workspace {
+    private double[][] vectors = new double[0][];
+    private DenseMatrix[] matrices = new DenseMatrix[0];
+    private LUFactors factors;
+
+    /**
+     * Returns the scratch vector in the given slot, reallocating it only if its length differs.
+     * The contents are whatever the previous user of the slot left behind.
+     *
+     * @param slot   the slot number
+     * @param length the required length
+     * @return a vector of exactly the requested length
+     */
+    public double[] vector(int slot, int length) {
+        if (slot >= vectors.length) {
+            vectors = Arrays.copyOf(vectors, slot + 1);
+        }
+        double[] vector = vectors[slot];
+        if (vector == null || vector.length != length) {
+            vector = new double[length];
+            vectors[slot] = vector;
+        }
+        return vector;
+    }
+
+    /**
+     * Returns the scratch matrix in the given slot, reallocating it only if its shape differs.
+     * The contents are whatever the previous user of the slot left behind.
+     *
+     * @param slot the slot number
+     * @param rows the required number of rows
+     * @param cols the required number of columns
+     * @return a row-major matrix of exactly the requested shape
+     */
+    public DenseMatrix matrix(int slot, int rows, int cols) {
+        if (slot >= matrices.length) {
+            matrices = Arrays.copyOf(matrices, slot + 1);
+        }
+        DenseMatrix matrix = matrices[slot];
+        if (matrix == null || matrix.rows() != rows || matrix.cols() != cols) {
+            matrix = new DenseMatrix(rows, cols);
+            matrices[slot] = matrix;
+        }
+        return matrix;
+    }
+
+    /**
+     * Factors a square matrix into the workspace's LU storage, which is reused for every
+     * matrix of the same size. The returned factors are overwritten by the next call.
+     *
+     * @param A the matrix to factor; it is left unchanged
+     * @return the factors of A, owned by this workspace
+     */
+    public LUFactors factor(DenseMatrix A) {
+        A.checkSquare();
+        if (factors == null || factors.size() != A.rows()) {
+            factors = LUFactors.allocate(A.rows());
+        }
+        LUFactorization.factorInto(factors, A, null);
+        return factors;
+    }
+}
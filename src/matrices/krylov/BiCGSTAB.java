@@ -0,0 +1,91 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.ConvergenceCriteria;
+import matrices.LinearOperator;
+
+import java.util.Arrays;
+
+/**
+ * The stabilized biconjugate gradient method (BiCGSTAB) for general nonsymmetric systems.
+ * Each iteration costs two operator applications and needs only a fixed set of work vectors.
+ * Preconditioning is applied on the right, so the residual being monitored is the true one.
+ */
+public class BiCGSTAB extends KrylovSolver {
+    private final double[] r;
+    private final double[] rHat;
+    private final double[] p;
+    private final double[] v;
+    private final double[] s;
+    private final double[] t;
+    private final double[] pHat;
+    private final double[] sHat;
+
+    /**
+     * @param n             the dimension of the systems this solver will be used for
+     * @param tolerance     the relative residual at which to stop
+     * @param maxIterations the largest number of iterations before giving up
+     */
+    public BiCGSTAB(int n, double tolerance, int maxIterations) {
+        this(n, ConvergenceCriteria.defaults().withRelativeTolerance(tolerance).withMaxIterations(maxIterations));
+    }
+
+    /**
+     * @param n        the dimension of the systems this solver will be used for
+     * @param criteria the stopping rules
+     */
+    public BiCGSTAB(int n, ConvergenceCriteria criteria) {
+        super(n, criteria);
+        r = new double[n];
+        rHat = new double[n];
+        p = new double[n];
+        v = new double[n];
+        s = new double[n];
+        t = new double[n];
+        pHat = new double[n];
+        sHat = new double[n];
+    }
+
+    @Override
+    protected void iterate(LinearOperator A, double[] b, double[] x) {
+        double bNorm = Vectors.norm(b, n);
+        Vectors.residual(A, b, x, r);
+        System.arraycopy(r, 0, rHat, 0, n);
+        Arrays.fill(p, 0.0);
+        Arrays.fill(v, 0.0);
+        double rho = 1, alpha = 1, omega = 1;
+        long flopsPerIteration = 2 * A.multiplyFlops() + 24L * n;
+        int k = 0;
+
+        for (; !record(k, Vectors.norm(r, n), bNorm, k * flopsPerIteration); k++) {
+            double rhoNext = Vectors.dot(rHat, r, n);
+            if (rhoNext == 0 || omega == 0) {
+                // Breakdown: the shadow residual has become orthogonal to r
+                break;
+            }
+            double beta = (rhoNext / rho) * (alpha / omega);
+            rho = rhoNext;
+            for (int i = 0; i < n; i++) {
+                p[i] = r[i] + beta * (p[i] - omega * v[i]);
+            }
+            preconditioner.apply(p, pHat);
+            A.multiply(pHat, v);
+            alpha = rho / Vectors.dot(rHat, v, n);
+            for (int i = 0; i < n; i++) {
+                s[i] = r[i] - alpha * v[i];
+            }
+            preconditioner.apply(s, sHat);
+            A.multiply(sHat, t);
+            double tt = Vectors.dot(t, t, n);
+            omega = tt == 0 ? 0 : Vectors.dot(t, s, n) / tt;
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * pHat[i] + omega * sHat[i];
+                r[i] = s[i] - omega * t[i];
+            }
+        }
+
+        // The recurrence for r drifts from b - Ax, so report the true residual of the result
+        Vectors.residual(A, b, x, r);
+        record(k, Vectors.norm(r, n), bNorm, k * flopsPerIteration + A.multiplyFlops() + 2L * n);
+    }
+}
@@ -0,0 +1,64 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.ConvergenceCriteria;
+import matrices.LinearOperator;
+
+/**
+ * The (preconditioned) conjugate gradient method for symmetric positive definite systems.
+ * Each iteration costs one operator application, one preconditioner application and a
+ * handful of vector updates. The preconditioner must be symmetric positive definite too.
+ */
+public class ConjugateGradient extends KrylovSolver {
+    private final double[] r;
+    private final double[] p;
+    private final double[] q;
+    private final double[] z;
+
+    /**
+     * @param n             the dimension of the systems this solver will be used for
+     * @param tolerance     the relative residual at which to stop
+     * @param maxIterations the largest number of iterations before giving up
+     */
+    public ConjugateGradient(int n, double tolerance, int maxIterations) {
+        this(n, ConvergenceCriteria.defaults().withRelativeTolerance(tolerance).withMaxIterations(maxIterations));
+    }
+
+    /**
+     * @param n        the dimension of the systems this solver will be used for
+     * @param criteria the stopping rules
+     */
+    public ConjugateGradient(int n, ConvergenceCriteria criteria) {
+        super(n, criteria);
+        r = new double[n];
+        p = new double[n];
+        q = new double[n];
+        z = new double[n];
+    }
+
+    @Override
+    protected void iterate(LinearOperator A, double[] b, double[] x) {
+        double bNorm = Vectors.norm(b, n);
+        Vectors.residual(A, b, x, r);
+        preconditioner.apply(r, z);
+        System.arraycopy(z, 0, p, 0, n);
+        double rho = Vectors.dot(r, z, n);
+        long flopsPerIteration = A.multiplyFlops() + 12L * n;
+
+        for (int k = 0; !record(k, Vectors.norm(r, n), bNorm, k * flopsPerIteration); k++) {
+            A.multiply(p, q);
+            double pq = Vectors.dot(p, q, n);
+            if (pq <= 0) {
+                // The operator is not positive definite along p
+                break;
+            }
+            double alpha = rho / pq;
+            Vectors.axpy(alpha, p, x, n);
+            Vectors.axpy(-alpha, q, r, n);
+            preconditioner.apply(r, z);
+            double rhoNext = Vectors.dot(r, z, n);
+            Vectors.xpby(z, rhoNext / rho, p, n);
+            rho = rhoNext;
+        }
+    }
+}
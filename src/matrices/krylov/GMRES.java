@@ -0,0 +1,143 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.ConvergenceCriteria;
+import matrices.LinearOperator;
+
+import java.util.Arrays;
+
+/**
+ * Restarted GMRES(m) for general nonsymmetric systems. Builds an orthonormal Krylov basis
+ * of up to m vectors with modified Gram-Schmidt, keeps the Hessenberg least-squares problem
+ * triangular with Givens rotations so the residual norm is known every iteration, and restarts
+ * from the current iterate once the basis is full. Preconditioning is applied on the right,
+ * so the residual norm tracked by the rotations is the true one.
+ */
+public class GMRES extends KrylovSolver {
+    private final int restart;
+    private final double[][] basis;
+    private final double[][] hessenberg;
+    private final double[] cosines;
+    private final double[] sines;
+    private final double[] g;
+    private final double[] y;
+    private final double[] w;
+    private final double[] z;
+
+    /**
+     * @param n             the dimension of the systems this solver will be used for
+     * @param restart       the number of basis vectors kept before restarting
+     * @param tolerance     the relative residual at which to stop
+     * @param maxIterations the largest total number of iterations before giving up
+     */
+    public GMRES(int n, int restart, double tolerance, int maxIterations) {
+        this(n, restart, ConvergenceCriteria.defaults().withRelativeTolerance(tolerance).withMaxIterations(maxIterations));
+    }
+
+    /**
+     * @param n        the dimension of the systems this solver will be used for
+     * @param restart  the number of basis vectors kept before restarting
+     * @param criteria the stopping rules
+     */
+    public GMRES(int n, int restart, ConvergenceCriteria criteria) {
+        super(n, criteria);
+        if (restart <= 0) {
+            throw new IllegalArgumentException("The restart length must be positive.");
+        }
+        this.restart = restart;
+        basis = new double[restart + 1][n];
+        hessenberg = new double[restart + 1][restart];
+        cosines = new double[restart];
+        sines = new double[restart];
+        g = new double[restart + 1];
+        y = new double[restart];
+        w = new double[n];
+        z = new double[n];
+    }
+
+    @Override
+    protected void iterate(LinearOperator A, double[] b, double[] x) {
+        double bNorm = Vectors.norm(b, n);
+        int total = 0;
+        long flops = 0;
+
+        while (true) {
+            double[] v0 = basis[0];
+            Vectors.residual(A, b, x, v0);
+            double beta = Vectors.norm(v0, n);
+            flops += A.multiplyFlops() + 3L * n;
+            if (record(total, beta, bNorm, flops) || beta == 0) {
+                return;
+            }
+            Vectors.scale(1 / beta, v0, n);
+            Arrays.fill(g, 0.0);
+            g[0] = beta;
+
+            int j = 0;
+            boolean stop = false;
+            while (j < restart && !stop) {
+                preconditioner.apply(basis[j], z);
+                A.multiply(z, w);
+                for (int i = 0; i <= j; i++) {
+                    double h = Vectors.dot(w, basis[i], n);
+                    hessenberg[i][j] = h;
+                    Vectors.axpy(-h, basis[i], w, n);
+                }
+                double h = Vectors.norm(w, n);
+                hessenberg[j + 1][j] = h;
+                if (h != 0) {
+                    double[] next = basis[j + 1];
+                    for (int k = 0; k < n; k++) {
+                        next[k] = w[k] / h;
+                    }
+                }
+
+                // Apply the previous rotations to the new column, then eliminate its subdiagonal
+                for (int i = 0; i < j; i++) {
+                    double a = hessenberg[i][j];
+                    double c = hessenberg[i + 1][j];
+                    hessenberg[i][j] = cosines[i] * a + sines[i] * c;
+                    hessenberg[i + 1][j] = -sines[i] * a + cosines[i] * c;
+                }
+                double a = hessenberg[j][j];
+                double c = hessenberg[j + 1][j];
+                double r = Math.hypot(a, c);
+                cosines[j] = r == 0 ? 1 : a / r;
+                sines[j] = r == 0 ? 0 : c / r;
+                hessenberg[j][j] = r;
+                hessenberg[j + 1][j] = 0;
+                g[j + 1] = -sines[j] * g[j];
+                g[j] = cosines[j] * g[j];
+
+                flops += A.multiplyFlops() + 4L * n * (j + 1) + 3L * n;
+                j++;
+                total++;
+                // A zero subdiagonal means the Krylov space is invariant and the solution is exact
+                stop = record(total, Math.abs(g[j]), bNorm, flops) || h == 0;
+            }
+
+            // Solve the triangular system H y = g and update x with M^-1 times the basis combination
+            for (int i = j - 1; i >= 0; i--) {
+                double sum = g[i];
+                for (int k = i + 1; k < j; k++) {
+                    sum -= hessenberg[i][k] * y[k];
+                }
+                y[i] = sum / hessenberg[i][i];
+            }
+            Arrays.fill(w, 0.0);
+            for (int i = 0; i < j; i++) {
+                Vectors.axpy(y[i], basis[i], w, n);
+            }
+            preconditioner.apply(w, z);
+            Vectors.axpy(1.0, z, x, n);
+            flops += 2L * n * (j + 1);
+
+            if (stop) {
+                // Refresh the bookkeeping with the true residual of the updated iterate
+                Vectors.residual(A, b, x, w);
+                record(total, Vectors.norm(w, n), bNorm, flops + A.multiplyFlops() + 3L * n);
+                return;
+            }
+        }
+    }
+}
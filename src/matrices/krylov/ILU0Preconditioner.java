@@ -0,0 +1,65 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.CSRMatrix;
+import matrices.LUFactorization;
+
+/**
+ * Incomplete LU preconditioning with zero fill-in, M = LU where L and U keep the sparsity
+ * pattern of A. The factors come from {@link LUFactorization#incompleteLU(CSRMatrix)}.
+ */
+public class ILU0Preconditioner implements Preconditioner {
+    private final CSRMatrix factors;
+    private final int[] diagonalPositions;
+
+    /**
+     * @param matrix a square matrix whose diagonal is stored and stays nonzero during elimination
+     */
+    public ILU0Preconditioner(CSRMatrix matrix) {
+        factors = LUFactorization.incompleteLU(matrix);
+        int n = factors.rows();
+        int[] rowPointers = factors.rowPointers();
+        int[] columns = factors.columnIndices();
+        diagonalPositions = new int[n];
+        for (int i = 0; i < n; i++) {
+            int p = rowPointers[i];
+            while (columns[p] != i) {
+                p++;
+            }
+            diagonalPositions[i] = p;
+        }
+    }
+
+    /**
+     * @return the packed incomplete factors: unit L strictly below the diagonal, U on and above it
+     */
+    public CSRMatrix factors() {
+        return factors;
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        int n = factors.rows();
+        int[] rowPointers = factors.rowPointers();
+        int[] columns = factors.columnIndices();
+        double[] values = factors.values();
+
+        // Forward substitution with the unit lower triangular L
+        for (int i = 0; i < n; i++) {
+            double sum = r[i];
+            for (int p = rowPointers[i]; p < diagonalPositions[i]; p++) {
+                sum -= values[p] * z[columns[p]];
+            }
+            z[i] = sum;
+        }
+
+        // Backward substitution with the upper triangular U
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = z[i];
+            for (int p = diagonalPositions[i] + 1; p < rowPointers[i + 1]; p++) {
+                sum -= values[p] * z[columns[p]];
+            }
+            z[i] = sum / values[diagonalPositions[i]];
+        }
+    }
+}
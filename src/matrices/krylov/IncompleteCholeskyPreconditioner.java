@@ -0,0 +1,118 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.CSRMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Incomplete Cholesky preconditioning with zero fill-in, M = LL^T where L keeps the
+ * sparsity pattern of the lower triangle of a symmetric positive definite A.
+ * Pairs with {@link ConjugateGradient}, since M stays symmetric positive definite.
+ */
+public class IncompleteCholeskyPreconditioner implements Preconditioner {
+    private final int n;
+    private final int[] rowPointers;
+    private final int[] columns;
+    private final double[] values;
+
+    /**
+     * @param matrix a symmetric positive definite matrix; only its lower triangle is read
+     */
+    public IncompleteCholeskyPreconditioner(CSRMatrix matrix) {
+        if (matrix.rows() != matrix.cols()) {
+            throw new IllegalArgumentException("Matrix must be square, got " + matrix.rows() + "x" + matrix.cols() + ".");
+        }
+        n = matrix.rows();
+        int[] aPointers = matrix.rowPointers();
+        int[] aColumns = matrix.columnIndices();
+        double[] aValues = matrix.values();
+
+        // Copy the lower triangle; the diagonal ends each row because columns are sorted
+        rowPointers = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int p = aPointers[i]; p < aPointers[i + 1] && aColumns[p] <= i; p++) {
+                count++;
+            }
+            rowPointers[i + 1] = rowPointers[i] + count;
+        }
+        columns = new int[rowPointers[n]];
+        values = new double[rowPointers[n]];
+        for (int i = 0; i < n; i++) {
+            int q = rowPointers[i];
+            for (int p = aPointers[i]; q < rowPointers[i + 1]; p++, q++) {
+                columns[q] = aColumns[p];
+                values[q] = aValues[p];
+            }
+            if (q == rowPointers[i] || columns[q - 1] != i) {
+                throw new IllegalArgumentException("Diagonal entry " + i + " is not stored.");
+            }
+        }
+
+        factor();
+    }
+
+    /**
+     * Row-by-row incomplete Cholesky: l_ik = (a_ik - sum_j l_ij l_kj) / l_kk and
+     * l_ii = sqrt(a_ii - sum_j l_ij^2), with every sum restricted to the stored pattern.
+     */
+    private void factor() {
+        int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            int start = rowPointers[i];
+            int diag = rowPointers[i + 1] - 1;
+            for (int p = start; p <= diag; p++) {
+                position[columns[p]] = p;
+            }
+            for (int p = start; p < diag; p++) {
+                int k = columns[p];
+                double sum = values[p];
+                int kDiag = rowPointers[k + 1] - 1;
+                for (int q = rowPointers[k]; q < kDiag; q++) {
+                    int j = position[columns[q]];
+                    if (j >= 0 && j < p) {
+                        sum -= values[j] * values[q];
+                    }
+                }
+                values[p] = sum / values[kDiag];
+            }
+            double sum = values[diag];
+            for (int p = start; p < diag; p++) {
+                sum -= values[p] * values[p];
+            }
+            if (sum <= 0) {
+                throw new IllegalArgumentException("Incomplete Cholesky broke down at row " + i
+                        + "; the matrix is not positive definite enough.");
+            }
+            values[diag] = Math.sqrt(sum);
+            for (int p = start; p <= diag; p++) {
+                position[columns[p]] = -1;
+            }
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        // Forward substitution with L
+        for (int i = 0; i < n; i++) {
+            int diag = rowPointers[i + 1] - 1;
+            double sum = r[i];
+            for (int p = rowPointers[i]; p < diag; p++) {
+                sum -= values[p] * z[columns[p]];
+            }
+            z[i] = sum / values[diag];
+        }
+
+        // Backward substitution with L^T, scattering each finished entry up its row of L
+        for (int i = n - 1; i >= 0; i--) {
+            int diag = rowPointers[i + 1] - 1;
+            z[i] /= values[diag];
+            double zi = z[i];
+            for (int p = rowPointers[i]; p < diag; p++) {
+                z[columns[p]] -= values[p] * zi;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.CSRMatrix;
+
+/**
+ * Diagonal (Jacobi) preconditioning, M = diag(A). The inverse diagonal is stored once.
+ */
+public class JacobiPreconditioner implements Preconditioner {
+    private final double[] inverseDiagonal;
+
+    /**
+     * @param matrix a square matrix with a nonzero diagonal
+     */
+    public JacobiPreconditioner(CSRMatrix matrix) {
+        int n = matrix.rows();
+        inverseDiagonal = new double[n];
+        matrix.diagonal(inverseDiagonal);
+        for (int i = 0; i < n; i++) {
+            if (inverseDiagonal[i] == 0) {
+                throw new IllegalArgumentException("Diagonal entry " + i + " is zero.");
+            }
+            inverseDiagonal[i] = 1.0 / inverseDiagonal[i];
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        for (int i = 0; i < inverseDiagonal.length; i++) {
+            z[i] = r[i] * inverseDiagonal[i];
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.ConvergenceCriteria;
+import matrices.LinearOperator;
+import matrices.SolverStats;
+
+/**
+ * Common state of the Krylov subspace solvers. A solver is built for one problem size,
+ * allocates all of its work vectors up front and reuses them for every solve, so a solver
+ * instance must not be shared between threads.
+ * When to stop is decided by a {@link ConvergenceCriteria}, and every solve leaves its
+ * telemetry in a {@link SolverStats}.
+ * A {@link Preconditioner} can be attached to cut the number of iterations.
+ */
+public abstract class KrylovSolver {
+    protected final int n;
+    protected final ConvergenceCriteria criteria;
+    protected Preconditioner preconditioner = Preconditioner.NONE;
+
+    private SolverStats stats;
+
+    /**
+     * @param n        the dimension of the systems this solver will be used for
+     * @param criteria the stopping rules
+     */
+    protected KrylovSolver(int n, ConvergenceCriteria criteria) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The dimension must be non-negative.");
+        }
+        this.n = n;
+        this.criteria = criteria;
+    }
+
+    /**
+     * @param n             the dimension of the systems this solver will be used for
+     * @param tolerance     the relative residual at which to stop
+     * @param maxIterations the largest number of iterations before giving up
+     */
+    protected KrylovSolver(int n, double tolerance, int maxIterations) {
+        this(n, ConvergenceCriteria.defaults().withRelativeTolerance(tolerance).withMaxIterations(maxIterations));
+    }
+
+    /**
+     * Sets the preconditioner used by subsequent solves.
+     *
+     * @param preconditioner the preconditioner, or {@link Preconditioner#NONE}
+     */
+    public void setPreconditioner(Preconditioner preconditioner) {
+        this.preconditioner = preconditioner == null ? Preconditioner.NONE : preconditioner;
+    }
+
+    /**
+     * Solves Ax = b, starting from the values already in x.
+     *
+     * @param A the square operator, of dimension n
+     * @param b the right-hand side
+     * @param x the initial guess on entry, the approximate solution on return
+     * @return true if the tolerance was reached; {@link #stats()} tells why not otherwise
+     */
+    public boolean solve(LinearOperator A, double[] b, double[] x) {
+        if (A.rows() != n || A.cols() != n || b.length != n || x.length != n) {
+            throw new IllegalArgumentException("This solver was built for systems of dimension " + n + ".");
+        }
+        stats = new SolverStats(criteria);
+        iterate(A, b, x);
+        stats.finish();
+        return stats.converged();
+    }
+
+    /**
+     * Runs the method, reporting progress through {@link #record(int, double, double, long)}.
+     */
+    protected abstract void iterate(LinearOperator A, double[] b, double[] x);
+
+    /**
+     * Records the state after an iteration and tells the method whether to stop.
+     *
+     * @param iteration    the number of iterations done so far
+     * @param residualNorm the current ||b - Ax||
+     * @param bNorm        ||b||
+     * @param flops        the floating-point operations spent so far, excluding the preconditioner
+     * @return true if the method should stop
+     */
+    protected boolean record(int iteration, double residualNorm, double bNorm, long flops) {
+        return stats.record(iteration, bNorm == 0 ? residualNorm : residualNorm / bNorm, Double.NaN, flops);
+    }
+
+    /**
+     * @return the telemetry of the last solve
+     */
+    public SolverStats stats() {
+        return stats;
+    }
+
+    /**
+     * @return the number of iterations used by the last solve
+     */
+    public int iterations() {
+        return stats.iterations();
+    }
+
+    /**
+     * @return ||b - Ax|| / ||b|| at the end of the last solve
+     */
+    public double relativeResidual() {
+        return stats.relativeResidual();
+    }
+
+    /**
+     * @return true if the last solve reached the tolerance
+     */
+    public boolean converged() {
+        return stats.converged();
+    }
+}
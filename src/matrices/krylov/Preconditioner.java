@@ -0,0 +1,24 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+/**
+ * An approximation M of the system matrix whose inverse is cheap to apply.
+ * Krylov solvers apply M^-1 to residuals so that they converge in fewer iterations.
+ * Implementations must not allocate in {@link #apply(double[], double[])}.
+ */
+@FunctionalInterface
+public interface Preconditioner {
+
+    /**
+     * The identity preconditioner, which leaves the solver unpreconditioned.
+     */
+    Preconditioner NONE = (r, z) -> System.arraycopy(r, 0, z, 0, r.length);
+
+    /**
+     * Computes z = M^-1 r.
+     *
+     * @param r the input vector
+     * @param z the output vector; must not be the same array as r
+     */
+    void apply(double[] r, double[] z);
+}
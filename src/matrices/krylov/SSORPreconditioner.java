@@ -0,0 +1,68 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.CSRMatrix;
+
+/**
+ * Symmetric successive over-relaxation preconditioning,
+ * M = (D + wL) D^-1 (D + wU) / (w (2 - w)), where A = L + D + U.
+ * Applying M^-1 is one forward and one backward Gauss-Seidel-like sweep over A.
+ */
+public class SSORPreconditioner implements Preconditioner {
+    private final CSRMatrix matrix;
+    private final double omega;
+    private final double[] diagonal;
+
+    /**
+     * @param matrix a square matrix with a nonzero diagonal
+     * @param omega  the relaxation factor, strictly between 0 and 2 (1 gives symmetric Gauss-Seidel)
+     */
+    public SSORPreconditioner(CSRMatrix matrix, double omega) {
+        if (!(omega > 0 && omega < 2)) {
+            throw new IllegalArgumentException("The relaxation factor must lie strictly between 0 and 2.");
+        }
+        this.matrix = matrix;
+        this.omega = omega;
+        diagonal = new double[matrix.rows()];
+        matrix.diagonal(diagonal);
+        for (int i = 0; i < diagonal.length; i++) {
+            if (diagonal[i] == 0) {
+                throw new IllegalArgumentException("Diagonal entry " + i + " is zero.");
+            }
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        int n = diagonal.length;
+        int[] rowPointers = matrix.rowPointers();
+        int[] columns = matrix.columnIndices();
+        double[] values = matrix.values();
+
+        // Forward sweep: (D + wL) y = r, then w = D y, both stored in z
+        for (int i = 0; i < n; i++) {
+            double sum = r[i];
+            for (int p = rowPointers[i]; p < rowPointers[i + 1] && columns[p] < i; p++) {
+                sum -= omega * values[p] * z[columns[p]];
+            }
+            z[i] = sum / diagonal[i];
+        }
+        for (int i = 0; i < n; i++) {
+            z[i] *= diagonal[i];
+        }
+
+        // Backward sweep: (D + wU) z = w
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = z[i];
+            for (int p = rowPointers[i + 1] - 1; p >= rowPointers[i] && columns[p] > i; p--) {
+                sum -= omega * values[p] * z[columns[p]];
+            }
+            z[i] = sum / diagonal[i];
+        }
+
+        double scale = omega * (2 - omega);
+        for (int i = 0; i < n; i++) {
+            z[i] *= scale;
+        }
+    }
+}
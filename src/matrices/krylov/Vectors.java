@@ -0,0 +1,54 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.Kernels;
+import matrices.LinearOperator;
+
+/**
+ * The dense vector operations used by the Krylov solvers. None of them allocate.
+ */
+final class Vectors {
+
+    private Vectors() {
+    }
+
+    static double dot(double[] x, double[] y, int n) {
+        return Kernels.dot(x, 0, y, 0, n);
+    }
+
+    static double norm(double[] x, int n) {
+        return Math.sqrt(dot(x, x, n));
+    }
+
+    /**
+     * y += alpha * x
+     */
+    static void axpy(double alpha, double[] x, double[] y, int n) {
+        Kernels.axpy(alpha, x, 0, y, 0, n);
+    }
+
+    /**
+     * y = x + beta * y
+     */
+    static void xpby(double[] x, double beta, double[] y, int n) {
+        for (int i = 0; i < n; i++) {
+            y[i] = x[i] + beta * y[i];
+        }
+    }
+
+    static void scale(double alpha, double[] x, int n) {
+        for (int i = 0; i < n; i++) {
+            x[i] *= alpha;
+        }
+    }
+
+    /**
+     * r = b - Ax, using r itself as the output of the matrix-vector product.
+     */
+    static void residual(LinearOperator A, double[] b, double[] x, double[] r) {
+        A.multiply(x, r);
+        for (int i = 0; i < A.rows(); i++) {
+            r[i] = b[i] - r[i];
+        }
+    }
+}
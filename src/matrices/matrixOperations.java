@@ -1,9 +1,12 @@
 // https://github.com/matanof2/Numeric_Analysis.git
 package matrices;
+import batch.BatchRunner;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 public class matrixOperations {
     private static final double[][] UNIT = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
@@ -41,6 +44,100 @@ public class matrixOperations {
         return norm * normInv;
     }
 
+    /**
+     * Computes the infinity norm (maximum absolute row sum) of a matrix of any size.
+     *
+     * @param matrix the matrix to compute the norm for
+     * @return the infinity norm of the matrix
+     */
+    public static double matrixInfinityNorm(DenseMatrix matrix) {
+        if (!matrix.isRowContiguous()) {
+            return columnAbsSumMax(matrix.transpose());
+        }
+        double max = 0;
+        for (int i = 0; i < matrix.rows(); i++) {
+            max = Math.max(max, Kernels.absSum(matrix.data(), matrix.index(i, 0), matrix.cols()));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the largest absolute column sum of a row-contiguous matrix, accumulating whole
+     * rows at a time so the inner loop stays contiguous.
+     */
+    private static double columnAbsSumMax(DenseMatrix matrix) {
+        if (!matrix.isRowContiguous()) {
+            double max = 0;
+            for (int j = 0; j < matrix.cols(); j++) {
+                double sum = 0;
+                for (int i = 0; i < matrix.rows(); i++) {
+                    sum += Math.abs(matrix.get(i, j));
+                }
+                max = Math.max(max, sum);
+            }
+            return max;
+        }
+        double[] sums = new double[matrix.cols()];
+        double[] data = matrix.data();
+        for (int i = 0; i < matrix.rows(); i++) {
+            int row = matrix.index(i, 0);
+            for (int j = 0; j < sums.length; j++) {
+                sums[j] += Math.abs(data[row + j]);
+            }
+        }
+        double max = 0;
+        for (double sum : sums) {
+            max = Math.max(max, sum);
+        }
+        return max;
+    }
+
+    /**
+     * Computes the 1-norm (maximum absolute column sum) of a matrix of any size.
+     *
+     * @param matrix the matrix to compute the norm for
+     * @return the 1-norm of the matrix
+     */
+    public static double matrixOneNorm(DenseMatrix matrix) {
+        return matrixInfinityNorm(matrix.transpose());
+    }
+
+    /**
+     * Computes the infinity-norm condition number of a square matrix of any size.
+     *
+     * @param matrix the matrix to compute the condition number for
+     * @return the condition number of the matrix
+     * @throws IllegalArgumentException if the matrix is singular
+     */
+    public static double condition(DenseMatrix matrix) {
+        return condition(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the infinity-norm condition number of a square matrix of any size on the given pool.
+     *
+     * @param matrix the matrix to compute the condition number for
+     * @param pool   the pool to factor and invert on, or null to stay on the calling thread
+     * @return the condition number of the matrix
+     * @throws IllegalArgumentException if the matrix is singular
+     */
+    public static double condition(DenseMatrix matrix, ForkJoinPool pool) {
+        return matrixInfinityNorm(matrix) * matrixInfinityNorm(inverseMatrix(matrix, pool));
+    }
+
+    /**
+     * Estimates the infinity-norm condition number of a square matrix of any size from its
+     * LU factors in O(n^2) beyond the factorization, without forming the inverse. The estimate
+     * is a lower bound on {@link #condition(DenseMatrix)} and is usually within a factor of 3.
+     *
+     * @param matrix the matrix to estimate the condition number for
+     * @return the estimated condition number of the matrix, or infinity if it is singular
+     * @see ConditionEstimator
+     */
+    public static double estimateCondition(DenseMatrix matrix) {
+        return ConditionEstimator.conditionInfinity(matrix);
+    }
+
     /**
      * Swaps two rows of a matrix.
      *
@@ -62,10 +159,20 @@ public class matrixOperations {
      */
     public static double[][] copyMatrix(double[][] matrix) {
         double[][] copy = new double[3][3];
+        copyMatrixInto(copy, matrix);
+        return copy;
+    }
+
+    /**
+     * Copies a 3x3 matrix into an existing matrix without allocating.
+     *
+     * @param dest   the 3x3 matrix to overwrite
+     * @param matrix the matrix to copy
+     */
+    public static void copyMatrixInto(double[][] dest, double[][] matrix) {
         for (int i = 0; i < 3; i++) {
-            System.arraycopy(matrix[i], 0, copy[i], 0, 3);
+            System.arraycopy(matrix[i], 0, dest[i], 0, 3);
         }
-        return copy;
     }
 
     /**
@@ -75,8 +182,26 @@ public class matrixOperations {
      * @return the inverse of the matrix
      */
     public static double[][] inverseMatrix(double[][] matrix) {
-        double[][] inverseMatrix = copyMatrix(UNIT);
-        matrix = copyMatrix(matrix);
+        double[][] inverseMatrix = new double[3][3];
+        inverseMatrixInto(inverseMatrix, matrix, new double[3][3]);
+        return inverseMatrix;
+    }
+
+    /**
+     * Computes the inverse of a 3x3 matrix into an existing matrix without allocating.
+     * The input is copied to scratch before dest is written, so dest may be the input itself
+     * to invert in place. Row swaps exchange the row arrays of dest and scratch only.
+     *
+     * @param dest    the 3x3 matrix that receives the inverse; it may be the same array as matrix
+     * @param matrix  the matrix to invert; it is left unchanged unless it is dest
+     * @param scratch a 3x3 work matrix, distinct from dest and matrix, that is overwritten with
+     *                the reduced copy of the input
+     */
+    public static void inverseMatrixInto(double[][] dest, double[][] matrix, double[][] scratch) {
+        copyMatrixInto(scratch, matrix);
+        matrix = scratch;
+        double[][] inverseMatrix = dest;
+        copyMatrixInto(inverseMatrix, UNIT);
 
         for (int i = 0; i < 3; i++) {
             if (matrix[i][i] == 0) {
@@ -110,7 +235,42 @@ public class matrixOperations {
                 }
             }
         }
-        return inverseMatrix;
+    }
+
+    /**
+     * Computes the inverse of a square matrix of any size by factoring it once
+     * and solving for all columns of the identity together. The input matrix is left unchanged.
+     *
+     * @param matrix the matrix to invert
+     * @return the inverse of the matrix
+     */
+    public static DenseMatrix inverseMatrix(DenseMatrix matrix) {
+        return inverseMatrix(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the inverse of a square matrix of any size on the given pool.
+     * The input matrix is left unchanged.
+     *
+     * @param matrix the matrix to invert
+     * @param pool   the pool to factor and solve on, or null to stay on the calling thread
+     * @return the inverse of the matrix
+     */
+    public static DenseMatrix inverseMatrix(DenseMatrix matrix, ForkJoinPool pool) {
+        LUFactors factors = LUFactorization.factorInPlace(matrix.copy(), pool);
+        return factors.inverse(pool);
+    }
+
+    /**
+     * Computes the inverse of a square matrix of any size into an existing matrix, reusing the
+     * LU storage held by the workspace so that repeated calls of the same size allocate nothing.
+     *
+     * @param dest      the n x n matrix with contiguous rows that receives the inverse
+     * @param matrix    the matrix to invert; it is left unchanged
+     * @param workspace the scratch storage to factor into
+     */
+    public static void inverseMatrixInto(DenseMatrix dest, DenseMatrix matrix, Workspace workspace) {
+        workspace.factor(matrix).inverseInto(dest, null);
     }
 
     /**
@@ -141,6 +301,15 @@ public class matrixOperations {
         }
     }
 
+    /**
+     * Prints a matrix of any size.
+     *
+     * @param matrix the matrix to print
+     */
+    public static void printMatrix(DenseMatrix matrix) {
+        System.out.print(matrix);
+    }
+
     /**
      * Initializes a 3x1 vector from the user's input.
      *
@@ -156,6 +325,27 @@ public class matrixOperations {
         return vector;
     }
 
+    /**
+     * Loads a vector of any length from a binary matrix file or a Matrix Market file
+     * holding a single row or a single column.
+     *
+     * @param path the file to read
+     * @return the vector
+     * @throws IOException if the file cannot be read or does not hold a vector
+     */
+    public static double[] InitializeVector(Path path) throws IOException {
+        DenseMatrix matrix = MatrixFile.load(path);
+        if (matrix.cols() == 1) {
+            matrix = matrix.transpose();
+        }
+        if (matrix.rows() != 1) {
+            throw new IOException(path + " holds a " + matrix.rows() + "x" + matrix.cols() + " matrix, not a vector.");
+        }
+        double[] vector = new double[matrix.cols()];
+        matrix.getRow(0, vector);
+        return vector;
+    }
+
     /**
      * Initializes a 3x3 matrix from the user's input.
      *
@@ -175,21 +365,91 @@ public class matrixOperations {
     }
 
     /**
-     * Multiplies two 3x3 matrices.
+     * Loads a matrix of any size from a binary matrix file or a Matrix Market file.
+     *
+     * @param path the file to read
+     * @return the matrix
+     * @throws IOException if the file cannot be read or is malformed
+     * @see MatrixFile
+     */
+    public static double[][] InitializeMatrix(Path path) throws IOException {
+        return MatrixFile.load(path).toArray();
+    }
+
+    /**
+     * Multiplies two matrices. 3x3 inputs are multiplied directly on the arrays by
+     * {@link #matricesMultiplicationInto(double[][], double[][], double[][])};
+     * any other size is handed to {@link MatrixMultiplication}.
      *
      * @param mat1 the first matrix
      * @param mat2 the second matrix
      * @return the result of multiplying A and B
      */
     public static double[][] matricesMultiplication(double[][] mat1, double[][] mat2) {
+        if (mat1.length != 3 || mat2.length != 3 || mat1[0].length != 3 || mat2[0].length != 3) {
+            return MatrixMultiplication.multiply(DenseMatrix.of(mat1), DenseMatrix.of(mat2)).toArray();
+        }
         double[][] result = new double[3][3];
-        for (int i = 0; i < 3; i++)
-            for (int j = 0; j < 3; j++)
-                for (int k = 0; k < 3; k++)
-                    result[i][j] += mat1[i][k] * mat2[k][j];
+        matricesMultiplicationInto(result, mat1, mat2);
+        return result;
+    }
+
+    /**
+     * Multiplies two matrices into an existing matrix without allocating. Each row of the result
+     * is accumulated from whole rows of mat2, so the inner loop stays contiguous; for large
+     * products the {@link DenseMatrix} overload, which packs and tiles, is faster.
+     *
+     * @param dest the matrix to overwrite, which must not be the same array as mat1 or mat2
+     * @param mat1 the first matrix
+     * @param mat2 the second matrix
+     */
+    public static void matricesMultiplicationInto(double[][] dest, double[][] mat1, double[][] mat2) {
+        int n = mat2[0].length;
+        for (int i = 0; i < mat1.length; i++) {
+            Arrays.fill(dest[i], 0, n, 0.0);
+            for (int k = 0; k < mat2.length; k++) {
+                Kernels.axpy(mat1[i][k], mat2[k], 0, dest[i], 0, n);
+            }
+        }
+    }
+
+    /**
+     * Multiplies two matrices of any compatible size.
+     *
+     * @param mat1 the first matrix
+     * @param mat2 the second matrix
+     * @return the result of multiplying mat1 and mat2
+     */
+    public static DenseMatrix matricesMultiplication(DenseMatrix mat1, DenseMatrix mat2) {
+        return MatrixMultiplication.multiply(mat1, mat2);
+    }
+
+    /**
+     * Multiplies two matrices of any compatible size on the given pool.
+     *
+     * @param mat1 the first matrix
+     * @param mat2 the second matrix
+     * @param pool the pool that runs the output tiles, or null to stay on the calling thread
+     * @return the result of multiplying mat1 and mat2
+     */
+    public static DenseMatrix matricesMultiplication(DenseMatrix mat1, DenseMatrix mat2, ForkJoinPool pool) {
+        DenseMatrix result = new DenseMatrix(mat1.rows(), mat2.cols());
+        MatrixMultiplication.multiply(1.0, mat1, mat2, 0.0, result, pool);
         return result;
     }
 
+    /**
+     * Multiplies two matrices of any compatible size into an existing matrix. Products small
+     * enough to run on the calling thread allocate nothing.
+     *
+     * @param dest the output matrix, which must not share storage with mat1 or mat2
+     * @param mat1 the first matrix
+     * @param mat2 the second matrix
+     */
+    public static void matricesMultiplicationInto(DenseMatrix dest, DenseMatrix mat1, DenseMatrix mat2) {
+        MatrixMultiplication.multiply(1.0, mat1, mat2, 0.0, dest);
+    }
+
     /**
      * Multiplies a 3x3 matrix by a 3x1 vector.
      *
@@ -217,27 +477,66 @@ public class matrixOperations {
      * @return the dot product of a and b
      */
     private static double vectorMultiplication(double[] vec1, double[] vec2) {
-        double sum = 0;
-        for (int i = 0; i < vec1.length; i++)
-            sum += vec1[i] * vec2[i];
-        return sum;
+        return Kernels.dot(vec1, vec2);
     }
 
     public static double[][] subtract(double[][] A, double[][] B) {
         double[][] result = new double[A.length][A.length];
+        subtractInto(result, A, B);
+        return result;
+    }
+
+    /**
+     * Computes A - B into an existing matrix without allocating. dest may be A or B itself.
+     *
+     * @param dest the matrix to overwrite
+     * @param A    the matrix to subtract from
+     * @param B    the matrix to subtract
+     */
+    public static void subtractInto(double[][] dest, double[][] A, double[][] B) {
         for (int i = 0; i < A.length; i++) {
-            for (int j = 0; j < A[0].length; j++) {
-                double temp = 0;
-                temp = A[i][j] - B[i][j];
-                result[i][j] = temp;
+            Kernels.subtract(A[i], 0, B[i], 0, dest[i], 0, A[0].length);
+        }
+    }
+
+    /**
+     * Computes A - B for matrices of any size into an existing matrix without allocating.
+     * dest may be A or B itself.
+     *
+     * @param dest the matrix to overwrite
+     * @param A    the matrix to subtract from
+     * @param B    the matrix to subtract
+     */
+    public static void subtractInto(DenseMatrix dest, DenseMatrix A, DenseMatrix B) {
+        A.checkSameShape(B);
+        A.checkSameShape(dest);
+        if (dest.isRowContiguous() && A.isRowContiguous() && B.isRowContiguous()) {
+            for (int i = 0; i < A.rows(); i++) {
+                Kernels.subtract(A.data(), A.index(i, 0), B.data(), B.index(i, 0),
+                        dest.data(), dest.index(i, 0), A.cols());
+            }
+            return;
+        }
+        for (int i = 0; i < A.rows(); i++) {
+            for (int j = 0; j < A.cols(); j++) {
+                dest.set(i, j, A.get(i, j) - B.get(i, j));
             }
         }
-        return result;
     }
 
-    public static void main(String[] args) {
-        Map<String, double[][]> matrices = new HashMap<>();
-        matrices.put("A", new double[][]{{1, -1, -2}, {2, -3, -5}, {-1, 3, 5}});
+    /**
+     * Runs the interactive menu, or with arguments a batch job file (see batch.BatchRunner).
+     *
+     * @param args nothing for the menu, or the batch runner's arguments
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            BatchRunner.main(args);
+            return;
+        }
+        // Inverses, norms and condition numbers are cached per matrix, so repeated queries are O(1)
+        MatrixRegistry matrices = new MatrixRegistry(64L << 20);
+        matrices.put("A", DenseMatrix.of(new double[][]{{1, -1, -2}, {2, -3, -5}, {-1, 3, 5}}));
         Scanner scanner = new Scanner(System.in);
 
         while (true) {
@@ -262,11 +561,11 @@ public class matrixOperations {
                 case 1:
                     System.out.print("Enter matrix name: ");
                     name = scanner.nextLine();
-                    if (matrices.containsKey(name)) {
+                    if (matrices.contains(name)) {
                         System.out.println("A matrix with that name already exists. Please enter a new name.");
                     } else {
                         double[][] matrix = InitializeMatrix();
-                        matrices.put(name, matrix);
+                        matrices.put(name, DenseMatrix.of(matrix));
                         System.out.println("Matrix entered successfully.");
                     }
                     break;
@@ -275,8 +574,8 @@ public class matrixOperations {
                 case 2:
                     System.out.print("Enter matrix name: ");
                     name = scanner.nextLine();
-                    if (matrices.containsKey(name)) {
-                        double[][] matrixInv = inverseMatrix(matrices.get(name));
+                    if (matrices.contains(name)) {
+                        DenseMatrix matrixInv = matrices.inverse(name);
                         System.out.println("Matrix " + name + " inverse: ");
                         printMatrix(matrixInv);
                         System.out.print("Add inverse to matrices(Y/N): ");
@@ -284,7 +583,7 @@ public class matrixOperations {
                             while (true) {
                                 System.out.print("Enter name for inverse matrix: ");
                                 String invName = scanner.nextLine();
-                                if (matrices.containsKey(invName)) {
+                                if (matrices.contains(invName)) {
                                     System.out.println("A matrix with that name already exists. Please enter a new name.");
                                 } else {
                                     matrices.put(invName, matrixInv);
@@ -300,8 +599,8 @@ public class matrixOperations {
                 case 3:
                     System.out.print("Enter matrix name: ");
                     name = scanner.nextLine();
-                    if (matrices.containsKey(name)) {
-                        double norm = matrixInfinityNorm(matrices.get(name));
+                    if (matrices.contains(name)) {
+                        double norm = matrices.infinityNorm(name);
                         System.out.printf("The norm of matrix " + name + " is: " + norm);
                     } else {
                         System.out.println("No matrix found. Please enter a matrix first.");
@@ -311,9 +610,9 @@ public class matrixOperations {
                 case 4:
                     System.out.print("Enter matrix name: ");
                     name = scanner.nextLine();
-                    if (matrices.containsKey(name)) {
+                    if (matrices.contains(name)) {
                         try {
-                            double normInv = matrixInfinityNorm(inverseMatrix(matrices.get(name)));
+                            double normInv = matrixInfinityNorm(matrices.inverse(name));
                             System.out.printf("The infinity norm of the inverse matrix of " + name + " is: " + normInv + "\n");
                         } catch (Exception e) {
                             System.out.println("Error: " + e.getMessage());
@@ -326,9 +625,9 @@ public class matrixOperations {
                 case 5:
                     System.out.print("Enter matrix name: ");
                     name = scanner.nextLine();
-                    if (matrices.containsKey(name)) {
+                    if (matrices.contains(name)) {
                         try {
-                            double cond = condition(matrices.get(name));
+                            double cond = matrices.condition(name);
                             System.out.printf("The condition number of matrix " + name + " is: " + cond + "\n");
                         } catch (Exception e) {
                             System.out.println("Error: " + e.getMessage());
@@ -341,14 +640,14 @@ public class matrixOperations {
                 case 6:
                     System.out.print("Enter the first matrix name: ");
                     name = scanner.nextLine();
-                    if (!matrices.containsKey(name))
+                    if (!matrices.contains(name))
                         System.out.println("The first matrix was not found. Please enter a matrix first.");
                     System.out.print("Enter the second matrix name: ");
                     String name2 = scanner.nextLine();
-                    if (!matrices.containsKey(name2))
+                    if (!matrices.contains(name2))
                         System.out.println("The second matrix was not found. Please enter a matrix first.");
 
-                    double[][] multm = matricesMultiplication(matrices.get(name), matrices.get(name2));
+                    DenseMatrix multm = matricesMultiplication(matrices.get(name), matrices.get(name2));
                     System.out.println("Multiplied matrix: " + name + " * " + name2 + " = ");
                     printMatrix(multm);
                     System.out.print("Add multiplied to matrices(Y/N): ");
@@ -356,7 +655,7 @@ public class matrixOperations {
                         while (true) {
                             System.out.print("Enter name for the multiplied matrix: ");
                             String multName = scanner.nextLine();
-                            if (matrices.containsKey(multName)) {
+                            if (matrices.contains(multName)) {
                                 System.out.println("A matrix with that name already exists. Please enter a new name.");
                             } else {
                                 matrices.put(multName, multm);
@@ -369,10 +668,10 @@ public class matrixOperations {
                 case 7:
                     System.out.print("Enter the matrix name: ");
                     name = scanner.nextLine();
-                    if (matrices.containsKey(name)) {
+                    if (matrices.contains(name)) {
                         System.out.print("Enter a vector: ");
                         double[] vect = InitializeVector();
-                        matrix_VectorMultiplication(matrices.get(name), vect);
+                        matrix_VectorMultiplication(matrices.get(name).toArray(), vect);
                         break;
                     } else
                         System.out.println("The matrix was not found. Please enter a matrix first.");
@@ -381,7 +680,7 @@ public class matrixOperations {
                 case 8:
                     System.out.print("Enter matrix name: ");
                     name = scanner.nextLine();
-                    if (matrices.containsKey(name)) {
+                    if (matrices.contains(name)) {
                         System.out.println("Matrix " + name + ":");
                         printMatrix(matrices.get(name));
                     } else {
@@ -390,10 +689,10 @@ public class matrixOperations {
                     break;
 
                 case 9:
-                    if (!matrices.isEmpty()) {
-                        for (Map.Entry<String, double[][]> entry : matrices.entrySet()) {
-                            System.out.println("\nMatrix " + entry.getKey() + ":");
-                            printMatrix(entry.getValue());
+                    if (!matrices.names().isEmpty()) {
+                        for (String key : matrices.names()) {
+                            System.out.println("\nMatrix " + key + ":");
+                            printMatrix(matrices.get(key));
                         }
                     } else {
                         System.out.println("No matrices saved.");
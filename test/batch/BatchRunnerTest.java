@@ -0,0 +1,33 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertTrue;
+
+public class BatchRunnerTest {
+
+    private static String[] run(String jobs) throws IOException, InterruptedException {
+        StringWriter out = new StringWriter();
+        new BatchRunner(ForkJoinPool.commonPool()).run(new BufferedReader(new StringReader(jobs)), out);
+        return out.toString().split("\n");
+    }
+
+    public static void testConditionIsExact() throws IOException, InterruptedException {
+        String[] lines = run("matrix A 3 3  1 -1 -2  2 -3 -5  -1 3 5\ncondition A\n");
+        assertTrue(lines[1].startsWith("condition A = "), "condition line was '" + lines[1] + "'");
+        // The estimate for this matrix is 61.1; the exact value is 10 * 9
+        assertClose(90, Double.parseDouble(lines[1].substring("condition A = ".length())), 1e-12, "condition A");
+    }
+
+    public static void testSingularConditionFailsLikeInvert() throws IOException, InterruptedException {
+        String[] lines = run("matrix S 3 3  1 2 3  2 4 6  1 0 1\ninvert T S\ncondition S\n");
+        assertTrue(lines[1].startsWith("line 2: error: ") && lines[1].contains("singular"), "invert line was '" + lines[1] + "'");
+        assertTrue(lines[2].equals(lines[1].replace("line 2", "line 3")), "condition line was '" + lines[2] + "'");
+    }
+}
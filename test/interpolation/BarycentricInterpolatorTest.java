@@ -0,0 +1,130 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class BarycentricInterpolatorTest {
+
+    /**
+     * Chebyshev points of the first kind on [-1, 1].
+     */
+    private static double[] chebyshev(int n) {
+        double[] x = new double[n];
+        for (int k = 0; k < n; k++) {
+            x[k] = Math.cos(Math.PI * (2 * k + 1) / (2 * n));
+        }
+        return x;
+    }
+
+    /**
+     * Runge's function, which equispaced interpolation famously fails on.
+     */
+    private static double runge(double x) {
+        return 1 / (1 + 25 * x * x);
+    }
+
+    private static double[] runge(double[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = runge(x[i]);
+        }
+        return y;
+    }
+
+    private static double[] grid(int n) {
+        double[] xs = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = -1 + 2.0 * i / (n - 1);
+        }
+        return xs;
+    }
+
+    public static void testChebyshevNodesConvergeForLargeN() {
+        for (int n : new int[]{500, 3000}) {
+            double[] x = chebyshev(n);
+            BarycentricInterpolator p = new BarycentricInterpolator(x, runge(x));
+            double[] weights = p.weights();
+            for (double w : weights) {
+                assertTrue(Double.isFinite(w) && w != 0, "n = " + n + " weights stay in range");
+            }
+            for (double t : grid(1001)) {
+                assertClose(runge(t), p.evaluate(t), 1e-12, "n = " + n + " p(" + t + ")");
+            }
+        }
+    }
+
+    public static void testShuffledAddsMatchConstructor() {
+        double[] x = chebyshev(400);
+        double[] y = runge(x);
+        Random random = new Random(1);
+        for (int i = x.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double swap = x[i];
+            x[i] = x[j];
+            x[j] = swap;
+            swap = y[i];
+            y[i] = y[j];
+            y[j] = swap;
+        }
+        BarycentricInterpolator built = new BarycentricInterpolator(x, y);
+        BarycentricInterpolator grown = new BarycentricInterpolator(new double[]{x[0]}, new double[]{y[0]});
+        for (int i = 1; i < x.length; i++) {
+            grown.add(x[i], y[i]);
+        }
+        assertTrue(grown.size() == x.length, "all nodes added");
+        assertClose(x, grown.nodes(), 0, "nodes in insertion order");
+        for (double t : grid(301)) {
+            assertClose(built.evaluate(t), grown.evaluate(t), 1e-12, "p(" + t + ")");
+        }
+        assertThrows(IllegalArgumentException.class, () -> grown.add(x[7], 0));
+    }
+
+    public static void testExactNodesReturnTheirValues() {
+        double[] x = chebyshev(50);
+        double[] y = runge(x);
+        BarycentricInterpolator p = new BarycentricInterpolator(x, y);
+        double[] ys = new double[x.length];
+        p.evaluate(x, ys);
+        for (int i = 0; i < x.length; i++) {
+            assertTrue(p.evaluate(x[i]) == y[i], "p(x[" + i + "]) is exact");
+            assertTrue(ys[i] == y[i], "batch p(x[" + i + "]) is exact");
+        }
+        BarycentricInterpolator single = BarycentricInterpolator.of(new double[]{2, 3});
+        assertClose(3, single.evaluate(2), 0, "one node at the node");
+        assertClose(3, single.evaluate(-5), 0, "one node is a constant");
+    }
+
+    public static void testSetValue() {
+        double[] x = chebyshev(30);
+        double[] y = runge(x);
+        BarycentricInterpolator p = new BarycentricInterpolator(x, y);
+        p.setValue(4, 2.5);
+        y[4] = 2.5;
+        BarycentricInterpolator expected = new BarycentricInterpolator(x, y);
+        assertTrue(p.evaluate(x[4]) == 2.5, "new value at its node");
+        for (double t : grid(101)) {
+            assertClose(expected.evaluate(t), p.evaluate(t), 1e-13, "p(" + t + ")");
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> p.setValue(30, 0));
+    }
+
+    public static void testBatchMatchesPointwise() {
+        double[] x = chebyshev(200);
+        BarycentricInterpolator p = new BarycentricInterpolator(x, runge(x));
+        double[] xs = grid(1000);
+        System.arraycopy(x, 0, xs, 100, 10);
+        double[] ys = new double[xs.length];
+        double[] parallel = new double[xs.length];
+        p.evaluate(xs, ys);
+        p.evaluate(xs, parallel, ForkJoinPool.commonPool());
+        for (int i = 0; i < xs.length; i++) {
+            assertClose(p.evaluate(xs[i]), ys[i], 1e-14, "ys[" + i + "]");
+        }
+        assertClose(ys, parallel, 0, "pool and calling thread agree");
+    }
+}
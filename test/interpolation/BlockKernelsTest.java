@@ -0,0 +1,71 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import java.util.Random;
+
+import static testing.Assert.assertClose;
+
+/**
+ * Checks the block kernels {@link BlockKernels} selected (the Vector API ones when the tests run
+ * with {@code --add-modules jdk.incubator.vector}) against the scalar ones, for lengths around
+ * the vector widths.
+ */
+public class BlockKernelsTest {
+    private static final int[] LENGTHS = {0, 1, 3, 4, 7, 8, 9, 17, 33, 256};
+    private static final BlockKernelSet SCALAR = new ScalarBlockKernels();
+
+    private static double[] random(Random random, int length) {
+        double[] v = new double[length];
+        for (int i = 0; i < length; i++) {
+            v[i] = random.nextGaussian();
+        }
+        return v;
+    }
+
+    public static void testHorner() {
+        Random random = new Random(1);
+        for (int n : LENGTHS) {
+            double[] t = random(random, n);
+            double[] expected = random(random, n);
+            double[] actual = expected.clone();
+            SCALAR.horner(expected, t, n, 0.25, -1.5);
+            BlockKernels.horner(actual, t, n, 0.25, -1.5);
+            assertClose(expected, actual, 1e-15, BlockKernels.IMPLEMENTATION.name() + " horner, n = " + n);
+        }
+    }
+
+    public static void testBarycentric() {
+        Random random = new Random(2);
+        for (int n : LENGTHS) {
+            double[] t = random(random, n);
+            double[] numerator = random(random, n);
+            double[] denominator = random(random, n);
+            double[] expectedNumerator = numerator.clone();
+            double[] expectedDenominator = denominator.clone();
+            SCALAR.barycentric(t, expectedNumerator, expectedDenominator, n, 3.0, 0.5, -2.0);
+            BlockKernels.barycentric(t, numerator, denominator, n, 3.0, 0.5, -2.0);
+            String name = BlockKernels.IMPLEMENTATION.name();
+            assertClose(expectedNumerator, numerator, 1e-15, name + " barycentric numerator, n = " + n);
+            assertClose(expectedDenominator, denominator, 1e-15, name + " barycentric denominator, n = " + n);
+        }
+    }
+
+    public static void testLinearGather() {
+        Random random = new Random(3);
+        double[] x = random(random, 50);
+        double[] y = random(random, 50);
+        double[] slopes = random(random, 50);
+        for (int n : LENGTHS) {
+            double[] xs = random(random, n + 2);
+            int[] interval = new int[n];
+            for (int k = 0; k < n; k++) {
+                interval[k] = random.nextInt(50);
+            }
+            double[] expected = new double[n + 1];
+            double[] actual = new double[n + 1];
+            SCALAR.linear(xs, 2, interval, x, y, slopes, expected, 1, n);
+            BlockKernels.linear(xs, 2, interval, x, y, slopes, actual, 1, n);
+            assertClose(expected, actual, 1e-15, BlockKernels.IMPLEMENTATION.name() + " linear, n = " + n);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertTrue;
+
+public class CubicSplineTest {
+
+    private static double cubic(double t) {
+        return 2 * t * t * t - t * t + 3 * t - 1;
+    }
+
+    private static double cubicSlope(double t) {
+        return 6 * t * t - 2 * t + 3;
+    }
+
+    private static void checkReproducesCubic(double[] x, String layout) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = cubic(x[i]);
+        }
+        CubicSpline clamped = CubicSpline.clamped(x, y, cubicSlope(x[0]), cubicSlope(x[x.length - 1]));
+        CubicSpline notAKnot = CubicSpline.notAKnot(x, y);
+        for (double t = x[0] - 0.5; t <= x[x.length - 1] + 0.5; t += 0.037) {
+            assertClose(cubic(t), clamped.evaluate(t), 1e-11, "clamped, " + layout + ", t = " + t);
+            assertClose(cubic(t), notAKnot.evaluate(t), 1e-11, "not-a-knot, " + layout + ", t = " + t);
+        }
+    }
+
+    public static void testReproducesCubic() {
+        double[] uniform = new double[21];
+        double[] uneven = new double[21];
+        for (int i = 0; i < uniform.length; i++) {
+            uniform[i] = -1 + 0.2 * i;
+            uneven[i] = -1 + 4.0 * i * i / 400;
+        }
+        assertTrue(CubicSpline.natural(uniform, uniform).isUniform(), "equally spaced knots use the O(1) lookup");
+        checkReproducesCubic(uniform, "uniform");
+        checkReproducesCubic(uneven, "uneven");
+    }
+
+    public static void testPchipKeepsMonotoneDataMonotone() {
+        double[] x = {0, 1, 2, 3, 4, 5, 6};
+        double[] y = {0, 0, 0.1, 5, 5.1, 5.1, 9};
+        CubicSpline pchip = CubicSpline.pchip(x, y);
+        double previous = pchip.evaluate(0);
+        for (double t = 0.01; t <= 6; t += 0.01) {
+            double value = pchip.evaluate(t);
+            assertTrue(value >= previous - 1e-12, "decreasing at t = " + t);
+            previous = value;
+        }
+    }
+
+    public static void testBatchMatchesPointwise() {
+        double[] x = {0, 0.5, 1.5, 2, 3.5, 4};
+        double[] y = {1, -1, 2, 0, 1, 3};
+        CubicSpline spline = CubicSpline.natural(x, y);
+        double[] xs = new double[3000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = -1 + 6.0 * i / xs.length;
+        }
+        double[] ys = new double[xs.length];
+        spline.evaluate(xs, ys);
+        for (int i = 0; i < xs.length; i++) {
+            assertClose(spline.evaluate(xs[i]), ys[i], 0, "batch at " + xs[i]);
+        }
+    }
+}
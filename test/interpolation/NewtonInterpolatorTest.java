@@ -0,0 +1,61 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import java.nio.DoubleBuffer;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+
+public class NewtonInterpolatorTest {
+    /**
+     * Points of x^2 + 1.
+     */
+    private static final double[] POINTS = {0, 1, 1, 2, 2, 5};
+
+    public static void testReproducesPolynomial() {
+        NewtonInterpolator p = NewtonInterpolator.of(POINTS);
+        assertClose(new double[]{1, 1, 1}, p.coefficients(), 1e-15, "coefficients");
+        assertClose(7.25, p.evaluate(2.5), 1e-15, "p(2.5)");
+        p.add(3, 10);
+        assertClose(new double[]{1, 1, 1, 0}, p.coefficients(), 1e-15, "a sample on the curve adds a zero coefficient");
+        assertThrows(IllegalArgumentException.class, () -> p.add(1, 0));
+        assertClose(4, p.size(), 0, "size after a rejected duplicate");
+    }
+
+    public static void testBatchInPlace() {
+        NewtonInterpolator p = NewtonInterpolator.of(POINTS);
+        double[] xs = {0.5, 1.5, 2.5};
+        p.evaluate(xs, xs, null);
+        assertClose(new double[]{1.25, 3.25, 7.25}, xs, 1e-15, "evaluate(xs, xs)");
+    }
+
+    public static void testBufferIntoItsDuplicate() {
+        NewtonInterpolator p = NewtonInterpolator.of(POINTS);
+        DoubleBuffer buffer = DoubleBuffer.wrap(new double[]{0.5, 1.5, 2.5});
+        p.evaluate(buffer, buffer.duplicate(), null);
+        assertClose(new double[]{1.25, 3.25, 7.25}, buffer.array(), 1e-15, "buffer evaluated into its duplicate");
+    }
+
+    public static void testBatchMatchesPointwiseAcrossBlocks() {
+        NewtonInterpolator p = new NewtonInterpolator();
+        for (int k = 0; k < 12; k++) {
+            double node = Math.cos(Math.PI * (2 * k + 1) / 24);
+            p.add(node, Math.exp(node));
+        }
+        double[] xs = new double[1500];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = -1 + 2.0 * i / (xs.length - 1);
+        }
+        double[] ys = new double[xs.length];
+        p.evaluate(xs, ys, null);
+        for (int i = 0; i < xs.length; i++) {
+            // The vector kernels fuse the multiply-add, so the last bits may differ from evaluate(double)
+            assertClose(p.evaluate(xs[i]), ys[i], 1e-13, "batch at " + xs[i]);
+        }
+        double[] shifted = xs.clone();
+        p.evaluate(shifted, shifted, 100, 1300);
+        assertClose(ys[100], shifted[100], 1e-13, "range start");
+        assertClose(xs[99], shifted[99], 0, "outside the range is untouched");
+        assertClose(xs[1300], shifted[1300], 0, "range end is exclusive");
+    }
+}
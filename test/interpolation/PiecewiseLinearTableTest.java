@@ -0,0 +1,107 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package interpolation;
+
+import interpolation.PiecewiseLinearTable.Search;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class PiecewiseLinearTableTest {
+
+    /**
+     * The reference lookup: a linear scan for the last knot at or before t.
+     */
+    private static int scan(double[] x, double t) {
+        int i = 0;
+        while (i < x.length - 2 && x[i + 1] <= t) {
+            i++;
+        }
+        return i;
+    }
+
+    private static double reference(double[] x, double[] y, double t) {
+        int i = scan(x, t);
+        return y[i] + (y[i + 1] - y[i]) / (x[i + 1] - x[i]) * (t - x[i]);
+    }
+
+    /**
+     * Knots that are equally spaced (layout 0), randomly spaced (1), or tightly clustered with
+     * occasional wide gaps (2).
+     */
+    private static double[] knots(Random random, int n, int layout) {
+        double[] x = new double[n];
+        x[0] = random.nextGaussian();
+        for (int i = 1; i < n; i++) {
+            double step = layout == 0 ? 0.5 : layout == 1 ? 1e-9 + random.nextDouble()
+                    : random.nextInt(10) == 0 ? 100 : 1e-6 * (1 + random.nextDouble());
+            x[i] = x[i - 1] + step;
+        }
+        return x;
+    }
+
+    public static void testStrategiesMatchLinearScan() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 90; trial++) {
+            int n = 2 + random.nextInt(trial < 30 ? 6 : 300);
+            double[] x = knots(random, n, trial % 3);
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                y[i] = random.nextGaussian();
+            }
+            double[] queries = new double[500];
+            for (int k = 0; k < queries.length; k++) {
+                double knot = x[random.nextInt(n)];
+                int kind = random.nextInt(4);
+                queries[k] = kind == 0 ? knot : kind == 1 ? Math.nextDown(knot)
+                        : x[0] - 1 + (x[n - 1] - x[0] + 2) * random.nextDouble();
+            }
+            double[] sorted = queries.clone();
+            Arrays.sort(sorted);
+            for (Search search : Search.values()) {
+                PiecewiseLinearTable table = new PiecewiseLinearTable(x, y, search);
+                PiecewiseLinearTable.Cursor cursor = table.cursor();
+                double[] batch = new double[queries.length];
+                table.evaluate(queries, batch, null);
+                double[] sortedBatch = new double[queries.length];
+                table.evaluate(sorted, sortedBatch, null);
+                for (int k = 0; k < queries.length; k++) {
+                    String where = search + ", layout " + trial % 3 + ", n = " + n + ", t = " + queries[k];
+                    double expected = reference(x, y, queries[k]);
+                    assertClose(expected, table.evaluate(queries[k]), 1e-12, where);
+                    assertClose(expected, batch[k], 1e-12, "batch " + where);
+                    assertClose(expected, cursor.evaluate(queries[k]), 1e-12, "cursor " + where);
+                    assertClose(reference(x, y, sorted[k]), sortedBatch[k], 1e-12, "sorted batch " + where);
+                }
+            }
+        }
+    }
+
+    public static void testUniformLookupAtKnots() {
+        double[] x = new double[1001];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 0.1 * i - 3;
+        }
+        assertTrue(Knots.isUniform(x), "equally spaced knots are uniform");
+        double inverseSpacing = Knots.inverseSpacing(x);
+        for (int i = 0; i < x.length; i++) {
+            assertTrue(Knots.uniformInterval(x, inverseSpacing, x[i]) == Math.min(i, x.length - 2), "at knot " + i);
+            if (i > 0) {
+                assertTrue(Knots.uniformInterval(x, inverseSpacing, Math.nextDown(x[i])) == i - 1, "below knot " + i);
+            }
+        }
+        x[500] += 1e-3;
+        assertTrue(!Knots.isUniform(x), "a displaced knot breaks uniformity");
+    }
+
+    public static void testFitLinearSortsPoints() {
+        PiecewiseLinearTable table = Interpolation.fitLinear(new double[]{3, 9, 1, 1, 2, 4});
+        assertClose(2.5, table.evaluate(1.5), 1e-15, "first interval");
+        assertClose(6.5, table.evaluate(2.5), 1e-15, "second interval");
+        assertClose(-2, table.evaluate(0), 1e-15, "extrapolation");
+        assertThrows(IllegalArgumentException.class, () -> new PiecewiseLinearTable(new double[]{0, 1, 1}, new double[3]));
+    }
+}
@@ -0,0 +1,71 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Random;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class DenseMatrixTest {
+
+    static DenseMatrix random(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        DenseMatrix A = new DenseMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                A.set(i, j, random.nextGaussian());
+            }
+        }
+        return A;
+    }
+
+    /**
+     * The textbook triple loop, as the reference for the optimized products.
+     */
+    static DenseMatrix naiveProduct(DenseMatrix A, DenseMatrix B) {
+        DenseMatrix C = new DenseMatrix(A.rows(), B.cols());
+        for (int i = 0; i < A.rows(); i++) {
+            for (int j = 0; j < B.cols(); j++) {
+                double sum = 0;
+                for (int k = 0; k < A.cols(); k++) {
+                    sum += A.get(i, k) * B.get(k, j);
+                }
+                C.set(i, j, sum);
+            }
+        }
+        return C;
+    }
+
+    public static void testViewsShareStorage() {
+        DenseMatrix A = random(5, 7, 1);
+        DenseMatrix block = A.subMatrix(1, 2, 3, 4);
+        block.set(0, 0, 42);
+        assertClose(42, A.get(1, 2), 0, "write through a block view");
+        DenseMatrix transposed = A.transpose();
+        assertTrue(transposed.rows() == 7 && transposed.cols() == 5, "transposed shape");
+        assertClose(A.get(3, 6), transposed.get(6, 3), 0, "transposed element");
+        assertClose(A.get(4, 5), A.column(5).get(4, 0), 0, "column view");
+        assertThrows(IndexOutOfBoundsException.class, () -> A.subMatrix(3, 0, 3, 1));
+    }
+
+    public static void testCopyIsCompactAndIndependent() {
+        DenseMatrix view = random(6, 6, 2).transpose().subMatrix(1, 1, 4, 3);
+        DenseMatrix copy = view.copy();
+        assertTrue(copy.isRowContiguous() && copy.offset() == 0, "copy is compact row-major");
+        assertClose(view, copy, 0, "copy");
+        copy.set(0, 0, -1);
+        assertTrue(view.get(0, 0) != -1, "copy does not alias the view");
+    }
+
+    public static void testMultiplyVector() {
+        DenseMatrix A = random(4, 6, 3).transpose();
+        double[] x = {1, -2, 0.5, 3};
+        double[] y = new double[6];
+        A.multiply(x, y);
+        DenseMatrix product = naiveProduct(A, DenseMatrix.of(new double[][]{{1}, {-2}, {0.5}, {3}}));
+        for (int i = 0; i < 6; i++) {
+            assertClose(product.get(i, 0), y[i], 1e-14, "y[" + i + "]");
+        }
+    }
+}
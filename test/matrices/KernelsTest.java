@@ -0,0 +1,106 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Random;
+
+import static testing.Assert.assertClose;
+
+/**
+ * Checks the scalar kernels and the implementation {@link Kernels} selected (the Vector API one
+ * when the tests run with {@code --add-modules jdk.incubator.vector}) against naive loops, for
+ * lengths around the vector widths and unequal offsets.
+ */
+public class KernelsTest {
+    private static final int[] LENGTHS = {0, 1, 3, 4, 7, 8, 9, 15, 16, 17, 31, 33, 100, 1000};
+
+    private static KernelSet[] implementations() {
+        return new KernelSet[]{new ScalarKernels(), Kernels.IMPLEMENTATION};
+    }
+
+    private static double[] random(Random random, int length) {
+        double[] x = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = random.nextGaussian();
+        }
+        return x;
+    }
+
+    public static void testDot() {
+        Random random = new Random(1);
+        for (KernelSet kernels : implementations()) {
+            for (int n : LENGTHS) {
+                double[] x = random(random, n + 2);
+                double[] y = random(random, n + 5);
+                double expected = 0;
+                double scale = 0;
+                for (int i = 0; i < n; i++) {
+                    expected += x[2 + i] * y[5 + i];
+                    scale += Math.abs(x[2 + i] * y[5 + i]);
+                }
+                double actual = kernels.dot(x, 2, y, 5, n);
+                assertClose(expected / Math.max(scale, 1), actual / Math.max(scale, 1), 1e-14,
+                        kernels.name() + " dot, n = " + n);
+            }
+        }
+    }
+
+    public static void testAxpy() {
+        Random random = new Random(2);
+        for (KernelSet kernels : implementations()) {
+            for (int n : LENGTHS) {
+                double[] x = random(random, n + 3);
+                double[] y = random(random, n + 1);
+                double[] expected = y.clone();
+                for (int i = 0; i < n; i++) {
+                    expected[1 + i] += -0.75 * x[3 + i];
+                }
+                kernels.axpy(-0.75, x, 3, y, 1, n);
+                assertClose(expected, y, 1e-15, kernels.name() + " axpy, n = " + n);
+            }
+        }
+    }
+
+    public static void testAxpyBetweenRowsOfOneArray() {
+        Random random = new Random(3);
+        for (KernelSet kernels : implementations()) {
+            int n = 37;
+            double[] a = random(random, 2 * n);
+            double[] expected = a.clone();
+            for (int i = 0; i < n; i++) {
+                expected[n + i] += 2.5 * a[i];
+            }
+            kernels.axpy(2.5, a, 0, a, n, n);
+            assertClose(expected, a, 1e-15, kernels.name() + " axpy between rows");
+        }
+    }
+
+    public static void testAbsSum() {
+        Random random = new Random(4);
+        for (KernelSet kernels : implementations()) {
+            for (int n : LENGTHS) {
+                double[] x = random(random, n + 1);
+                double expected = 0;
+                for (int i = 0; i < n; i++) {
+                    expected += Math.abs(x[1 + i]);
+                }
+                assertClose(expected, kernels.absSum(x, 1, n), 1e-14, kernels.name() + " absSum, n = " + n);
+            }
+        }
+    }
+
+    public static void testSubtractInPlace() {
+        Random random = new Random(5);
+        for (KernelSet kernels : implementations()) {
+            for (int n : LENGTHS) {
+                double[] a = random(random, n + 4);
+                double[] b = random(random, n);
+                double[] expected = b.clone();
+                for (int i = 0; i < n; i++) {
+                    expected[i] = a[4 + i] - b[i];
+                }
+                kernels.subtract(a, 4, b, 0, b, 0, n);
+                assertClose(expected, b, 0, kernels.name() + " subtract, n = " + n);
+            }
+        }
+    }
+}
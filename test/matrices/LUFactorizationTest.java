@@ -0,0 +1,193 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static matrices.DenseMatrixTest.naiveProduct;
+import static matrices.DenseMatrixTest.random;
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class LUFactorizationTest {
+    /**
+     * Sizes below, at and around multiples of the 64-column panel.
+     */
+    private static final int[] SIZES = {1, 2, 7, 63, 64, 65, 130};
+
+    /**
+     * Checks PA = LU entry by entry.
+     */
+    static void assertFactors(DenseMatrix A, LUFactors factors, String message) {
+        int n = A.rows();
+        DenseMatrix product = naiveProduct(factors.getL(), factors.getU());
+        int[] permutation = factors.permutation();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertClose(A.get(permutation[i], j), product.get(i, j), 1e-12 * n, message + " PA = LU");
+            }
+        }
+    }
+
+    static double[] multiply(DenseMatrix A, double[] x) {
+        double[] y = new double[A.rows()];
+        A.multiply(x, y);
+        return y;
+    }
+
+    public static void testFactorResidual() {
+        for (int n : SIZES) {
+            DenseMatrix A = random(n, n, n);
+            DenseMatrix input = A.copy();
+            for (ForkJoinPool pool : new ForkJoinPool[]{null, ForkJoinPool.commonPool()}) {
+                LUFactors factors = LUFactorization.factor(A, pool);
+                assertClose(input, A, 0, "n = " + n + " input is left unchanged");
+                assertFactors(A, factors, "n = " + n);
+                double[] b = random(n, 1, -n).data();
+                assertClose(b, multiply(A, factors.solve(b)), 1e-10, "n = " + n + " Ax = b");
+            }
+        }
+    }
+
+    public static void testPivotingIsRequired() {
+        DenseMatrix swap = DenseMatrix.of(new double[][]{{0, 1}, {1, 0}});
+        LUFactors factors = LUFactorization.factor(swap);
+        assertClose(-1, factors.determinant(), 0, "one interchange");
+        assertClose(new double[]{3, 2}, factors.solve(new double[]{2, 3}), 0, "solve");
+        assertThrows(IllegalArgumentException.class, () -> LUFactorization.luDecomposition(swap));
+        assertThrows(IllegalArgumentException.class, () -> LUFactorization.luDecomposition(swap.toArray()));
+
+        // Without interchanges the tiny pivot would wipe out the 1 in the second row
+        DenseMatrix tiny = DenseMatrix.of(new double[][]{{1e-20, 1}, {1, 1}});
+        assertClose(new double[]{1, 1}, LUFactorization.factor(tiny).solve(new double[]{1, 2}), 1e-15, "tiny pivot");
+        assertThrows(IllegalArgumentException.class, () -> LUFactorization.luDecomposition(tiny));
+
+        // Every column is scaled so that the diagonal never holds the largest entry
+        int n = 97;
+        DenseMatrix A = random(n, n, 11);
+        for (int i = 0; i < n; i++) {
+            A.set(i, i, 1e-3 * A.get(i, i));
+        }
+        LUFactors pivoted = LUFactorization.factor(A, null);
+        assertFactors(A, pivoted, "small diagonal");
+        double[] b = random(n, 1, 12).data();
+        assertClose(b, multiply(A, pivoted.solve(b)), 1e-10, "small diagonal Ax = b");
+    }
+
+    public static void testUnpivotedDecomposition() {
+        double[][] A = {{4, 3, 0}, {6, 3, 1}, {0, 2, 5}};
+        double[][][] LU = LUFactorization.luDecomposition(A);
+        assertClose(DenseMatrix.of(A), naiveProduct(DenseMatrix.of(LU[0]), DenseMatrix.of(LU[1])), 1e-14, "A = LU");
+        DenseMatrix[] flat = LUFactorization.luDecomposition(DenseMatrix.of(A));
+        assertClose(DenseMatrix.of(LU[0]), flat[0], 1e-14, "flat L");
+        assertClose(DenseMatrix.of(LU[1]), flat[1], 1e-14, "flat U");
+    }
+
+    public static void testSingular() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LUFactorization.factor(DenseMatrix.of(new double[][]{{1, 2}, {2, 4}})));
+        DenseMatrix A = random(100, 100, 13);
+        for (int i = 0; i < 100; i++) {
+            A.set(i, 70, 0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> LUFactorization.factor(A, null));
+        assertThrows(IllegalArgumentException.class, () -> LUFactorization.factor(new DenseMatrix(2, 3)));
+    }
+
+    public static void testFactorIntoReusesStorage() {
+        int n = 65;
+        LUFactors factors = LUFactors.allocate(n);
+        DenseMatrix storage = factors.packed();
+        for (long seed = 1; seed <= 2; seed++) {
+            DenseMatrix A = random(n, n, 20 + seed);
+            LUFactorization.factorInto(factors, A, null);
+            assertTrue(factors.packed() == storage, "storage is reused");
+            LUFactors fresh = LUFactorization.factor(A);
+            assertClose(fresh.packed(), factors.packed(), 0, "seed " + seed + " matches factor()");
+            assertClose(fresh.determinant(), factors.determinant(), 0, "seed " + seed + " determinant");
+        }
+        assertThrows(IllegalArgumentException.class, () -> LUFactorization.factorInto(factors, random(3, 3, 1), null));
+    }
+
+    public static void testSolveTranspose() {
+        for (int n : SIZES) {
+            DenseMatrix A = random(n, n, 30 + n);
+            double[] b = random(n, 1, 31 + n).data();
+            double[] x = new double[n];
+            LUFactorization.factor(A).solveTranspose(b, x, new double[n]);
+            assertClose(b, multiply(A.transpose(), x), 1e-10, "n = " + n + " A^T x = b");
+        }
+    }
+
+    public static void testDeterminant() {
+        double[][] A = {{2, -1, 0}, {1, 3, 2}, {0, 4, -2}};
+        // 2 (3 * -2 - 2 * 4) + 1 (1 * -2 - 2 * 0) = -28 - 2
+        assertClose(-30, LUFactorization.factor(DenseMatrix.of(A)).determinant(), 1e-14, "3x3");
+        int n = 70;
+        DenseMatrix B = random(n, n, 40);
+        DenseMatrix doubled = B.copy();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                doubled.set(i, j, 2 * B.get(i, j));
+            }
+        }
+        assertClose(Math.scalb(LUFactorization.factor(B).determinant(), n),
+                LUFactorization.factor(doubled).determinant(), 1e-12, "det(2B) = 2^n det(B)");
+    }
+
+    public static void testInverse() {
+        for (int n : SIZES) {
+            DenseMatrix A = random(n, n, 50 + n);
+            LUFactors factors = LUFactorization.factor(A);
+            DenseMatrix identity = DenseMatrix.identity(n);
+            assertClose(identity, naiveProduct(A, factors.inverse()), 1e-10, "n = " + n + " A A^-1");
+            DenseMatrix inverse = new DenseMatrix(n, n);
+            factors.inverseInto(inverse, ForkJoinPool.commonPool());
+            assertClose(identity, naiveProduct(inverse, A), 1e-10, "n = " + n + " A^-1 A on the pool");
+        }
+        assertClose(DenseMatrix.of(MatrixOperationsTest.A_INVERSE),
+                DenseMatrix.of(LUFactorization.inverse(MatrixOperationsTest.A)), 1e-13, "double[][] inverse");
+    }
+
+    public static void testMultipleRightHandSides() {
+        int n = 130;
+        DenseMatrix A = random(n, n, 60);
+        LUFactors factors = LUFactorization.factor(A);
+        for (int m : new int[]{1, 64, 70}) {
+            DenseMatrix B = random(n, m, 61 + m);
+            DenseMatrix X = new DenseMatrix(n, m);
+            factors.solve(B, X);
+            assertClose(B, naiveProduct(A, X), 1e-10, "m = " + m + " AX = B");
+            DenseMatrix parallel = new DenseMatrix(n, m);
+            factors.solve(B, parallel, ForkJoinPool.commonPool());
+            assertClose(X, parallel, 0, "m = " + m + " pool and calling thread agree");
+        }
+    }
+
+    public static void testSolveLUArrays() {
+        int n = 70;
+        DenseMatrix A = random(n, n, 70);
+        for (int i = 0; i < n; i++) {
+            A.set(i, i, A.get(i, i) + n);
+        }
+        double[][][] LU = LUFactorization.luDecomposition(A.toArray());
+        double[][] B = random(n, 5, 71).toArray();
+        double[][] X = new double[n][5];
+        LUFactorization.solveLU(LU[0], LU[1], B, X);
+        assertClose(DenseMatrix.of(B), naiveProduct(A, DenseMatrix.of(X)), 1e-10, "AX = B");
+
+        double[][] inPlace = DenseMatrix.of(B).toArray();
+        LUFactorization.solveLU(LU[0], LU[1], inPlace, inPlace);
+        assertClose(DenseMatrix.of(X), DenseMatrix.of(inPlace), 0, "X may be B");
+
+        double[] b = DenseMatrix.of(B).column(2).copy().data();
+        assertClose(DenseMatrix.of(X).column(2).copy().data(), LUFactorization.solveLU(LU[0], LU[1], b), 1e-12,
+                "single right-hand side");
+
+        LUFactorization.solveLU(new double[0][], new double[0][], new double[0][], new double[0][]);
+        assertThrows(IllegalArgumentException.class,
+                () -> LUFactorization.solveLU(LU[0], LU[1], B, new double[n - 1][5]));
+        assertThrows(IllegalArgumentException.class,
+                () -> LUFactorization.solveLU(LU[0], LU[1], B, new double[n][4]));
+    }
+}
@@ -0,0 +1,171 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class MatrixBatchTest {
+    /**
+     * Spans more than one task of {@link Matrix3Batch#GRAIN} matrices.
+     */
+    private static final int SIZE = Matrix3Batch.GRAIN + 37;
+    private static final int SINGULAR = 5;
+
+    /**
+     * Random matrices, except for an exactly singular one in slot SINGULAR.
+     */
+    private static double[][][] matrices(int n, long seed) {
+        Random random = new Random(seed);
+        double[][][] matrices = new double[SIZE][n][n];
+        for (double[][] matrix : matrices) {
+            for (double[] row : matrix) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(19) - 9 + random.nextDouble();
+                }
+            }
+        }
+        double[][] singular = matrices[SINGULAR];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                singular[i][j] = i == n - 1 ? 2 * singular[0][j] : i + j + 1;
+            }
+        }
+        return matrices;
+    }
+
+    /**
+     * Checks the batched results of slot k against {@link LUFactors} and a plain product.
+     */
+    private static void check(int k, double[][] a, double[][] b, double[][] inverse, double determinant,
+                              double condition, double[][] product, String message) {
+        DenseMatrix A = DenseMatrix.of(a);
+        assertClose(DenseMatrixTest.naiveProduct(A, DenseMatrix.of(b)), DenseMatrix.of(product), 1e-13,
+                message + " product");
+        if (k == SINGULAR) {
+            assertTrue(Double.isNaN(inverse[0][0]) && Double.isNaN(inverse[a.length - 1][a.length - 1]),
+                    message + " singular inverse is NaN");
+            assertTrue(determinant == 0 && condition == Double.POSITIVE_INFINITY, message + " singular");
+            return;
+        }
+        // The closed forms and LU round differently, by up to cond(A) units of rounding
+        LUFactors factors = LUFactorization.factor(A, null);
+        double exact = matrixOperations.condition(A);
+        double tolerance = 1e-14 * exact;
+        assertClose(exact, condition, tolerance, message + " condition");
+        assertClose(factors.inverse(), DenseMatrix.of(inverse),
+                tolerance * matrixOperations.matrixInfinityNorm(factors.inverse()), message + " inverse");
+        assertClose(factors.determinant(), determinant,
+                tolerance * Math.pow(matrixOperations.matrixInfinityNorm(A), a.length), message + " determinant");
+    }
+
+    private static Matrix3Batch batch3(double[][][] matrices) {
+        Matrix3Batch batch = new Matrix3Batch(matrices.length);
+        for (int k = 0; k < matrices.length; k++) {
+            batch.set(k, matrices[k]);
+        }
+        return batch;
+    }
+
+    private static Matrix4Batch batch4(double[][][] matrices) {
+        Matrix4Batch batch = new Matrix4Batch(matrices.length);
+        for (int k = 0; k < matrices.length; k++) {
+            batch.set(k, matrices[k]);
+        }
+        return batch;
+    }
+
+    public static void testMatrix3BatchMatchesLU() {
+        double[][][] a = matrices(3, 1);
+        double[][][] b = matrices(3, 2);
+        for (ForkJoinPool pool : new ForkJoinPool[]{null, ForkJoinPool.commonPool()}) {
+            Matrix3Batch A = batch3(a);
+            Matrix3Batch inverses = new Matrix3Batch(SIZE);
+            Matrix3Batch products = new Matrix3Batch(SIZE);
+            double[] determinants = new double[SIZE];
+            double[] conditions = new double[SIZE];
+            A.inverse(inverses, pool);
+            A.determinant(determinants, pool);
+            A.condition(conditions, pool);
+            A.multiply(batch3(b), products, pool);
+            double[][] inverse = new double[3][3];
+            double[][] product = new double[3][3];
+            for (int k = 0; k < SIZE; k++) {
+                inverses.get(k, inverse);
+                products.get(k, product);
+                check(k, a[k], b[k], inverse, determinants[k], conditions[k], product, "3x3 slot " + k);
+            }
+        }
+    }
+
+    public static void testMatrix4BatchMatchesLU() {
+        double[][][] a = matrices(4, 3);
+        double[][][] b = matrices(4, 4);
+        for (ForkJoinPool pool : new ForkJoinPool[]{null, ForkJoinPool.commonPool()}) {
+            Matrix4Batch A = batch4(a);
+            Matrix4Batch inverses = new Matrix4Batch(SIZE);
+            Matrix4Batch products = new Matrix4Batch(SIZE);
+            double[] determinants = new double[SIZE];
+            double[] conditions = new double[SIZE];
+            A.inverse(inverses, pool);
+            A.determinant(determinants, pool);
+            A.condition(conditions, pool);
+            A.multiply(batch4(b), products, pool);
+            double[][] inverse = new double[4][4];
+            double[][] product = new double[4][4];
+            for (int k = 0; k < SIZE; k++) {
+                inverses.get(k, inverse);
+                products.get(k, product);
+                check(k, a[k], b[k], inverse, determinants[k], conditions[k], product, "4x4 slot " + k);
+            }
+        }
+    }
+
+    private static double[][][] toArrays(Matrix3Batch batch) {
+        double[][][] matrices = new double[batch.size()][3][3];
+        for (int k = 0; k < batch.size(); k++) {
+            batch.get(k, matrices[k]);
+        }
+        return matrices;
+    }
+
+    private static double[][][] toArrays(Matrix4Batch batch) {
+        double[][][] matrices = new double[batch.size()][4][4];
+        for (int k = 0; k < batch.size(); k++) {
+            batch.get(k, matrices[k]);
+        }
+        return matrices;
+    }
+
+    public static void testInPlace() {
+        double[][][] a = matrices(3, 5);
+        double[][][] b = matrices(3, 6);
+        Matrix3Batch expected3 = new Matrix3Batch(SIZE);
+        batch3(a).inverse(expected3, null);
+        Matrix3Batch A3 = batch3(a);
+        A3.inverse(A3, ForkJoinPool.commonPool());
+        assertTrue(Arrays.deepEquals(toArrays(expected3), toArrays(A3)), "3x3 inverse in place");
+        batch3(a).multiply(batch3(b), expected3, null);
+        A3 = batch3(a);
+        A3.multiply(batch3(b), A3, ForkJoinPool.commonPool());
+        assertTrue(Arrays.deepEquals(toArrays(expected3), toArrays(A3)), "3x3 product into A");
+
+        double[][][] c = matrices(4, 7);
+        double[][][] d = matrices(4, 8);
+        Matrix4Batch expected4 = new Matrix4Batch(SIZE);
+        batch4(c).inverse(expected4, null);
+        Matrix4Batch A4 = batch4(c);
+        A4.inverse(A4, ForkJoinPool.commonPool());
+        assertTrue(Arrays.deepEquals(toArrays(expected4), toArrays(A4)), "4x4 inverse in place");
+        batch4(c).multiply(batch4(d), expected4, null);
+        Matrix4Batch B4 = batch4(d);
+        batch4(c).multiply(B4, B4, ForkJoinPool.commonPool());
+        assertTrue(Arrays.deepEquals(toArrays(expected4), toArrays(B4)), "4x4 product into B");
+
+        assertThrows(IllegalArgumentException.class, () -> batch3(a).inverse(new Matrix3Batch(SIZE - 1), null));
+    }
+}
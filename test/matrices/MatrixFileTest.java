@@ -0,0 +1,102 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static matrices.DenseMatrixTest.random;
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class MatrixFileTest {
+
+    public static void testDenseRoundTrip() throws IOException {
+        Path path = Files.createTempFile("dense", ".namx");
+        try {
+            DenseMatrix A = random(37, 5, 1);
+            MatrixFile.write(path, A);
+            assertTrue(Files.size(path) == MatrixFile.HEADER_BYTES + 8L * 37 * 5, "file size");
+            assertClose(A, MatrixFile.readDense(path), 0, "readDense");
+            assertClose(A, MatrixFile.load(path), 0, "load detects the binary format");
+            assertClose(A, MatrixFile.readSparse(path).toDense(), 0, "readSparse");
+
+            // Overwriting replaces the file, so an open mapping keeps the old contents
+            try (MappedMatrix mapped = MatrixFile.map(path, false)) {
+                MatrixFile.write(path, A.transpose());
+                assertClose(A, mapped.toDense(), 0, "old mapping");
+            }
+            assertClose(A.transpose(), MatrixFile.readDense(path), 0, "overwritten");
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    public static void testFloat32RoundTrip() throws IOException {
+        Path path = Files.createTempFile("float", ".namx");
+        try {
+            DenseMatrix A = random(20, 30, 2);
+            MatrixFile.write(path, A, true);
+            assertTrue(Files.size(path) == MatrixFile.HEADER_BYTES + 4L * 20 * 30, "half the size");
+            DenseMatrix read = MatrixFile.readDense(path);
+            for (int i = 0; i < 20; i++) {
+                for (int j = 0; j < 30; j++) {
+                    assertTrue(read.get(i, j) == (float) A.get(i, j), "(" + i + ", " + j + ") rounded to float");
+                }
+            }
+            assertThrows(IOException.class, () -> MatrixFile.map(path, false).close());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    public static void testSparseRoundTrip() throws IOException {
+        Path path = Files.createTempFile("sparse", ".namx");
+        try {
+            // Three nonzeros leave the index section 4 bytes short of a multiple of 8
+            CSRMatrix A = CSRMatrix.fromTriplets(4, 6, new int[]{0, 3, 3}, new int[]{5, 0, 2},
+                    new double[]{1.5, -2, 7});
+            MatrixFile.write(path, A);
+            CSRMatrix read = MatrixFile.readSparse(path);
+            assertTrue(read.nonZeros() == 3, "non-zeros");
+            assertClose(A.toDense(), read.toDense(), 0, "readSparse");
+            assertClose(A.toDense(), MatrixFile.readDense(path), 0, "readDense");
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Writes a bare header, as a corrupt or hostile file would have it.
+     */
+    private static void writeHeader(Path path, int dtype, int layout, long rows, long cols, long nonZeros)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MatrixFile.HEADER_BYTES + 64).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MatrixFile.MAGIC).putInt(MatrixFile.VERSION).putInt(dtype).putInt(layout)
+                .putLong(rows).putLong(cols).putLong(nonZeros);
+        Files.write(path, header.array());
+    }
+
+    private static void assertRejected(Path path, String message) {
+        IOException e = assertThrows(IOException.class, () -> MatrixFile.readDense(path));
+        assertTrue(e.getMessage().contains("invalid size"), message + ": " + e.getMessage());
+    }
+
+    public static void testOverflowingSizesAreRejected() throws IOException {
+        Path path = Files.createTempFile("header", ".namx");
+        try {
+            long max = Integer.MAX_VALUE;
+            writeHeader(path, MatrixFile.DTYPE_FLOAT64, MatrixFile.LAYOUT_DENSE_ROW_MAJOR, max, max, 0);
+            assertRejected(path, "rows * cols * 8 overflows");
+            writeHeader(path, MatrixFile.DTYPE_FLOAT64, MatrixFile.LAYOUT_COORDINATE, 2, 2, Long.MAX_VALUE / 4);
+            assertRejected(path, "8 * nnz overflows");
+            writeHeader(path, MatrixFile.DTYPE_FLOAT32, MatrixFile.LAYOUT_DENSE_COLUMN_MAJOR, 4, 5, 0);
+            assertRejected(path, "truncated values");
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class MatrixMarketTest {
+
+    private static DenseMatrix read(String text) throws IOException {
+        Path path = Files.createTempFile("matrix", ".mtx");
+        try {
+            Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+            DenseMatrix dense = MatrixMarket.readDense(path);
+            assertClose(dense, MatrixMarket.read(path).toDense(), 0, "read and readDense agree");
+            assertClose(dense, MatrixFile.load(path), 0, "load detects Matrix Market");
+            return dense;
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    public static void testGeneralCoordinate() throws IOException {
+        DenseMatrix A = read("%%MatrixMarket matrix coordinate real general\n"
+                + "% a comment\n"
+                + "2 3 3\n"
+                + "1 1 1.5\n"
+                + "2 3 -2.25e2\n"
+                + "1 1 0.5\n");
+        assertClose(DenseMatrix.of(new double[][]{{2, 0, 0}, {0, 0, -225}}), A, 0, "duplicates add up");
+    }
+
+    public static void testSymmetric() throws IOException {
+        DenseMatrix A = read("%%MatrixMarket matrix coordinate real symmetric\n"
+                + "3 3 4\n"
+                + "1 1 4\n"
+                + "2 1 -1\n"
+                + "3 2 0.125\n"
+                + "3 3 2\n");
+        assertClose(DenseMatrix.of(new double[][]{{4, -1, 0}, {-1, 0, 0.125}, {0, 0.125, 2}}), A, 0, "mirrored");
+        DenseMatrix skew = read("%%MatrixMarket matrix coordinate integer skew-symmetric\n"
+                + "2 2 1\n"
+                + "2 1 3\n");
+        assertClose(DenseMatrix.of(new double[][]{{0, -3}, {3, 0}}), skew, 0, "negated mirror");
+    }
+
+    public static void testPattern() throws IOException {
+        DenseMatrix A = read("%%MatrixMarket matrix coordinate pattern symmetric\n"
+                + "3 3 2\n"
+                + "2 1\n"
+                + "3 3\n");
+        assertClose(DenseMatrix.of(new double[][]{{0, 1, 0}, {1, 0, 0}, {0, 0, 1}}), A, 0, "ones");
+    }
+
+    public static void testArray() throws IOException {
+        DenseMatrix A = read("%%MatrixMarket matrix array real general\n"
+                + "2 3\n"
+                + "1\n4\n2\n5\n3\n6\n");
+        assertClose(DenseMatrix.of(new double[][]{{1, 2, 3}, {4, 5, 6}}), A, 0, "column by column");
+        DenseMatrix symmetric = read("%%MatrixMarket matrix array real symmetric\n"
+                + "3 3\n"
+                + "1 2 3 4 5 6\n");
+        assertClose(DenseMatrix.of(new double[][]{{1, 2, 3}, {2, 4, 5}, {3, 5, 6}}), symmetric, 0, "lower triangle");
+    }
+
+    public static void testNumbers() throws IOException {
+        DenseMatrix A = read("%%MatrixMarket matrix array real general\n"
+                + "1 5\n"
+                + "0.1 -1E-5 123456789012345678 1.7976931348623157e308 4.9e-324\n");
+        assertClose(new double[]{0.1, -1e-5, 123456789012345678.0, Double.MAX_VALUE, Double.MIN_VALUE},
+                A.copy().data(), 0, "correctly rounded");
+    }
+
+    public static void testMalformed() {
+        IOException outside = assertThrows(IOException.class,
+                () -> read("%%MatrixMarket matrix coordinate real general\n2 2 1\n3 1 1\n"));
+        assertTrue(outside.getMessage().contains("outside"), outside.getMessage());
+        assertThrows(IOException.class, () -> read("%%MatrixMarket matrix array pattern general\n1 1\n"));
+        assertThrows(IOException.class, () -> read("%%MatrixMarket matrix coordinate real symmetric\n2 3 0\n"));
+        assertThrows(IOException.class, () -> read("not a banner\n"));
+    }
+}
@@ -0,0 +1,59 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static matrices.DenseMatrixTest.naiveProduct;
+import static matrices.DenseMatrixTest.random;
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+
+public class MatrixMultiplicationTest {
+
+    public static void testMultiplyMatchesNaiveProduct() {
+        for (int n : new int[]{1, 7, 64, 129}) {
+            DenseMatrix A = random(n, n + 3, n);
+            DenseMatrix B = random(n + 3, n + 1, n + 1);
+            assertClose(naiveProduct(A, B), MatrixMultiplication.multiply(A, B), 1e-12, "n = " + n);
+            DenseMatrix At = A.transpose().copy().transpose();
+            assertClose(naiveProduct(A, B), MatrixMultiplication.multiply(At, B), 1e-12, "strided A, n = " + n);
+        }
+    }
+
+    public static void testPanelsAcrossSlicesAndPools() {
+        // k > KC and n > NC, so C gathers several packed panels; 37 rows split into short row blocks
+        DenseMatrix A = random(37, 300, 4);
+        DenseMatrix B = random(300, 1100, 5);
+        DenseMatrix expected = naiveProduct(A, B);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (ForkJoinPool p : new ForkJoinPool[]{null, pool}) {
+                DenseMatrix C = new DenseMatrix(37, 1100);
+                MatrixMultiplication.multiply(1.0, A, B, 0.0, C, p);
+                assertClose(expected, C, 1e-12, "pool " + p);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static void testAlphaBeta() {
+        DenseMatrix A = random(70, 150, 6);
+        DenseMatrix B = random(150, 200, 7);
+        DenseMatrix C = random(70, 200, 8);
+        DenseMatrix expected = naiveProduct(A, B);
+        for (int i = 0; i < 70; i++) {
+            for (int j = 0; j < 200; j++) {
+                expected.set(i, j, 2 * expected.get(i, j) - 0.5 * C.get(i, j));
+            }
+        }
+        MatrixMultiplication.multiply(2.0, A, B, -0.5, C);
+        assertClose(expected, C, 1e-12, "C = 2 A B - 0.5 C");
+
+        DenseMatrix empty = random(3, 4, 9);
+        MatrixMultiplication.multiply(1.0, new DenseMatrix(3, 0), new DenseMatrix(0, 4), 0.0, empty);
+        assertClose(new DenseMatrix(3, 4), empty, 0, "an empty inner dimension leaves beta C");
+        assertThrows(IllegalArgumentException.class,
+                () -> MatrixMultiplication.multiply(random(2, 3, 1), random(2, 3, 2)));
+    }
+}
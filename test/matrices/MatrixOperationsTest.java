@@ -0,0 +1,56 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class MatrixOperationsTest {
+    static final double[][] A = {{1, -1, -2}, {2, -3, -5}, {-1, 3, 5}};
+    static final double[][] A_INVERSE = {{0, 1, 1}, {5, -3, -1}, {-3, 2, 1}};
+
+    static void assertArrayClose(double[][] expected, double[][] actual, double tolerance, String message) {
+        assertClose(DenseMatrix.of(expected), DenseMatrix.of(actual), tolerance, message);
+    }
+
+    public static void testInverse() {
+        double[][] input = matrixOperations.copyMatrix(A);
+        assertArrayClose(A_INVERSE, matrixOperations.inverseMatrix(input), 1e-14, "inverse");
+        assertArrayClose(A, input, 0, "input is left unchanged");
+    }
+
+    public static void testInverseInPlace() {
+        double[][] m = matrixOperations.copyMatrix(A);
+        matrixOperations.inverseMatrixInto(m, m, new double[3][3]);
+        assertArrayClose(A_INVERSE, m, 1e-14, "inverse in place");
+    }
+
+    public static void testInverseInPlaceWithRowSwap() {
+        double[][] m = {{0, 2, 1}, {1, 0, 0}, {0, 1, 1}};
+        double[][] expected = matrixOperations.inverseMatrix(m);
+        matrixOperations.inverseMatrixInto(m, m, new double[3][3]);
+        assertArrayClose(expected, m, 1e-14, "inverse in place after a row swap");
+    }
+
+    public static void testDenseInverseInPlace() {
+        DenseMatrix m = DenseMatrix.of(A);
+        matrixOperations.inverseMatrixInto(m, m, new Workspace());
+        assertClose(DenseMatrix.of(A_INVERSE), m, 1e-13, "dense inverse in place");
+    }
+
+    public static void testSingularInverse() {
+        assertThrows(IllegalArgumentException.class,
+                () -> matrixOperations.inverseMatrix(new double[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}}));
+    }
+
+    public static void testConditionIsExactAndEstimateIsALowerBound() {
+        DenseMatrix m = DenseMatrix.of(A);
+        assertClose(matrixOperations.condition(A), matrixOperations.condition(m), 1e-13, "3x3 and dense agree");
+        assertClose(90, matrixOperations.condition(m), 1e-13, "||A|| ||A^-1|| = 10 * 9");
+        double estimate = matrixOperations.estimateCondition(m);
+        assertTrue(estimate > 0 && estimate <= 90 * (1 + 1e-13), "estimate " + estimate + " is a lower bound");
+        DenseMatrix singular = DenseMatrix.of(new double[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}});
+        assertThrows(IllegalArgumentException.class, () -> matrixOperations.condition(singular));
+        assertTrue(matrixOperations.estimateCondition(singular) == Double.POSITIVE_INFINITY, "singular estimate");
+    }
+}
@@ -0,0 +1,105 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class MatrixRegistryTest {
+
+    public static void testConditionIsExact() {
+        MatrixRegistry registry = new MatrixRegistry(1 << 20);
+        registry.put("A", DenseMatrix.of(MatrixOperationsTest.A));
+        assertClose(90, registry.condition("A"), 1e-13, "condition");
+        double estimate = registry.conditionEstimate("A");
+        assertTrue(estimate <= registry.condition("A") * (1 + 1e-13), "the estimate is a lower bound, got " + estimate);
+        assertTrue(estimate >= 9, "the estimate is within a small factor, got " + estimate);
+    }
+
+    public static void testConditionReusesCachedInverse() {
+        MatrixRegistry registry = new MatrixRegistry(1 << 20);
+        registry.put("A", DenseMatrix.of(MatrixOperationsTest.A));
+        registry.inverse("A");
+        long misses = registry.misses();
+        registry.condition("A");
+        // Only the condition number and the norm of A are new; factors and inverse are hits
+        assertTrue(registry.misses() == misses + 2, "misses went from " + misses + " to " + registry.misses());
+        registry.condition("A");
+        assertTrue(registry.misses() == misses + 2, "a repeated query is a hit");
+    }
+
+    public static void testSingularCondition() {
+        MatrixRegistry registry = new MatrixRegistry(1 << 20);
+        registry.put("S", DenseMatrix.of(new double[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}}));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> registry.condition("S"));
+        assertTrue(e.getMessage().contains("singular"), "message was '" + e.getMessage() + "'");
+        assertTrue(registry.conditionEstimate("S") == Double.POSITIVE_INFINITY, "the estimate is infinite");
+    }
+
+    public static void testUpdateInvalidates() {
+        MatrixRegistry registry = new MatrixRegistry(1 << 20);
+        registry.put("A", DenseMatrix.of(MatrixOperationsTest.A));
+        assertClose(10, registry.infinityNorm("A"), 0, "norm before");
+        registry.update("A", m -> m.set(1, 1, -13));
+        assertClose(20, registry.infinityNorm("A"), 0, "norm after");
+        assertClose(MatrixOperationsTest.A[1][1], DenseMatrix.of(MatrixOperationsTest.A).get(1, 1), 0, "input untouched");
+    }
+
+    /**
+     * Alternates the stored matrix between B and 2B while other threads ask for the condition
+     * number. Both have the same condition number; an inverse or factorization taken from the
+     * other version would be off by a factor of 4.
+     */
+    public static void testConcurrentUpdatesKeepVersionsApart() throws InterruptedException {
+        int n = 160;
+        DenseMatrix B = DenseMatrixTest.random(n, n, 7);
+        for (int i = 0; i < n; i++) {
+            B.add(i, i, 4);
+        }
+        DenseMatrix twice = B.copy();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                twice.set(i, j, 2 * B.get(i, j));
+            }
+        }
+        double expected = matrixOperations.condition(B);
+
+        MatrixRegistry registry = new MatrixRegistry(64L << 20);
+        registry.put("M", B);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int k = 0; !done.get(); k++) {
+                registry.put("M", k % 2 == 0 ? twice : B);
+                Thread.yield();
+            }
+        });
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    for (int k = 0; k < 100; k++) {
+                        assertClose(expected, registry.condition("M"), 1e-9, "condition under concurrent updates");
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        done.set(true);
+        writer.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get().getMessage(), failure.get());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import static matrices.DenseMatrixTest.random;
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class MixedPrecisionLUTest {
+
+    private static DenseMatrix wellConditioned(int n, long seed) {
+        DenseMatrix A = random(n, n, seed);
+        for (int i = 0; i < n; i++) {
+            A.add(i, i, Math.sqrt(n));
+        }
+        return A;
+    }
+
+    private static DenseMatrix hilbert(int n) {
+        DenseMatrix H = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                H.set(i, j, 1.0 / (i + j + 1));
+            }
+        }
+        return H;
+    }
+
+    public static void testRefinementReachesDoubleAccuracy() {
+        for (int n : new int[]{5, 64, 150}) {
+            DenseMatrix A = wellConditioned(n, n);
+            MixedPrecisionLU factors = MixedPrecisionLU.factor(A, MixedPrecisionLU.DEFAULT_MAX_CONDITION, null);
+            assertTrue(!factors.isDoublePrecision(), "n = " + n + " keeps the float factors");
+            double[] b = random(n, 1, -n).data();
+            double[] x = new double[n];
+            int steps = factors.solve(b, x);
+            assertTrue(steps >= 1 && steps <= 5, "n = " + n + " refinement steps " + steps);
+            assertClose(LUFactorization.factor(A).solve(b), x, 1e-12, "n = " + n + " matches the double solve");
+            double estimate = factors.conditionEstimate();
+            double exact = matrixOperations.condition(A);
+            assertTrue(estimate <= exact * (1 + 1e-4) && estimate >= exact / 10,
+                    "n = " + n + " condition estimate " + estimate + " against " + exact);
+        }
+    }
+
+    public static void testIllConditionedFallsBackToDouble() {
+        DenseMatrix H = hilbert(10);
+        MixedPrecisionLU factors = MixedPrecisionLU.factor(H);
+        assertTrue(factors.isDoublePrecision(), "Hilbert matrix is factored in double");
+        assertTrue(factors.conditionEstimate() > MixedPrecisionLU.DEFAULT_MAX_CONDITION, "estimate is large");
+        double[] b = new double[10];
+        H.multiply(new double[]{1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, b);
+        double[] x = new double[10];
+        assertTrue(factors.solve(b, x) == 0, "no refinement in double");
+        assertClose(LUFactorization.factor(H).solve(b), x, 0, "same as the double factors");
+    }
+
+    public static void testUnrepresentableInFloatFallsBackToDouble() {
+        DenseMatrix A = wellConditioned(20, 3);
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                A.set(i, j, A.get(i, j) * 1e300);
+            }
+        }
+        MixedPrecisionLU factors = MixedPrecisionLU.factor(A);
+        assertTrue(factors.isDoublePrecision(), "entries beyond float range are factored in double");
+        double[] b = random(20, 1, 4).data();
+        assertClose(LUFactorization.factor(A).solve(b), factors.solve(b), 0, "same as the double factors");
+    }
+
+    public static void testFloatSolveTranspose() {
+        int n = 70;
+        DenseMatrix A = wellConditioned(n, 5);
+        MixedPrecisionLU factors = MixedPrecisionLU.factor(A, MixedPrecisionLU.DEFAULT_MAX_CONDITION, null);
+        assertTrue(!factors.isDoublePrecision(), "keeps the float factors");
+        double[] b = random(n, 1, 6).data();
+        double[] x = new double[n];
+        factors.new FloatSolver().solveTranspose(b, x, new double[n]);
+        double[] expected = new double[n];
+        LUFactorization.factor(A).solveTranspose(b, expected, new double[n]);
+        assertClose(expected, x, 1e-4, "A^T x = b to float accuracy");
+    }
+
+    public static void testSingular() {
+        DenseMatrix A = wellConditioned(8, 7);
+        for (int j = 0; j < 8; j++) {
+            A.set(6, j, 0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MixedPrecisionLU.factor(A));
+    }
+}
@@ -0,0 +1,116 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static matrices.DenseMatrixTest.naiveProduct;
+import static matrices.DenseMatrixTest.random;
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class OutOfCoreTest {
+
+    private static void deleteAll(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toArray(Path[]::new)) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    public static void testMappedMatrix() throws IOException {
+        Path directory = Files.createTempDirectory("mapped");
+        try {
+            Path path = directory.resolve("A.namx");
+            DenseMatrix A = random(70, 45, 1);
+            try (MappedMatrix mapped = MappedMatrix.copyOf(path, A)) {
+                assertClose(A, mapped.toDense(), 0, "copyOf");
+                DenseMatrix block = new DenseMatrix(5, 7);
+                mapped.readBlock(60, 30, block);
+                assertClose(A.subMatrix(60, 30, 5, 7), block, 0, "readBlock");
+                double[] x = random(45, 1, 2).data();
+                double[] expected = new double[70];
+                double[] y = new double[70];
+                A.multiply(x, expected);
+                mapped.multiply(x, y);
+                assertClose(expected, y, 1e-13, "multiply");
+                mapped.set(3, 4, 42);
+                mapped.flush();
+                try (MappedMatrix reopened = MappedMatrix.open(path, false)) {
+                    assertClose(42, reopened.get(3, 4), 0, "set reaches the file");
+                }
+
+                // Recreating the file replaces it, so the open mapping keeps the old contents
+                try (MappedMatrix fresh = MappedMatrix.create(path, 70, 45)) {
+                    assertClose(new DenseMatrix(70, 45), fresh.toDense(), 0, "zero-filled");
+                    assertClose(42, mapped.get(3, 4), 0, "old mapping survives");
+                }
+            }
+            assertThrows(IllegalArgumentException.class, () -> MappedMatrix.create(path, -1, 2));
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    public static void testOutOfCoreLUMatchesInMemory() throws IOException {
+        Path directory = Files.createTempDirectory("lu");
+        try {
+            int n = 150;
+            DenseMatrix A = random(n, n, 3);
+            LUFactors expected = LUFactorization.factor(A);
+            double[] b = random(n, 1, 4).data();
+            // Panels of 1, 64 and 150 columns: a budget below one panel, an uneven split and a single panel
+            for (int width : new int[]{1, 64, n}) {
+                Path path = directory.resolve("A" + width + ".namx");
+                try (MappedMatrix mapped = MappedMatrix.copyOf(path, A)) {
+                    OutOfCoreLU factors = OutOfCoreLU.factor(mapped, width, ForkJoinPool.commonPool());
+                    assertTrue(factors.packed() == mapped, "factored in place");
+                    assertClose(expected.determinant(), factors.determinant(), 1e-10,
+                            "width " + width + " determinant");
+                    double[] x = new double[n];
+                    factors.solve(b, x);
+                    double[] ax = new double[n];
+                    A.multiply(x, ax);
+                    assertClose(b, ax, 1e-10, "width " + width + " residual");
+                    assertClose(expected.solve(b), x, 1e-10, "width " + width + " solution");
+                }
+            }
+            try (MappedMatrix mapped = MappedMatrix.copyOf(directory.resolve("budget.namx"), A)) {
+                OutOfCoreLU factors = OutOfCoreLU.factor(mapped, 16L * n * 40, null);
+                assertClose(expected.determinant(), factors.determinant(), 1e-10, "budgeted determinant");
+                assertThrows(IllegalArgumentException.class, () -> OutOfCoreLU.factor(mapped, 16L * n - 1, null));
+            }
+        } finally {
+            deleteAll(directory);
+        }
+    }
+
+    public static void testOutOfCoreMultiplicationMatchesGemm() throws IOException {
+        Path directory = Files.createTempDirectory("gemm");
+        try {
+            DenseMatrix A = random(130, 70, 5);
+            DenseMatrix B = random(70, 150, 6);
+            DenseMatrix expected = naiveProduct(A, B);
+            try (MappedMatrix a = MappedMatrix.copyOf(directory.resolve("A.namx"), A);
+                 MappedMatrix b = MappedMatrix.copyOf(directory.resolve("B.namx"), B);
+                 MappedMatrix c = MappedMatrix.create(directory.resolve("C.namx"), 130, 150)) {
+                // Panels of 7 and 64 rows or columns, then everything at once
+                for (long budget : new long[]{8L * (2 * 7 * 70 + 7 * 7), 8L * (2 * 64 * 70 + 64 * 64), Long.MAX_VALUE}) {
+                    OutOfCoreMultiplication.multiply(a, b, c, budget, ForkJoinPool.commonPool());
+                    assertClose(expected, c.toDense(), 1e-12, "budget " + budget);
+                }
+                assertThrows(IllegalArgumentException.class,
+                        () -> OutOfCoreMultiplication.multiply(a, a, c, Long.MAX_VALUE, null));
+                assertThrows(IllegalArgumentException.class, () -> OutOfCoreMultiplication.multiply(a, b, c, 1, null));
+            }
+        } finally {
+            deleteAll(directory);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import java.util.concurrent.TimeUnit;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertTrue;
+
+public class SolverStatsTest {
+
+    private static SolverStats.Status run(ConvergenceCriteria criteria, double... residuals) {
+        SolverStats stats = new SolverStats(criteria);
+        for (int k = 0; k < residuals.length; k++) {
+            if (stats.record(k, residuals[k], Double.NaN, k)) {
+                assertTrue(k == residuals.length - 1, "stopped early at iteration " + k + ": " + stats);
+                return stats.status();
+            }
+        }
+        stats.finish();
+        return stats.status();
+    }
+
+    public static void testTransitions() {
+        ConvergenceCriteria criteria = ConvergenceCriteria.defaults().withRelativeTolerance(1e-6)
+                .withDivergenceFactor(10).withMaxIterations(4).withStallWindow(0);
+        assertTrue(run(criteria, 1, 1e-3, 1e-7) == SolverStats.Status.CONVERGED, "converged");
+        assertTrue(run(criteria, 1, 5, 11) == SolverStats.Status.DIVERGED, "diverged");
+        assertTrue(run(criteria, 1, Double.NaN) == SolverStats.Status.DIVERGED, "NaN diverges");
+        assertTrue(run(criteria, 1, 0.5, 0.25, 0.125, 0.0625) == SolverStats.Status.MAX_ITERATIONS,
+                "max iterations");
+        assertTrue(run(criteria, 1, 0.5) == SolverStats.Status.BREAKDOWN, "stopped without meeting a criterion");
+        assertTrue(run(criteria.withStallWindow(2), 1, 1, 1) == SolverStats.Status.STALLED, "stalled");
+    }
+
+    public static void testStallWindowCountsIterationsWithoutProgress() {
+        ConvergenceCriteria criteria = ConvergenceCriteria.defaults().withStallWindow(3);
+        assertTrue(run(criteria, 1, 0.9995, 0.9991, 0.999) == SolverStats.Status.STALLED,
+                "gains below 0.1% do not count as progress");
+        assertTrue(run(criteria, 1, 0.99, 0.98, 0.97, 0.96) == SolverStats.Status.BREAKDOWN,
+                "steady progress never stalls");
+        assertTrue(ConvergenceCriteria.defaults().stallWindow() > 0, "stall detection is on by default");
+    }
+
+    public static void testTimeLimit() throws InterruptedException {
+        SolverStats stats = new SolverStats(ConvergenceCriteria.defaults().withTimeBudget(1, TimeUnit.MILLISECONDS));
+        stats.record(0, 1, Double.NaN, 0);
+        Thread.sleep(5);
+        assertTrue(stats.record(1, 0.5, Double.NaN, 1), "over budget");
+        assertTrue(stats.status() == SolverStats.Status.TIME_LIMIT, "time limit: " + stats);
+    }
+
+    public static void testStepToleranceConverges() {
+        SolverStats stats = new SolverStats(ConvergenceCriteria.defaults().withRelativeTolerance(0).withStepTolerance(1e-3));
+        assertTrue(!stats.record(1, 0.5, 0.1, 0), "large step");
+        assertTrue(stats.record(2, 0.4, 1e-4, 0) && stats.converged(), "small step");
+    }
+
+    public static void testCorrectedResidualCanDrift() {
+        SolverStats stats = new SolverStats(ConvergenceCriteria.defaults().withRelativeTolerance(1e-6));
+        stats.record(0, 1, Double.NaN, 0);
+        assertTrue(stats.record(1, 1e-7, Double.NaN, 10), "updated residual converges");
+        stats.record(1, 1e-8, Double.NaN, 20);
+        assertTrue(stats.converged() && stats.residualHistory().length == 2, "a confirming correction replaces the entry");
+        stats.record(1, 1e-3, Double.NaN, 30);
+        stats.finish();
+        assertTrue(stats.status() == SolverStats.Status.DRIFTED, "a refuting correction drifts: " + stats);
+        assertClose(1e-3, stats.relativeResidual(), 0, "the true residual is reported");
+        assertTrue(stats.iterations() == 1 && stats.flops() == 30, "iterations and flops");
+    }
+
+    public static void testDefaultCriteriaStopAStalledSweep() {
+        // Inconsistent: x0 + x1 = 1 and x0 + x1 = 0; Gauss-Seidel drifts by one per sweep forever
+        CSRMatrix A = CSRMatrix.fromTriplets(2, 2, new int[]{0, 0, 1, 1}, new int[]{0, 1, 0, 1},
+                new double[]{1, 1, 1, 1});
+        double[] x = new double[2];
+        SolverStats stats = JacobiAndGaussSeidel.gaussSeidel(A, new double[]{1, 0}, x, ConvergenceCriteria.defaults(), null);
+        assertTrue(stats.status() == SolverStats.Status.STALLED, "stalled: " + stats);
+        assertTrue(stats.iterations() <= 2 * ConvergenceCriteria.defaults().stallWindow(), "stopped promptly: " + stats);
+    }
+
+    public static void testGaussSeidelConverges() {
+        CSRMatrix A = CSRMatrix.fromTriplets(3, 3, new int[]{0, 0, 1, 1, 1, 2, 2}, new int[]{0, 1, 0, 1, 2, 1, 2},
+                new double[]{4, 2, 2, 10, 4, 4, 5});
+        double[] b = {2, 6, 5};
+        double[] x = new double[3];
+        SolverStats stats = JacobiAndGaussSeidel.gaussSeidel(A, b, x,
+                ConvergenceCriteria.defaults().withRelativeTolerance(1e-12), null);
+        assertTrue(stats.converged(), "converged: " + stats);
+        double[] ax = new double[3];
+        A.multiply(x, ax);
+        assertClose(b, ax, 1e-10, "Ax = b");
+        double[] history = stats.residualHistory();
+        assertTrue(history.length == stats.iterations() && history[history.length - 1] < history[0],
+                "history shrinks");
+    }
+}
@@ -0,0 +1,64 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class SparseMatrixTest {
+
+    public static void testTripletsSumDuplicates() {
+        int[] rows = {0, 2, 0, 1, 2};
+        int[] cols = {1, 0, 1, 2, 2};
+        double[] values = {1, 2, 3, 4, 5};
+        DenseMatrix expected = DenseMatrix.of(new double[][]{{0, 4, 0}, {0, 0, 4}, {2, 0, 5}});
+        CSRMatrix csr = CSRMatrix.fromTriplets(3, 3, rows, cols, values);
+        CSCMatrix csc = CSCMatrix.fromTriplets(3, 3, rows, cols, values);
+        assertTrue(csr.nonZeros() == 4 && csc.nonZeros() == 4, "duplicates are merged");
+        assertClose(expected, csr.toDense(), 0, "CSR");
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertClose(expected.get(i, j), csc.get(i, j), 0, "CSC (" + i + ", " + j + ")");
+            }
+        }
+    }
+
+    public static void testTripletsMatchBuilder() {
+        SparseMatrixBuilder builder = new SparseMatrixBuilder(4, 5);
+        builder.add(3, 4, 1.5).add(0, 0, -2).add(3, 4, 0.5).add(1, 3, 7);
+        CSRMatrix fromArrays = CSRMatrix.fromTriplets(4, 5, new int[]{3, 0, 3, 1}, new int[]{4, 0, 4, 3},
+                new double[]{1.5, -2, 0.5, 7});
+        assertClose(builder.buildCSR().toDense(), fromArrays.toDense(), 0, "builder and triplets agree");
+    }
+
+    public static void testTripletsRejectBadInput() {
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> CSRMatrix.fromTriplets(2, 2, new int[]{0, 2}, new int[]{0, 1}, new double[]{1, 1}));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> CSCMatrix.fromTriplets(2, 2, new int[]{0, 1}, new int[]{-1, 1}, new double[]{1, 1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CSRMatrix.fromTriplets(2, 2, new int[]{0}, new int[]{0, 1}, new double[]{1, 1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CSCMatrix.fromTriplets(2, 2, new int[]{0, 1}, new int[]{0, 1}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CSRMatrix.fromTriplets(-1, 2, new int[0], new int[0], new double[0]));
+    }
+
+    public static void testConstructorRejectsMalformedArrays() {
+        double[] values = {1, 2, 3};
+        CSRMatrix valid = new CSRMatrix(2, 3, new int[]{0, 2, 3}, new int[]{0, 2, 1}, values);
+        assertClose(2, valid.get(0, 2), 0, "valid arrays are wrapped");
+        assertThrows(IllegalArgumentException.class,
+                () -> new CSRMatrix(2, 3, new int[]{0, 2, 3}, new int[]{2, 0, 1}, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CSRMatrix(2, 3, new int[]{0, 2, 3}, new int[]{0, 0, 1}, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CSRMatrix(2, 3, new int[]{0, 2, 3}, new int[]{0, 3, 1}, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CSRMatrix(2, 3, new int[]{0, 3, 2}, new int[]{0, 1, 2}, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CSRMatrix(2, 3, new int[]{1, 2, 3}, new int[]{0, 1, 2}, values));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CSCMatrix(3, 2, new int[]{0, 2, 3}, new int[]{1, -1, 0}, values));
+    }
+}
@@ -0,0 +1,123 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices;
+
+import static matrices.DenseMatrixTest.naiveProduct;
+import static matrices.DenseMatrixTest.random;
+import static testing.Assert.assertClose;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class UpdatableLUTest {
+    private static final int N = 40;
+
+    private static DenseMatrix wellConditioned(long seed) {
+        DenseMatrix A = random(N, N, seed);
+        for (int i = 0; i < N; i++) {
+            A.add(i, i, N);
+        }
+        return A;
+    }
+
+    /**
+     * Checks the tracked matrix, its solves and its inverse against a fresh factorization of expected.
+     */
+    private static void assertTracks(DenseMatrix expected, UpdatableLU updatable, String message) {
+        assertClose(expected, updatable.matrix(), 1e-13, message + " matrix");
+        LUFactors fresh = LUFactorization.factor(expected);
+        double[] b = random(N, 1, 99).data();
+        double[] x = new double[N];
+        updatable.solve(b, x);
+        assertClose(fresh.solve(b), x, 1e-10, message + " solve");
+        assertClose(fresh.inverse(), updatable.inverse(), 1e-10, message + " inverse");
+        assertClose(fresh.determinant(), updatable.factors().determinant(), 1e-10, message + " determinant");
+    }
+
+    private static void addOuter(DenseMatrix A, double[] x, double[] y) {
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                A.add(i, j, x[i] * y[j]);
+            }
+        }
+    }
+
+    public static void testRankOneUpdateAndDowndate() {
+        DenseMatrix expected = wellConditioned(1);
+        UpdatableLU updatable = new UpdatableLU(expected, 1e-8, null);
+        updatable.inverse();
+        double[] x = random(N, 1, 2).data();
+        double[] y = random(N, 1, 3).data();
+        updatable.rankOneUpdate(x, y);
+        addOuter(expected, x, y);
+        assertTracks(expected, updatable, "update");
+
+        double[] minusX = x.clone();
+        for (int i = 0; i < N; i++) {
+            minusX[i] = -x[i];
+        }
+        updatable.rankOneUpdate(minusX, y);
+        addOuter(expected, minusX, y);
+        assertTracks(expected, updatable, "downdate");
+        assertTrue(updatable.updates() == 2, "two updates");
+    }
+
+    public static void testRankUpdate() {
+        DenseMatrix expected = wellConditioned(4);
+        UpdatableLU updatable = new UpdatableLU(expected, 1e-8, null);
+        updatable.inverse();
+        DenseMatrix X = random(N, 3, 5);
+        DenseMatrix Y = random(N, 3, 6);
+        updatable.rankUpdate(X, Y);
+        expected = expected.copy();
+        MatrixMultiplication.multiply(1.0, X, Y.transpose(), 1.0, expected, null);
+        assertTracks(expected, updatable, "rank 3");
+        assertThrows(IllegalArgumentException.class, () -> updatable.rankUpdate(X, random(N, 2, 7)));
+    }
+
+    public static void testReplaceRowAndColumn() {
+        DenseMatrix expected = wellConditioned(8);
+        UpdatableLU updatable = new UpdatableLU(expected, 1e-8, null);
+        double[] row = random(N, 1, 9).data();
+        row[5] += N;
+        updatable.replaceRow(5, row);
+        for (int j = 0; j < N; j++) {
+            expected.set(5, j, row[j]);
+        }
+        assertTracks(expected, updatable, "row");
+
+        double[] column = random(N, 1, 10).data();
+        column[17] += N;
+        updatable.replaceColumn(17, column);
+        for (int i = 0; i < N; i++) {
+            expected.set(i, 17, column[i]);
+        }
+        assertTracks(expected, updatable, "column");
+        assertTrue(updatable.refactorizations() == 1, "no refactorization was needed");
+    }
+
+    public static void testDriftTriggersRefactorization() {
+        DenseMatrix A = DenseMatrix.of(new double[][]{{1, 1}, {1, 0}});
+        UpdatableLU updatable = new UpdatableLU(A, 1e-8, null);
+        assertTrue(updatable.refactorizations() == 1, "initial factorization");
+        // [[1e-14, 1], [1, 0]] is well conditioned, but the kept pivot order needs a multiplier of 1e14
+        updatable.rankOneUpdate(new double[]{1, 0}, new double[]{-1 + 1e-14, 0});
+        assertTrue(updatable.refactorizations() == 2, "drift forced a refactorization");
+        assertTrue(updatable.drift() <= 1e-8, "fresh factors are accurate: " + updatable.drift());
+        double[] x = new double[2];
+        updatable.solve(new double[]{1, 1}, x);
+        assertClose(new double[]{1, 1 - updatable.matrix().get(0, 0)}, x, 1e-13, "solve after refactoring");
+    }
+
+    public static void testSingularUpdateIsUndone() {
+        DenseMatrix A = wellConditioned(11);
+        UpdatableLU updatable = new UpdatableLU(A, 1e-8, null);
+        DenseMatrix inverse = updatable.inverse().copy();
+        double[] x = new double[N];
+        double[] y = new double[N];
+        A.getRow(3, y);
+        x[3] = -1;
+        assertThrows(IllegalArgumentException.class, () -> updatable.rankOneUpdate(x, y));
+        assertTracks(A, updatable, "restored");
+        assertClose(inverse, updatable.inverse(), 1e-12, "inverse restored");
+        assertClose(DenseMatrix.identity(N), naiveProduct(A, updatable.inverse()), 1e-12, "A A^-1");
+    }
+}
@@ -0,0 +1,122 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package matrices.krylov;
+
+import matrices.CSRMatrix;
+import matrices.SparseMatrixBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static testing.Assert.assertTrue;
+
+public class KrylovSolverTest {
+    private static final int GRID = 12;
+    private static final int N = GRID * GRID;
+    private static final double TOLERANCE = 1e-10;
+
+    /**
+     * The five-point Laplacian on a GRID x GRID grid, with the east and west couplings skewed by
+     * the given amount; 0 gives a symmetric positive definite matrix.
+     */
+    private static CSRMatrix grid(double skew) {
+        SparseMatrixBuilder builder = new SparseMatrixBuilder(N, N);
+        for (int i = 0; i < GRID; i++) {
+            for (int j = 0; j < GRID; j++) {
+                int row = i * GRID + j;
+                builder.add(row, row, 4);
+                if (i > 0) {
+                    builder.add(row, row - GRID, -1);
+                }
+                if (i < GRID - 1) {
+                    builder.add(row, row + GRID, -1);
+                }
+                if (j > 0) {
+                    builder.add(row, row - 1, -1 - skew);
+                }
+                if (j < GRID - 1) {
+                    builder.add(row, row + 1, -1 + skew);
+                }
+            }
+        }
+        return builder.buildCSR();
+    }
+
+    private static double[] rightHandSide() {
+        double[] b = new double[N];
+        for (int i = 0; i < N; i++) {
+            b[i] = Math.sin(i + 1);
+        }
+        return b;
+    }
+
+    private static Map<String, Preconditioner> preconditioners(CSRMatrix A, boolean symmetric) {
+        Map<String, Preconditioner> preconditioners = new LinkedHashMap<>();
+        preconditioners.put("none", Preconditioner.NONE);
+        preconditioners.put("Jacobi", new JacobiPreconditioner(A));
+        preconditioners.put("SSOR", new SSORPreconditioner(A, 1.2));
+        preconditioners.put("ILU0", new ILU0Preconditioner(A));
+        if (symmetric) {
+            preconditioners.put("IC", new IncompleteCholeskyPreconditioner(A));
+        }
+        return preconditioners;
+    }
+
+    /**
+     * Solves with every preconditioner, checks the true residual of each result and that the
+     * incomplete factorizations beat the unpreconditioned solve.
+     */
+    private static void check(String name, Supplier<KrylovSolver> solvers, CSRMatrix A, boolean symmetric) {
+        double[] b = rightHandSide();
+        int plain = -1;
+        for (Map.Entry<String, Preconditioner> entry : preconditioners(A, symmetric).entrySet()) {
+            String label = name + " with " + entry.getKey();
+            KrylovSolver solver = solvers.get();
+            solver.setPreconditioner(entry.getValue());
+            double[] x = new double[N];
+            assertTrue(solver.solve(A, b, x), label + " converges: " + solver.stats());
+            assertTrue(residual(A, b, x) <= 10 * TOLERANCE, label + " true residual " + residual(A, b, x));
+            if (plain < 0) {
+                plain = solver.iterations();
+            } else if (!entry.getKey().equals("Jacobi")) {
+                assertTrue(solver.iterations() < plain, label + " takes " + solver.iterations()
+                        + " iterations, unpreconditioned " + plain);
+            }
+        }
+    }
+
+    private static double residual(CSRMatrix A, double[] b, double[] x) {
+        double[] ax = new double[N];
+        A.multiply(x, ax);
+        double r = 0;
+        double bb = 0;
+        for (int i = 0; i < N; i++) {
+            r += (b[i] - ax[i]) * (b[i] - ax[i]);
+            bb += b[i] * b[i];
+        }
+        return Math.sqrt(r / bb);
+    }
+
+    public static void testConjugateGradient() {
+        check("CG", () -> new ConjugateGradient(N, TOLERANCE, 1000), grid(0), true);
+    }
+
+    public static void testGMRES() {
+        check("GMRES", () -> new GMRES(N, 30, TOLERANCE, 1000), grid(0), true);
+        check("GMRES", () -> new GMRES(N, 30, TOLERANCE, 1000), grid(0.4), false);
+    }
+
+    public static void testBiCGSTAB() {
+        check("BiCGSTAB", () -> new BiCGSTAB(N, TOLERANCE, 1000), grid(0), true);
+        check("BiCGSTAB", () -> new BiCGSTAB(N, TOLERANCE, 1000), grid(0.4), false);
+    }
+
+    public static void testZeroRightHandSide() {
+        CSRMatrix A = grid(0.4);
+        double[] x = new double[N];
+        BiCGSTAB solver = new BiCGSTAB(N, TOLERANCE, 1000);
+        assertTrue(solver.solve(A, new double[N], x) && solver.iterations() == 0, "x = 0 solves Ax = 0 at once");
+        assertTrue(!new ConjugateGradient(N, TOLERANCE, 3).solve(grid(0), rightHandSide(), x),
+                "three CG iterations are not enough");
+    }
+}
@@ -0,0 +1,66 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package testing;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Runs every public static no-argument method whose name starts with "test" in the listed test
+ * classes, prints one line per failure and a summary, and exits with status 1 if any failed.
+ * Usage: {@code AllTests [class...]}, which defaults to {@link #CLASSES}.
+ */
+public class AllTests {
+    private static final String[] CLASSES = {
+            "matrices.DenseMatrixTest",
+            "matrices.MatrixMultiplicationTest",
+            "matrices.LUFactorizationTest",
+            "matrices.SparseMatrixTest",
+            "matrices.krylov.KrylovSolverTest",
+            "matrices.SolverStatsTest",
+            "matrices.KernelsTest",
+            "matrices.MatrixOperationsTest",
+            "matrices.OutOfCoreTest",
+            "matrices.MatrixFileTest",
+            "matrices.MatrixMarketTest",
+            "matrices.MatrixBatchTest",
+            "matrices.MatrixRegistryTest",
+            "matrices.UpdatableLUTest",
+            "matrices.MixedPrecisionLUTest",
+            "interpolation.BarycentricInterpolatorTest",
+            "interpolation.NewtonInterpolatorTest",
+            "interpolation.PiecewiseLinearTableTest",
+            "interpolation.CubicSplineTest",
+            "interpolation.BlockKernelsTest",
+            "batch.BatchRunnerTest",
+    };
+
+    public static void main(String[] args) throws ClassNotFoundException, IllegalAccessException {
+        String[] classes = args.length > 0 ? args : CLASSES;
+        int run = 0;
+        int failed = 0;
+        for (String name : classes) {
+            Method[] methods = Class.forName(name).getMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                if (!method.getName().startsWith("test") || !Modifier.isStatic(method.getModifiers())
+                        || method.getParameterCount() != 0) {
+                    continue;
+                }
+                run++;
+                try {
+                    method.invoke(null);
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.out.println("FAIL " + name + "." + method.getName() + ": " + e.getCause());
+                }
+            }
+        }
+        System.out.println(run + " tests, " + failed + " failed");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+}
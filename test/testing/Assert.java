@@ -0,0 +1,85 @@
+// https://github.com/matanof2/Numeric_Analysis.git
+package testing;
+
+import matrices.DenseMatrix;
+
+/**
+ * The checks used by the tests. A failed check throws an AssertionError, which
+ * {@link AllTests} reports against the test method that raised it.
+ */
+public final class Assert {
+
+    private Assert() {
+    }
+
+    public static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Checks |expected - actual| <= tolerance * max(1, |expected|).
+     *
+     * @param expected  the reference value
+     * @param actual    the value under test
+     * @param tolerance the allowed relative error, absolute near zero
+     * @param message   describes the value
+     */
+    public static void assertClose(double expected, double actual, double tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance * Math.max(1, Math.abs(expected)))) {
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    /**
+     * Checks two vectors elementwise with {@link #assertClose(double, double, double, String)}.
+     */
+    public static void assertClose(double[] expected, double[] actual, double tolerance, String message) {
+        assertTrue(expected.length == actual.length, message + ": expected length " + expected.length
+                + " but was " + actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertClose(expected[i], actual[i], tolerance, message + " [" + i + "]");
+        }
+    }
+
+    /**
+     * Checks two matrices elementwise with {@link #assertClose(double, double, double, String)}.
+     */
+    public static void assertClose(DenseMatrix expected, DenseMatrix actual, double tolerance, String message) {
+        assertTrue(expected.rows() == actual.rows() && expected.cols() == actual.cols(), message + ": expected "
+                + expected.rows() + "x" + expected.cols() + " but was " + actual.rows() + "x" + actual.cols());
+        for (int i = 0; i < expected.rows(); i++) {
+            for (int j = 0; j < expected.cols(); j++) {
+                assertClose(expected.get(i, j), actual.get(i, j), tolerance, message + " (" + i + ", " + j + ")");
+            }
+        }
+    }
+
+    /**
+     * Code under test for {@link #assertThrows(Class, Action)}, which may throw checked exceptions.
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Checks that the action throws an exception of the given type.
+     *
+     * @param type   the expected exception type
+     * @param action the code under test
+     * @return the exception thrown
+     */
+    public static <T extends Throwable> T assertThrows(Class<T> type, Action action) {
+        try {
+            action.run();
+        } catch (Throwable thrown) {
+            if (type.isInstance(thrown)) {
+                return type.cast(thrown);
+            }
+            throw new AssertionError("Expected " + type.getSimpleName() + " but got " + thrown, thrown);
+        }
+        throw new AssertionError("Expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+}